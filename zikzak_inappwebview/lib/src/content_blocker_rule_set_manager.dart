@@ -0,0 +1,66 @@
+import 'dart:async';
+import 'package:zikzak_inappwebview_platform_interface/zikzak_inappwebview_platform_interface.dart';
+
+///{@macro zikzak_inappwebview_platform_interface.PlatformContentBlockerRuleSetManager}
+class ContentBlockerRuleSetManager {
+  ///{@macro zikzak_inappwebview_platform_interface.PlatformContentBlockerRuleSetManager}
+  ContentBlockerRuleSetManager()
+    : this.fromPlatformCreationParams(
+        const PlatformContentBlockerRuleSetManagerCreationParams(),
+      );
+
+  /// Constructs a [ContentBlockerRuleSetManager] from creation params for a specific
+  /// platform.
+  ContentBlockerRuleSetManager.fromPlatformCreationParams(
+    PlatformContentBlockerRuleSetManagerCreationParams params,
+  ) : this.fromPlatform(PlatformContentBlockerRuleSetManager(params));
+
+  /// Constructs a [ContentBlockerRuleSetManager] from a specific platform
+  /// implementation.
+  ContentBlockerRuleSetManager.fromPlatform(this.platform);
+
+  /// Implementation of [PlatformContentBlockerRuleSetManager] for the current platform.
+  final PlatformContentBlockerRuleSetManager platform;
+
+  static ContentBlockerRuleSetManager? _instance;
+
+  ///Gets the [ContentBlockerRuleSetManager] shared instance.
+  static ContentBlockerRuleSetManager instance() {
+    _instance ??= ContentBlockerRuleSetManager();
+    return _instance!;
+  }
+
+  ///{@macro zikzak_inappwebview_platform_interface.PlatformContentBlockerRuleSetManager.compileRuleSet}
+  Future<void> compileRuleSet({
+    required String identifier,
+    required List<ContentBlocker> contentBlockers,
+    bool persist = false,
+  }) => platform.compileRuleSet(
+    identifier: identifier,
+    contentBlockers: contentBlockers,
+    persist: persist,
+  );
+
+  ///{@macro zikzak_inappwebview_platform_interface.PlatformContentBlockerRuleSetManager.loadRuleSet}
+  Future<bool> loadRuleSet({required String identifier}) =>
+      platform.loadRuleSet(identifier: identifier);
+
+  ///{@macro zikzak_inappwebview_platform_interface.PlatformContentBlockerRuleSetManager.updateRuleSet}
+  Future<int?> updateRuleSet({
+    required String identifier,
+    List<ContentBlocker> addedContentBlockers = const [],
+    List<String> removedIds = const [],
+  }) => platform.updateRuleSet(
+    identifier: identifier,
+    addedContentBlockers: addedContentBlockers,
+    removedIds: removedIds,
+  );
+
+  ///{@macro zikzak_inappwebview_platform_interface.PlatformContentBlockerRuleSetManager.removeRuleSet}
+  Future<bool> removeRuleSet({required String identifier}) =>
+      platform.removeRuleSet(identifier: identifier);
+
+  ///{@macro zikzak_inappwebview_platform_interface.PlatformContentBlockerRuleSetManager.getRuleSetIdentifiers}
+  Future<List<String>> getRuleSetIdentifiers() =>
+      platform.getRuleSetIdentifiers();
+}
@@ -444,6 +444,11 @@ class InAppWebViewController implements Disposable {
   ///{@macro zikzak_inappwebview_platform_interface.PlatformInAppWebViewController.isInFullscreen}
   Future<bool> isInFullscreen() => platform.isInFullscreen();
 
+  ///{@macro zikzak_inappwebview_platform_interface.PlatformInAppWebViewController.getContentBlockerStatistics}
+  Future<Map<String, dynamic>?> getContentBlockerStatistics({
+    bool reset = false,
+  }) => platform.getContentBlockerStatistics(reset: reset);
+
   ///{@macro zikzak_inappwebview_platform_interface.PlatformInAppWebViewController.clearFormData}
   Future<void> clearFormData() => platform.clearFormData();
 
@@ -553,6 +558,28 @@ class InAppWebViewController implements Disposable {
         includeDiskFiles: includeDiskFiles,
       );
 
+  ///{@macro zikzak_inappwebview_platform_interface.PlatformInAppWebViewController.setSyncCallDeadline}
+  static Future<bool> setSyncCallDeadline({
+    required SyncCallSite callSite,
+    required Duration deadline,
+    SyncCallFallbackPolicy fallbackPolicy = SyncCallFallbackPolicy.PASS_THROUGH,
+  }) => PlatformInAppWebViewController.static().setSyncCallDeadline(
+    callSite: callSite,
+    deadline: deadline,
+    fallbackPolicy: fallbackPolicy,
+  );
+
+  ///{@macro zikzak_inappwebview_platform_interface.PlatformInAppWebViewController.getSyncCallDeadlineStatistics}
+  static Future<Map<String, dynamic>> getSyncCallDeadlineStatistics({
+    bool reset = false,
+  }) => PlatformInAppWebViewController.static().getSyncCallDeadlineStatistics(
+    reset: reset,
+  );
+
+  ///{@macro zikzak_inappwebview_platform_interface.PlatformInAppWebViewController.clearInterceptedResponseCache}
+  static Future<bool> clearInterceptedResponseCache() =>
+      PlatformInAppWebViewController.static().clearInterceptedResponseCache();
+
   ///{@macro zikzak_inappwebview_platform_interface.PlatformInAppWebViewController.tRexRunnerHtml}
   static Future<String> get tRexRunnerHtml =>
       PlatformInAppWebViewController.static().tRexRunnerHtml;
@@ -13,6 +13,8 @@ export 'service_worker_controller.dart';
 export 'proxy_controller.dart';
 export 'webview_asset_loader.dart';
 export 'tracing_controller.dart';
+export 'response_body_stream.dart';
+export 'content_blocker_rule_set_manager.dart';
 export 'process_global_config.dart';
 export 'in_app_localhost_server.dart';
 export 'webview_environment/main.dart';
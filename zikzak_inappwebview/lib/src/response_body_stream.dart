@@ -0,0 +1,40 @@
+import 'dart:async';
+import 'dart:typed_data';
+import 'package:zikzak_inappwebview_platform_interface/zikzak_inappwebview_platform_interface.dart';
+
+///{@macro zikzak_inappwebview_platform_interface.PlatformResponseBodyStream}
+class ResponseBodyStream {
+  ///{@macro zikzak_inappwebview_platform_interface.PlatformResponseBodyStream}
+  ResponseBodyStream()
+    : this.fromPlatformCreationParams(
+        const PlatformResponseBodyStreamCreationParams(),
+      );
+
+  /// Constructs a [ResponseBodyStream] from creation params for a specific
+  /// platform.
+  ResponseBodyStream.fromPlatformCreationParams(
+    PlatformResponseBodyStreamCreationParams params,
+  ) : this.fromPlatform(PlatformResponseBodyStream(params));
+
+  /// Constructs a [ResponseBodyStream] from a specific platform
+  /// implementation.
+  ResponseBodyStream.fromPlatform(this.platform);
+
+  /// Implementation of [PlatformResponseBodyStream] for the current platform.
+  final PlatformResponseBodyStream platform;
+
+  ///{@macro zikzak_inappwebview_platform_interface.PlatformResponseBodyStream.id}
+  String get id => platform.id;
+
+  ///{@macro zikzak_inappwebview_platform_interface.PlatformResponseBodyStream.write}
+  Future<bool> write(Uint8List data) => platform.write(data);
+
+  ///{@macro zikzak_inappwebview_platform_interface.PlatformResponseBodyStream.finish}
+  Future<void> finish() => platform.finish();
+
+  ///{@macro zikzak_inappwebview_platform_interface.PlatformResponseBodyStream.error}
+  Future<void> error(String message) => platform.error(message);
+
+  ///{@macro zikzak_inappwebview_platform_interface.PlatformResponseBodyStream.pipe}
+  Future<void> pipe(Stream<List<int>> stream) => platform.pipe(stream);
+}
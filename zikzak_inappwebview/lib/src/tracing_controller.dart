@@ -39,4 +39,21 @@ class TracingController {
 
   ///{@macro zikzak_inappwebview_platform_interface.PlatformTracingController.isTracing}
   Future<bool> isTracing() => platform.isTracing();
+
+  ///{@macro zikzak_inappwebview_platform_interface.PlatformTracingController.setInterceptRequestTracingEnabled}
+  Future<void> setInterceptRequestTracingEnabled(bool enabled) =>
+      platform.setInterceptRequestTracingEnabled(enabled);
+
+  ///{@macro zikzak_inappwebview_platform_interface.PlatformTracingController.getInterceptRequestTraceStatistics}
+  Future<Map<String, dynamic>> getInterceptRequestTraceStatistics({
+    bool reset = false,
+  }) => platform.getInterceptRequestTraceStatistics(reset: reset);
+
+  ///{@macro zikzak_inappwebview_platform_interface.PlatformTracingController.exportInterceptRequestTrace}
+  Future<String> exportInterceptRequestTrace() =>
+      platform.exportInterceptRequestTrace();
+
+  ///{@macro zikzak_inappwebview_platform_interface.PlatformTracingController.exportInterceptRequestTraceToFile}
+  Future<bool> exportInterceptRequestTraceToFile({required String filePath}) =>
+      platform.exportInterceptRequestTraceToFile(filePath: filePath);
 }
@@ -35,12 +35,17 @@ abstract class PathHandler
 ///{@macro zikzak_inappwebview_platform_interface.PlatformAssetsPathHandler}
 class AssetsPathHandler extends PathHandler {
   ///{@macro zikzak_inappwebview_platform_interface.PlatformAssetsPathHandler}
-  AssetsPathHandler({required String path})
-    : this.fromPlatformCreationParams(
-        params: PlatformAssetsPathHandlerCreationParams(
-          PlatformPathHandlerCreationParams(path: path),
-        ),
-      );
+  AssetsPathHandler({
+    required String path,
+    bool precompressed = false,
+    String? precompressedManifest,
+  }) : this.fromPlatformCreationParams(
+         params: PlatformAssetsPathHandlerCreationParams(
+           PlatformPathHandlerCreationParams(path: path),
+           precompressed: precompressed,
+           precompressedManifest: precompressedManifest,
+         ),
+       );
 
   /// Constructs a [AssetsPathHandler].
   ///
@@ -89,13 +94,19 @@ class ResourcesPathHandler extends PathHandler {
 ///{@macro zikzak_inappwebview_platform_interface.PlatformInternalStoragePathHandler}
 class InternalStoragePathHandler extends PathHandler {
   ///{@macro zikzak_inappwebview_platform_interface.PlatformInternalStoragePathHandler}
-  InternalStoragePathHandler({required String path, required String directory})
-    : this.fromPlatformCreationParams(
-        params: PlatformInternalStoragePathHandlerCreationParams(
-          PlatformPathHandlerCreationParams(path: path),
-          directory: directory,
-        ),
-      );
+  InternalStoragePathHandler({
+    required String path,
+    required String directory,
+    bool precompressed = false,
+    String? precompressedManifest,
+  }) : this.fromPlatformCreationParams(
+         params: PlatformInternalStoragePathHandlerCreationParams(
+           PlatformPathHandlerCreationParams(path: path),
+           directory: directory,
+           precompressed: precompressed,
+           precompressedManifest: precompressedManifest,
+         ),
+       );
 
   /// Constructs a [InternalStoragePathHandler].
   ///
@@ -116,6 +127,42 @@ class InternalStoragePathHandler extends PathHandler {
   String get directory => platform.directory;
 }
 
+///{@macro zikzak_inappwebview_platform_interface.PlatformMappedFilePathHandler}
+class MappedFilePathHandler extends PathHandler {
+  ///{@macro zikzak_inappwebview_platform_interface.PlatformMappedFilePathHandler}
+  MappedFilePathHandler({
+    required String path,
+    required String directory,
+    bool precompressed = false,
+    String? precompressedManifest,
+  }) : this.fromPlatformCreationParams(
+         params: PlatformMappedFilePathHandlerCreationParams(
+           PlatformPathHandlerCreationParams(path: path),
+           directory: directory,
+           precompressed: precompressed,
+           precompressedManifest: precompressedManifest,
+         ),
+       );
+
+  /// Constructs a [MappedFilePathHandler].
+  ///
+  /// See [MappedFilePathHandler.fromPlatformCreationParams] for setting parameters for
+  /// a specific platform.
+  MappedFilePathHandler.fromPlatformCreationParams({
+    required PlatformMappedFilePathHandlerCreationParams params,
+  }) : this.fromPlatform(platform: PlatformMappedFilePathHandler(params));
+
+  /// Constructs a [MappedFilePathHandler] from a specific platform implementation.
+  MappedFilePathHandler.fromPlatform({required this.platform})
+    : super.fromPlatform(platform: platform);
+
+  /// Implementation of [PlatformMappedFilePathHandler] for the current platform.
+  @override
+  final PlatformMappedFilePathHandler platform;
+
+  String get directory => platform.directory;
+}
+
 ///{@macro zikzak_inappwebview_platform_interface.PlatformCustomPathHandler}
 abstract class CustomPathHandler extends PathHandler {
   ///{@macro zikzak_inappwebview_platform_interface.PlatformCustomPathHandler}
@@ -8,6 +8,7 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
 import wtf.zikzak.zikzak_inappwebview_android.chrome_custom_tabs.ChromeSafariBrowserManager;
+import wtf.zikzak.zikzak_inappwebview_android.content_blocker.ContentBlockerManager;
 import wtf.zikzak.zikzak_inappwebview_android.chrome_custom_tabs.NoHistoryCustomTabsActivityCallbacks;
 import wtf.zikzak.zikzak_inappwebview_android.credential_database.CredentialDatabaseHandler;
 import wtf.zikzak.zikzak_inappwebview_android.headless_in_app_webview.HeadlessInAppWebViewManager;
@@ -15,6 +16,7 @@ import wtf.zikzak.zikzak_inappwebview_android.in_app_browser.InAppBrowserManager
 import wtf.zikzak.zikzak_inappwebview_android.print_job.PrintJobManager;
 import wtf.zikzak.zikzak_inappwebview_android.process_global_config.ProcessGlobalConfigManager;
 import wtf.zikzak.zikzak_inappwebview_android.proxy.ProxyManager;
+import wtf.zikzak.zikzak_inappwebview_android.response_body_stream.ResponseBodyStreamManager;
 import wtf.zikzak.zikzak_inappwebview_android.service_worker.ServiceWorkerManager;
 import wtf.zikzak.zikzak_inappwebview_android.tracing.TracingControllerManager;
 import wtf.zikzak.zikzak_inappwebview_android.webview.FlutterWebViewFactory;
@@ -60,6 +62,10 @@ public class InAppWebViewFlutterPlugin implements FlutterPlugin, ActivityAware {
   public TracingControllerManager tracingControllerManager;
   @Nullable
   public ProcessGlobalConfigManager processGlobalConfigManager;
+  @Nullable
+  public ContentBlockerManager contentBlockerManager;
+  @Nullable
+  public ResponseBodyStreamManager responseBodyStreamManager;
   public FlutterWebViewFactory flutterWebViewFactory;
   public Context applicationContext;
   public BinaryMessenger messenger;
@@ -114,6 +120,8 @@ public class InAppWebViewFlutterPlugin implements FlutterPlugin, ActivityAware {
     }
     tracingControllerManager = new TracingControllerManager(this);
     processGlobalConfigManager = new ProcessGlobalConfigManager(this);
+    contentBlockerManager = new ContentBlockerManager(this);
+    responseBodyStreamManager = new ResponseBodyStreamManager(this);
   }
 
   @Override
@@ -178,6 +186,14 @@ public class InAppWebViewFlutterPlugin implements FlutterPlugin, ActivityAware {
       processGlobalConfigManager.dispose();
       processGlobalConfigManager = null;
     }
+    if (contentBlockerManager != null) {
+      contentBlockerManager.dispose();
+      contentBlockerManager = null;
+    }
+    if (responseBodyStreamManager != null) {
+      responseBodyStreamManager.dispose();
+      responseBodyStreamManager = null;
+    }
   }
 
   @Override
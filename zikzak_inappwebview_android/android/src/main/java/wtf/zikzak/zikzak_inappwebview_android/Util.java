@@ -52,6 +52,8 @@ import java.util.Enumeration;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.regex.Pattern;
 
 import javax.net.ssl.SSLHandshakeException;
@@ -110,6 +112,34 @@ public class Util {
     return callback.result;
   }
 
+  /**
+   * Same as {@link #invokeMethodAndWaitResult(MethodChannel, String, Object, SyncBaseCallbackResultImpl)},
+   * but waits at most {@code timeoutMillis} for the result.
+   *
+   * @throws TimeoutException if Dart didn't return a result in time. A late result is released,
+   *                          see {@link SyncBaseCallbackResultImpl#abandon()}.
+   */
+  public static <T> T invokeMethodAndWaitResult(final @NonNull MethodChannel channel,
+                                                final @NonNull String method, final @Nullable Object arguments,
+                                                final @NonNull SyncBaseCallbackResultImpl<T> callback,
+                                                long timeoutMillis) throws InterruptedException, TimeoutException {
+    Handler handler = new Handler(Looper.getMainLooper());
+    handler.post(new Runnable() {
+      @Override
+      public void run() {
+        channel.invokeMethod(method, arguments, callback);
+      }
+    });
+    if (!callback.latch.await(timeoutMillis, TimeUnit.MILLISECONDS)) {
+      if (callback.abandon()) {
+        throw new TimeoutException(method + " didn't return a result within " + timeoutMillis + " ms");
+      }
+      // the result arrived meanwhile and is being delivered
+      callback.latch.await();
+    }
+    return callback.result;
+  }
+
   @Nullable
   public static PrivateKeyAndCertificates loadPrivateKeyAndCertificate(@NonNull InAppWebViewFlutterPlugin plugin,
                                                                        @NonNull String certificatePath,
@@ -169,6 +199,23 @@ public class Util {
 
   @Nullable
   public static HttpURLConnection makeHttpRequest(String urlString, String method, @Nullable Map<String, String> headers) {
+    try {
+      return openHttpConnection(urlString, method, headers);
+    }
+    catch (Exception e) {
+      if (!(e instanceof SSLHandshakeException)) {
+        Log.e(LOG_TAG, "", e);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Same as {@link #makeHttpRequest}, but throws the connection error, so that callers can tell
+   * e.g. a TLS failure from a timeout.
+   */
+  @NonNull
+  public static HttpURLConnection openHttpConnection(String urlString, String method, @Nullable Map<String, String> headers) throws IOException {
     HttpURLConnection urlConnection = null;
     try {
       URL url = new URL(urlString);
@@ -189,15 +236,12 @@ public class Util {
       urlConnection.connect();
       return urlConnection;
     }
-    catch (Exception e) {
-      if (!(e instanceof SSLHandshakeException)) {
-        Log.e(LOG_TAG, "", e);
-      }
+    catch (IOException | RuntimeException e) {
       if (urlConnection != null) {
         urlConnection.disconnect();
       }
+      throw e;
     }
-    return null;
   }
 
   /**
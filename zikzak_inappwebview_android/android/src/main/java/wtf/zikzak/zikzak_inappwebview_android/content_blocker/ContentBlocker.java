@@ -1,16 +1,24 @@
 package wtf.zikzak.zikzak_inappwebview_android.content_blocker;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
 public class ContentBlocker {
     @NonNull
     private ContentBlockerTrigger trigger;
     @NonNull
     private ContentBlockerAction action;
+    @Nullable
+    private String identifier;
 
     public ContentBlocker (@NonNull ContentBlockerTrigger trigger, @NonNull ContentBlockerAction action) {
+        this(trigger, action, null);
+    }
+
+    public ContentBlocker (@NonNull ContentBlockerTrigger trigger, @NonNull ContentBlockerAction action, @Nullable String identifier) {
         this.trigger = trigger;
         this.action = action;
+        this.identifier = identifier;
     }
 
     @NonNull
@@ -31,6 +39,18 @@ public class ContentBlocker {
         this.action = action;
     }
 
+    /**
+     * Returns the identifier of a rule added to a {@link ContentBlockerRuleSet} by id, {@code null} otherwise.
+     */
+    @Nullable
+    public String getIdentifier() {
+        return identifier;
+    }
+
+    public void setIdentifier(@Nullable String identifier) {
+        this.identifier = identifier;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -54,6 +74,7 @@ public class ContentBlocker {
         return "ContentBlocker{" +
                 "trigger=" + trigger +
                 ", action=" + action +
+                ", identifier='" + identifier + '\'' +
                 '}';
     }
 }
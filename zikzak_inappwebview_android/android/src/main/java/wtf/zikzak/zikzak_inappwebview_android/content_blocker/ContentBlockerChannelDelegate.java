@@ -0,0 +1,140 @@
+package wtf.zikzak.zikzak_inappwebview_android.content_blocker;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import wtf.zikzak.zikzak_inappwebview_android.types.ChannelDelegateImpl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.flutter.plugin.common.MethodCall;
+import io.flutter.plugin.common.MethodChannel;
+
+public class ContentBlockerChannelDelegate extends ChannelDelegateImpl {
+    @Nullable
+    private ContentBlockerManager contentBlockerManager;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    public ContentBlockerChannelDelegate(@NonNull ContentBlockerManager contentBlockerManager, @NonNull MethodChannel channel) {
+        super(channel);
+        this.contentBlockerManager = contentBlockerManager;
+    }
+
+    @Override
+    public void onMethodCall(@NonNull MethodCall call, @NonNull final MethodChannel.Result result) {
+        final Context context = contentBlockerManager != null && contentBlockerManager.plugin != null ?
+                contentBlockerManager.plugin.applicationContext : null;
+        if (context == null) {
+            result.success(null);
+            return;
+        }
+
+        switch (call.method) {
+            case "compileRuleSet": {
+                final String identifier = (String) call.argument("identifier");
+                final List<Map<String, Map<String, Object>>> contentBlockers =
+                        (List<Map<String, Map<String, Object>>>) call.argument("contentBlockers");
+                final Boolean persist = (Boolean) call.argument("persist");
+                ContentBlockerManager.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            ContentBlockerManager.compileRuleSet(context, identifier, contentBlockers, Boolean.TRUE.equals(persist));
+                            postSuccess(result, true);
+                        } catch (Throwable e) {
+                            // includes the AssertionError of an invalid trigger, which would
+                            // otherwise end the task without replying
+                            postError(result, e);
+                        }
+                    }
+                });
+                break;
+            }
+            case "loadRuleSet": {
+                final String identifier = (String) call.argument("identifier");
+                ContentBlockerManager.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            postSuccess(result, ContentBlockerManager.getRuleSet(context, identifier) != null);
+                        } catch (Throwable e) {
+                            postError(result, e);
+                        }
+                    }
+                });
+                break;
+            }
+            case "updateRuleSet": {
+                final String identifier = (String) call.argument("identifier");
+                final Map<String, Map<String, Map<String, Object>>> addedContentBlockers =
+                        (Map<String, Map<String, Map<String, Object>>>) call.argument("addedContentBlockers");
+                final List<String> removedIdentifiers = (List<String>) call.argument("removedIdentifiers");
+                ContentBlockerManager.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            int changes = ContentBlockerManager.updateRuleSet(context, identifier,
+                                    addedContentBlockers != null ? addedContentBlockers : new HashMap<String, Map<String, Map<String, Object>>>(),
+                                    removedIdentifiers != null ? removedIdentifiers : new ArrayList<String>());
+                            postSuccess(result, changes >= 0 ? changes : null);
+                        } catch (Throwable e) {
+                            postError(result, e);
+                        }
+                    }
+                });
+                break;
+            }
+            case "removeRuleSet": {
+                final String identifier = (String) call.argument("identifier");
+                ContentBlockerManager.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            postSuccess(result, ContentBlockerManager.removeRuleSet(context, identifier));
+                        } catch (Throwable e) {
+                            postError(result, e);
+                        }
+                    }
+                });
+                break;
+            }
+            case "getRuleSetIdentifiers":
+                result.success(ContentBlockerManager.getRuleSetIdentifiers());
+                break;
+            default:
+                result.notImplemented();
+        }
+    }
+
+    private void postSuccess(final MethodChannel.Result result, final Object value) {
+        mainHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                result.success(value);
+            }
+        });
+    }
+
+    private void postError(final MethodChannel.Result result, final Throwable e) {
+        final String message = e.getMessage() != null ? e.getMessage() : e.toString();
+        mainHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                result.error(ContentBlockerManager.LOG_TAG, message, null);
+            }
+        });
+    }
+
+    @Override
+    public void dispose() {
+        super.dispose();
+        contentBlockerManager = null;
+    }
+}
@@ -0,0 +1,59 @@
+package wtf.zikzak.zikzak_inappwebview_android.content_blocker;
+
+import android.os.Build;
+
+import androidx.annotation.NonNull;
+
+import wtf.zikzak.zikzak_inappwebview_android.plugin_scripts_js.ContentBlockerCosmeticFilterJS;
+import wtf.zikzak.zikzak_inappwebview_android.webview.in_app_webview.InAppWebView;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Collects the selectors of the {@link ContentBlockerActionType#CSS_DISPLAY_NONE} actions applied
+ * from the WebView IO threads and sends them to the page in a single evaluation per frame.
+ *
+ * The page keeps one style sheet for all of them, see {@link ContentBlockerCosmeticFilterJS}.
+ */
+public class ContentBlockerCosmeticFilter {
+    private static final long FLUSH_DELAY = 16; // about one frame
+
+    private final Object lock = new Object();
+    private final LinkedHashSet<String> pendingSelectors = new LinkedHashSet<>();
+    private boolean flushScheduled = false;
+
+    public void addSelector(@NonNull final InAppWebView webView, @NonNull String selector) {
+        synchronized (lock) {
+            if (!pendingSelectors.add(selector) || flushScheduled) {
+                return;
+            }
+            flushScheduled = true;
+        }
+        webView.mainLooperHandler.postDelayed(new Runnable() {
+            @Override
+            public void run() {
+                flush(webView);
+            }
+        }, FLUSH_DELAY);
+    }
+
+    private void flush(@NonNull InAppWebView webView) {
+        List<String> selectors;
+        synchronized (lock) {
+            selectors = new ArrayList<>(pendingSelectors);
+            pendingSelectors.clear();
+            flushScheduled = false;
+        }
+        if (selectors.isEmpty()) {
+            return;
+        }
+        String jsScript = ContentBlockerCosmeticFilterJS.createAddSelectorsSource(selectors);
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT) {
+            webView.evaluateJavascript(jsScript, null);
+        } else {
+            webView.loadUrl("javascript:" + jsScript);
+        }
+    }
+}
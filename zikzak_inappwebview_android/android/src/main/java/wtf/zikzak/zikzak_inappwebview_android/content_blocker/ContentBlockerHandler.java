@@ -1,20 +1,17 @@
 package wtf.zikzak.zikzak_inappwebview_android.content_blocker;
 
-import android.os.Build;
-import android.os.Handler;
-import android.text.TextUtils;
 import android.util.Log;
+import android.util.LruCache;
 import android.webkit.WebResourceResponse;
 
+import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
 import wtf.zikzak.zikzak_inappwebview_android.Util;
-import wtf.zikzak.zikzak_inappwebview_android.plugin_scripts_js.JavaScriptBridgeJS;
+import wtf.zikzak.zikzak_inappwebview_android.types.TopDocumentSnapshot;
 import wtf.zikzak.zikzak_inappwebview_android.types.WebResourceRequestExt;
 import wtf.zikzak.zikzak_inappwebview_android.webview.in_app_webview.InAppWebView;
 
-import java.io.ByteArrayInputStream;
-import java.io.InputStream;
 import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
 import java.net.URI;
@@ -24,70 +21,195 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.concurrent.CountDownLatch;
 import java.util.regex.Matcher;
 
-import javax.net.ssl.SSLHandshakeException;
-
 public class ContentBlockerHandler {
     protected static final String LOG_TAG = "ContentBlockerHandler";
 
-    protected List<ContentBlocker> ruleList = new ArrayList<>();
+    private static final Map<String, ContentBlockerTriggerResourceType> EXTENSION_RESOURCE_TYPES = new HashMap<>();
+    private static final int RESOURCE_TYPE_CACHE_SIZE = 512;
+
+    static {
+        for (String extension : new String[]{"html", "htm", "xhtml", "shtml"}) {
+            EXTENSION_RESOURCE_TYPES.put(extension, ContentBlockerTriggerResourceType.DOCUMENT);
+        }
+        for (String extension : new String[]{"png", "jpg", "jpeg", "gif", "webp", "avif", "apng", "bmp", "ico", "cur", "heic", "heif"}) {
+            EXTENSION_RESOURCE_TYPES.put(extension, ContentBlockerTriggerResourceType.IMAGE);
+        }
+        EXTENSION_RESOURCE_TYPES.put("svg", ContentBlockerTriggerResourceType.SVG_DOCUMENT);
+        EXTENSION_RESOURCE_TYPES.put("css", ContentBlockerTriggerResourceType.STYLE_SHEET);
+        for (String extension : new String[]{"js", "mjs", "cjs"}) {
+            EXTENSION_RESOURCE_TYPES.put(extension, ContentBlockerTriggerResourceType.SCRIPT);
+        }
+        for (String extension : new String[]{"woff", "woff2", "ttf", "otf", "eot"}) {
+            EXTENSION_RESOURCE_TYPES.put(extension, ContentBlockerTriggerResourceType.FONT);
+        }
+        for (String extension : new String[]{"mp3", "mp4", "m4a", "m4v", "aac", "wav", "flac", "ogg", "oga", "ogv", "opus", "webm", "mov", "m3u8", "mpd", "ts"}) {
+            EXTENSION_RESOURCE_TYPES.put(extension, ContentBlockerTriggerResourceType.MEDIA);
+        }
+    }
+
+    // the rule list and its index, always published together
+    @NonNull
+    private volatile IndexedRuleList indexedRuleList;
+    private final LruCache<String, ContentBlockerTriggerResourceType> resourceTypeCache = new LruCache<>(RESOURCE_TYPE_CACHE_SIZE);
+    @Nullable
+    private volatile ContentBlockerRuleSet ruleSet;
+    @Nullable
+    private volatile ContentBlockerVerdictCache verdictCache;
+    private final ContentBlockerCosmeticFilter cosmeticFilter = new ContentBlockerCosmeticFilter();
+    private final ContentBlockerStatistics statistics = new ContentBlockerStatistics();
 
-    public ContentBlockerHandler() {}
+    public ContentBlockerHandler() {
+        this(new ArrayList<ContentBlocker>());
+    }
 
     public ContentBlockerHandler(List<ContentBlocker> ruleList) {
-        this.ruleList = ruleList;
+        this.indexedRuleList = IndexedRuleList.of(new ContentBlockerRuleList(ruleList));
     }
 
     public List<ContentBlocker> getRuleList() {
-        return this.ruleList;
+        ContentBlockerRuleSet currentRuleSet = ruleSet;
+        return currentRuleSet != null ? currentRuleSet.getRuleList() : indexedRuleList.ruleList;
+    }
+
+    public synchronized void setRuleList(List<ContentBlocker> newRuleList) {
+        this.indexedRuleList = IndexedRuleList.of(new ContentBlockerRuleList(newRuleList));
+        this.ruleSet = null;
+    }
+
+    /**
+     * Uses the rules of a shared, already compiled rule set,
+     * including the updates made to the rule set afterwards.
+     */
+    public void setRuleSet(ContentBlockerRuleSet ruleSet) {
+        this.ruleSet = ruleSet;
     }
 
-    public void setRuleList(List<ContentBlocker> newRuleList) {
-        this.ruleList = newRuleList;
+    /**
+     * Returns the token index of the current rule list, rebuilding it if the list
+     * was replaced or modified in place through {@link #getRuleList()}.
+     */
+    public ContentBlockerRuleIndex getRuleIndex() {
+        ContentBlockerRuleSet currentRuleSet = ruleSet;
+        if (currentRuleSet != null) {
+            return currentRuleSet.getRuleIndex();
+        }
+        IndexedRuleList current = indexedRuleList;
+        if (current.isUpToDate()) {
+            return current.ruleIndex;
+        }
+        return rebuildRuleIndex();
+    }
+
+    private synchronized ContentBlockerRuleIndex rebuildRuleIndex() {
+        IndexedRuleList current = indexedRuleList;
+        if (!current.isUpToDate()) {
+            // another thread may have rebuilt it in the meantime
+            current = IndexedRuleList.of(current.ruleList);
+            indexedRuleList = current;
+        }
+        return current.ruleIndex;
+    }
+
+    /**
+     * Immutable pair of a rule list and of its index, with the modification count of the list
+     * when the index was built.
+     */
+    private static class IndexedRuleList {
+        @NonNull
+        final ContentBlockerRuleList ruleList;
+        final int modificationCount;
+        @NonNull
+        final ContentBlockerRuleIndex ruleIndex;
+
+        private IndexedRuleList(@NonNull ContentBlockerRuleList ruleList, int modificationCount,
+                                @NonNull ContentBlockerRuleIndex ruleIndex) {
+            this.ruleList = ruleList;
+            this.modificationCount = modificationCount;
+            this.ruleIndex = ruleIndex;
+        }
+
+        @NonNull
+        static IndexedRuleList of(@NonNull ContentBlockerRuleList ruleList) {
+            // read before copying the rules: a concurrent edit triggers another rebuild
+            int modificationCount = ruleList.getModificationCount();
+            return new IndexedRuleList(ruleList, modificationCount, ContentBlockerRuleIndex.build(ruleList));
+        }
+
+        boolean isUpToDate() {
+            return modificationCount == ruleList.getModificationCount();
+        }
     }
 
     @Nullable
     public WebResourceResponse checkUrl(final InAppWebView webView, WebResourceRequestExt request,
-                                        ContentBlockerTriggerResourceType responseResourceType)
+                                        @Nullable ContentBlockerTriggerResourceType responseResourceType)
             throws URISyntaxException, InterruptedException, MalformedURLException {
         if (webView.customSettings.contentBlockers == null)
             return null;
 
+        long startTime = System.nanoTime();
         String url = request.getUrl();
-
-        URI u;
-        try {
-            u = new URI(url);
-        } catch (URISyntaxException e) {
-            String[] urlSplit = url.split(":");
-            String scheme = urlSplit[0];
-            URL tempUrl = new URL(url.replace(scheme, "https"));
-            u = new URI(scheme, tempUrl.getUserInfo(), tempUrl.getHost(), tempUrl.getPort(), tempUrl.getPath(), tempUrl.getQuery(), tempUrl.getRef());
+        ContentBlockerRuleIndex index = getRuleIndex();
+        ContentBlockerVerdictCache cache = getVerdictCache(index);
+        // published by the navigation callbacks, no need to hop to the WebView looper
+        TopDocumentSnapshot topDocument = webView.topDocumentSnapshot;
+
+        ContentBlockerVerdictCache.Key key = cache.createKey(url, responseResourceType, topDocument);
+        ContentBlockerVerdict verdict = cache.get(key);
+        if (verdict == null) {
+            verdict = evaluate(index, request, responseResourceType, topDocument);
+            cache.put(key, verdict);
         }
-        String host = u.getHost();
-        int port = u.getPort();
-        String scheme = u.getScheme();
-        // thread safe copy list
-        List<ContentBlocker> ruleListCopy = new CopyOnWriteArrayList<ContentBlocker>(ruleList);
+        WebResourceResponse response = applyVerdict(webView, request, verdict);
+        statistics.record(index, verdict, System.nanoTime() - startTime);
+        return response;
+    }
 
-        for (ContentBlocker contentBlocker : ruleListCopy) {
-            ContentBlockerTrigger trigger =  contentBlocker.getTrigger();
-            List<ContentBlockerTriggerResourceType> resourceTypes = trigger.getResourceType();
-            if (resourceTypes.contains(ContentBlockerTriggerResourceType.IMAGE) && !resourceTypes.contains(ContentBlockerTriggerResourceType.SVG_DOCUMENT)) {
-                resourceTypes.add(ContentBlockerTriggerResourceType.SVG_DOCUMENT);
-            }
+    /**
+     * Runs the rules against the request, without side effects, and returns the actions to apply.
+     * Nothing is allocated for candidate rules that don't match, apart from their regex matcher.
+     */
+    public ContentBlockerVerdict evaluate(ContentBlockerRuleIndex index, WebResourceRequestExt request,
+                                          @Nullable ContentBlockerTriggerResourceType responseResourceType,
+                                          TopDocumentSnapshot topDocument)
+            throws URISyntaxException, MalformedURLException {
+        String url = request.getUrl();
 
+        // parsed only once a matching rule needs the host, port or scheme
+        URI u = null;
+        // the rules whose action applies, in rule list order
+        ContentBlockerRuleIndex.IntList matchedRules = null;
+        // only the rules whose url-filter can match are evaluated, in rule list order
+        List<ContentBlocker> indexedRuleList = index.getRuleList();
+        ContentBlockerRuleIndex.CandidateRules candidates = index.getCandidateRules(url);
+
+        for (int i = 0; i < candidates.size(); i++) {
+            int candidate = candidates.get(i);
+            ContentBlocker contentBlocker = indexedRuleList.get(candidate);
+            ContentBlockerTrigger trigger =  contentBlocker.getTrigger();
             ContentBlockerAction action = contentBlocker.getAction();
 
             Matcher m = trigger.getUrlFilterPatternCompiled().matcher(url);
             if (m.matches()) {
 
-                if (!resourceTypes.isEmpty() && !resourceTypes.contains(responseResourceType)) {
-                    return null;
+                if (index.dependsOnResourceType(candidate)) {
+                    // resolved lazily: most rules don't restrict the resource type
+                    if (responseResourceType == null) {
+                        responseResourceType = getResourceTypeFromUrl(request);
+                    }
+                    if ((index.getResourceTypeMask(candidate) & responseResourceType.toMask()) == 0) {
+                        return ContentBlockerVerdict.of(index, matchedRules);
+                    }
+                }
+                if (u == null) {
+                    u = parseUri(url);
                 }
+                String host = u.getHost();
+                int port = u.getPort();
+                String scheme = u.getScheme();
+
                 if (!trigger.getIfDomain().isEmpty()) {
                     boolean matchFound = false;
                     for (String domain : trigger.getIfDomain()) {
@@ -97,145 +219,102 @@ public class ContentBlockerHandler {
                         }
                     }
                     if (!matchFound)
-                        return null;
+                        return ContentBlockerVerdict.of(index, matchedRules);
                 }
                 if (!trigger.getUnlessDomain().isEmpty()) {
                     for (String domain : trigger.getUnlessDomain())
                         if ((domain.startsWith("*") && host.endsWith(domain.replace("*", ""))) || domain.equals(host))
-                            return null;
-                }
-
-                final String[] webViewUrl = new String[1];
-                if (!trigger.getLoadType().isEmpty() || !trigger.getIfTopUrl().isEmpty() || !trigger.getUnlessTopUrl().isEmpty()) {
-                    final CountDownLatch latch = new CountDownLatch(1);
-                    Handler handler = new Handler(webView.getWebViewLooper());
-                    handler.post(new Runnable() {
-                        @Override
-                        public void run() {
-                            webViewUrl[0] = webView.getUrl();
-                            latch.countDown();
-                        }
-                    });
-                    latch.await();
+                            return ContentBlockerVerdict.of(index, matchedRules);
                 }
 
-                if (webViewUrl[0] != null) {
+                String topUrl = topDocument.getUrl();
+                if (topUrl != null) {
                     if (!trigger.getLoadType().isEmpty()) {
-                        URI cUrl = new URI(webViewUrl[0]);
-                        String cHost = cUrl.getHost();
-                        int cPort = cUrl.getPort();
-                        String cScheme = cUrl.getScheme();
+                        String cHost = topDocument.getHost();
+                        int cPort = topDocument.getPort();
+                        String cScheme = topDocument.getScheme();
 
-                        if ( (trigger.getLoadType().contains("first-party") && cHost != null && !(cScheme.equals(scheme) && cHost.equals(host) && cPort == port)) ||
+                        if ( (trigger.getLoadType().contains("first-party") && cHost != null && !(Util.objEquals(cScheme, scheme) && cHost.equals(host) && cPort == port)) ||
                                 (trigger.getLoadType().contains("third-party") && cHost != null && cHost.equals(host)) )
-                            return null;
+                            return ContentBlockerVerdict.of(index, matchedRules);
                     }
                     if (!trigger.getIfTopUrl().isEmpty()) {
                         boolean matchFound = false;
-                        for (String topUrl : trigger.getIfTopUrl()) {
-                            if (webViewUrl[0].startsWith(topUrl)) {
+                        for (String ifTopUrl : trigger.getIfTopUrl()) {
+                            if (topUrl.startsWith(ifTopUrl)) {
                                 matchFound = true;
                                 break;
                             }
                         }
                         if (!matchFound)
-                            return null;
+                            return ContentBlockerVerdict.of(index, matchedRules);
                     }
                     if (!trigger.getUnlessTopUrl().isEmpty()) {
-                        for (String topUrl : trigger.getUnlessTopUrl())
-                            if (webViewUrl[0].startsWith(topUrl))
-                                return null;
+                        for (String unlessTopUrl : trigger.getUnlessTopUrl())
+                            if (topUrl.startsWith(unlessTopUrl))
+                                return ContentBlockerVerdict.of(index, matchedRules);
                     }
                 }
 
                 switch (action.getType()) {
-
                     case BLOCK:
-                        return new WebResourceResponse("", "", null);
-
+                        if (matchedRules == null) {
+                            matchedRules = new ContentBlockerRuleIndex.IntList(1);
+                        }
+                        matchedRules.add(candidate);
+                        return ContentBlockerVerdict.of(index, matchedRules);
                     case CSS_DISPLAY_NONE:
-                        final String cssSelector = action.getSelector();
-                        final String jsScript = "(function(d) { " +
-                                "   function hide () { " +
-                                "       if (d.body != null && !d.getElementById('" + JavaScriptBridgeJS.JAVASCRIPT_BRIDGE_NAME + "-css-display-none-style')) { " +
-                                "           var c = d.createElement('style'); " +
-                                "           c.id = '" + JavaScriptBridgeJS.JAVASCRIPT_BRIDGE_NAME + "-css-display-none-style'; " +
-                                "           c.innerHTML = '" + cssSelector + " { display: none !important; }'; " +
-                                "           d.body.appendChild(c); " +
-                                "       }" +
-                                "       d.querySelectorAll('" + cssSelector + "').forEach(function (item, index) { " +
-                                "           item.setAttribute('style', 'display: none !important;'); " +
-                                "       }); " +
-                                "   }; " +
-                                "   hide(); " +
-                                "   d.addEventListener('DOMContentLoaded', function(event) { hide(); }); " +
-                                "})(document);";
-
-                        final Handler handler = new Handler(webView.getWebViewLooper());
-                        handler.postDelayed(new Runnable() {
-                            @Override
-                            public void run() {
-                                if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT) {
-                                    webView.evaluateJavascript(jsScript, null);
-                                } else {
-                                    webView.loadUrl("javascript:" + jsScript);
-                                }
-                            }
-                        }, 800);
+                        if (matchedRules == null) {
+                            matchedRules = new ContentBlockerRuleIndex.IntList(4);
+                        }
+                        matchedRules.add(candidate);
                         break;
-
                     case MAKE_HTTPS:
                         if (scheme.equals("http") && (port == -1 || port == 80)) {
-                            String urlHttps = url.replace("http://", "https://");
-
-                            HttpURLConnection urlConnection = Util.makeHttpRequest(urlHttps, request.getMethod(), request.getHeaders());
-                            if (urlConnection != null) {
-                                try {
-                                    byte[] dataBytes = Util.readAllBytes(urlConnection.getInputStream());
-                                    if (dataBytes == null) {
-                                        return null;
-                                    }
-                                    InputStream dataStream = new ByteArrayInputStream(dataBytes);
-
-                                    String encoding = urlConnection.getContentEncoding();
-                                    String contentType = urlConnection.getContentType();
-                                    if (contentType == null) {
-                                        contentType = "text/plain";
-                                    } else {
-                                        String[] contentTypeSplit = contentType.split(";");
-                                        contentType = contentTypeSplit[0].trim();
-                                        if (encoding == null) {
-                                            encoding = (contentTypeSplit.length > 1 && contentTypeSplit[1].contains("charset="))
-                                                    ? contentTypeSplit[1].replace("charset=", "").trim()
-                                                    : "utf-8";
-                                        }
-                                    }
-
-                                    String reasonPhrase = urlConnection.getResponseMessage();
-                                    if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP && reasonPhrase != null) {
-                                        Map<String, String> responseHeaders = new HashMap<>();
-                                        for (Map.Entry<String, List<String>> responseHeader : urlConnection.getHeaderFields().entrySet()) {
-                                            responseHeaders.put(responseHeader.getKey(), TextUtils.join(",", responseHeader.getValue()));
-                                        }
-                                        return new WebResourceResponse(contentType,
-                                                encoding,
-                                                urlConnection.getResponseCode(),
-                                                reasonPhrase,
-                                                responseHeaders,
-                                                dataStream);
-                                    } else {
-                                        return new WebResourceResponse(contentType,
-                                                encoding,
-                                                dataStream);
-                                    }
-                                } catch (Exception e) {
-                                    if (!(e instanceof SSLHandshakeException)) {
-                                        Log.e(LOG_TAG, "", e);
-                                    }
-                                } finally {
-                                    urlConnection.disconnect();
-                                }
+                            if (matchedRules == null) {
+                                matchedRules = new ContentBlockerRuleIndex.IntList(4);
                             }
+                            matchedRules.add(candidate);
+                        }
+                        break;
+                }
+            }
+        }
+        return ContentBlockerVerdict.of(index, matchedRules);
+    }
+
+    private static URI parseUri(String url) throws URISyntaxException, MalformedURLException {
+        try {
+            return new URI(url);
+        } catch (URISyntaxException e) {
+            String[] urlSplit = url.split(":");
+            String scheme = urlSplit[0];
+            URL tempUrl = new URL(url.replace(scheme, "https"));
+            return new URI(scheme, tempUrl.getUserInfo(), tempUrl.getHost(), tempUrl.getPort(), tempUrl.getPath(), tempUrl.getQuery(), tempUrl.getRef());
+        }
+    }
+
+    @Nullable
+    public WebResourceResponse applyVerdict(final InAppWebView webView, WebResourceRequestExt request,
+                                            ContentBlockerVerdict verdict) {
+        for (ContentBlockerAction action : verdict.getActions()) {
+            switch (action.getType()) {
+
+                case BLOCK:
+                    return new WebResourceResponse("", "", null);
+
+                case CSS_DISPLAY_NONE:
+                    // batched with the other selectors into the page style sheet
+                    if (action.getSelector() != null) {
+                        cosmeticFilter.addSelector(webView, action.getSelector());
+                    }
+                    break;
+
+                case MAKE_HTTPS:
+                    WebResourceResponse httpsResponse = ContentBlockerHttpsUpgrader.upgrade(request);
+                    if (httpsResponse != null) {
+                        return httpsResponse;
+                    }
 
 //                            Request mRequest = new Request.Builder().url(urlHttps).build();
 //                            Response response = null;
@@ -266,17 +345,47 @@ public class ContentBlockerHandler {
 //                                    Log.e(LOG_TAG, "", e);
 //                                }
 //                            }
-                        }
-                        break;
-                }
+                    break;
             }
         }
         return null;
     }
 
+    private ContentBlockerVerdictCache getVerdictCache(ContentBlockerRuleIndex index) {
+        ContentBlockerVerdictCache cache = verdictCache;
+        if (cache == null || !cache.isFor(index)) {
+            cache = new ContentBlockerVerdictCache(index, ContentBlockerVerdictCache.DEFAULT_MAX_SIZE);
+            verdictCache = cache;
+        }
+        return cache;
+    }
+
+    public int getVerdictCacheHitCount() {
+        ContentBlockerVerdictCache cache = verdictCache;
+        return cache != null ? cache.getHitCount() : 0;
+    }
+
+    public int getVerdictCacheMissCount() {
+        ContentBlockerVerdictCache cache = verdictCache;
+        return cache != null ? cache.getMissCount() : 0;
+    }
+
+    /**
+     * Returns a snapshot of the statistics of this handler, then resets them if {@code reset} is true.
+     */
+    public Map<String, Object> getStatistics(boolean reset) {
+        Map<String, Object> map = statistics.toMap(getRuleIndex());
+        map.put("verdictCacheHitCount", getVerdictCacheHitCount());
+        map.put("verdictCacheMissCount", getVerdictCacheMissCount());
+        if (reset) {
+            statistics.reset();
+        }
+        return map;
+    }
+
     @Nullable
     public WebResourceResponse checkUrl(final InAppWebView webView, WebResourceRequestExt request) throws URISyntaxException, InterruptedException, MalformedURLException {
-        ContentBlockerTriggerResourceType responseResourceType = getResourceTypeFromUrl(request);
+        ContentBlockerTriggerResourceType responseResourceType = inferResourceType(request);
         return checkUrl(webView, request, responseResourceType);
     }
 
@@ -286,7 +395,69 @@ public class ContentBlockerHandler {
         return checkUrl(webView, request, responseResourceType);
     }
 
+    /**
+     * Classifies the request locally, using the main-frame flag, the {@code Sec-Fetch-Dest} and
+     * {@code Accept} request headers and the URL file extension.
+     * Returns {@code null} when the resource type can't be inferred without a network request.
+     */
+    @Nullable
+    public ContentBlockerTriggerResourceType inferResourceType(WebResourceRequestExt request) {
+        if (request.isForMainFrame()) {
+            return ContentBlockerTriggerResourceType.DOCUMENT;
+        }
+
+        ContentBlockerTriggerResourceType extensionResourceType = getResourceTypeFromExtension(request.getUrl());
+        Map<String, String> headers = request.getHeaders();
+
+        String fetchDest = getHeader(headers, "Sec-Fetch-Dest");
+        if (fetchDest != null) {
+            ContentBlockerTriggerResourceType fetchDestResourceType = getResourceTypeFromFetchDest(fetchDest.trim());
+            if (fetchDestResourceType == ContentBlockerTriggerResourceType.IMAGE &&
+                    extensionResourceType == ContentBlockerTriggerResourceType.SVG_DOCUMENT) {
+                return ContentBlockerTriggerResourceType.SVG_DOCUMENT;
+            }
+            if (fetchDestResourceType != null) {
+                return fetchDestResourceType;
+            }
+        }
+
+        if (extensionResourceType != null) {
+            return extensionResourceType;
+        }
+
+        String accept = getHeader(headers, "Accept");
+        if (accept != null) {
+            String mimeType = accept.split(",")[0].split(";")[0].trim().toLowerCase();
+            if (!mimeType.isEmpty() && !mimeType.equals("*/*")) {
+                return getResourceTypeFromContentType(mimeType);
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Returns the resource type of the request, inferring it locally when possible and otherwise
+     * falling back to an HTTP {@code HEAD} request, whose result is memoized per URL.
+     */
     public ContentBlockerTriggerResourceType getResourceTypeFromUrl(WebResourceRequestExt request) {
+        ContentBlockerTriggerResourceType inferredResourceType = inferResourceType(request);
+        if (inferredResourceType != null) {
+            return inferredResourceType;
+        }
+
+        String url = request.getUrl();
+        ContentBlockerTriggerResourceType cachedResourceType = resourceTypeCache.get(url);
+        if (cachedResourceType != null) {
+            return cachedResourceType;
+        }
+
+        ContentBlockerTriggerResourceType responseResourceType = getResourceTypeFromHeadRequest(request);
+        resourceTypeCache.put(url, responseResourceType);
+        return responseResourceType;
+    }
+
+    private ContentBlockerTriggerResourceType getResourceTypeFromHeadRequest(WebResourceRequestExt request) {
         ContentBlockerTriggerResourceType responseResourceType = ContentBlockerTriggerResourceType.RAW;
         String url = request.getUrl();
 
@@ -333,4 +504,71 @@ public class ContentBlockerHandler {
 
         return responseResourceType;
     }
+
+    @Nullable
+    public ContentBlockerTriggerResourceType getResourceTypeFromFetchDest(String fetchDest) {
+        // https://developer.mozilla.org/en-US/docs/Web/HTTP/Headers/Sec-Fetch-Dest
+        switch (fetchDest) {
+            case "document":
+            case "iframe":
+            case "frame":
+            case "embed":
+            case "object":
+                return ContentBlockerTriggerResourceType.DOCUMENT;
+            case "image":
+                return ContentBlockerTriggerResourceType.IMAGE;
+            case "style":
+                return ContentBlockerTriggerResourceType.STYLE_SHEET;
+            case "script":
+            case "worker":
+            case "sharedworker":
+            case "serviceworker":
+            case "audioworklet":
+            case "paintworklet":
+                return ContentBlockerTriggerResourceType.SCRIPT;
+            case "font":
+                return ContentBlockerTriggerResourceType.FONT;
+            case "audio":
+            case "video":
+            case "track":
+                return ContentBlockerTriggerResourceType.MEDIA;
+            default:
+                // "empty" (fetch/XHR) and others depend on the response content type
+                return null;
+        }
+    }
+
+    @Nullable
+    public ContentBlockerTriggerResourceType getResourceTypeFromExtension(String url) {
+        int end = url.length();
+        int queryIndex = url.indexOf('?');
+        if (queryIndex >= 0) {
+            end = queryIndex;
+        }
+        int fragmentIndex = url.indexOf('#');
+        if (fragmentIndex >= 0 && fragmentIndex < end) {
+            end = fragmentIndex;
+        }
+        int schemeIndex = url.indexOf("://");
+        int pathIndex = url.indexOf('/', schemeIndex >= 0 ? schemeIndex + 3 : 0);
+        int dotIndex = url.lastIndexOf('.', end - 1);
+        if (pathIndex < 0 || dotIndex < pathIndex || dotIndex < url.lastIndexOf('/', end - 1)) {
+            return null;
+        }
+        String extension = url.substring(dotIndex + 1, end).toLowerCase();
+        return EXTENSION_RESOURCE_TYPES.get(extension);
+    }
+
+    @Nullable
+    private static String getHeader(@Nullable Map<String, String> headers, String name) {
+        if (headers == null) {
+            return null;
+        }
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            if (name.equalsIgnoreCase(header.getKey())) {
+                return header.getValue();
+            }
+        }
+        return null;
+    }
 }
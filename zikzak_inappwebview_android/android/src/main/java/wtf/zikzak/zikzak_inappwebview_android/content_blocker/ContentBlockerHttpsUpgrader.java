@@ -0,0 +1,140 @@
+package wtf.zikzak.zikzak_inappwebview_android.content_blocker;
+
+import android.os.Build;
+import android.os.SystemClock;
+import android.text.TextUtils;
+import android.util.Log;
+import android.util.LruCache;
+import android.webkit.WebResourceResponse;
+
+import androidx.annotation.Nullable;
+
+import wtf.zikzak.zikzak_inappwebview_android.Util;
+import wtf.zikzak.zikzak_inappwebview_android.types.WebResourceRequestExt;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.net.ssl.SSLException;
+
+/**
+ * Performs the {@link ContentBlockerActionType#MAKE_HTTPS} upgrade of a request.
+ *
+ * The response body is streamed to the WebView instead of being buffered in memory.
+ * The connection is not disconnected: once the WebView has read and closed the body,
+ * the underlying keep-alive socket goes back to the per-host pool of {@link HttpURLConnection}
+ * and is reused by the next upgrade to the same host.
+ * Hosts that failed the TLS handshake are remembered for a short time, so that their following
+ * requests are loaded over http right away without trying https again. Refused connections and
+ * timeouts may be transient and are not remembered.
+ */
+public class ContentBlockerHttpsUpgrader {
+    protected static final String LOG_TAG = "ContentBlockerHttpsUpgrader";
+
+    private static final int HOST_CACHE_SIZE = 256;
+    // a single failure must not downgrade a host for long
+    private static final long HTTPS_FAILURE_TTL = 60 * 1000; // 1 minute
+
+    // host -> time, in the SystemClock.elapsedRealtime() base, until which https is not tried again
+    private static final LruCache<String, Long> httpsFailureExpiryByHost = new LruCache<>(HOST_CACHE_SIZE);
+
+    private ContentBlockerHttpsUpgrader() {}
+
+    /**
+     * Loads the request over https.
+     *
+     * @return the streamed https response, or {@code null} if the request has to be loaded as is.
+     */
+    @Nullable
+    public static WebResourceResponse upgrade(WebResourceRequestExt request) {
+        String url = request.getUrl();
+        String urlHttps = url.replace("http://", "https://");
+
+        URL httpsUrl;
+        try {
+            httpsUrl = new URL(urlHttps);
+        } catch (IOException e) {
+            Log.e(LOG_TAG, "", e);
+            return null;
+        }
+        String host = httpsUrl.getHost();
+        Long failureExpiry = httpsFailureExpiryByHost.get(host);
+        if (failureExpiry != null) {
+            if (SystemClock.elapsedRealtime() < failureExpiry) {
+                return null;
+            }
+            httpsFailureExpiryByHost.remove(host);
+        }
+
+        HttpURLConnection urlConnection;
+        try {
+            urlConnection = Util.openHttpConnection(urlHttps, request.getMethod(), request.getHeaders());
+        } catch (IOException | RuntimeException e) {
+            if (e instanceof SSLException) {
+                httpsFailureExpiryByHost.put(host, SystemClock.elapsedRealtime() + HTTPS_FAILURE_TTL);
+            } else {
+                Log.e(LOG_TAG, "", e);
+            }
+            return null;
+        }
+
+        try {
+            // the WebView reads the body from its IO thread and closes it when done
+            InputStream dataStream = urlConnection.getInputStream();
+
+            String encoding = urlConnection.getContentEncoding();
+            String contentType = urlConnection.getContentType();
+            if (contentType == null) {
+                contentType = "text/plain";
+            } else {
+                String[] contentTypeSplit = contentType.split(";");
+                contentType = contentTypeSplit[0].trim();
+                if (encoding == null) {
+                    encoding = (contentTypeSplit.length > 1 && contentTypeSplit[1].contains("charset="))
+                            ? contentTypeSplit[1].replace("charset=", "").trim()
+                            : "utf-8";
+                }
+            }
+
+            String reasonPhrase = urlConnection.getResponseMessage();
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP && reasonPhrase != null) {
+                Map<String, String> responseHeaders = new HashMap<>();
+                for (Map.Entry<String, List<String>> responseHeader : urlConnection.getHeaderFields().entrySet()) {
+                    // the status line is returned with a null key
+                    if (responseHeader.getKey() != null) {
+                        responseHeaders.put(responseHeader.getKey(), TextUtils.join(",", responseHeader.getValue()));
+                    }
+                }
+                return new WebResourceResponse(contentType,
+                        encoding,
+                        urlConnection.getResponseCode(),
+                        reasonPhrase,
+                        responseHeaders,
+                        dataStream);
+            } else {
+                return new WebResourceResponse(contentType,
+                        encoding,
+                        dataStream);
+            }
+        } catch (Exception e) {
+            // e.g. an error status code: the host speaks https, load the original request instead
+            urlConnection.disconnect();
+            if (!(e instanceof SSLException)) {
+                Log.e(LOG_TAG, "", e);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Forgets which hosts failed https.
+     */
+    public static void clearHttpsSupportCache() {
+        httpsFailureExpiryByHost.evictAll();
+    }
+}
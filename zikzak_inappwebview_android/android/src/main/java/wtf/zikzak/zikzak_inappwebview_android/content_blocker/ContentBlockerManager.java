@@ -0,0 +1,200 @@
+package wtf.zikzak.zikzak_inappwebview_android.content_blocker;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import wtf.zikzak.zikzak_inappwebview_android.InAppWebViewFlutterPlugin;
+import wtf.zikzak.zikzak_inappwebview_android.types.Disposable;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import io.flutter.plugin.common.MethodChannel;
+
+/**
+ * Registry of the compiled {@link ContentBlockerRuleSet}s shared by all the WebViews of the process.
+ * Rule sets can be persisted to a binary file, so that on the next launch they are loaded without
+ * being sent again from Dart.
+ */
+public class ContentBlockerManager implements Disposable {
+    protected static final String LOG_TAG = "ContentBlockerManager";
+    public static final String METHOD_CHANNEL_NAME = "wtf.zikzak/zikzak_inappwebview_contentblocker";
+    private static final String RULE_SETS_DIRECTORY = "zikzak_inappwebview_content_blockers";
+    private static final String RULE_SET_FILE_EXTENSION = ".bin";
+
+    private static final Map<String, ContentBlockerRuleSet> ruleSets = new ConcurrentHashMap<>();
+    // compiling, loading and writing rule sets must not block the main thread, and run in order
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @Nullable
+    public ContentBlockerChannelDelegate channelDelegate;
+    @Nullable
+    public InAppWebViewFlutterPlugin plugin;
+
+    public ContentBlockerManager(@NonNull final InAppWebViewFlutterPlugin plugin) {
+        this.plugin = plugin;
+        final MethodChannel channel = new MethodChannel(plugin.messenger, METHOD_CHANNEL_NAME);
+        this.channelDelegate = new ContentBlockerChannelDelegate(this, channel);
+    }
+
+    @NonNull
+    public static ContentBlockerRuleSet compileRuleSet(@NonNull Context context, @NonNull String identifier,
+                                                       @NonNull List<Map<String, Map<String, Object>>> contentBlockers,
+                                                       boolean persist) throws IOException {
+        List<ContentBlocker> ruleList = ContentBlockerRuleSet.parseRules(contentBlockers);
+        ContentBlockerRuleSet ruleSet = ruleSets.get(identifier);
+        if (ruleSet != null) {
+            // updated in place: the WebViews already using the rule set keep a reference to it
+            ruleSet.setRules(ruleList);
+        } else {
+            ruleSet = ContentBlockerRuleSet.create(identifier, ruleList, null);
+            ContentBlockerRuleSet current = ruleSets.putIfAbsent(identifier, ruleSet);
+            if (current != null) {
+                current.setRules(ruleList);
+                ruleSet = current;
+            }
+        }
+        if (persist) {
+            ContentBlockerRuleSetSerializer.write(ruleSet, getRuleSetFile(context, identifier));
+        }
+        return ruleSet;
+    }
+
+    public interface OnRuleSetLoadedCallback {
+        void onRuleSetLoaded(@Nullable ContentBlockerRuleSet ruleSet);
+    }
+
+    static void execute(@NonNull Runnable task) {
+        executor.execute(task);
+    }
+
+    /**
+     * Returns the rule set with the given identifier if it is compiled or already loaded,
+     * without reading its binary file: safe to call from the main thread.
+     */
+    @Nullable
+    public static ContentBlockerRuleSet getLoadedRuleSet(@NonNull String identifier) {
+        return ruleSets.get(identifier);
+    }
+
+    /**
+     * Same as {@link #getRuleSet(Context, String)}, on the content blocker thread.
+     * {@code callback} is called on that thread.
+     */
+    public static void loadRuleSet(@NonNull final Context context, @NonNull final String identifier,
+                                   @NonNull final OnRuleSetLoadedCallback callback) {
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                ContentBlockerRuleSet ruleSet = null;
+                try {
+                    ruleSet = getRuleSet(context, identifier);
+                } catch (Throwable e) {
+                    Log.e(LOG_TAG, "Cannot load content blocker rule set " + identifier, e);
+                }
+                callback.onRuleSetLoaded(ruleSet);
+            }
+        });
+    }
+
+    /**
+     * Returns the rule set with the given identifier, loading it from its binary file if it was
+     * persisted by a previous launch. Reads the file: not to be called from the main thread.
+     */
+    @Nullable
+    public static ContentBlockerRuleSet getRuleSet(@NonNull Context context, @NonNull String identifier) {
+        ContentBlockerRuleSet ruleSet = ruleSets.get(identifier);
+        if (ruleSet != null) {
+            return ruleSet;
+        }
+        File file = getRuleSetFile(context, identifier);
+        if (!file.exists()) {
+            return null;
+        }
+        try {
+            ruleSet = ContentBlockerRuleSetSerializer.read(file);
+        } catch (IOException e) {
+            Log.e(LOG_TAG, "Cannot load content blocker rule set " + identifier, e);
+            return null;
+        }
+        ContentBlockerRuleSet current = ruleSets.putIfAbsent(identifier, ruleSet);
+        return current != null ? current : ruleSet;
+    }
+
+    /**
+     * Adds, replaces and removes rules of a rule set by rule identifier, see {@link ContentBlockerRuleSet#updateRules}.
+     * The WebViews using the rule set see the new rules from their next request.
+     * A persisted rule set is written again.
+     *
+     * @return the number of rules added, replaced or removed, or {@code -1} if the rule set does not exist.
+     */
+    public static int updateRuleSet(@NonNull Context context, @NonNull String identifier,
+                                    @NonNull Map<String, Map<String, Map<String, Object>>> contentBlockersById,
+                                    @NonNull Collection<String> removedIdentifiers) throws IOException {
+        ContentBlockerRuleSet ruleSet = getRuleSet(context, identifier);
+        if (ruleSet == null) {
+            return -1;
+        }
+        int changes = ruleSet.updateRules(contentBlockersById, removedIdentifiers);
+        File file = getRuleSetFile(context, identifier);
+        if (changes > 0 && file.exists()) {
+            ContentBlockerRuleSetSerializer.write(ruleSet, file);
+        }
+        return changes;
+    }
+
+    /**
+     * Removes the rule set and its binary file. The WebViews still using it stop blocking,
+     * as if their rule list was emptied.
+     */
+    public static boolean removeRuleSet(@NonNull Context context, @NonNull String identifier) {
+        ContentBlockerRuleSet ruleSet = ruleSets.remove(identifier);
+        boolean removed = ruleSet != null;
+        if (ruleSet != null) {
+            ruleSet.setRules(new ArrayList<ContentBlocker>());
+        }
+        File file = getRuleSetFile(context, identifier);
+        if (file.exists()) {
+            removed |= file.delete();
+        }
+        return removed;
+    }
+
+    @NonNull
+    public static List<String> getRuleSetIdentifiers() {
+        return new ArrayList<>(ruleSets.keySet());
+    }
+
+    @NonNull
+    private static File getRuleSetFile(@NonNull Context context, @NonNull String identifier) {
+        String fileName;
+        try {
+            fileName = URLEncoder.encode(identifier, "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            fileName = Integer.toHexString(identifier.hashCode());
+        }
+        File directory = new File(context.getFilesDir(), RULE_SETS_DIRECTORY);
+        return new File(directory, fileName + RULE_SET_FILE_EXTENSION);
+    }
+
+    @Override
+    public void dispose() {
+        if (channelDelegate != null) {
+            channelDelegate.dispose();
+            channelDelegate = null;
+        }
+        plugin = null;
+    }
+}
@@ -0,0 +1,632 @@
+package wtf.zikzak.zikzak_inappwebview_android.content_blocker;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Token index over a content blocker rule list.
+ *
+ * Every rule whose {@code url-filter} contains a literal substring that any matching URL must
+ * contain is bucketed under one 4-character token (n-gram) of that literal. For a given URL only
+ * the rules of the buckets whose token appears in the URL, plus the rules that could not be
+ * indexed, need their regular expression evaluated. The candidates are returned in the original
+ * rule order, so the evaluation order (and therefore the verdict) is the same as a linear scan.
+ */
+public class ContentBlockerRuleIndex {
+    public static final int ALL_RESOURCE_TYPES_MASK = (1 << ContentBlockerTriggerResourceType.values().length) - 1;
+
+    static final int TOKEN_LENGTH = 4;
+    private static final int TOKEN_MASK = (1 << (7 * TOKEN_LENGTH)) - 1;
+    private static final int EMPTY_KEY = -1;
+    private static final int UNKNOWN_TOKEN = -2;
+
+    // tokens that appear in almost every URL and make poor bucket keys
+    private static final String[] COMMON_TOKENS = new String[]{
+            "http", "ttps", "tps:", "tp:/", "ps:/", "s://", "p://", "www.", ".com", "com/", ".net", ".org",
+            ".htm", "html", "inde", "ndex", "/api", ".php", ".js?", "?id=", "&id="
+    };
+    private static final int COMMON_TOKEN_PENALTY = 1 << 16;
+
+    @NonNull
+    private final List<ContentBlocker> ruleList;
+    private final int[] tableKeys;
+    private final int[][] tableValues;
+    private final int tableMask;
+    @NonNull
+    private final int[] unindexedRules;
+    @NonNull
+    private final int[] ruleTokens;
+    @NonNull
+    private final int[] resourceTypeMasks;
+    @NonNull
+    private final List<String> unconditionalCssSelectors;
+
+    private ContentBlockerRuleIndex(@NonNull List<ContentBlocker> ruleList, @NonNull int[] ruleTokens, @NonNull int[] resourceTypeMasks,
+                                    int[] tableKeys, int[][] tableValues, @NonNull int[] unindexedRules,
+                                    @NonNull List<String> unconditionalCssSelectors) {
+        this.ruleList = ruleList;
+        this.ruleTokens = ruleTokens;
+        this.resourceTypeMasks = resourceTypeMasks;
+        this.tableKeys = tableKeys;
+        this.tableValues = tableValues;
+        this.tableMask = tableKeys.length - 1;
+        this.unindexedRules = unindexedRules;
+        this.unconditionalCssSelectors = unconditionalCssSelectors;
+    }
+
+    @NonNull
+    public static ContentBlockerRuleIndex build(@NonNull List<ContentBlocker> sourceRuleList) {
+        return build(sourceRuleList, null);
+    }
+
+    /**
+     * Builds the index of {@code sourceRuleList}. {@code precomputedRuleTokens}, if not {@code null},
+     * must be the {@link #getRuleTokens()} of an index built from the same rules: the url-filter
+     * analysis is then skipped.
+     */
+    @NonNull
+    public static ContentBlockerRuleIndex build(@NonNull List<ContentBlocker> sourceRuleList,
+                                                @Nullable int[] precomputedRuleTokens) {
+        // the index keeps its own copy, so the source list can be modified while requests are checked
+        List<ContentBlocker> ruleList = Collections.unmodifiableList(new ArrayList<>(sourceRuleList));
+        int size = ruleList.size();
+        int[] ruleTokens;
+        if (precomputedRuleTokens != null && precomputedRuleTokens.length == size) {
+            ruleTokens = precomputedRuleTokens.clone();
+        } else {
+            ruleTokens = new int[size];
+            Arrays.fill(ruleTokens, UNKNOWN_TOKEN);
+            computeRuleTokens(ruleList, ruleTokens);
+        }
+        return create(ruleList, ruleTokens);
+    }
+
+    /**
+     * Builds the index of {@code newSourceRuleList}, typically this index rule list with some rules added or removed.
+     * The url-filter analysis is only done for the rules that are not in this index, the others keep their token.
+     * This index is left unchanged and can still be used while the new one is built.
+     */
+    @NonNull
+    public ContentBlockerRuleIndex update(@NonNull List<ContentBlocker> newSourceRuleList) {
+        Map<ContentBlocker, Integer> knownRuleTokens = new IdentityHashMap<>(ruleList.size());
+        for (int i = 0; i < ruleList.size(); i++) {
+            knownRuleTokens.put(ruleList.get(i), ruleTokens[i]);
+        }
+        List<ContentBlocker> newRuleList = Collections.unmodifiableList(new ArrayList<>(newSourceRuleList));
+        int size = newRuleList.size();
+        int[] newRuleTokens = new int[size];
+        for (int i = 0; i < size; i++) {
+            Integer token = knownRuleTokens.get(newRuleList.get(i));
+            newRuleTokens[i] = token != null ? token : UNKNOWN_TOKEN;
+        }
+        computeRuleTokens(newRuleList, newRuleTokens);
+        return create(newRuleList, newRuleTokens);
+    }
+
+    @NonNull
+    private static ContentBlockerRuleIndex create(@NonNull List<ContentBlocker> ruleList, @NonNull int[] ruleTokens) {
+        int size = ruleList.size();
+        IntList unindexed = new IntList(16);
+        int[] resourceTypeMasks = new int[size];
+        List<String> unconditionalCssSelectors = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            if (ruleTokens[i] == EMPTY_KEY) {
+                unindexed.add(i);
+            }
+            if (isUnconditionalCssRule(ruleList.get(i))) {
+                unconditionalCssSelectors.add(ruleList.get(i).getAction().getSelector());
+            }
+            int resourceTypeMask = ContentBlockerTriggerResourceType.toMask(ruleList.get(i).getTrigger().getResourceType());
+            // image rules also apply to SVG images
+            if ((resourceTypeMask & ContentBlockerTriggerResourceType.IMAGE.toMask()) != 0) {
+                resourceTypeMask |= ContentBlockerTriggerResourceType.SVG_DOCUMENT.toMask();
+            }
+            resourceTypeMasks[i] = resourceTypeMask;
+        }
+
+        int capacity = Integer.highestOneBit(Math.max(16, (size - unindexed.size()) * 2)) << 1;
+        int[] tableKeys = new int[capacity];
+        Arrays.fill(tableKeys, EMPTY_KEY);
+        IntList[] buckets = new IntList[capacity];
+        int mask = capacity - 1;
+        for (int i = 0; i < size; i++) {
+            int token = ruleTokens[i];
+            if (token == EMPTY_KEY) {
+                continue;
+            }
+            int slot = slot(tableKeys, mask, token);
+            if (tableKeys[slot] == EMPTY_KEY) {
+                tableKeys[slot] = token;
+                buckets[slot] = new IntList(2);
+            }
+            buckets[slot].add(i);
+        }
+        int[][] tableValues = new int[capacity][];
+        for (int slot = 0; slot < capacity; slot++) {
+            if (buckets[slot] != null) {
+                tableValues[slot] = buckets[slot].toArray();
+            }
+        }
+
+        return new ContentBlockerRuleIndex(ruleList, ruleTokens, resourceTypeMasks, tableKeys, tableValues, unindexed.toArray(),
+                Collections.unmodifiableList(unconditionalCssSelectors));
+    }
+
+    /**
+     * Whether the rule hides elements of every page, whatever the requests made by the page.
+     */
+    private static boolean isUnconditionalCssRule(ContentBlocker contentBlocker) {
+        ContentBlockerTrigger trigger = contentBlocker.getTrigger();
+        ContentBlockerAction action = contentBlocker.getAction();
+        return action.getType() == ContentBlockerActionType.CSS_DISPLAY_NONE && action.getSelector() != null &&
+                ".*".equals(trigger.getUrlFilter()) &&
+                (trigger.getResourceType().isEmpty() ||
+                        (ContentBlockerTriggerResourceType.toMask(trigger.getResourceType()) & ALL_RESOURCE_TYPES_MASK) == ALL_RESOURCE_TYPES_MASK) &&
+                trigger.getIfDomain().isEmpty() && trigger.getUnlessDomain().isEmpty() &&
+                trigger.getLoadType().isEmpty() &&
+                trigger.getIfTopUrl().isEmpty() && trigger.getUnlessTopUrl().isEmpty();
+    }
+
+    /**
+     * Computes the tokens of the rules whose token is {@link #UNKNOWN_TOKEN}, preferring the tokens
+     * shared by the fewest rules.
+     */
+    private static void computeRuleTokens(List<ContentBlocker> ruleList, int[] ruleTokens) {
+        int size = ruleList.size();
+        TokenCounter counter = new TokenCounter(Math.max(16, size));
+        for (String commonToken : COMMON_TOKENS) {
+            counter.add(packToken(commonToken, 0), COMMON_TOKEN_PENALTY);
+        }
+        for (int token : ruleTokens) {
+            if (token != UNKNOWN_TOKEN && token != EMPTY_KEY) {
+                counter.add(token, 1);
+            }
+        }
+
+        for (int i = 0; i < size; i++) {
+            if (ruleTokens[i] != UNKNOWN_TOKEN) {
+                continue;
+            }
+            ContentBlockerTrigger trigger = ruleList.get(i).getTrigger();
+            int bestToken = EMPTY_KEY;
+            int bestCount = Integer.MAX_VALUE;
+            for (String literal : extractRequiredLiterals(trigger.getUrlFilter())) {
+                for (int start = 0; start + TOKEN_LENGTH <= literal.length(); start++) {
+                    int token = packToken(literal, start);
+                    int count = counter.get(token);
+                    if (count < bestCount) {
+                        bestCount = count;
+                        bestToken = token;
+                    }
+                }
+            }
+            ruleTokens[i] = bestToken;
+            if (bestToken != EMPTY_KEY) {
+                counter.add(bestToken, 1);
+            }
+        }
+    }
+
+    @NonNull
+    public List<ContentBlocker> getRuleList() {
+        return ruleList;
+    }
+
+    public int getRuleCount() {
+        return ruleList.size();
+    }
+
+    /**
+     * Returns, for each rule, the packed token under which it is indexed, or {@code -1} if not indexed.
+     */
+    @NonNull
+    public int[] getRuleTokens() {
+        return ruleTokens.clone();
+    }
+
+    public int getUnindexedRuleCount() {
+        return unindexedRules.length;
+    }
+
+    /**
+     * Returns the selectors of the {@link ContentBlockerActionType#CSS_DISPLAY_NONE} rules that match any request
+     * of any page. They can be applied once at document start instead of on the first matching request.
+     */
+    @NonNull
+    public List<String> getUnconditionalCssSelectors() {
+        return unconditionalCssSelectors;
+    }
+
+    /**
+     * Returns the normalized resource type mask of a rule, {@code 0} meaning any resource type.
+     */
+    public int getResourceTypeMask(int rule) {
+        return resourceTypeMasks[rule];
+    }
+
+    /**
+     * Whether the verdict of a rule depends on the resource type of the request.
+     */
+    public boolean dependsOnResourceType(int rule) {
+        int resourceTypeMask = resourceTypeMasks[rule];
+        return resourceTypeMask != 0 && (resourceTypeMask & ALL_RESOURCE_TYPES_MASK) != ALL_RESOURCE_TYPES_MASK;
+    }
+
+    /**
+     * Returns the indexes, in ascending order and without duplicates, of the rules whose
+     * {@code url-filter} could match {@code url}. Rules not returned are guaranteed not to match.
+     *
+     * The returned object is a per-thread buffer, reused by the next call on the same thread,
+     * so that matching a request doesn't allocate.
+     */
+    @NonNull
+    public CandidateRules getCandidateRules(@NonNull String url) {
+        CandidateRules candidates = CANDIDATE_RULES.get();
+        candidates.clear();
+        candidates.addAll(unindexedRules);
+        int packed = 0;
+        int valid = 0;
+        for (int i = 0, length = url.length(); i < length; i++) {
+            char c = url.charAt(i);
+            if (c >= 0x80) {
+                valid = 0;
+                continue;
+            }
+            packed = ((packed << 7) | toLowerAscii(c)) & TOKEN_MASK;
+            if (++valid >= TOKEN_LENGTH) {
+                int slot = slot(tableKeys, tableMask, packed);
+                if (tableKeys[slot] != EMPTY_KEY) {
+                    candidates.addAll(tableValues[slot]);
+                }
+            }
+        }
+        candidates.sortUnique();
+        return candidates;
+    }
+
+    /**
+     * Extracts the literal substrings (lower-cased) that every string matched by {@code regex} must
+     * contain. The analysis is conservative: constructs that are not understood make the rule
+     * unindexable and an empty list is returned.
+     */
+    @NonNull
+    static List<String> extractRequiredLiterals(@NonNull String regex) {
+        List<String> literals = new ArrayList<>();
+        StringBuilder run = new StringBuilder();
+        int length = regex.length();
+        int i = 0;
+        while (i < length) {
+            char c = regex.charAt(i);
+            switch (c) {
+                case '|':
+                    // top-level alternation: no literal is required
+                    return new ArrayList<>();
+                case '(':
+                    if (i + 2 < length && regex.charAt(i + 1) == '?' && isInlineFlag(regex.charAt(i + 2))) {
+                        int end = i + 2;
+                        while (end < length && isInlineFlag(regex.charAt(end))) {
+                            if (regex.charAt(end) == 'x') {
+                                // comments mode changes how the rest of the pattern is parsed
+                                return new ArrayList<>();
+                            }
+                            end++;
+                        }
+                    }
+                    i = skipGroup(regex, i);
+                    if (i < 0) {
+                        return new ArrayList<>();
+                    }
+                    flush(run, literals);
+                    i = skipQuantifier(regex, i);
+                    break;
+                case '[':
+                    i = skipClass(regex, i);
+                    if (i < 0) {
+                        return new ArrayList<>();
+                    }
+                    flush(run, literals);
+                    i = skipQuantifier(regex, i);
+                    break;
+                case '.':
+                    flush(run, literals);
+                    i = skipQuantifier(regex, i + 1);
+                    break;
+                case '^':
+                case '$':
+                    flush(run, literals);
+                    i++;
+                    break;
+                case '*':
+                case '+':
+                case '?':
+                case '{':
+                    // quantifier without a preceding literal atom
+                    flush(run, literals);
+                    i = skipQuantifier(regex, i);
+                    break;
+                case '\\':
+                    if (i + 1 >= length) {
+                        return new ArrayList<>();
+                    }
+                    char escaped = regex.charAt(i + 1);
+                    if (escaped < 0x80 && !Character.isLetterOrDigit(escaped)) {
+                        i = appendAtom(regex, i + 2, escaped, run, literals);
+                    } else if ("dDwWsSbBhHvVRXAzZG".indexOf(escaped) >= 0) {
+                        flush(run, literals);
+                        i = skipQuantifier(regex, i + 2);
+                    } else {
+                        // back references, quoting, code points, properties, ...
+                        return new ArrayList<>();
+                    }
+                    break;
+                default:
+                    if (c >= 0x80) {
+                        flush(run, literals);
+                        i = skipQuantifier(regex, i + 1);
+                    } else {
+                        i = appendAtom(regex, i + 1, c, run, literals);
+                    }
+                    break;
+            }
+        }
+        flush(run, literals);
+        return literals;
+    }
+
+    private static int appendAtom(String regex, int next, char c, StringBuilder run, List<String> literals) {
+        if (next < regex.length()) {
+            char quantifier = regex.charAt(next);
+            if (quantifier == '*' || quantifier == '?' || quantifier == '{') {
+                // the atom is optional (or repeated a variable number of times)
+                flush(run, literals);
+                return skipQuantifier(regex, next);
+            }
+            if (quantifier == '+') {
+                run.append(toLowerAscii(c));
+                flush(run, literals);
+                return skipQuantifier(regex, next);
+            }
+        }
+        run.append(toLowerAscii(c));
+        return next;
+    }
+
+    private static int skipQuantifier(String regex, int i) {
+        int length = regex.length();
+        if (i >= length) {
+            return i;
+        }
+        char c = regex.charAt(i);
+        if (c == '{') {
+            int end = regex.indexOf('}', i);
+            i = end < 0 ? length : end + 1;
+        } else if (c == '*' || c == '+' || c == '?') {
+            i++;
+        } else {
+            return i;
+        }
+        // lazy or possessive modifier
+        if (i < length && (regex.charAt(i) == '?' || regex.charAt(i) == '+')) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int skipGroup(String regex, int i) {
+        int depth = 0;
+        int length = regex.length();
+        while (i < length) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                if (i + 1 < length && regex.charAt(i + 1) == 'Q') {
+                    int end = regex.indexOf("\\E", i + 2);
+                    i = end < 0 ? length : end + 2;
+                } else {
+                    i += 2;
+                }
+                continue;
+            }
+            if (c == '[') {
+                i = skipClass(regex, i);
+                if (i < 0) {
+                    return -1;
+                }
+                continue;
+            }
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+                if (depth == 0) {
+                    return i + 1;
+                }
+            }
+            i++;
+        }
+        return -1;
+    }
+
+    private static int skipClass(String regex, int i) {
+        int depth = 0;
+        int length = regex.length();
+        while (i < length) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                i += 2;
+                continue;
+            }
+            if (c == '[') {
+                depth++;
+                i++;
+                if (i < length && regex.charAt(i) == '^') {
+                    i++;
+                }
+                // a leading ']' is a literal member of the class
+                if (i < length && regex.charAt(i) == ']') {
+                    i++;
+                }
+                continue;
+            }
+            if (c == ']') {
+                depth--;
+                if (depth == 0) {
+                    return i + 1;
+                }
+            }
+            i++;
+        }
+        return -1;
+    }
+
+    private static boolean isInlineFlag(char c) {
+        return c == '-' || (c < 0x80 && Character.isLetter(c));
+    }
+
+    private static void flush(StringBuilder run, List<String> literals) {
+        if (run.length() >= TOKEN_LENGTH) {
+            literals.add(run.toString());
+        }
+        run.setLength(0);
+    }
+
+    private static char toLowerAscii(char c) {
+        return (c >= 'A' && c <= 'Z') ? (char) (c + ('a' - 'A')) : c;
+    }
+
+    private static int packToken(String literal, int start) {
+        int packed = 0;
+        for (int i = start; i < start + TOKEN_LENGTH; i++) {
+            packed = (packed << 7) | toLowerAscii(literal.charAt(i));
+        }
+        return packed;
+    }
+
+    private static int slot(int[] keys, int mask, int key) {
+        int slot = (key * 0x9E3779B9) >>> 7 & mask;
+        while (keys[slot] != EMPTY_KEY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static class TokenCounter {
+        private int[] keys;
+        private int[] counts;
+        private int size;
+
+        TokenCounter(int expectedSize) {
+            int capacity = Integer.highestOneBit(expectedSize) << 2;
+            keys = new int[capacity];
+            counts = new int[capacity];
+            Arrays.fill(keys, EMPTY_KEY);
+        }
+
+        int get(int token) {
+            int slot = slot(keys, keys.length - 1, token);
+            return keys[slot] == EMPTY_KEY ? 0 : counts[slot];
+        }
+
+        void add(int token, int count) {
+            if ((size + 1) * 2 > keys.length) {
+                grow();
+            }
+            int slot = slot(keys, keys.length - 1, token);
+            if (keys[slot] == EMPTY_KEY) {
+                keys[slot] = token;
+                size++;
+            }
+            counts[slot] += count;
+        }
+
+        private void grow() {
+            int[] oldKeys = keys;
+            int[] oldCounts = counts;
+            keys = new int[oldKeys.length * 2];
+            counts = new int[oldKeys.length * 2];
+            Arrays.fill(keys, EMPTY_KEY);
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY_KEY) {
+                    int slot = slot(keys, keys.length - 1, oldKeys[i]);
+                    keys[slot] = oldKeys[i];
+                    counts[slot] = oldCounts[i];
+                }
+            }
+        }
+    }
+
+    private static final ThreadLocal<CandidateRules> CANDIDATE_RULES = new ThreadLocal<CandidateRules>() {
+        @Override
+        protected CandidateRules initialValue() {
+            return new CandidateRules();
+        }
+    };
+
+    public static class CandidateRules {
+        private int[] rules = new int[64];
+        private int size;
+
+        private CandidateRules() {}
+
+        public int size() {
+            return size;
+        }
+
+        public int get(int i) {
+            return rules[i];
+        }
+
+        private void clear() {
+            size = 0;
+        }
+
+        private void addAll(int[] other) {
+            if (size + other.length > rules.length) {
+                rules = Arrays.copyOf(rules, Math.max(rules.length * 2, size + other.length));
+            }
+            System.arraycopy(other, 0, rules, size, other.length);
+            size += other.length;
+        }
+
+        private void sortUnique() {
+            Arrays.sort(rules, 0, size);
+            int unique = 0;
+            for (int i = 0; i < size; i++) {
+                if (unique == 0 || rules[unique - 1] != rules[i]) {
+                    rules[unique++] = rules[i];
+                }
+            }
+            size = unique;
+        }
+    }
+
+    static class IntList {
+        private int[] values;
+        private int size;
+
+        IntList(int capacity) {
+            values = new int[Math.max(1, capacity)];
+        }
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int size() {
+            return size;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
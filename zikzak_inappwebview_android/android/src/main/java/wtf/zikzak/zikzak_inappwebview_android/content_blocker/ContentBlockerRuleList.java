@@ -0,0 +1,74 @@
+package wtf.zikzak.zikzak_inappwebview_android.content_blocker;
+
+import androidx.annotation.NonNull;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rule list of a {@link ContentBlockerHandler}, counting its modifications so that the handler
+ * knows when its rule index no longer reflects the list.
+ *
+ * Unlike {@link java.util.ArrayList}'s own modification count, replacing a rule with
+ * {@link #set(int, Object)} is counted as well.
+ */
+public class ContentBlockerRuleList extends AbstractList<ContentBlocker> {
+    @NonNull
+    private final List<ContentBlocker> ruleList;
+    // written by the thread editing the list, read by the threads checking requests
+    private volatile int modificationCount = 0;
+
+    public ContentBlockerRuleList(@NonNull List<ContentBlocker> ruleList) {
+        this.ruleList = new ArrayList<>(ruleList);
+    }
+
+    public int getModificationCount() {
+        return modificationCount;
+    }
+
+    @Override
+    public ContentBlocker get(int index) {
+        return ruleList.get(index);
+    }
+
+    @Override
+    public int size() {
+        return ruleList.size();
+    }
+
+    @Override
+    public ContentBlocker set(int index, ContentBlocker contentBlocker) {
+        ContentBlocker previous = ruleList.set(index, contentBlocker);
+        modificationCount++;
+        return previous;
+    }
+
+    @Override
+    public void add(int index, ContentBlocker contentBlocker) {
+        ruleList.add(index, contentBlocker);
+        modificationCount++;
+        modCount++;
+    }
+
+    @Override
+    public ContentBlocker remove(int index) {
+        ContentBlocker removed = ruleList.remove(index);
+        modificationCount++;
+        modCount++;
+        return removed;
+    }
+
+    @Override
+    public void clear() {
+        ruleList.clear();
+        modificationCount++;
+        modCount++;
+    }
+
+    @NonNull
+    @Override
+    public Object[] toArray() {
+        return ruleList.toArray();
+    }
+}
@@ -0,0 +1,180 @@
+package wtf.zikzak.zikzak_inappwebview_android.content_blocker;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+/**
+ * Compiled content blocker rule list, addressed by an identifier.
+ *
+ * A rule set is compiled (or loaded from its binary file) once and can then be referenced by any number
+ * of WebViews through the {@code contentBlockerRuleSetId} setting, without re-parsing the rules or
+ * rebuilding the rule index per WebView.
+ *
+ * Rules with an {@code id}, whether compiled, loaded or added by an update, can later be replaced or
+ * removed by that identifier, including after a restart since the identifiers are persisted. Each update
+ * builds a new index next to the current one and then publishes it, so requests being checked keep
+ * using the rules they started with and are never blocked by an update.
+ */
+public class ContentBlockerRuleSet {
+    @NonNull
+    private final String identifier;
+    @NonNull
+    private volatile ContentBlockerRuleIndex ruleIndex;
+    @NonNull
+    private final Set<OnRulesChangedListener> listeners = new CopyOnWriteArraySet<>();
+
+    /**
+     * Called, from the thread that changed the rules, after the new rules are published.
+     */
+    public interface OnRulesChangedListener {
+        void onRulesChanged(@NonNull ContentBlockerRuleSet ruleSet);
+    }
+
+    private ContentBlockerRuleSet(@NonNull String identifier, @NonNull List<ContentBlocker> ruleList,
+                                  @Nullable int[] precomputedRuleTokens) {
+        this.identifier = identifier;
+        this.ruleIndex = ContentBlockerRuleIndex.build(ruleList, precomputedRuleTokens);
+    }
+
+    @NonNull
+    public static ContentBlockerRuleSet compile(@NonNull String identifier,
+                                                @NonNull List<Map<String, Map<String, Object>>> contentBlockers) {
+        return create(identifier, parseRules(contentBlockers), null);
+    }
+
+    @NonNull
+    static List<ContentBlocker> parseRules(@NonNull List<Map<String, Map<String, Object>>> contentBlockers) {
+        List<ContentBlocker> ruleList = new ArrayList<>(contentBlockers.size());
+        for (Map<String, Map<String, Object>> contentBlocker : contentBlockers) {
+            // compile ContentBlockerTrigger urlFilter
+            ContentBlockerTrigger trigger = ContentBlockerTrigger.fromMap(contentBlocker.get("trigger"));
+            ContentBlockerAction action = ContentBlockerAction.fromMap(contentBlocker.get("action"));
+            // the optional id lets updateRules replace or remove the rule later on
+            Map<String, ?> rule = contentBlocker;
+            Object ruleIdentifier = rule.get("id");
+            ruleList.add(new ContentBlocker(trigger, action,
+                    ruleIdentifier instanceof String ? (String) ruleIdentifier : null));
+        }
+        return ruleList;
+    }
+
+    /**
+     * Replaces all the rules, e.g. when the rule set is compiled again with the same identifier.
+     * The WebViews using this rule set see the new rules from their next request.
+     */
+    public void setRules(@NonNull List<ContentBlocker> ruleList) {
+        synchronized (this) {
+            ruleIndex = ContentBlockerRuleIndex.build(ruleList);
+        }
+        notifyRulesChanged();
+    }
+
+    public void addOnRulesChangedListener(@NonNull OnRulesChangedListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeOnRulesChangedListener(@NonNull OnRulesChangedListener listener) {
+        listeners.remove(listener);
+    }
+
+    private void notifyRulesChanged() {
+        for (OnRulesChangedListener listener : listeners) {
+            listener.onRulesChanged(this);
+        }
+    }
+
+    /**
+     * Adds the rules of {@code contentBlockersById}, replacing in place the rules with the same identifier
+     * and appending the others, and removes the rules whose identifier is in {@code removedIdentifiers}.
+     *
+     * @return the number of rules added, replaced or removed.
+     */
+    public int updateRules(@NonNull Map<String, Map<String, Map<String, Object>>> contentBlockersById,
+                           @NonNull Collection<String> removedIdentifiers) {
+        int changes;
+        synchronized (this) {
+            changes = replaceRules(contentBlockersById, removedIdentifiers);
+        }
+        if (changes > 0) {
+            notifyRulesChanged();
+        }
+        return changes;
+    }
+
+    private int replaceRules(@NonNull Map<String, Map<String, Map<String, Object>>> contentBlockersById,
+                             @NonNull Collection<String> removedIdentifiers) {
+        // parse first: a malformed rule leaves the rule set unchanged
+        Map<String, ContentBlocker> addedRules = new LinkedHashMap<>();
+        for (Map.Entry<String, Map<String, Map<String, Object>>> entry : contentBlockersById.entrySet()) {
+            ContentBlockerTrigger trigger = ContentBlockerTrigger.fromMap(entry.getValue().get("trigger"));
+            ContentBlockerAction action = ContentBlockerAction.fromMap(entry.getValue().get("action"));
+            addedRules.put(entry.getKey(), new ContentBlocker(trigger, action, entry.getKey()));
+        }
+        Set<String> removed = new HashSet<>(removedIdentifiers);
+
+        ContentBlockerRuleIndex currentIndex = ruleIndex;
+        List<ContentBlocker> currentRuleList = currentIndex.getRuleList();
+        List<ContentBlocker> newRuleList = new ArrayList<>(currentRuleList.size() + addedRules.size());
+        int changes = 0;
+        for (ContentBlocker contentBlocker : currentRuleList) {
+            String ruleIdentifier = contentBlocker.getIdentifier();
+            if (ruleIdentifier != null) {
+                ContentBlocker replacement = addedRules.remove(ruleIdentifier);
+                if (replacement != null) {
+                    newRuleList.add(replacement);
+                    changes++;
+                    continue;
+                }
+                if (removed.contains(ruleIdentifier)) {
+                    changes++;
+                    continue;
+                }
+            }
+            newRuleList.add(contentBlocker);
+        }
+        newRuleList.addAll(addedRules.values());
+        changes += addedRules.size();
+        if (changes > 0) {
+            ruleIndex = currentIndex.update(newRuleList);
+        }
+        return changes;
+    }
+
+    @NonNull
+    static ContentBlockerRuleSet create(@NonNull String identifier, @NonNull List<ContentBlocker> ruleList,
+                                        @Nullable int[] precomputedRuleTokens) {
+        return new ContentBlockerRuleSet(identifier, ruleList, precomputedRuleTokens);
+    }
+
+    @NonNull
+    public String getIdentifier() {
+        return identifier;
+    }
+
+    @NonNull
+    public List<ContentBlocker> getRuleList() {
+        return ruleIndex.getRuleList();
+    }
+
+    @NonNull
+    public ContentBlockerRuleIndex getRuleIndex() {
+        return ruleIndex;
+    }
+
+    @Override
+    public String toString() {
+        return "ContentBlockerRuleSet{" +
+                "identifier='" + identifier + '\'' +
+                ", ruleCount=" + ruleIndex.getRuleCount() +
+                '}';
+    }
+}
@@ -0,0 +1,179 @@
+package wtf.zikzak.zikzak_inappwebview_android.content_blocker;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact binary encoding of a {@link ContentBlockerRuleSet}.
+ *
+ * <pre>
+ * int    magic ("ZCBR")
+ * int    version
+ * string identifier
+ * int    rule count
+ * rule*  string url-filter, byte case sensitive, int resource type bit mask,
+ *        string list if-domain, unless-domain, load-type, if-top-url, unless-top-url,
+ *        byte action type, string selector (length -1 if null),
+ *        int index token, string rule identifier (length -1 if null, since version 2)
+ * </pre>
+ * Strings are stored as an int byte length followed by UTF-8 bytes, lists as an int size followed by the strings.
+ * Files are read through a read-only memory mapping; url-filters are compiled lazily on their first match attempt.
+ */
+public class ContentBlockerRuleSetSerializer {
+    private static final int MAGIC = 0x5A434252; // ZCBR
+    private static final int VERSION = 2;
+
+    private ContentBlockerRuleSetSerializer() {}
+
+    public static void write(@NonNull ContentBlockerRuleSet ruleSet, @NonNull File file) throws IOException {
+        File parent = file.getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            throw new IOException("Cannot create directory " + parent);
+        }
+        // write to a temporary file first, so that a crash never leaves a truncated rule set behind
+        File tmpFile = new File(file.getPath() + ".tmp");
+        // rules and tokens from the same index, even if the rule set is updated meanwhile
+        ContentBlockerRuleIndex ruleIndex = ruleSet.getRuleIndex();
+        List<ContentBlocker> ruleList = ruleIndex.getRuleList();
+        int[] ruleTokens = ruleIndex.getRuleTokens();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            writeString(out, ruleSet.getIdentifier());
+            out.writeInt(ruleList.size());
+            for (int i = 0; i < ruleList.size(); i++) {
+                ContentBlocker contentBlocker = ruleList.get(i);
+                ContentBlockerTrigger trigger = contentBlocker.getTrigger();
+                ContentBlockerAction action = contentBlocker.getAction();
+                writeString(out, trigger.getUrlFilter());
+                out.writeByte(Boolean.TRUE.equals(trigger.getUrlFilterIsCaseSensitive()) ? 1 : 0);
+                int resourceTypeMask = 0;
+                for (ContentBlockerTriggerResourceType resourceType : trigger.getResourceType()) {
+                    resourceTypeMask |= 1 << resourceType.ordinal();
+                }
+                out.writeInt(resourceTypeMask);
+                writeStringList(out, trigger.getIfDomain());
+                writeStringList(out, trigger.getUnlessDomain());
+                writeStringList(out, trigger.getLoadType());
+                writeStringList(out, trigger.getIfTopUrl());
+                writeStringList(out, trigger.getUnlessTopUrl());
+                out.writeByte(action.getType().ordinal());
+                writeString(out, action.getSelector());
+                out.writeInt(ruleTokens[i]);
+                writeString(out, contentBlocker.getIdentifier());
+            }
+        }
+        if (!tmpFile.renameTo(file)) {
+            //noinspection ResultOfMethodCallIgnored
+            tmpFile.delete();
+            throw new IOException("Cannot rename " + tmpFile + " to " + file);
+        }
+    }
+
+    @NonNull
+    public static ContentBlockerRuleSet read(@NonNull File file) throws IOException {
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+             FileChannel channel = randomAccessFile.getChannel()) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return read(buffer);
+        }
+    }
+
+    @NonNull
+    static ContentBlockerRuleSet read(@NonNull ByteBuffer buffer) throws IOException {
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a content blocker rule set file");
+            }
+            int version = buffer.getInt();
+            if (version < 1 || version > VERSION) {
+                throw new IOException("Unsupported content blocker rule set version: " + version);
+            }
+            String identifier = readString(buffer);
+            int ruleCount = buffer.getInt();
+            ContentBlockerTriggerResourceType[] resourceTypes = ContentBlockerTriggerResourceType.values();
+            ContentBlockerActionType[] actionTypes = ContentBlockerActionType.values();
+            List<ContentBlocker> ruleList = new ArrayList<>(ruleCount);
+            int[] ruleTokens = new int[ruleCount];
+            for (int i = 0; i < ruleCount; i++) {
+                String urlFilter = readString(buffer);
+                boolean urlFilterIsCaseSensitive = buffer.get() != 0;
+                int resourceTypeMask = buffer.getInt();
+                List<ContentBlockerTriggerResourceType> resourceType = new ArrayList<>();
+                for (ContentBlockerTriggerResourceType type : resourceTypes) {
+                    if ((resourceTypeMask & (1 << type.ordinal())) != 0) {
+                        resourceType.add(type);
+                    }
+                }
+                List<String> ifDomain = readStringList(buffer);
+                List<String> unlessDomain = readStringList(buffer);
+                List<String> loadType = readStringList(buffer);
+                List<String> ifTopUrl = readStringList(buffer);
+                List<String> unlessTopUrl = readStringList(buffer);
+                ContentBlockerActionType actionType = actionTypes[buffer.get()];
+                String selector = readString(buffer);
+                ruleTokens[i] = buffer.getInt();
+                String ruleIdentifier = version >= 2 ? readString(buffer) : null;
+
+                ContentBlockerTrigger trigger = new ContentBlockerTrigger(urlFilter, urlFilterIsCaseSensitive, resourceType,
+                        ifDomain, unlessDomain, loadType, ifTopUrl, unlessTopUrl, false);
+                ContentBlockerAction action = new ContentBlockerAction(actionType, selector);
+                ruleList.add(new ContentBlocker(trigger, action, ruleIdentifier));
+            }
+            return ContentBlockerRuleSet.create(identifier, ruleList, ruleTokens);
+        } catch (RuntimeException e) {
+            // BufferUnderflowException, ArrayIndexOutOfBoundsException, ...
+            throw new IOException("Corrupted content blocker rule set file", e);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, @Nullable String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static void writeStringList(DataOutputStream out, List<String> values) throws IOException {
+        out.writeInt(values.size());
+        for (String value : values) {
+            writeString(out, value);
+        }
+    }
+
+    @Nullable
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static List<String> readStringList(ByteBuffer buffer) {
+        int size = buffer.getInt();
+        List<String> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(readString(buffer));
+        }
+        return values;
+    }
+}
@@ -0,0 +1,172 @@
+package wtf.zikzak.zikzak_inappwebview_android.content_blocker;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counters of a {@link ContentBlockerHandler}: requests checked, actions applied per type,
+ * hits per rule and a latency histogram of {@link ContentBlockerHandler#checkUrl}.
+ *
+ * Recording is lock-free. The per-rule counters are indexed by rule position and bound to a
+ * {@link ContentBlockerRuleIndex}; when the rules change, the counts of the rules that are still
+ * present are carried over to the new positions.
+ */
+public class ContentBlockerStatistics {
+    // bucket i counts the checks that took less than 2^i microseconds, the last one the slower ones
+    static final int LATENCY_BUCKET_COUNT = 24;
+
+    private final AtomicLong requestCount = new AtomicLong();
+    private final AtomicLong allowedCount = new AtomicLong();
+    private final AtomicLongArray actionCounts = new AtomicLongArray(ContentBlockerActionType.values().length);
+    private final AtomicLongArray latencyBuckets = new AtomicLongArray(LATENCY_BUCKET_COUNT);
+    private final AtomicLong latencyTotalNanos = new AtomicLong();
+    private final AtomicLong latencyMaxNanos = new AtomicLong();
+    @Nullable
+    private volatile RuleCounters ruleCounters;
+
+    public void record(@NonNull ContentBlockerRuleIndex index, @NonNull ContentBlockerVerdict verdict, long elapsedNanos) {
+        requestCount.incrementAndGet();
+        if (verdict.isAllow()) {
+            allowedCount.incrementAndGet();
+        } else {
+            for (ContentBlockerAction action : verdict.getActions()) {
+                actionCounts.incrementAndGet(action.getType().ordinal());
+            }
+            int[] rules = verdict.getRules();
+            if (rules.length > 0) {
+                AtomicLongArray hits = getRuleCounters(index).hits;
+                for (int rule : rules) {
+                    hits.incrementAndGet(rule);
+                }
+            }
+        }
+
+        long micros = elapsedNanos / 1000;
+        int bucket = Math.min(LATENCY_BUCKET_COUNT - 1, 64 - Long.numberOfLeadingZeros(micros));
+        latencyBuckets.incrementAndGet(bucket);
+        latencyTotalNanos.addAndGet(elapsedNanos);
+        long max = latencyMaxNanos.get();
+        while (elapsedNanos > max && !latencyMaxNanos.compareAndSet(max, elapsedNanos)) {
+            max = latencyMaxNanos.get();
+        }
+    }
+
+    private RuleCounters getRuleCounters(@NonNull ContentBlockerRuleIndex index) {
+        RuleCounters counters = ruleCounters;
+        if (counters != null && counters.index == index) {
+            return counters;
+        }
+        synchronized (this) {
+            counters = ruleCounters;
+            if (counters == null || counters.index != index) {
+                counters = new RuleCounters(index, counters);
+                ruleCounters = counters;
+            }
+            return counters;
+        }
+    }
+
+    /**
+     * Returns the current counters. Rules are reported by their position in {@code index},
+     * only if they were hit at least once.
+     */
+    @NonNull
+    public Map<String, Object> toMap(@NonNull ContentBlockerRuleIndex index) {
+        Map<String, Object> actionCountsMap = new HashMap<>();
+        for (ContentBlockerActionType type : ContentBlockerActionType.values()) {
+            actionCountsMap.put(type.toString(), actionCounts.get(type.ordinal()));
+        }
+
+        List<Map<String, Object>> ruleHits = new ArrayList<>();
+        RuleCounters counters = ruleCounters;
+        if (counters != null) {
+            if (counters.index != index) {
+                counters = getRuleCounters(index);
+            }
+            List<ContentBlocker> ruleList = index.getRuleList();
+            for (int i = 0; i < ruleList.size(); i++) {
+                long hits = counters.hits.get(i);
+                if (hits > 0) {
+                    ContentBlocker contentBlocker = ruleList.get(i);
+                    Map<String, Object> ruleHit = new HashMap<>();
+                    ruleHit.put("index", i);
+                    ruleHit.put("identifier", contentBlocker.getIdentifier());
+                    ruleHit.put("urlFilter", contentBlocker.getTrigger().getUrlFilter());
+                    ruleHit.put("actionType", contentBlocker.getAction().getType().toString());
+                    ruleHit.put("hits", hits);
+                    ruleHits.add(ruleHit);
+                }
+            }
+        }
+
+        List<Long> latencyHistogram = new ArrayList<>(LATENCY_BUCKET_COUNT);
+        List<Long> latencyBucketUpperBoundsMicros = new ArrayList<>(LATENCY_BUCKET_COUNT);
+        for (int i = 0; i < LATENCY_BUCKET_COUNT; i++) {
+            latencyHistogram.add(latencyBuckets.get(i));
+            latencyBucketUpperBoundsMicros.add(i < LATENCY_BUCKET_COUNT - 1 ? 1L << i : null);
+        }
+
+        Map<String, Object> map = new HashMap<>();
+        map.put("requestCount", requestCount.get());
+        map.put("allowedCount", allowedCount.get());
+        map.put("actionCounts", actionCountsMap);
+        map.put("ruleCount", index.getRuleCount());
+        map.put("ruleHits", ruleHits);
+        map.put("latencyHistogram", latencyHistogram);
+        map.put("latencyBucketUpperBoundsMicros", latencyBucketUpperBoundsMicros);
+        map.put("latencyTotalMicros", latencyTotalNanos.get() / 1000);
+        map.put("latencyMaxMicros", latencyMaxNanos.get() / 1000);
+        return map;
+    }
+
+    public void reset() {
+        requestCount.set(0);
+        allowedCount.set(0);
+        for (int i = 0; i < actionCounts.length(); i++) {
+            actionCounts.set(i, 0);
+        }
+        for (int i = 0; i < latencyBuckets.length(); i++) {
+            latencyBuckets.set(i, 0);
+        }
+        latencyTotalNanos.set(0);
+        latencyMaxNanos.set(0);
+        synchronized (this) {
+            ruleCounters = null;
+        }
+    }
+
+    private static class RuleCounters {
+        @NonNull
+        final ContentBlockerRuleIndex index;
+        @NonNull
+        final AtomicLongArray hits;
+
+        RuleCounters(@NonNull ContentBlockerRuleIndex index, @Nullable RuleCounters previous) {
+            this.index = index;
+            List<ContentBlocker> ruleList = index.getRuleList();
+            this.hits = new AtomicLongArray(ruleList.size());
+            if (previous != null) {
+                // rules kept by an update are the same instances
+                List<ContentBlocker> previousRuleList = previous.index.getRuleList();
+                Map<ContentBlocker, Integer> previousPositions = new IdentityHashMap<>(previousRuleList.size());
+                for (int i = 0; i < previousRuleList.size(); i++) {
+                    previousPositions.put(previousRuleList.get(i), i);
+                }
+                for (int i = 0; i < ruleList.size(); i++) {
+                    Integer previousPosition = previousPositions.get(ruleList.get(i));
+                    if (previousPosition != null) {
+                        hits.set(i, previous.hits.get(previousPosition));
+                    }
+                }
+            }
+        }
+    }
+}
@@ -13,7 +13,7 @@ public class ContentBlockerTrigger {
 
     @NonNull
     private String urlFilter;
-    private Pattern urlFilterPatternCompiled;
+    private volatile Pattern urlFilterPatternCompiled;
     private Boolean urlFilterIsCaseSensitive;
     private List<ContentBlockerTriggerResourceType> resourceType = new ArrayList<>();
     private List<String> ifDomain = new ArrayList<>();
@@ -25,22 +25,34 @@ public class ContentBlockerTrigger {
     public ContentBlockerTrigger(@NonNull String urlFilter, @Nullable Boolean urlFilterIsCaseSensitive, @Nullable List<ContentBlockerTriggerResourceType> resourceType,
                                  @Nullable List<String> ifDomain, @Nullable List<String> unlessDomain, @Nullable List<String> loadType,
                                  @Nullable List<String> ifTopUrl, @Nullable List<String> unlessTopUrl) {
+        this(urlFilter, urlFilterIsCaseSensitive, resourceType, ifDomain, unlessDomain, loadType, ifTopUrl, unlessTopUrl, true);
+    }
+
+    /**
+     * @param compileUrlFilter whether to compile {@code urlFilter} right away. Rules loaded from an already
+     *                         validated rule set are compiled lazily, on the first match attempt.
+     */
+    ContentBlockerTrigger(@NonNull String urlFilter, @Nullable Boolean urlFilterIsCaseSensitive, @Nullable List<ContentBlockerTriggerResourceType> resourceType,
+                          @Nullable List<String> ifDomain, @Nullable List<String> unlessDomain, @Nullable List<String> loadType,
+                          @Nullable List<String> ifTopUrl, @Nullable List<String> unlessTopUrl, boolean compileUrlFilter) {
         this.urlFilterIsCaseSensitive = urlFilterIsCaseSensitive != null ? urlFilterIsCaseSensitive : false;
 
         this.urlFilter = urlFilter;
-        this.urlFilterPatternCompiled = Pattern.compile(this.urlFilter, this.urlFilterIsCaseSensitive ? 0 : Pattern.CASE_INSENSITIVE);
+        if (compileUrlFilter) {
+            this.urlFilterPatternCompiled = compileUrlFilter();
+        }
 
         this.resourceType = resourceType != null ? resourceType : this.resourceType;
         this.ifDomain = ifDomain != null ? ifDomain : this.ifDomain;
         this.unlessDomain = unlessDomain != null ? unlessDomain : this.unlessDomain;
         if ((!(this.ifDomain.isEmpty() || this.unlessDomain.isEmpty()) != false))
-            throw new AssertionError();
+            throw new AssertionError("if-domain and unless-domain cannot be used together");
         this.loadType = loadType != null ? loadType : this.loadType;
-        if ((this.loadType.size() > 2)) throw new AssertionError();
+        if ((this.loadType.size() > 2)) throw new AssertionError("load-type cannot have more than 2 values");
         this.ifTopUrl = ifTopUrl != null ? ifTopUrl : this.ifTopUrl;
         this.unlessTopUrl = unlessTopUrl != null ? unlessTopUrl : this.unlessTopUrl;
         if ((!(this.ifTopUrl.isEmpty() || this.unlessTopUrl.isEmpty()) != false))
-            throw new AssertionError();
+            throw new AssertionError("if-top-url and unless-top-url cannot be used together");
     }
 
     public static ContentBlockerTrigger fromMap(Map<String, Object> map) {
@@ -73,7 +85,16 @@ public class ContentBlockerTrigger {
     }
 
     public Pattern getUrlFilterPatternCompiled() {
-        return urlFilterPatternCompiled;
+        Pattern pattern = urlFilterPatternCompiled;
+        if (pattern == null) {
+            pattern = compileUrlFilter();
+            urlFilterPatternCompiled = pattern;
+        }
+        return pattern;
+    }
+
+    private Pattern compileUrlFilter() {
+        return Pattern.compile(this.urlFilter, this.urlFilterIsCaseSensitive ? 0 : Pattern.CASE_INSENSITIVE);
     }
 
     public void setUrlFilterPatternCompiled(Pattern urlFilterPatternCompiled) {
@@ -144,7 +165,7 @@ public class ContentBlockerTrigger {
         ContentBlockerTrigger that = (ContentBlockerTrigger) o;
 
         if (!urlFilter.equals(that.urlFilter)) return false;
-        if (!urlFilterPatternCompiled.equals(that.urlFilterPatternCompiled)) return false;
+        if (!getUrlFilterPatternCompiled().equals(that.getUrlFilterPatternCompiled())) return false;
         if (!urlFilterIsCaseSensitive.equals(that.urlFilterIsCaseSensitive)) return false;
         if (!resourceType.equals(that.resourceType)) return false;
         if (!ifDomain.equals(that.ifDomain)) return false;
@@ -157,7 +178,7 @@ public class ContentBlockerTrigger {
     @Override
     public int hashCode() {
         int result = urlFilter.hashCode();
-        result = 31 * result + urlFilterPatternCompiled.hashCode();
+        result = 31 * result + getUrlFilterPatternCompiled().hashCode();
         result = 31 * result + urlFilterIsCaseSensitive.hashCode();
         result = 31 * result + resourceType.hashCode();
         result = 31 * result + ifDomain.hashCode();
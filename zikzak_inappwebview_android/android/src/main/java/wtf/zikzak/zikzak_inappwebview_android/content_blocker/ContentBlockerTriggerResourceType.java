@@ -1,5 +1,7 @@
 package wtf.zikzak.zikzak_inappwebview_android.content_blocker;
 
+import java.util.List;
+
 public enum ContentBlockerTriggerResourceType {
     DOCUMENT ("document"),
     IMAGE ("image"),
@@ -17,6 +19,21 @@ public enum ContentBlockerTriggerResourceType {
         this.value = value;
     }
 
+    /**
+     * Bit of this resource type in a resource type mask.
+     */
+    public int toMask() {
+        return 1 << ordinal();
+    }
+
+    public static int toMask(List<ContentBlockerTriggerResourceType> types) {
+        int mask = 0;
+        for (ContentBlockerTriggerResourceType type : types) {
+            mask |= type.toMask();
+        }
+        return mask;
+    }
+
     public boolean equalsValue(String otherValue) {
         return value.equals(otherValue);
     }
@@ -0,0 +1,75 @@
+package wtf.zikzak.zikzak_inappwebview_android.content_blocker;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of the content blocker rule evaluation for a request: the actions of the matching rules,
+ * in rule list order. Evaluation stops at the first {@link ContentBlockerActionType#BLOCK} action,
+ * so if present it is always the last one. An empty list allows the request.
+ * The verdict also keeps the positions of those rules in the index that produced it, for the statistics.
+ */
+public class ContentBlockerVerdict {
+    private static final int[] NO_RULES = new int[0];
+    public static final ContentBlockerVerdict ALLOW = new ContentBlockerVerdict(Collections.<ContentBlockerAction>emptyList());
+
+    @NonNull
+    private final List<ContentBlockerAction> actions;
+    @NonNull
+    private final int[] rules;
+
+    public ContentBlockerVerdict(@NonNull List<ContentBlockerAction> actions) {
+        this(actions, NO_RULES);
+    }
+
+    private ContentBlockerVerdict(@NonNull List<ContentBlockerAction> actions, @NonNull int[] rules) {
+        this.actions = Collections.unmodifiableList(actions);
+        this.rules = rules;
+    }
+
+    /**
+     * Returns the verdict applying the actions of the given rules of {@code index},
+     * {@link #ALLOW} for a null or empty rule list.
+     */
+    @NonNull
+    static ContentBlockerVerdict of(@NonNull ContentBlockerRuleIndex index, @Nullable ContentBlockerRuleIndex.IntList matchedRules) {
+        if (matchedRules == null || matchedRules.size() == 0) {
+            return ALLOW;
+        }
+        int[] rules = matchedRules.toArray();
+        List<ContentBlocker> ruleList = index.getRuleList();
+        List<ContentBlockerAction> actions = new ArrayList<>(rules.length);
+        for (int rule : rules) {
+            actions.add(ruleList.get(rule).getAction());
+        }
+        return new ContentBlockerVerdict(actions, rules);
+    }
+
+    @NonNull
+    public List<ContentBlockerAction> getActions() {
+        return actions;
+    }
+
+    /**
+     * Returns the positions of the rules of the {@link #getActions() actions}, empty if unknown.
+     */
+    @NonNull
+    int[] getRules() {
+        return rules;
+    }
+
+    public boolean isAllow() {
+        return actions.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "ContentBlockerVerdict{" +
+                "actions=" + actions +
+                '}';
+    }
+}
@@ -0,0 +1,114 @@
+package wtf.zikzak.zikzak_inappwebview_android.content_blocker;
+
+import android.util.LruCache;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import wtf.zikzak.zikzak_inappwebview_android.types.TopDocumentSnapshot;
+
+/**
+ * Bounded LRU cache of {@link ContentBlockerVerdict}s for the rules of one {@link ContentBlockerRuleIndex}.
+ *
+ * Entries are keyed by the request URL, its resource type and, only when some rule depends on it,
+ * the top document origin ({@code load-type}) or URL ({@code if-top-url}/{@code unless-top-url}).
+ * A new cache is created whenever the rule index changes, which invalidates all the verdicts at once.
+ */
+public class ContentBlockerVerdictCache {
+    public static final int DEFAULT_MAX_SIZE = 1024;
+
+    @NonNull
+    private final ContentBlockerRuleIndex ruleIndex;
+    private final boolean dependsOnTopUrl;
+    private final boolean dependsOnTopOrigin;
+    private final LruCache<Key, ContentBlockerVerdict> verdicts;
+
+    public ContentBlockerVerdictCache(@NonNull ContentBlockerRuleIndex ruleIndex, int maxSize) {
+        this.ruleIndex = ruleIndex;
+        boolean dependsOnTopUrl = false;
+        boolean dependsOnTopOrigin = false;
+        for (ContentBlocker contentBlocker : ruleIndex.getRuleList()) {
+            ContentBlockerTrigger trigger = contentBlocker.getTrigger();
+            dependsOnTopUrl |= !trigger.getIfTopUrl().isEmpty() || !trigger.getUnlessTopUrl().isEmpty();
+            dependsOnTopOrigin |= !trigger.getLoadType().isEmpty();
+        }
+        this.dependsOnTopUrl = dependsOnTopUrl;
+        this.dependsOnTopOrigin = dependsOnTopOrigin;
+        this.verdicts = new LruCache<>(maxSize);
+    }
+
+    public boolean isFor(@NonNull ContentBlockerRuleIndex ruleIndex) {
+        return this.ruleIndex == ruleIndex;
+    }
+
+    @NonNull
+    public Key createKey(@NonNull String url, @Nullable ContentBlockerTriggerResourceType resourceType,
+                         @NonNull TopDocumentSnapshot topDocument) {
+        String topDocumentKey = null;
+        if (dependsOnTopUrl) {
+            topDocumentKey = topDocument.getUrl();
+        } else if (dependsOnTopOrigin) {
+            topDocumentKey = topDocument.getOrigin();
+        }
+        return new Key(url, resourceType, topDocumentKey);
+    }
+
+    @Nullable
+    public ContentBlockerVerdict get(@NonNull Key key) {
+        return verdicts.get(key);
+    }
+
+    public void put(@NonNull Key key, @NonNull ContentBlockerVerdict verdict) {
+        verdicts.put(key, verdict);
+    }
+
+    public int size() {
+        return verdicts.size();
+    }
+
+    public int getHitCount() {
+        return verdicts.hitCount();
+    }
+
+    public int getMissCount() {
+        return verdicts.missCount();
+    }
+
+    public static class Key {
+        @NonNull
+        private final String url;
+        @Nullable
+        private final ContentBlockerTriggerResourceType resourceType;
+        @Nullable
+        private final String topDocument;
+        private final int hashCode;
+
+        private Key(@NonNull String url, @Nullable ContentBlockerTriggerResourceType resourceType, @Nullable String topDocument) {
+            this.url = url;
+            this.resourceType = resourceType;
+            this.topDocument = topDocument;
+            int result = url.hashCode();
+            result = 31 * result + (resourceType != null ? resourceType.hashCode() : 0);
+            result = 31 * result + (topDocument != null ? topDocument.hashCode() : 0);
+            this.hashCode = result;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            Key that = (Key) o;
+
+            if (hashCode != that.hashCode) return false;
+            if (!url.equals(that.url)) return false;
+            if (resourceType != that.resourceType) return false;
+            return topDocument != null ? topDocument.equals(that.topDocument) : that.topDocument == null;
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package wtf.zikzak.zikzak_inappwebview_android.plugin_scripts_js;
+
+import androidx.annotation.NonNull;
+
+import org.json.JSONArray;
+
+import java.util.Collection;
+
+import wtf.zikzak.zikzak_inappwebview_android.types.PluginScript;
+import wtf.zikzak.zikzak_inappwebview_android.types.UserScriptInjectionTime;
+
+public class ContentBlockerCosmeticFilterJS {
+  public static final String CONTENT_BLOCKER_COSMETIC_FILTER_JS_PLUGIN_SCRIPT_GROUP_NAME = "IN_APP_WEBVIEW_CONTENT_BLOCKER_COSMETIC_FILTER_JS_PLUGIN_SCRIPT";
+  public static final String VAR_CONTENT_BLOCKER_COSMETIC_FILTER = JavaScriptBridgeJS.JAVASCRIPT_BRIDGE_NAME + "_contentBlockerCosmeticFilter";
+  public static final String STYLE_ID = JavaScriptBridgeJS.JAVASCRIPT_BRIDGE_NAME + "-css-display-none-style";
+
+  /**
+   * Keeps a single style sheet per document with a {@code display: none} rule per selector.
+   * New selectors are queued and appended to the style sheet at most once per animation frame.
+   * The style sheet is created again if the page removes it.
+   * The elements already matched by a new selector, and those matched once the document is parsed,
+   * are also hidden with an inline {@code display: none !important} style: an inline important
+   * style of the page would otherwise win over the style sheet.
+   */
+  public static final String CONTENT_BLOCKER_COSMETIC_FILTER_JS_SOURCE = "(function(w, d) {" +
+          "  if (w." + VAR_CONTENT_BLOCKER_COSMETIC_FILTER + " != null) {" +
+          "    return;" +
+          "  }" +
+          "  var selectors = {};" +
+          "  var css = '';" +
+          "  var pending = '';" +
+          "  var pendingSelectors = [];" +
+          "  var style = null;" +
+          "  var scheduled = false;" +
+          "  function hide(list) {" +
+          "    for (var i = 0; i < list.length; i++) {" +
+          "      try {" +
+          "        var elements = d.querySelectorAll(list[i]);" +
+          "        for (var j = 0; j < elements.length; j++) {" +
+          "          elements[j].style.setProperty('display', 'none', 'important');" +
+          "        }" +
+          "      } catch (e) {}" +
+          "    }" +
+          "  }" +
+          "  function flush() {" +
+          "    scheduled = false;" +
+          "    var parent = d.head || d.documentElement;" +
+          "    if (parent == null) {" +
+          "      schedule();" +
+          "      return;" +
+          "    }" +
+          "    if (style == null || !d.contains(style)) {" +
+          "      style = d.createElement('style');" +
+          "      style.id = '" + STYLE_ID + "';" +
+          "      style.appendChild(d.createTextNode(css));" +
+          "      parent.appendChild(style);" +
+          "    } else if (pending.length > 0) {" +
+          "      style.appendChild(d.createTextNode(pending));" +
+          "    }" +
+          "    pending = '';" +
+          "    var list = pendingSelectors;" +
+          "    pendingSelectors = [];" +
+          "    hide(list);" +
+          "  }" +
+          "  function schedule() {" +
+          "    if (!scheduled) {" +
+          "      scheduled = true;" +
+          "      if (w.requestAnimationFrame != null && d.visibilityState !== 'hidden') {" +
+          "        w.requestAnimationFrame(flush);" +
+          "      } else {" +
+          "        setTimeout(flush, 16);" +
+          "      }" +
+          "    }" +
+          "  }" +
+          "  function add(list) {" +
+          "    for (var i = 0; i < list.length; i++) {" +
+          "      var selector = list[i];" +
+          "      if (selector != null && !selectors.hasOwnProperty(selector)) {" +
+          "        selectors[selector] = true;" +
+          "        var rule = selector + ' { display: none !important; }\\n';" +
+          "        css += rule;" +
+          "        pending += rule;" +
+          "        pendingSelectors.push(selector);" +
+          "      }" +
+          "    }" +
+          "    if (pending.length > 0) {" +
+          "      schedule();" +
+          "    }" +
+          "  }" +
+          "  if (d.readyState === 'loading') {" +
+          "    d.addEventListener('DOMContentLoaded', function() {" +
+          "      hide(Object.keys(selectors));" +
+          "    });" +
+          "  }" +
+          "  w." + VAR_CONTENT_BLOCKER_COSMETIC_FILTER + " = {" +
+          "    add: add," +
+          "    flush: flush" +
+          "  };" +
+          "})(window, document);";
+
+  @NonNull
+  public static PluginScript createContentBlockerCosmeticFilterPluginScript(@NonNull Collection<String> selectors) {
+    String source = CONTENT_BLOCKER_COSMETIC_FILTER_JS_SOURCE;
+    if (!selectors.isEmpty()) {
+      // applied right away, before the first paint
+      source = createAddSelectorsSource(selectors) +
+              "window." + VAR_CONTENT_BLOCKER_COSMETIC_FILTER + ".flush();";
+    }
+    return new PluginScript(
+            ContentBlockerCosmeticFilterJS.CONTENT_BLOCKER_COSMETIC_FILTER_JS_PLUGIN_SCRIPT_GROUP_NAME,
+            source,
+            UserScriptInjectionTime.AT_DOCUMENT_START,
+            null,
+            false,
+            null
+    );
+  }
+
+  /**
+   * Returns the code adding {@code selectors} to the style sheet of the current document,
+   * installing the cosmetic filter first if the document start script did not run.
+   */
+  @NonNull
+  public static String createAddSelectorsSource(@NonNull Collection<String> selectors) {
+    return CONTENT_BLOCKER_COSMETIC_FILTER_JS_SOURCE +
+            "window." + VAR_CONTENT_BLOCKER_COSMETIC_FILTER + ".add(" + new JSONArray(selectors) + ");";
+  }
+}
@@ -5,6 +5,8 @@ import wtf.zikzak.zikzak_inappwebview_android.types.UserScriptInjectionTime;
 
 public class JavaScriptBridgeJS {
   public static final String JAVASCRIPT_BRIDGE_NAME = "zikzak_inappwebview";
+  // web message listener of JavaScriptBinaryBridge, only injected when array buffer messages are supported
+  public static final String JAVASCRIPT_BINARY_BRIDGE_NAME = JAVASCRIPT_BRIDGE_NAME + "_binary";
   public static final String JAVASCRIPT_BRIDGE_JS_PLUGIN_SCRIPT_GROUP_NAME = "IN_APP_WEBVIEW_JAVASCRIPT_BRIDGE_JS_PLUGIN_SCRIPT";
   public static final PluginScript JAVASCRIPT_BRIDGE_JS_PLUGIN_SCRIPT = new PluginScript(
           JavaScriptBridgeJS.JAVASCRIPT_BRIDGE_JS_PLUGIN_SCRIPT_GROUP_NAME,
@@ -214,13 +216,111 @@ public class JavaScriptBridgeJS {
           "    }" +
           "};";
 
+  // the calls made during a task are queued and sent at once, in a microtask
   public static final String JAVASCRIPT_BRIDGE_JS_SOURCE = "if (window." + JAVASCRIPT_BRIDGE_NAME + " != null) {" +
+          "  window." + JAVASCRIPT_BRIDGE_NAME + "._callHandlerQueue = [];" +
+          "  window." + JAVASCRIPT_BRIDGE_NAME + "._flushCallHandlerQueue = function() {" +
+          "    var bridge = window." + JAVASCRIPT_BRIDGE_NAME + ";" +
+          "    var calls = bridge._callHandlerQueue;" +
+          "    bridge._callHandlerQueue = [];" +
+          "    if (calls.length > 1 && bridge._callHandlers != null) {" +
+          "      bridge._callHandlers(JSON.stringify(calls));" +
+          "      return;" +
+          "    }" +
+          "    for (var i = 0; i < calls.length; i++) {" +
+          "      bridge._callHandler(calls[i][0], calls[i][1], calls[i][2]);" +
+          "    }" +
+          "  };" +
+          "  window." + JAVASCRIPT_BRIDGE_NAME + "._settleBinaryCall = function(event) {" +
+          "    var bridge = window." + JAVASCRIPT_BRIDGE_NAME + ";" +
+          "    var id, message = null;" +
+          "    if (typeof event.data === 'string') {" +
+          "      message = JSON.parse(event.data);" +
+          "      id = message.id;" +
+          "    } else {" +
+          "      id = new DataView(event.data).getUint32(0, true);" +
+          "    }" +
+          "    var p = bridge[id];" +
+          "    if (p == null) {" +
+          "      return;" +
+          "    }" +
+          "    delete bridge[id];" +
+          "    if (message == null) {" +
+          "      p.resolve(event.data.slice(4));" +
+          "    } else if (message.error != null) {" +
+          "      p.reject(new Error(message.error));" +
+          "    } else {" +
+          "      p.resolve(message.value);" +
+          "    }" +
+          "  };" +
+          "  window." + JAVASCRIPT_BRIDGE_NAME + "._postBinaryCall = function(_callHandlerID, handlerName, args, buffers) {" +
+          "    var bridge = window." + JAVASCRIPT_BRIDGE_NAME + ";" +
+          "    var binaryBridge = window." + JAVASCRIPT_BINARY_BRIDGE_NAME + ";" +
+          "    if (bridge._binaryBridgeListening !== true) {" +
+          "      binaryBridge.addEventListener('message', bridge._settleBinaryCall);" +
+          "      bridge._binaryBridgeListening = true;" +
+          "    }" +
+          "    var header = new TextEncoder().encode(JSON.stringify({" +
+          "      id: _callHandlerID, handlerName: handlerName, args: args," +
+          "      buffers: buffers.map(function(buffer) { return buffer.byteLength; })" +
+          "    }));" +
+          "    var length = 4 + header.byteLength;" +
+          "    for (var i = 0; i < buffers.length; i++) {" +
+          "      length += buffers[i].byteLength;" +
+          "    }" +
+          "    var frame = new Uint8Array(length);" +
+          "    new DataView(frame.buffer).setUint32(0, header.byteLength, true);" +
+          "    frame.set(header, 4);" +
+          "    var offset = 4 + header.byteLength;" +
+          "    for (var i = 0; i < buffers.length; i++) {" +
+          "      frame.set(buffers[i], offset);" +
+          "      offset += buffers[i].byteLength;" +
+          "    }" +
+          "    binaryBridge.postMessage(frame.buffer);" +
+          "  };" +
+          "  window." + JAVASCRIPT_BRIDGE_NAME + "._queueCall = function(handlerName, args) {" +
+          "    var bridge = window." + JAVASCRIPT_BRIDGE_NAME + ";" +
+          "    var _callHandlerID = setTimeout(function(){});" +
+          "    var promise = new Promise(function(resolve, reject) {" +
+          "      bridge[_callHandlerID] = {resolve: resolve, reject: reject};" +
+          "    });" +
+          "    bridge._callHandlerQueue.push([handlerName, _callHandlerID, args]);" +
+          "    if (bridge._callHandlerQueue.length === 1) {" +
+          "      Promise.resolve().then(bridge._flushCallHandlerQueue);" +
+          "    }" +
+          "    return promise;" +
+          "  };" +
           "  window." + JAVASCRIPT_BRIDGE_NAME + ".callHandler = function() {" +
+          "    return window." + JAVASCRIPT_BRIDGE_NAME + "._queueCall(arguments[0], JSON.stringify(Array.prototype.slice.call(arguments, 1)));" +
+          "  };" +
+          // opt-in: array buffers and typed arrays reach Dart as Uint8List, sent as raw bytes
+          // when the binary bridge is available, otherwise as lists of bytes through the JSON bridge.
+          // The calls sent as raw bytes skip the queue, so they can reach Dart before the calls
+          // made earlier in the same task.
+          "  window." + JAVASCRIPT_BRIDGE_NAME + ".callHandlerBinary = function() {" +
+          "    var bridge = window." + JAVASCRIPT_BRIDGE_NAME + ";" +
+          "    var binaryBridge = window." + JAVASCRIPT_BINARY_BRIDGE_NAME + ";" +
+          "    var buffers = [];" +
+          "    var args = JSON.stringify(Array.prototype.slice.call(arguments, 1), function(key, value) {" +
+          "      if (value instanceof ArrayBuffer || ArrayBuffer.isView(value)) {" +
+          "        var bytes = value instanceof ArrayBuffer ? new Uint8Array(value) : new Uint8Array(value.buffer, value.byteOffset, value.byteLength);" +
+          "        if (binaryBridge == null) {" +
+          "          return {'__zikzak_inappwebview_buffer__': Array.prototype.slice.call(bytes)};" +
+          "        }" +
+          "        buffers.push(bytes);" +
+          "        return {'__zikzak_inappwebview_buffer__': buffers.length - 1};" +
+          "      }" +
+          "      return value;" +
+          "    });" +
+          "    if (buffers.length === 0) {" +
+          "      return bridge._queueCall(arguments[0], args);" +
+          "    }" +
           "    var _callHandlerID = setTimeout(function(){});" +
-          "    window." + JAVASCRIPT_BRIDGE_NAME + "._callHandler(arguments[0], _callHandlerID, JSON.stringify(Array.prototype.slice.call(arguments, 1)));" +
-          "    return new Promise(function(resolve, reject) {" +
-          "      window." + JAVASCRIPT_BRIDGE_NAME + "[_callHandlerID] = {resolve: resolve, reject: reject};" +
+          "    var promise = new Promise(function(resolve, reject) {" +
+          "      bridge[_callHandlerID] = {resolve: resolve, reject: reject};" +
           "    });" +
+          "    bridge._postBinaryCall(_callHandlerID, arguments[0], args, buffers);" +
+          "    return promise;" +
           "  };" +
           "}"+
           "if (window.top != null && window.top !== window && window." + JAVASCRIPT_BRIDGE_NAME + " == null) {" +
@@ -236,6 +336,16 @@ public class JavaScriptBridgeJS {
           "      return new Promise(function(resolve, reject) { reject(error); });" +
           "    }" +
           "  };" +
+          "  window." + JAVASCRIPT_BRIDGE_NAME + ".callHandlerBinary = function() {" +
+          "    var args = Array.prototype.slice.call(arguments);" +
+          "    return window." + JAVASCRIPT_BRIDGE_NAME + ".callHandler.apply(null, JSON.parse(JSON.stringify(args, function(key, value) {" +
+          "      if (value instanceof ArrayBuffer || ArrayBuffer.isView(value)) {" +
+          "        var bytes = value instanceof ArrayBuffer ? new Uint8Array(value) : new Uint8Array(value.buffer, value.byteOffset, value.byteLength);" +
+          "        return {'__zikzak_inappwebview_buffer__': Array.prototype.slice.call(bytes)};" +
+          "      }" +
+          "      return value;" +
+          "    })));" +
+          "  };" +
           "}" +
           "if (window." + JAVASCRIPT_BRIDGE_NAME + " != null) {" +
           "  " + UTIL_JS_SOURCE +
@@ -16,13 +16,23 @@ public class PluginScriptsUtil {
   public static final String VAR_RESULT_UUID = "$IN_APP_WEBVIEW_RESULT_UUID";
   public static final String VAR_RANDOM_NAME = "$IN_APP_WEBVIEW_VARIABLE_RANDOM_NAME";
 
+  // the results are passed to the dedicated entry points of JavaScriptBridgeInterface when available,
+  // e.g. not in the frames where the bridge is only the callHandler shim of JavaScriptBridgeJS
   public static final String CALL_ASYNC_JAVA_SCRIPT_WRAPPER_JS_SOURCE = "(function(obj) {" +
+          "  function sendResult(value, error) {" +
+          "    var bridge = window." + JavaScriptBridgeJS.JAVASCRIPT_BRIDGE_NAME + ";" +
+          "    if (bridge._callAsyncJavaScriptResult != null) {" +
+          "      bridge._callAsyncJavaScriptResult('" + VAR_RESULT_UUID + "', JSON.stringify({'value': value, 'error': error}));" +
+          "    } else {" +
+          "      bridge.callHandler('callAsyncJavaScript', {'value': value, 'error': error, 'resultUuid': '" + VAR_RESULT_UUID + "'});" +
+          "    }" +
+          "  }" +
           "  (async function(" + VAR_FUNCTION_ARGUMENT_NAMES + ") {" +
           "    \n" + VAR_FUNCTION_BODY + "\n" +
           "  })(" + VAR_FUNCTION_ARGUMENT_VALUES + ").then(function(value) {" +
-          "    window." + JavaScriptBridgeJS.JAVASCRIPT_BRIDGE_NAME + ".callHandler('callAsyncJavaScript', {'value': value, 'error': null, 'resultUuid': '" + VAR_RESULT_UUID + "'});" +
+          "    sendResult(value, null);" +
           "  }).catch(function(error) {" +
-          "    window." + JavaScriptBridgeJS.JAVASCRIPT_BRIDGE_NAME + ".callHandler('callAsyncJavaScript', {'value': null, 'error': error + '', 'resultUuid': '" + VAR_RESULT_UUID + "'});" +
+          "    sendResult(null, error + '');" +
           "  });" +
           "  return null;" +
           "})(" + VAR_FUNCTION_ARGUMENTS_OBJ + ");";
@@ -33,7 +43,14 @@ public class PluginScriptsUtil {
           "} catch(e) {" +
           "  console.error(e);" +
           "}" +
-          "window." + JavaScriptBridgeJS.JAVASCRIPT_BRIDGE_NAME + ".callHandler('evaluateJavaScriptWithContentWorld', {'value': $IN_APP_WEBVIEW_VARIABLE_RANDOM_NAME, 'resultUuid': '" + VAR_RESULT_UUID + "'});";
+          "if (window." + JavaScriptBridgeJS.JAVASCRIPT_BRIDGE_NAME + "._evaluateJavaScriptWithContentWorldResult != null) {" +
+          // strings are returned as they are, like the JSON value of the callHandler path
+          "  window." + JavaScriptBridgeJS.JAVASCRIPT_BRIDGE_NAME + "._evaluateJavaScriptWithContentWorldResult('" + VAR_RESULT_UUID + "', " +
+          "typeof $IN_APP_WEBVIEW_VARIABLE_RANDOM_NAME === 'string' ? $IN_APP_WEBVIEW_VARIABLE_RANDOM_NAME : " +
+          "(JSON.stringify($IN_APP_WEBVIEW_VARIABLE_RANDOM_NAME) || 'null'));" +
+          "} else {" +
+          "  window." + JavaScriptBridgeJS.JAVASCRIPT_BRIDGE_NAME + ".callHandler('evaluateJavaScriptWithContentWorld', {'value': $IN_APP_WEBVIEW_VARIABLE_RANDOM_NAME, 'resultUuid': '" + VAR_RESULT_UUID + "'});" +
+          "}";
 
   public static final String IS_ACTIVE_ELEMENT_INPUT_EDITABLE_JS_SOURCE =
           "var activeEl = document.activeElement;" +
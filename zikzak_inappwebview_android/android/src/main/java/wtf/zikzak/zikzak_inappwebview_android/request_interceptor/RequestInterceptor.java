@@ -0,0 +1,26 @@
+package wtf.zikzak.zikzak_inappwebview_android.request_interceptor;
+
+import android.webkit.WebResourceResponse;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import wtf.zikzak.zikzak_inappwebview_android.types.WebResourceRequestExt;
+import wtf.zikzak.zikzak_inappwebview_android.webview.in_app_webview.InAppWebView;
+
+/**
+ * Native interceptor of the requests of the WebViews, registered by the host app with
+ * {@link RequestInterceptorRegistry}.
+ *
+ * It's called on a WebView IO thread, before the request is sent to Dart through
+ * {@code shouldInterceptRequest}. A request can't be modified in place: to add headers or
+ * redirect to a local mirror, load it and return the response.
+ */
+public interface RequestInterceptor {
+  /**
+   * @return the response to give to the WebView, or {@code null} to let the next interceptor,
+   * then Dart or the network, handle the request.
+   */
+  @Nullable
+  WebResourceResponse intercept(@NonNull InAppWebView webView, @NonNull WebResourceRequestExt request);
+}
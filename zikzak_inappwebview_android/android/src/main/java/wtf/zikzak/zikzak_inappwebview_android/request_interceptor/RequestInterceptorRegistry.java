@@ -0,0 +1,142 @@
+package wtf.zikzak.zikzak_inappwebview_android.request_interceptor;
+
+import android.util.Log;
+import android.webkit.WebResourceResponse;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import wtf.zikzak.zikzak_inappwebview_android.types.WebResourceRequestExt;
+import wtf.zikzak.zikzak_inappwebview_android.webview.in_app_webview.InAppWebView;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Ordered chain of the {@link RequestInterceptor}s of the host app, shared by all the WebViews.
+ *
+ * Interceptors run by decreasing priority, in registration order for the same priority, and
+ * only for the URLs matching their scope. The chain is copied on write, so running it from the
+ * WebView IO threads doesn't take any lock.
+ */
+public class RequestInterceptorRegistry {
+  protected static final String LOG_TAG = "RequestInterceptorReg";
+
+  private static final Object lock = new Object();
+  private static volatile Registration[] registrations = new Registration[0];
+
+  /**
+   * Registers {@code interceptor} for all the URLs with priority 0.
+   */
+  @NonNull
+  public static Registration register(@NonNull RequestInterceptor interceptor) {
+    return register(interceptor, 0, null);
+  }
+
+  /**
+   * Registers {@code interceptor}.
+   *
+   * @param priority interceptors with a higher priority run first.
+   * @param urlScope the interceptor is called only for the URLs where this pattern is found,
+   *                 or for all of them if {@code null}.
+   */
+  @NonNull
+  public static Registration register(@NonNull RequestInterceptor interceptor, int priority, @Nullable Pattern urlScope) {
+    Registration registration = new Registration(interceptor, priority, urlScope);
+    synchronized (lock) {
+      List<Registration> list = new ArrayList<>(registrations.length + 1);
+      boolean added = false;
+      for (Registration current : registrations) {
+        if (!added && priority > current.priority) {
+          list.add(registration);
+          added = true;
+        }
+        list.add(current);
+      }
+      if (!added) {
+        list.add(registration);
+      }
+      registrations = list.toArray(new Registration[0]);
+    }
+    return registration;
+  }
+
+  public static void unregister(@NonNull RequestInterceptor interceptor) {
+    synchronized (lock) {
+      List<Registration> list = new ArrayList<>(registrations.length);
+      for (Registration current : registrations) {
+        if (current.interceptor != interceptor) {
+          list.add(current);
+        }
+      }
+      registrations = list.toArray(new Registration[0]);
+    }
+  }
+
+  public static boolean isEmpty() {
+    return registrations.length == 0;
+  }
+
+  /**
+   * Runs the chain and returns the first response given by an interceptor, if any.
+   * An interceptor throwing an exception is skipped.
+   */
+  @Nullable
+  public static WebResourceResponse intercept(@NonNull InAppWebView webView, @NonNull WebResourceRequestExt request) {
+    Registration[] registrations = RequestInterceptorRegistry.registrations;
+    if (registrations.length == 0) {
+      return null;
+    }
+    String url = request.getUrl();
+    for (Registration registration : registrations) {
+      if (registration.urlScope != null && !registration.urlScope.matcher(url).find()) {
+        continue;
+      }
+      try {
+        WebResourceResponse response = registration.interceptor.intercept(webView, request);
+        if (response != null) {
+          return response;
+        }
+      } catch (RuntimeException e) {
+        Log.e(LOG_TAG, "", e);
+      }
+    }
+    return null;
+  }
+
+  public static class Registration {
+    @NonNull
+    private final RequestInterceptor interceptor;
+    private final int priority;
+    @Nullable
+    private final Pattern urlScope;
+
+    private Registration(@NonNull RequestInterceptor interceptor, int priority, @Nullable Pattern urlScope) {
+      this.interceptor = interceptor;
+      this.priority = priority;
+      this.urlScope = urlScope;
+    }
+
+    public void unregister() {
+      synchronized (lock) {
+        List<Registration> list = new ArrayList<>(registrations.length);
+        for (Registration current : registrations) {
+          if (current != this) {
+            list.add(current);
+          }
+        }
+        registrations = list.toArray(new Registration[0]);
+      }
+    }
+
+    public int getPriority() {
+      return priority;
+    }
+
+    @Nullable
+    public Pattern getUrlScope() {
+      return urlScope;
+    }
+  }
+}
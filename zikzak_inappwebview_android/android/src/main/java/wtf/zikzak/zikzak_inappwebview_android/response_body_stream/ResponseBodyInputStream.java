@@ -0,0 +1,194 @@
+package wtf.zikzak.zikzak_inappwebview_android.response_body_stream;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.flutter.plugin.common.MethodChannel;
+
+/**
+ * Body of a response whose chunks are pushed by Dart while the WebView reads it.
+ *
+ * At most {@code bufferSize} bytes are buffered: the reply to a write that fills the buffer is
+ * held until the WebView has read enough of it, so Dart (which awaits each write) can't get
+ * ahead of the reader. Writes return {@code false} once the WebView closed the stream.
+ */
+public class ResponseBodyInputStream extends InputStream {
+  // the WebView IO thread gives up if Dart doesn't push anything for this long
+  private static final long READ_TIMEOUT = 60000;
+
+  @NonNull
+  private final String id;
+  private final long bufferSize;
+  private final ArrayDeque<byte[]> chunks = new ArrayDeque<>();
+  private final ArrayDeque<MethodChannel.Result> pendingWriteResults = new ArrayDeque<>();
+  private final Handler mainHandler = new Handler(Looper.getMainLooper());
+  private int chunkOffset = 0;
+  private long bufferedBytes = 0;
+  private boolean finished = false;
+  private boolean closed = false;
+  @Nullable
+  private String errorMessage;
+
+  public ResponseBodyInputStream(@NonNull String id, long bufferSize) {
+    this.id = id;
+    this.bufferSize = bufferSize;
+  }
+
+  @NonNull
+  public String getId() {
+    return id;
+  }
+
+  /**
+   * Called on the main thread for each chunk sent by Dart. {@code result} is answered when the
+   * chunk fits in the buffer.
+   */
+  public void write(@NonNull byte[] chunk, @NonNull MethodChannel.Result result) {
+    synchronized (this) {
+      if (closed || finished) {
+        result.success(false);
+        return;
+      }
+      if (chunk.length > 0) {
+        chunks.addLast(chunk);
+        bufferedBytes += chunk.length;
+        notifyAll();
+      }
+      if (bufferedBytes > bufferSize) {
+        pendingWriteResults.addLast(result);
+        return;
+      }
+    }
+    result.success(true);
+  }
+
+  public synchronized void finish() {
+    finished = true;
+    notifyAll();
+  }
+
+  public void fail(@Nullable String message) {
+    List<MethodChannel.Result> writeResults;
+    synchronized (this) {
+      errorMessage = message != null ? message : "Response body stream error";
+      finished = true;
+      chunks.clear();
+      bufferedBytes = 0;
+      writeResults = takePendingWriteResults(true);
+      notifyAll();
+    }
+    replyToWrites(writeResults, false);
+  }
+
+  @Override
+  public int read() throws IOException {
+    byte[] b = new byte[1];
+    int count = read(b, 0, 1);
+    return count == -1 ? -1 : b[0] & 0xff;
+  }
+
+  @Override
+  public int read(@NonNull byte[] b, int off, int len) throws IOException {
+    if (len == 0) {
+      return 0;
+    }
+    List<MethodChannel.Result> writeResults;
+    int count;
+    synchronized (this) {
+      long deadline = System.currentTimeMillis() + READ_TIMEOUT;
+      while (chunks.isEmpty() && !finished && !closed) {
+        long remaining = deadline - System.currentTimeMillis();
+        if (remaining <= 0) {
+          throw new IOException("Response body stream " + id + " timed out");
+        }
+        try {
+          wait(remaining);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new IOException(e);
+        }
+      }
+      if (closed) {
+        throw new IOException("Response body stream " + id + " closed");
+      }
+      if (errorMessage != null) {
+        throw new IOException(errorMessage);
+      }
+      if (chunks.isEmpty()) {
+        return -1;
+      }
+
+      count = 0;
+      while (count < len && !chunks.isEmpty()) {
+        byte[] chunk = chunks.peekFirst();
+        int n = Math.min(len - count, chunk.length - chunkOffset);
+        System.arraycopy(chunk, chunkOffset, b, off + count, n);
+        count += n;
+        chunkOffset += n;
+        if (chunkOffset == chunk.length) {
+          chunks.removeFirst();
+          chunkOffset = 0;
+        }
+      }
+      bufferedBytes -= count;
+      writeResults = takePendingWriteResults(bufferedBytes <= bufferSize);
+    }
+    replyToWrites(writeResults, true);
+    return count;
+  }
+
+  @Override
+  public synchronized int available() {
+    return (int) Math.min(Integer.MAX_VALUE, bufferedBytes);
+  }
+
+  @Override
+  public void close() {
+    List<MethodChannel.Result> writeResults;
+    synchronized (this) {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      chunks.clear();
+      bufferedBytes = 0;
+      writeResults = takePendingWriteResults(true);
+      notifyAll();
+    }
+    ResponseBodyStreamManager.unregister(this);
+    replyToWrites(writeResults, false);
+  }
+
+  @Nullable
+  private List<MethodChannel.Result> takePendingWriteResults(boolean canTake) {
+    if (!canTake || pendingWriteResults.isEmpty()) {
+      return null;
+    }
+    List<MethodChannel.Result> writeResults = new ArrayList<>(pendingWriteResults);
+    pendingWriteResults.clear();
+    return writeResults;
+  }
+
+  private void replyToWrites(@Nullable final List<MethodChannel.Result> writeResults, final boolean value) {
+    if (writeResults == null) {
+      return;
+    }
+    mainHandler.post(new Runnable() {
+      @Override
+      public void run() {
+        for (MethodChannel.Result result : writeResults) {
+          result.success(value);
+        }
+      }
+    });
+  }
+}
@@ -0,0 +1,55 @@
+package wtf.zikzak.zikzak_inappwebview_android.response_body_stream;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import wtf.zikzak.zikzak_inappwebview_android.types.ChannelDelegateImpl;
+
+import io.flutter.plugin.common.MethodCall;
+import io.flutter.plugin.common.MethodChannel;
+
+public class ResponseBodyStreamChannelDelegate extends ChannelDelegateImpl {
+  @Nullable
+  private ResponseBodyStreamManager responseBodyStreamManager;
+
+  public ResponseBodyStreamChannelDelegate(@NonNull ResponseBodyStreamManager responseBodyStreamManager, @NonNull MethodChannel channel) {
+    super(channel);
+    this.responseBodyStreamManager = responseBodyStreamManager;
+  }
+
+  @Override
+  public void onMethodCall(@NonNull MethodCall call, @NonNull MethodChannel.Result result) {
+    String id = (String) call.argument("id");
+    ResponseBodyInputStream stream = id != null ? ResponseBodyStreamManager.get(id) : null;
+    if (stream == null) {
+      // unknown or already closed by the WebView: Dart stops writing
+      result.success(false);
+      return;
+    }
+
+    switch (call.method) {
+      case "write":
+        byte[] data = (byte[]) call.argument("data");
+        stream.write(data != null ? data : new byte[0], result);
+        break;
+      case "finish":
+        ResponseBodyStreamManager.unregister(stream);
+        stream.finish();
+        result.success(true);
+        break;
+      case "error":
+        ResponseBodyStreamManager.unregister(stream);
+        stream.fail((String) call.argument("message"));
+        result.success(true);
+        break;
+      default:
+        result.notImplemented();
+    }
+  }
+
+  @Override
+  public void dispose() {
+    super.dispose();
+    responseBodyStreamManager = null;
+  }
+}
@@ -0,0 +1,70 @@
+package wtf.zikzak.zikzak_inappwebview_android.response_body_stream;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import wtf.zikzak.zikzak_inappwebview_android.InAppWebViewFlutterPlugin;
+import wtf.zikzak.zikzak_inappwebview_android.types.Disposable;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.flutter.plugin.common.MethodChannel;
+
+/**
+ * Keeps the response bodies streamed from Dart, see {@link ResponseBodyInputStream}.
+ *
+ * A stream is opened when Dart returns a response with a {@code bodyStreamId} instead of
+ * {@code data}, then Dart sends its chunks on this channel.
+ */
+public class ResponseBodyStreamManager implements Disposable {
+  protected static final String LOG_TAG = "ResponseBodyStreamMan";
+  public static final String METHOD_CHANNEL_NAME = "wtf.zikzak/zikzak_inappwebview_responsebodystream";
+  public static final long DEFAULT_BUFFER_SIZE = 1024 * 1024;
+
+  private static final Map<String, ResponseBodyInputStream> streams = new ConcurrentHashMap<>();
+
+  @Nullable
+  public ResponseBodyStreamChannelDelegate channelDelegate;
+  @Nullable
+  public InAppWebViewFlutterPlugin plugin;
+
+  public ResponseBodyStreamManager(final InAppWebViewFlutterPlugin plugin) {
+    this.plugin = plugin;
+    final MethodChannel channel = new MethodChannel(plugin.messenger, METHOD_CHANNEL_NAME);
+    this.channelDelegate = new ResponseBodyStreamChannelDelegate(this, channel);
+  }
+
+  @NonNull
+  public static ResponseBodyInputStream open(@NonNull String id, @Nullable Number bufferSize) {
+    ResponseBodyInputStream stream = new ResponseBodyInputStream(id,
+            bufferSize != null && bufferSize.longValue() > 0 ? bufferSize.longValue() : DEFAULT_BUFFER_SIZE);
+    ResponseBodyInputStream previous = streams.put(id, stream);
+    if (previous != null) {
+      previous.fail("Response body stream " + id + " replaced");
+    }
+    return stream;
+  }
+
+  @Nullable
+  public static ResponseBodyInputStream get(@NonNull String id) {
+    return streams.get(id);
+  }
+
+  static void unregister(@NonNull ResponseBodyInputStream stream) {
+    streams.remove(stream.getId(), stream);
+  }
+
+  @Override
+  public void dispose() {
+    if (channelDelegate != null) {
+      channelDelegate.dispose();
+      channelDelegate = null;
+    }
+    for (ResponseBodyInputStream stream : streams.values()) {
+      stream.fail("Response body stream disposed");
+    }
+    streams.clear();
+    plugin = null;
+  }
+}
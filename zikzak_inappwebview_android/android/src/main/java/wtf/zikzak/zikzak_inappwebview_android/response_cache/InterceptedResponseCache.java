@@ -0,0 +1,541 @@
+package wtf.zikzak.zikzak_inappwebview_android.response_cache;
+
+import android.content.Context;
+import android.util.Log;
+import android.util.LruCache;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import wtf.zikzak.zikzak_inappwebview_android.types.WebResourceResponseExt;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Memory and disk cache of the responses produced by Dart for intercepted requests.
+ *
+ * Only responses with an explicit freshness ({@code Cache-Control: max-age} or {@code Expires})
+ * or a validator ({@code ETag} or {@code Last-Modified}) are stored, and never with
+ * {@code Cache-Control: no-store}. A fresh entry is served without calling Dart; a stale one is
+ * revalidated by calling Dart with {@code If-None-Match}/{@code If-Modified-Since} headers, and
+ * served again if Dart answers {@code 304}.
+ *
+ * Both levels are bounded in bytes and evict the least recently used entries.
+ *
+ * Like the HTTP cache of the WebView, there is one cache per app, shared by all the WebViews
+ * that enable it and kept across launches: {@code shouldInterceptRequest} responses are keyed
+ * by URL only, and custom path handler responses by asset loader domain and path. A WebView
+ * whose {@code shouldInterceptRequest} answers the same URL differently than the others must
+ * not enable it, or must make the difference visible in the URL.
+ */
+public class InterceptedResponseCache {
+  protected static final String LOG_TAG = "InterceptedResponseCache";
+  private static final String DIRECTORY_NAME = "zikzak_inappwebview_intercepted_responses";
+  private static final int VERSION = 1;
+  public static final int DEFAULT_MEMORY_CACHE_SIZE = 4 * 1024 * 1024;
+  public static final long DEFAULT_DISK_CACHE_SIZE = 32 * 1024 * 1024;
+  // keys are stored with DataOutputStream.writeUTF
+  private static final int MAX_KEY_LENGTH = 8192;
+
+  @Nullable
+  private static InterceptedResponseCache instance;
+
+  @NonNull
+  private final File directory;
+  private final long maxDiskSize;
+  @NonNull
+  private final LruCache<String, Entry> memoryCache;
+  // file name -> file size, in access order, guarded by itself
+  private final LinkedHashMap<String, Long> diskEntries = new LinkedHashMap<>(16, 0.75f, true);
+  private long diskSize = 0;
+  private boolean diskEntriesLoaded = false;
+  private final ExecutorService diskExecutor = Executors.newSingleThreadExecutor();
+
+  public interface Loader {
+    /**
+     * Asks Dart for the response.
+     *
+     * @param conditionalHeaders headers to add to the request when revalidating a stale entry.
+     */
+    @Nullable
+    WebResourceResponseExt load(@Nullable Map<String, String> conditionalHeaders) throws InterruptedException;
+  }
+
+  public InterceptedResponseCache(@NonNull File directory, int maxMemorySize, long maxDiskSize) {
+    this.directory = directory;
+    this.maxDiskSize = maxDiskSize;
+    this.memoryCache = new LruCache<String, Entry>(maxMemorySize) {
+      @Override
+      protected int sizeOf(String key, Entry entry) {
+        return entry.size();
+      }
+    };
+  }
+
+  @NonNull
+  public static synchronized InterceptedResponseCache getInstance(@NonNull Context context) {
+    if (instance == null) {
+      instance = new InterceptedResponseCache(new File(context.getCacheDir(), DIRECTORY_NAME),
+              DEFAULT_MEMORY_CACHE_SIZE, DEFAULT_DISK_CACHE_SIZE);
+    }
+    return instance;
+  }
+
+  @Nullable
+  public static synchronized InterceptedResponseCache getInstanceIfCreated() {
+    return instance;
+  }
+
+  /**
+   * Returns the cached response for {@code key} if it's fresh, otherwise asks {@code loader}
+   * and stores its response if it's cacheable.
+   */
+  @Nullable
+  public WebResourceResponseExt load(@NonNull String key, @NonNull Loader loader) throws InterruptedException {
+    if (key.length() > MAX_KEY_LENGTH) {
+      return loader.load(null);
+    }
+    Entry entry = get(key);
+    if (entry != null && entry.expiresAt > System.currentTimeMillis()) {
+      return entry.toResponse();
+    }
+
+    Map<String, String> conditionalHeaders = null;
+    if (entry != null) {
+      conditionalHeaders = new HashMap<>();
+      String eTag = entry.getHeader("ETag");
+      if (eTag != null) {
+        conditionalHeaders.put("If-None-Match", eTag);
+      }
+      String lastModified = entry.getHeader("Last-Modified");
+      if (lastModified != null) {
+        conditionalHeaders.put("If-Modified-Since", lastModified);
+      }
+    }
+
+    WebResourceResponseExt response = loader.load(conditionalHeaders);
+    if (response == null) {
+      return null;
+    }
+    Integer statusCode = response.getStatusCode();
+    if (entry != null && statusCode != null && statusCode == 304) {
+      Map<String, String> headers = new HashMap<>();
+      if (entry.headers != null) {
+        headers.putAll(entry.headers);
+      }
+      if (response.getHeaders() != null) {
+        headers.putAll(response.getHeaders());
+      }
+      Entry revalidatedEntry = new Entry(key, entry.contentType, entry.contentEncoding, entry.statusCode,
+              entry.reasonPhrase, headers, entry.data, computeExpiresAt(headers));
+      store(revalidatedEntry);
+      return revalidatedEntry.toResponse();
+    }
+    Entry newEntry = createEntry(key, response);
+    if (newEntry != null) {
+      store(newEntry);
+    } else if (entry != null) {
+      remove(key);
+    }
+    return response;
+  }
+
+  @Nullable
+  private Entry get(@NonNull String key) {
+    Entry entry = memoryCache.get(key);
+    if (entry != null) {
+      return entry;
+    }
+    entry = readFromDisk(key);
+    if (entry != null) {
+      memoryCache.put(key, entry);
+    }
+    return entry;
+  }
+
+  private void store(@NonNull final Entry entry) {
+    memoryCache.put(entry.key, entry);
+    diskExecutor.execute(new Runnable() {
+      @Override
+      public void run() {
+        writeToDisk(entry);
+      }
+    });
+  }
+
+  public void remove(@NonNull final String key) {
+    memoryCache.remove(key);
+    diskExecutor.execute(new Runnable() {
+      @Override
+      public void run() {
+        String fileName = getFileName(key);
+        synchronized (diskEntries) {
+          Long size = diskEntries.remove(fileName);
+          if (size != null) {
+            diskSize -= size;
+          }
+        }
+        new File(directory, fileName).delete();
+      }
+    });
+  }
+
+  public void clear(boolean includeDiskFiles) {
+    memoryCache.evictAll();
+    if (!includeDiskFiles) {
+      return;
+    }
+    diskExecutor.execute(new Runnable() {
+      @Override
+      public void run() {
+        synchronized (diskEntries) {
+          diskEntries.clear();
+          diskSize = 0;
+          diskEntriesLoaded = true;
+        }
+        File[] files = directory.listFiles();
+        if (files != null) {
+          for (File file : files) {
+            file.delete();
+          }
+        }
+      }
+    });
+  }
+
+  @Nullable
+  private static Entry createEntry(@NonNull String key, @NonNull WebResourceResponseExt response) {
+    Integer statusCode = response.getStatusCode();
+    byte[] data = response.getData();
+    if (data == null || response.getBodyStream() != null || (statusCode != null && statusCode != 200)) {
+      return null;
+    }
+    Map<String, String> headers = response.getHeaders();
+    String cacheControl = getHeader(headers, "Cache-Control");
+    if (cacheControl != null && parseCacheControl(cacheControl).containsKey("no-store")) {
+      return null;
+    }
+    String vary = getHeader(headers, "Vary");
+    if (vary != null && vary.trim().equals("*")) {
+      return null;
+    }
+    long expiresAt = computeExpiresAt(headers);
+    boolean hasValidator = getHeader(headers, "ETag") != null || getHeader(headers, "Last-Modified") != null;
+    if (expiresAt <= System.currentTimeMillis() && !hasValidator) {
+      return null;
+    }
+    return new Entry(key, response.getContentType(), response.getContentEncoding(), statusCode,
+            response.getReasonPhrase(), headers != null ? new HashMap<>(headers) : null, data, expiresAt);
+  }
+
+  /**
+   * Returns when the response stops being fresh, 0 if it must always be revalidated.
+   */
+  private static long computeExpiresAt(@Nullable Map<String, String> headers) {
+    long now = System.currentTimeMillis();
+    String cacheControl = getHeader(headers, "Cache-Control");
+    if (cacheControl != null) {
+      Map<String, String> directives = parseCacheControl(cacheControl);
+      if (directives.containsKey("no-cache")) {
+        return 0;
+      }
+      String maxAge = directives.get("max-age");
+      if (maxAge != null) {
+        try {
+          long age = 0;
+          String ageHeader = getHeader(headers, "Age");
+          if (ageHeader != null) {
+            age = Long.parseLong(ageHeader.trim());
+          }
+          return now + (Long.parseLong(maxAge) - age) * 1000;
+        } catch (NumberFormatException e) {
+          return 0;
+        }
+      }
+    }
+    String expires = getHeader(headers, "Expires");
+    if (expires != null) {
+      Long expiresDate = parseHttpDate(expires);
+      if (expiresDate == null) {
+        return 0;
+      }
+      // relative to the date of the response, if any
+      String date = getHeader(headers, "Date");
+      Long responseDate = date != null ? parseHttpDate(date) : null;
+      return responseDate != null ? now + (expiresDate - responseDate) : expiresDate;
+    }
+    return 0;
+  }
+
+  @NonNull
+  private static Map<String, String> parseCacheControl(@NonNull String cacheControl) {
+    Map<String, String> directives = new HashMap<>();
+    for (String directive : cacheControl.split(",")) {
+      String[] nameValue = directive.split("=", 2);
+      String name = nameValue[0].trim().toLowerCase(Locale.ROOT);
+      if (name.isEmpty()) {
+        continue;
+      }
+      String value = nameValue.length > 1 ? nameValue[1].trim() : "";
+      if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+        value = value.substring(1, value.length() - 1);
+      }
+      directives.put(name, value);
+    }
+    return directives;
+  }
+
+  @Nullable
+  private static Long parseHttpDate(@NonNull String value) {
+    SimpleDateFormat format = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss zzz", Locale.US);
+    format.setTimeZone(TimeZone.getTimeZone("GMT"));
+    try {
+      return format.parse(value.trim()).getTime();
+    } catch (ParseException e) {
+      return null;
+    }
+  }
+
+  @Nullable
+  private static String getHeader(@Nullable Map<String, String> headers, @NonNull String name) {
+    if (headers == null) {
+      return null;
+    }
+    for (Map.Entry<String, String> header : headers.entrySet()) {
+      if (name.equalsIgnoreCase(header.getKey())) {
+        return header.getValue();
+      }
+    }
+    return null;
+  }
+
+  private void loadDiskEntries() {
+    // called with the diskEntries lock held
+    if (diskEntriesLoaded) {
+      return;
+    }
+    diskEntriesLoaded = true;
+    File[] files = directory.listFiles();
+    if (files == null) {
+      return;
+    }
+    Arrays.sort(files, new Comparator<File>() {
+      @Override
+      public int compare(File a, File b) {
+        return Long.compare(a.lastModified(), b.lastModified());
+      }
+    });
+    for (File file : files) {
+      if (file.getName().endsWith(".tmp")) {
+        file.delete();
+        continue;
+      }
+      diskEntries.put(file.getName(), file.length());
+      diskSize += file.length();
+    }
+  }
+
+  @Nullable
+  private Entry readFromDisk(@NonNull String key) {
+    String fileName = getFileName(key);
+    synchronized (diskEntries) {
+      loadDiskEntries();
+      if (diskEntries.get(fileName) == null) {
+        return null;
+      }
+    }
+    File file = new File(directory, fileName);
+    DataInputStream in = null;
+    try {
+      in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+      if (in.readInt() != VERSION || !key.equals(in.readUTF())) {
+        return null;
+      }
+      long expiresAt = in.readLong();
+      String contentType = readNullableString(in);
+      String contentEncoding = readNullableString(in);
+      int statusCode = in.readInt();
+      String reasonPhrase = readNullableString(in);
+      Map<String, String> headers = null;
+      int headerCount = in.readInt();
+      if (headerCount >= 0) {
+        headers = new HashMap<>();
+        for (int i = 0; i < headerCount; i++) {
+          headers.put(in.readUTF(), in.readUTF());
+        }
+      }
+      byte[] data = new byte[in.readInt()];
+      in.readFully(data);
+      // keeps the LRU order across restarts
+      file.setLastModified(System.currentTimeMillis());
+      return new Entry(key, contentType, contentEncoding, statusCode >= 0 ? statusCode : null,
+              reasonPhrase, headers, data, expiresAt);
+    } catch (IOException e) {
+      Log.e(LOG_TAG, "", e);
+      return null;
+    } finally {
+      if (in != null) {
+        try {
+          in.close();
+        } catch (IOException ignored) {}
+      }
+    }
+  }
+
+  private void writeToDisk(@NonNull Entry entry) {
+    String fileName = getFileName(entry.key);
+    if (!directory.exists() && !directory.mkdirs()) {
+      return;
+    }
+    File tmpFile = new File(directory, fileName + ".tmp");
+    DataOutputStream out = null;
+    try {
+      out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile)));
+      out.writeInt(VERSION);
+      out.writeUTF(entry.key);
+      out.writeLong(entry.expiresAt);
+      writeNullableString(out, entry.contentType);
+      writeNullableString(out, entry.contentEncoding);
+      out.writeInt(entry.statusCode != null ? entry.statusCode : -1);
+      writeNullableString(out, entry.reasonPhrase);
+      if (entry.headers != null) {
+        out.writeInt(entry.headers.size());
+        for (Map.Entry<String, String> header : entry.headers.entrySet()) {
+          out.writeUTF(header.getKey());
+          out.writeUTF(header.getValue() != null ? header.getValue() : "");
+        }
+      } else {
+        out.writeInt(-1);
+      }
+      out.writeInt(entry.data.length);
+      out.write(entry.data);
+      out.close();
+      out = null;
+    } catch (IOException e) {
+      Log.e(LOG_TAG, "", e);
+      tmpFile.delete();
+      return;
+    } finally {
+      if (out != null) {
+        try {
+          out.close();
+        } catch (IOException ignored) {}
+      }
+    }
+
+    File file = new File(directory, fileName);
+    if (!tmpFile.renameTo(file)) {
+      tmpFile.delete();
+      return;
+    }
+    synchronized (diskEntries) {
+      loadDiskEntries();
+      Long previousSize = diskEntries.put(fileName, file.length());
+      diskSize += file.length() - (previousSize != null ? previousSize : 0);
+      Iterator<Map.Entry<String, Long>> iterator = diskEntries.entrySet().iterator();
+      while (diskSize > maxDiskSize && iterator.hasNext()) {
+        Map.Entry<String, Long> eldest = iterator.next();
+        if (eldest.getKey().equals(fileName)) {
+          continue;
+        }
+        iterator.remove();
+        diskSize -= eldest.getValue();
+        new File(directory, eldest.getKey()).delete();
+      }
+    }
+  }
+
+  @Nullable
+  private static String readNullableString(@NonNull DataInputStream in) throws IOException {
+    return in.readBoolean() ? in.readUTF() : null;
+  }
+
+  private static void writeNullableString(@NonNull DataOutputStream out, @Nullable String value) throws IOException {
+    out.writeBoolean(value != null);
+    if (value != null) {
+      out.writeUTF(value);
+    }
+  }
+
+  @NonNull
+  private static String getFileName(@NonNull String key) {
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-1").digest(key.getBytes(StandardCharsets.UTF_8));
+      StringBuilder fileName = new StringBuilder(digest.length * 2);
+      for (byte b : digest) {
+        fileName.append(String.format(Locale.ROOT, "%02x", b));
+      }
+      return fileName.toString();
+    } catch (NoSuchAlgorithmException e) {
+      return Integer.toHexString(key.hashCode());
+    }
+  }
+
+  private static class Entry {
+    @NonNull
+    final String key;
+    @Nullable
+    final String contentType;
+    @Nullable
+    final String contentEncoding;
+    @Nullable
+    final Integer statusCode;
+    @Nullable
+    final String reasonPhrase;
+    @Nullable
+    final Map<String, String> headers;
+    @NonNull
+    final byte[] data;
+    final long expiresAt;
+
+    Entry(@NonNull String key, @Nullable String contentType, @Nullable String contentEncoding,
+          @Nullable Integer statusCode, @Nullable String reasonPhrase, @Nullable Map<String, String> headers,
+          @NonNull byte[] data, long expiresAt) {
+      this.key = key;
+      this.contentType = contentType;
+      this.contentEncoding = contentEncoding;
+      this.statusCode = statusCode;
+      this.reasonPhrase = reasonPhrase;
+      this.headers = headers;
+      this.data = data;
+      this.expiresAt = expiresAt;
+    }
+
+    @Nullable
+    String getHeader(@NonNull String name) {
+      return InterceptedResponseCache.getHeader(headers, name);
+    }
+
+    int size() {
+      return data.length + key.length() * 2 + 256;
+    }
+
+    @NonNull
+    WebResourceResponseExt toResponse() {
+      return new WebResourceResponseExt(contentType, contentEncoding, statusCode, reasonPhrase,
+              headers != null ? new HashMap<>(headers) : null, data);
+    }
+  }
+}
@@ -6,15 +6,18 @@ import android.os.Build;
 import android.util.Log;
 import android.webkit.WebView;
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.annotation.RequiresApi;
 import androidx.webkit.WebViewCompat;
 import androidx.webkit.WebViewFeature;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
 import wtf.zikzak.zikzak_inappwebview_android.webview.in_app_webview.InAppWebView;
@@ -30,7 +33,7 @@ public class ZikZakSecurityManager {
 
     private static final String TAG = "ZikZakSecurity";
 
-    private static ZikZakSecurityManager instance;
+    private static volatile ZikZakSecurityManager instance;
     private final Context context;
     private final Executor securityExecutor;
     private final Set<String> blockedTrackers;
@@ -59,10 +62,42 @@ public class ZikZakSecurityManager {
         public boolean enforceStrictCsp = false;
         public boolean reduceFingerprinting = false;
         public String securityHeaders;
+        // immutable, rebuilt by updateHeaderMap() when the policy changes
+        @Nullable
+        private volatile Map<String, String> headerMap;
 
         public SecurityPolicy() {
             this.securityHeaders =
                 "default-src 'self'; script-src 'self' 'unsafe-inline'; object-src 'none';";
+            updateHeaderMap();
+        }
+
+        /**
+         * Rebuilds the response headers of this policy from its current fields
+         */
+        public void updateHeaderMap() {
+            if (securityHeaders == null || securityHeaders.isEmpty()) {
+                headerMap = null;
+                return;
+            }
+            Map<String, String> headers = new HashMap<>();
+            headers.put("Content-Security-Policy", securityHeaders);
+            headers.put("X-Content-Type-Options", "nosniff");
+            headers.put("X-Frame-Options", "SAMEORIGIN");
+            headers.put("X-XSS-Protection", "1; mode=block");
+            if (enforceHttps) {
+                // Add HSTS header for HTTPS enforcement
+                headers.put("Strict-Transport-Security", "max-age=31536000; includeSubDomains");
+            }
+            headerMap = Collections.unmodifiableMap(headers);
+        }
+
+        /**
+         * Security headers to add to the responses, null if none
+         */
+        @Nullable
+        public Map<String, String> getHeaderMap() {
+            return headerMap;
         }
     }
 
@@ -75,7 +110,7 @@ public class ZikZakSecurityManager {
         this.context = context.getApplicationContext();
         this.securityExecutor = Executors.newSingleThreadExecutor();
         this.blockedTrackers = new HashSet<>();
-        this.securityPolicies = new HashMap<>();
+        this.securityPolicies = new ConcurrentHashMap<>();
 
         // Initialize default blocked trackers
         initializeDefaultTrackers();
@@ -87,13 +122,20 @@ public class ZikZakSecurityManager {
      * @param context Application context
      * @return ZikZakSecurityManager instance
      */
-    public static synchronized ZikZakSecurityManager getInstance(
+    public static ZikZakSecurityManager getInstance(
         @NonNull Context context
     ) {
-        if (instance == null) {
-            instance = new ZikZakSecurityManager(context);
+        // lock-free once created, it's called for every intercepted response
+        ZikZakSecurityManager current = instance;
+        if (current != null) {
+            return current;
+        }
+        synchronized (ZikZakSecurityManager.class) {
+            if (instance == null) {
+                instance = new ZikZakSecurityManager(context);
+            }
+            return instance;
         }
-        return instance;
     }
 
     /**
@@ -390,6 +432,7 @@ public class ZikZakSecurityManager {
                     policy.reduceFingerprinting =
                         policy.reduceFingerprinting &&
                         securityLevel >= SecurityLevel.MAXIMUM;
+                    policy.updateHeaderMap();
 
                     try {
                         // Apply basic security settings
@@ -513,11 +556,15 @@ public class ZikZakSecurityManager {
      */
     private SecurityPolicy getOrCreateSecurityPolicy(String url) {
         String host = extractDomainFromUrl(url);
-        if (!securityPolicies.containsKey(host)) {
-            SecurityPolicy policy = new SecurityPolicy();
-            securityPolicies.put(host, policy);
+        SecurityPolicy policy = securityPolicies.get(host);
+        if (policy == null) {
+            SecurityPolicy newPolicy = new SecurityPolicy();
+            policy = securityPolicies.putIfAbsent(host, newPolicy);
+            if (policy == null) {
+                policy = newPolicy;
+            }
         }
-        return securityPolicies.get(host);
+        return policy;
     }
 
     /**
@@ -559,6 +606,7 @@ public class ZikZakSecurityManager {
                     "script-src * 'unsafe-inline' 'unsafe-eval';";
                 break;
         }
+        policy.updateHeaderMap();
     }
 
     /**
@@ -573,36 +621,68 @@ public class ZikZakSecurityManager {
         Map<String, String> responseHeaders,
         String url
     ) {
-        // Always create a new HashMap to avoid mutating the input map
-        Map<String, String> headers = new HashMap<>(
-            responseHeaders != null ? responseHeaders : new HashMap<>()
-        );
+        Map<String, String> headers = mergeSecurityHeaders(responseHeaders, url);
+        if (headers != null) {
+            return headers;
+        }
+        // Always return a new HashMap to avoid mutating the input map
+        return responseHeaders != null
+            ? new HashMap<>(responseHeaders)
+            : new HashMap<String, String>();
+    }
 
-        // Get the security policy for this URL's domain
-        String domain = extractDomainFromUrl(url);
-        SecurityPolicy policy = securityPolicies.get(domain);
+    /**
+     * Get the precomputed security headers of the policy for a URL
+     *
+     * @param url URL being loaded
+     * @return Immutable map of security headers, or null if no policy applies
+     */
+    @Nullable
+    public Map<String, String> getSecurityHeaders(String url) {
+        if (securityPolicies.isEmpty()) {
+            return null;
+        }
 
+        // Get the security policy for this URL's domain
+        SecurityPolicy policy = securityPolicies.get(extractDomainFromUrl(url));
         if (policy == null) {
             policy = securityPolicies.get("*"); // Default policy
         }
+        return policy != null ? policy.getHeaderMap() : null;
+    }
 
-        if (policy != null && policy.securityHeaders != null && !policy.securityHeaders.isEmpty()) {
-            // Add Content-Security-Policy header
-            headers.put("Content-Security-Policy", policy.securityHeaders);
-
-            // Add other security headers
-            headers.put("X-Content-Type-Options", "nosniff");
-            headers.put("X-Frame-Options", "SAMEORIGIN");
-            headers.put("X-XSS-Protection", "1; mode=block");
-
-            if (policy.enforceHttps) {
-                // Add HSTS header for HTTPS enforcement
-                headers.put("Strict-Transport-Security", "max-age=31536000; includeSubDomains");
+    /**
+     * Merge the security headers for a URL into response headers
+     *
+     * @param responseHeaders Response headers, never modified
+     * @param url URL being loaded
+     * @return New headers map, or null if the response headers don't need to change
+     */
+    @Nullable
+    public Map<String, String> mergeSecurityHeaders(
+        @Nullable Map<String, String> responseHeaders,
+        String url
+    ) {
+        Map<String, String> securityHeaders = getSecurityHeaders(url);
+        if (securityHeaders == null) {
+            return null;
+        }
+        if (responseHeaders != null) {
+            boolean changed = false;
+            for (Map.Entry<String, String> header : securityHeaders.entrySet()) {
+                if (!header.getValue().equals(responseHeaders.get(header.getKey()))) {
+                    changed = true;
+                    break;
+                }
+            }
+            if (!changed) {
+                return null;
             }
-
-            Log.d(TAG, "Added security headers to response for: " + url);
         }
-
+        Map<String, String> headers = responseHeaders != null
+            ? new HashMap<>(responseHeaders)
+            : new HashMap<String, String>(securityHeaders.size());
+        headers.putAll(securityHeaders);
         return headers;
     }
 
@@ -638,13 +718,18 @@ public class ZikZakSecurityManager {
         }
 
         try {
-            String domain = url.replaceFirst("https?://", "");
-            domain = domain.replaceFirst("www\\.", "");
-            int slashIndex = domain.indexOf('/');
-            if (slashIndex >= 0) {
-                domain = domain.substring(0, slashIndex);
+            // plain index arithmetic, it runs for every intercepted response
+            int start = 0;
+            if (url.startsWith("https://")) {
+                start = 8;
+            } else if (url.startsWith("http://")) {
+                start = 7;
+            }
+            if (url.startsWith("www.", start)) {
+                start += 4;
             }
-            return domain;
+            int slashIndex = url.indexOf('/', start);
+            return slashIndex >= 0 ? url.substring(start, slashIndex) : url.substring(start);
         } catch (Exception e) {
             Log.e(TAG, "Error extracting domain from URL: " + url, e);
             return "";
@@ -9,10 +9,10 @@ import androidx.webkit.ServiceWorkerControllerCompat;
 import androidx.webkit.ServiceWorkerWebSettingsCompat;
 import androidx.webkit.WebViewFeature;
 
-import wtf.zikzak.zikzak_inappwebview_android.Util;
 import wtf.zikzak.zikzak_inappwebview_android.types.BaseCallbackResultImpl;
 import wtf.zikzak.zikzak_inappwebview_android.types.ChannelDelegateImpl;
 import wtf.zikzak.zikzak_inappwebview_android.types.SyncBaseCallbackResultImpl;
+import wtf.zikzak.zikzak_inappwebview_android.types.SyncCallDeadline;
 import wtf.zikzak.zikzak_inappwebview_android.types.WebResourceRequestExt;
 import wtf.zikzak.zikzak_inappwebview_android.types.WebResourceResponseExt;
 
@@ -136,11 +136,13 @@ public class ServiceWorkerChannelDelegate extends ChannelDelegateImpl {
     MethodChannel channel = getChannel();
     if (channel == null) return null;
     final SyncShouldInterceptRequestCallback callback = new SyncShouldInterceptRequestCallback();
-    return Util.invokeMethodAndWaitResult(channel, "shouldInterceptRequest", request.toMap(), callback);
+    return SyncCallDeadline.SERVICE_WORKER_SHOULD_INTERCEPT_REQUEST.invokeMethodAndWaitResult(channel,
+        "shouldInterceptRequest", request.toMap(), callback, request.getUrl());
   }
 
   @Override
   public void dispose() {
+    SyncCallDeadline.evictChannel(getChannel());
     super.dispose();
     serviceWorkerManager = null;
   }
@@ -17,7 +17,7 @@ import wtf.zikzak.zikzak_inappwebview_android.types.Disposable;
 import wtf.zikzak.zikzak_inappwebview_android.types.WebResourceRequestExt;
 import wtf.zikzak.zikzak_inappwebview_android.types.WebResourceResponseExt;
 
-import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.util.Map;
 
 import io.flutter.plugin.common.MethodChannel;
@@ -70,12 +70,11 @@ public class ServiceWorkerManager implements Disposable {
           if (response != null) {
             String contentType = response.getContentType();
             String contentEncoding = response.getContentEncoding();
-            byte[] data = response.getData();
             Map<String, String> responseHeaders = response.getHeaders();
             Integer statusCode = response.getStatusCode();
             String reasonPhrase = response.getReasonPhrase();
 
-            ByteArrayInputStream inputStream = (data != null) ? new ByteArrayInputStream(data) : null;
+            InputStream inputStream = response.getDataInputStream();
 
             if (statusCode != null && reasonPhrase != null) {
               return new WebResourceResponse(contentType, contentEncoding, statusCode, reasonPhrase, responseHeaders, inputStream);
@@ -0,0 +1,53 @@
+package wtf.zikzak.zikzak_inappwebview_android.tracing;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import wtf.zikzak.zikzak_inappwebview_android.content_blocker.ContentBlockerTriggerResourceType;
+
+/**
+ * Trace of a single {@code shouldInterceptRequest} call, see {@link InterceptRequestTracer}.
+ *
+ * The static helpers accept a {@code null} trace, so that the call sites stay the same whether
+ * tracing is enabled or not.
+ */
+public class InterceptRequestTrace {
+  @NonNull
+  private final InterceptRequestTracer tracer;
+  @NonNull
+  final String url;
+  @Nullable
+  final ContentBlockerTriggerResourceType resourceType;
+  private final long startNanos;
+
+  InterceptRequestTrace(@NonNull InterceptRequestTracer tracer, @NonNull String url,
+                        @Nullable ContentBlockerTriggerResourceType resourceType) {
+    this.tracer = tracer;
+    this.url = url;
+    this.resourceType = resourceType;
+    this.startNanos = System.nanoTime();
+  }
+
+  /**
+   * Returns the start time of a stage, 0 without trace.
+   */
+  public static long begin(@Nullable InterceptRequestTrace trace) {
+    return trace != null ? System.nanoTime() : 0;
+  }
+
+  /**
+   * Records a stage started with {@link #begin}.
+   */
+  public static void end(@Nullable InterceptRequestTrace trace, @NonNull InterceptRequestTracer.Stage stage, long stageStartNanos) {
+    if (trace != null) {
+      trace.tracer.record(stage, trace, stageStartNanos, System.nanoTime());
+    }
+  }
+
+  /**
+   * Records the whole request.
+   */
+  public void finish() {
+    tracer.record(InterceptRequestTracer.Stage.TOTAL, this, startNanos, System.nanoTime());
+  }
+}
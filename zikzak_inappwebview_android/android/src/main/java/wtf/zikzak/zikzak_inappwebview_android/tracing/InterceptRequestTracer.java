@@ -0,0 +1,284 @@
+package wtf.zikzak.zikzak_inappwebview_android.tracing;
+
+import android.os.Process;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.json.JSONObject;
+
+import wtf.zikzak.zikzak_inappwebview_android.content_blocker.ContentBlockerTriggerResourceType;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Latency of the stages of {@code shouldInterceptRequest}, for all the WebViews.
+ *
+ * Disabled by default: the WebView clients then don't even read the clock. When enabled, each
+ * stage duration is added to a histogram per stage and resource type, and kept as a span in a
+ * ring buffer that can be exported in the Chrome trace event format. Spans use
+ * {@link System#nanoTime()}, the clock of the WebView traces, so both can be loaded together.
+ */
+public class InterceptRequestTracer {
+  public enum Stage {
+    ASSET_LOADER("assetLoader"),
+    NATIVE_INTERCEPTORS("nativeInterceptors"),
+    DART_SHOULD_INTERCEPT_REQUEST("dartShouldInterceptRequest"),
+    CUSTOM_SCHEME("customScheme"),
+    CONTENT_BLOCKER("contentBlocker"),
+    SECURITY_HEADERS("securityHeaders"),
+    TOTAL("total");
+
+    private final String value;
+
+    Stage(String value) {
+      this.value = value;
+    }
+
+    @Override
+    public String toString() {
+      return value;
+    }
+  }
+
+  private static final int EVENT_CAPACITY = 8192;
+  // resource type ordinal + 1, 0 when it can't be inferred
+  private static final int RESOURCE_TYPE_COUNT = ContentBlockerTriggerResourceType.values().length + 1;
+
+  private static volatile boolean enabled = false;
+  @Nullable
+  private static volatile InterceptRequestTracer instance;
+
+  private final Histogram[] histograms = new Histogram[Stage.values().length * RESOURCE_TYPE_COUNT];
+  private final AtomicReferenceArray<Span> spans = new AtomicReferenceArray<>(EVENT_CAPACITY);
+  private final AtomicLong spanCount = new AtomicLong();
+  private final AtomicLong requestCount = new AtomicLong();
+
+  private InterceptRequestTracer() {
+    for (int i = 0; i < histograms.length; i++) {
+      histograms[i] = new Histogram();
+    }
+  }
+
+  public static boolean isEnabled() {
+    return enabled;
+  }
+
+  public static synchronized void setEnabled(boolean enabled) {
+    if (enabled && instance == null) {
+      instance = new InterceptRequestTracer();
+    }
+    InterceptRequestTracer.enabled = enabled;
+  }
+
+  /**
+   * Starts tracing a request, returns {@code null} if tracing is disabled.
+   */
+  @Nullable
+  public static InterceptRequestTrace start(@NonNull String url, @Nullable ContentBlockerTriggerResourceType resourceType) {
+    InterceptRequestTracer tracer = instance;
+    if (!enabled || tracer == null) {
+      return null;
+    }
+    tracer.requestCount.incrementAndGet();
+    return new InterceptRequestTrace(tracer, url, resourceType);
+  }
+
+  void record(@NonNull Stage stage, @NonNull InterceptRequestTrace trace, long startNanos, long endNanos) {
+    long duration = endNanos - startNanos;
+    int resourceTypeIndex = trace.resourceType != null ? trace.resourceType.ordinal() + 1 : 0;
+    histograms[stage.ordinal() * RESOURCE_TYPE_COUNT + resourceTypeIndex].record(duration);
+    long index = spanCount.getAndIncrement();
+    spans.set((int) (index % EVENT_CAPACITY), new Span(stage, trace, startNanos, duration, Process.myTid()));
+  }
+
+  /**
+   * Returns count, total, max and p50/p95/p99 in microseconds per stage and resource type,
+   * for the pairs with at least one request.
+   */
+  @NonNull
+  public static Map<String, Object> getStatistics(boolean reset) {
+    Map<String, Object> statistics = new HashMap<>();
+    List<Map<String, Object>> stages = new ArrayList<>();
+    InterceptRequestTracer tracer = instance;
+    statistics.put("enabled", enabled);
+    statistics.put("stages", stages);
+    if (tracer == null) {
+      statistics.put("requestCount", 0L);
+      return statistics;
+    }
+    statistics.put("requestCount", tracer.requestCount.get());
+    ContentBlockerTriggerResourceType[] resourceTypes = ContentBlockerTriggerResourceType.values();
+    for (Stage stage : Stage.values()) {
+      for (int i = 0; i < RESOURCE_TYPE_COUNT; i++) {
+        Histogram histogram = tracer.histograms[stage.ordinal() * RESOURCE_TYPE_COUNT + i];
+        if (histogram.count.get() == 0) {
+          continue;
+        }
+        Map<String, Object> stageMap = histogram.toMap();
+        stageMap.put("stage", stage.toString());
+        stageMap.put("resourceType", i > 0 ? resourceTypes[i - 1].toString() : null);
+        stages.add(stageMap);
+      }
+    }
+    if (reset) {
+      tracer.reset();
+    }
+    return statistics;
+  }
+
+  private void reset() {
+    for (Histogram histogram : histograms) {
+      histogram.reset();
+    }
+    for (int i = 0; i < EVENT_CAPACITY; i++) {
+      spans.set(i, null);
+    }
+    spanCount.set(0);
+    requestCount.set(0);
+  }
+
+  /**
+   * Returns the last recorded spans as a Chrome trace event JSON object.
+   */
+  @NonNull
+  public static String exportChromeTrace() {
+    StringBuilder json = new StringBuilder("{\"traceEvents\":[");
+    InterceptRequestTracer tracer = instance;
+    if (tracer != null) {
+      int pid = Process.myPid();
+      long count = tracer.spanCount.get();
+      long first = Math.max(0, count - EVENT_CAPACITY);
+      boolean firstEvent = true;
+      for (long i = first; i < count; i++) {
+        Span span = tracer.spans.get((int) (i % EVENT_CAPACITY));
+        if (span == null) {
+          continue;
+        }
+        if (!firstEvent) {
+          json.append(',');
+        }
+        firstEvent = false;
+        json.append("{\"name\":\"").append(span.stage.toString())
+                .append("\",\"cat\":\"shouldInterceptRequest\",\"ph\":\"X\"")
+                .append(",\"ts\":").append(formatMicros(span.startNanos))
+                .append(",\"dur\":").append(formatMicros(span.durationNanos))
+                .append(",\"pid\":").append(pid)
+                .append(",\"tid\":").append(span.tid)
+                .append(",\"args\":{\"url\":").append(JSONObject.quote(span.trace.url))
+                .append(",\"resourceType\":")
+                .append(span.trace.resourceType != null ? JSONObject.quote(span.trace.resourceType.toString()) : "null")
+                .append("}}");
+      }
+    }
+    json.append("],\"displayTimeUnit\":\"ns\"}");
+    return json.toString();
+  }
+
+  @NonNull
+  private static String formatMicros(long nanos) {
+    return String.format(Locale.ROOT, "%.3f", nanos / 1000.0);
+  }
+
+  private static class Span {
+    @NonNull
+    final Stage stage;
+    @NonNull
+    final InterceptRequestTrace trace;
+    final long startNanos;
+    final long durationNanos;
+    final int tid;
+
+    Span(@NonNull Stage stage, @NonNull InterceptRequestTrace trace, long startNanos, long durationNanos, int tid) {
+      this.stage = stage;
+      this.trace = trace;
+      this.startNanos = startNanos;
+      this.durationNanos = durationNanos;
+      this.tid = tid;
+    }
+  }
+
+  /**
+   * Lock-free log-linear histogram of nanosecond durations: 4 buckets per power of two,
+   * so percentiles are within 12.5% of the recorded values.
+   */
+  static class Histogram {
+    static final int BUCKET_COUNT = 160;
+
+    final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    final AtomicLong count = new AtomicLong();
+    final AtomicLong totalNanos = new AtomicLong();
+    final AtomicLong maxNanos = new AtomicLong();
+
+    static int bucketOf(long nanos) {
+      if (nanos < 4) {
+        return (int) Math.max(0, nanos);
+      }
+      int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+      int subBucket = (int) ((nanos >>> (exponent - 2)) & 3);
+      return Math.min(BUCKET_COUNT - 1, exponent * 4 + subBucket - 4);
+    }
+
+    static long lowerBoundOf(int bucket) {
+      if (bucket < 4) {
+        return bucket;
+      }
+      int exponent = (bucket + 4) / 4;
+      int subBucket = (bucket + 4) % 4;
+      return (long) (4 + subBucket) << (exponent - 2);
+    }
+
+    void record(long nanos) {
+      buckets.incrementAndGet(bucketOf(nanos));
+      count.incrementAndGet();
+      totalNanos.addAndGet(nanos);
+      long max = maxNanos.get();
+      while (nanos > max && !maxNanos.compareAndSet(max, nanos)) {
+        max = maxNanos.get();
+      }
+    }
+
+    double percentileMicros(long total, double percentile) {
+      long rank = (long) Math.ceil(total * percentile);
+      long cumulative = 0;
+      for (int i = 0; i < BUCKET_COUNT; i++) {
+        cumulative += buckets.get(i);
+        if (cumulative >= rank && cumulative > 0) {
+          // middle of the bucket, capped by the maximum
+          double value = (lowerBoundOf(i) + lowerBoundOf(i + 1)) / 2.0;
+          return Math.min(value, maxNanos.get()) / 1000.0;
+        }
+      }
+      return maxNanos.get() / 1000.0;
+    }
+
+    @NonNull
+    Map<String, Object> toMap() {
+      long total = count.get();
+      Map<String, Object> map = new HashMap<>();
+      map.put("count", total);
+      map.put("totalMicros", totalNanos.get() / 1000.0);
+      map.put("maxMicros", maxNanos.get() / 1000.0);
+      map.put("p50Micros", percentileMicros(total, 0.50));
+      map.put("p95Micros", percentileMicros(total, 0.95));
+      map.put("p99Micros", percentileMicros(total, 0.99));
+      return map;
+    }
+
+    void reset() {
+      for (int i = 0; i < BUCKET_COUNT; i++) {
+        buckets.set(i, 0);
+      }
+      count.set(0);
+      totalNanos.set(0);
+      maxNanos.set(0);
+    }
+  }
+}
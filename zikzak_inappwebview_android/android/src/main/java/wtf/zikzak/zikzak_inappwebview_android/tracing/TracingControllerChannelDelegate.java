@@ -1,5 +1,9 @@
 package wtf.zikzak.zikzak_inappwebview_android.tracing;
 
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.webkit.TracingConfig;
@@ -10,6 +14,9 @@ import wtf.zikzak.zikzak_inappwebview_android.types.ChannelDelegateImpl;
 
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.util.Map;
 import java.util.concurrent.Executors;
 
@@ -17,6 +24,8 @@ import io.flutter.plugin.common.MethodCall;
 import io.flutter.plugin.common.MethodChannel;
 
 public class TracingControllerChannelDelegate extends ChannelDelegateImpl {
+  protected static final String LOG_TAG = "TracingControllerChann";
+
   @Nullable
   private TracingControllerManager tracingControllerManager;
 
@@ -65,11 +74,66 @@ public class TracingControllerChannelDelegate extends ChannelDelegateImpl {
           result.success(false);
         }
         break;
+      case "setInterceptRequestTracingEnabled":
+        Boolean enabled = (Boolean) call.argument("enabled");
+        InterceptRequestTracer.setEnabled(enabled != null && enabled);
+        result.success(true);
+        break;
+      case "getInterceptRequestTraceStatistics":
+        Boolean reset = (Boolean) call.argument("reset");
+        result.success(InterceptRequestTracer.getStatistics(reset != null && reset));
+        break;
+      case "exportInterceptRequestTrace":
+        String exportFilePath = (String) call.argument("filePath");
+        if (exportFilePath != null) {
+          exportInterceptRequestTrace(exportFilePath, result);
+        } else {
+          result.success(InterceptRequestTracer.exportChromeTrace());
+        }
+        break;
       default:
         result.notImplemented();
     }
   }
 
+  /**
+   * Writes the Chrome trace JSON of {@link InterceptRequestTracer} off the main thread,
+   * e.g. next to the file written by {@code stop}.
+   */
+  private void exportInterceptRequestTrace(@NonNull final String filePath, @NonNull final MethodChannel.Result result) {
+    final Handler handler = new Handler(Looper.getMainLooper());
+    Executors.newSingleThreadExecutor().execute(new Runnable() {
+      @Override
+      public void run() {
+        boolean written = false;
+        Writer writer = null;
+        try {
+          writer = new OutputStreamWriter(new FileOutputStream(filePath), "UTF-8");
+          writer.write(InterceptRequestTracer.exportChromeTrace());
+          written = true;
+        } catch (IOException e) {
+          Log.e(LOG_TAG, "", e);
+        } finally {
+          if (writer != null) {
+            try {
+              writer.close();
+            } catch (IOException e) {
+              Log.e(LOG_TAG, "", e);
+              written = false;
+            }
+          }
+        }
+        final boolean success = written;
+        handler.post(new Runnable() {
+          @Override
+          public void run() {
+            result.success(success);
+          }
+        });
+      }
+    });
+  }
+
   @Override
   public void dispose() {
     super.dispose();
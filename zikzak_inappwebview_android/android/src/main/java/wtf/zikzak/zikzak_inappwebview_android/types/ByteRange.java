@@ -0,0 +1,258 @@
+package wtf.zikzak.zikzak_inappwebview_android.types;
+
+import android.os.Build;
+import android.util.Log;
+import android.webkit.WebResourceResponse;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Single byte range of a {@code Range: bytes=...} request header, used to answer media requests
+ * with {@code 206 Partial Content} instead of the whole resource.
+ *
+ * Multiple ranges are not supported: as allowed by RFC 7233, the whole resource is returned.
+ */
+public class ByteRange {
+  protected static final String LOG_TAG = "ByteRange";
+
+  private static final ByteRange UNSATISFIABLE = new ByteRange(-1, -1);
+
+  public final long start;
+  // inclusive
+  public final long end;
+
+  public ByteRange(long start, long end) {
+    this.start = start;
+    this.end = end;
+  }
+
+  public long getLength() {
+    return end - start + 1;
+  }
+
+  /**
+   * Parses a {@code Range} header value for a resource of {@code length} bytes.
+   * Returns {@code null} if the header should be ignored.
+   */
+  @Nullable
+  public static ByteRange parse(@Nullable String header, long length) {
+    if (header == null) {
+      return null;
+    }
+    header = header.trim();
+    if (!header.regionMatches(true, 0, "bytes=", 0, 6) || header.indexOf(',') >= 0) {
+      return null;
+    }
+    String spec = header.substring(6).trim();
+    int dash = spec.indexOf('-');
+    if (dash < 0) {
+      return null;
+    }
+    try {
+      String first = spec.substring(0, dash).trim();
+      String last = spec.substring(dash + 1).trim();
+      if (first.isEmpty()) {
+        // suffix range: the last N bytes
+        long suffixLength = Long.parseLong(last);
+        if (suffixLength <= 0 || length == 0) {
+          return UNSATISFIABLE;
+        }
+        return new ByteRange(Math.max(0, length - suffixLength), length - 1);
+      }
+      long start = Long.parseLong(first);
+      long end = last.isEmpty() ? length - 1 : Long.parseLong(last);
+      if (start < 0 || end < start) {
+        return last.isEmpty() ? UNSATISFIABLE : null;
+      }
+      if (start >= length) {
+        return UNSATISFIABLE;
+      }
+      return new ByteRange(start, Math.min(end, length - 1));
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Returns the part of {@code response} requested by the {@code Range} header of
+   * {@code requestHeaders}, or {@code response} itself if there is no range to apply or the
+   * length of the response can't be known without reading it.
+   *
+   * A response created without a status code reports 0, and is treated as a {@code 200}.
+   *
+   * The data is sliced by skipping and limiting the response stream, so byte arrays and files
+   * are never copied.
+   */
+  @NonNull
+  public static WebResourceResponse apply(@NonNull WebResourceResponse response, @Nullable Map<String, String> requestHeaders) {
+    if (Build.VERSION.SDK_INT < Build.VERSION_CODES.LOLLIPOP) {
+      return response;
+    }
+    String rangeHeader = getHeader(requestHeaders, "Range");
+    InputStream data = response.getData();
+    int statusCode = response.getStatusCode();
+    if (rangeHeader == null || data == null || (statusCode != 200 && statusCode != 0)) {
+      return response;
+    }
+    Map<String, String> responseHeaders = response.getResponseHeaders();
+    String contentEncoding = getHeader(responseHeaders, "Content-Encoding");
+    if (contentEncoding != null && !contentEncoding.equalsIgnoreCase("identity")) {
+      return response;
+    }
+    long length = getContentLength(responseHeaders, data);
+    if (length < 0) {
+      return response;
+    }
+    ByteRange range = parse(rangeHeader, length);
+    if (range == null) {
+      return response;
+    }
+
+    Map<String, String> headers = new HashMap<>();
+    if (responseHeaders != null) {
+      for (Map.Entry<String, String> header : responseHeaders.entrySet()) {
+        if (!header.getKey().equalsIgnoreCase("Content-Length")) {
+          headers.put(header.getKey(), header.getValue());
+        }
+      }
+    }
+    headers.put("Accept-Ranges", "bytes");
+
+    if (range == UNSATISFIABLE) {
+      return createRangeNotSatisfiableResponse(response, headers, length);
+    }
+
+    try {
+      skipFully(data, range.start);
+    } catch (IOException e) {
+      // part of the data is already consumed: the response can't be returned whole anymore
+      Log.e(LOG_TAG, "", e);
+      return createRangeNotSatisfiableResponse(response, headers, length);
+    }
+    headers.put("Content-Range", "bytes " + range.start + "-" + range.end + "/" + length);
+    headers.put("Content-Length", String.valueOf(range.getLength()));
+    return new WebResourceResponse(response.getMimeType(), response.getEncoding(), 206,
+            "Partial Content", headers, new LimitedInputStream(data, range.getLength()));
+  }
+
+  @NonNull
+  private static WebResourceResponse createRangeNotSatisfiableResponse(@NonNull WebResourceResponse response,
+                                                                       @NonNull Map<String, String> headers,
+                                                                       long length) {
+    closeQuietly(response.getData());
+    headers.put("Content-Range", "bytes */" + length);
+    headers.put("Content-Length", "0");
+    return new WebResourceResponse(response.getMimeType(), response.getEncoding(), 416,
+            "Range Not Satisfiable", headers, new ByteArrayInputStream(new byte[0]));
+  }
+
+  /**
+   * Returns the {@code Content-Length} header if any, otherwise the remaining bytes of streams
+   * whose {@code available()} is exact, or -1.
+   */
+  private static long getContentLength(@Nullable Map<String, String> responseHeaders, @NonNull InputStream data) {
+    String contentLength = getHeader(responseHeaders, "Content-Length");
+    if (contentLength != null) {
+      try {
+        return Long.parseLong(contentLength.trim());
+      } catch (NumberFormatException ignored) {}
+    }
+    if (data instanceof ByteArrayInputStream || data instanceof FileInputStream) {
+      try {
+        return data.available();
+      } catch (IOException ignored) {}
+    }
+    return -1;
+  }
+
+  private static void skipFully(@NonNull InputStream data, long count) throws IOException {
+    while (count > 0) {
+      long skipped = data.skip(count);
+      if (skipped <= 0) {
+        if (data.read() < 0) {
+          throw new IOException("Unexpected end of stream while skipping to the range start");
+        }
+        skipped = 1;
+      }
+      count -= skipped;
+    }
+  }
+
+  @Nullable
+  private static String getHeader(@Nullable Map<String, String> headers, @NonNull String name) {
+    if (headers == null) {
+      return null;
+    }
+    for (Map.Entry<String, String> header : headers.entrySet()) {
+      if (name.equalsIgnoreCase(header.getKey())) {
+        return header.getValue();
+      }
+    }
+    return null;
+  }
+
+  private static void closeQuietly(@NonNull InputStream data) {
+    try {
+      data.close();
+    } catch (IOException ignored) {}
+  }
+
+  private static class LimitedInputStream extends FilterInputStream {
+    private long remaining;
+
+    LimitedInputStream(@NonNull InputStream in, long limit) {
+      super(in);
+      this.remaining = limit;
+    }
+
+    @Override
+    public int read() throws IOException {
+      if (remaining <= 0) {
+        return -1;
+      }
+      int b = super.read();
+      if (b >= 0) {
+        remaining--;
+      }
+      return b;
+    }
+
+    @Override
+    public int read(@NonNull byte[] b, int off, int len) throws IOException {
+      if (remaining <= 0) {
+        return -1;
+      }
+      int read = super.read(b, off, (int) Math.min(len, remaining));
+      if (read > 0) {
+        remaining -= read;
+      }
+      return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+      long skipped = super.skip(Math.min(n, remaining));
+      remaining -= skipped;
+      return skipped;
+    }
+
+    @Override
+    public int available() throws IOException {
+      return (int) Math.min(super.available(), remaining);
+    }
+
+    @Override
+    public boolean markSupported() {
+      return false;
+    }
+  }
+}
@@ -0,0 +1,152 @@
+package wtf.zikzak.zikzak_inappwebview_android.types;
+
+import android.net.Uri;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import wtf.zikzak.zikzak_inappwebview_android.content_blocker.ContentBlockerHandler;
+import wtf.zikzak.zikzak_inappwebview_android.content_blocker.ContentBlockerTriggerResourceType;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Native filter deciding which requests are sent to Dart through {@code shouldInterceptRequest}.
+ *
+ * A request matches a filter if it matches all of its non-empty criteria: URL regex, host,
+ * HTTP method and resource type. A host starting with {@code *.} matches its subdomains too.
+ * Requests whose resource type can't be inferred locally match any resource type.
+ */
+public class InterceptRequestFilter {
+  @Nullable
+  private final Pattern urlPattern;
+  @NonNull
+  private final List<String> hosts;
+  @NonNull
+  private final Set<String> methods;
+  private final int resourceTypeMask;
+
+  public InterceptRequestFilter(@Nullable Pattern urlPattern, @NonNull List<String> hosts,
+                                @NonNull Set<String> methods, int resourceTypeMask) {
+    this.urlPattern = urlPattern;
+    this.hosts = hosts;
+    this.methods = methods;
+    this.resourceTypeMask = resourceTypeMask;
+  }
+
+  @Nullable
+  public static InterceptRequestFilter fromMap(@Nullable Map<String, Object> map) {
+    if (map == null) {
+      return null;
+    }
+    String urlPattern = (String) map.get("urlPattern");
+    List<String> hosts = new ArrayList<>();
+    List<String> hostList = (List<String>) map.get("hosts");
+    if (hostList != null) {
+      for (String host : hostList) {
+        hosts.add(host.toLowerCase(Locale.ROOT));
+      }
+    }
+    Set<String> methods = new HashSet<>();
+    List<String> methodList = (List<String>) map.get("methods");
+    if (methodList != null) {
+      for (String method : methodList) {
+        methods.add(method.toUpperCase(Locale.ROOT));
+      }
+    }
+    int resourceTypeMask = 0;
+    List<String> resourceTypeList = (List<String>) map.get("resourceTypes");
+    if (resourceTypeList != null) {
+      for (String resourceType : resourceTypeList) {
+        resourceTypeMask |= ContentBlockerTriggerResourceType.fromValue(resourceType).toMask();
+      }
+    }
+    return new InterceptRequestFilter(urlPattern != null ? Pattern.compile(urlPattern) : null,
+            hosts, methods, resourceTypeMask);
+  }
+
+  @NonNull
+  public static List<InterceptRequestFilter> fromMapList(@NonNull List<Map<String, Object>> mapList) {
+    List<InterceptRequestFilter> filters = new ArrayList<>(mapList.size());
+    for (Map<String, Object> map : mapList) {
+      InterceptRequestFilter filter = fromMap(map);
+      if (filter != null) {
+        filters.add(filter);
+      }
+    }
+    return filters;
+  }
+
+  /**
+   * Whether the request matches at least one of the filters. No filters at all match every request.
+   */
+  public static boolean matchesAny(@Nullable List<InterceptRequestFilter> filters,
+                                   @NonNull WebResourceRequestExt request,
+                                   @NonNull ContentBlockerHandler resourceTypeResolver) {
+    if (filters == null || filters.isEmpty()) {
+      return true;
+    }
+    // computed at most once, and only if a filter needs it
+    String host = null;
+    ContentBlockerTriggerResourceType resourceType = null;
+    boolean resourceTypeResolved = false;
+    for (InterceptRequestFilter filter : filters) {
+      if (!filter.methods.isEmpty() && !filter.methods.contains(request.getMethod().toUpperCase(Locale.ROOT))) {
+        continue;
+      }
+      if (!filter.hosts.isEmpty()) {
+        if (host == null) {
+          String uriHost = Uri.parse(request.getUrl()).getHost();
+          host = uriHost != null ? uriHost.toLowerCase(Locale.ROOT) : "";
+        }
+        if (!filter.matchesHost(host)) {
+          continue;
+        }
+      }
+      if (filter.resourceTypeMask != 0) {
+        if (!resourceTypeResolved) {
+          resourceType = resourceTypeResolver.inferResourceType(request);
+          resourceTypeResolved = true;
+        }
+        if (resourceType != null && (filter.resourceTypeMask & resourceType.toMask()) == 0) {
+          continue;
+        }
+      }
+      if (filter.urlPattern != null && !filter.urlPattern.matcher(request.getUrl()).find()) {
+        continue;
+      }
+      return true;
+    }
+    return false;
+  }
+
+  private boolean matchesHost(@NonNull String host) {
+    for (String filterHost : hosts) {
+      if (filterHost.startsWith("*.")) {
+        String domain = filterHost.substring(2);
+        if (host.equals(domain) || host.endsWith(filterHost.substring(1))) {
+          return true;
+        }
+      } else if (filterHost.equals(host)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public String toString() {
+    return "InterceptRequestFilter{" +
+            "urlPattern=" + urlPattern +
+            ", hosts=" + hosts +
+            ", methods=" + methods +
+            ", resourceTypeMask=" + resourceTypeMask +
+            '}';
+  }
+}
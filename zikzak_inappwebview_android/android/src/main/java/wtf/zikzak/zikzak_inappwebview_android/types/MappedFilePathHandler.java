@@ -0,0 +1,300 @@
+package wtf.zikzak.zikzak_inappwebview_android.types;
+
+import android.util.Log;
+import android.util.LruCache;
+import android.webkit.MimeTypeMap;
+import android.webkit.WebResourceResponse;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.webkit.WebViewAssetLoader;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Path handler serving the files of a directory from memory-mapped buffers.
+ *
+ * Unlike {@link WebViewAssetLoader.InternalStoragePathHandler}, the file contents are never copied
+ * into the Java heap: the WebView reads the pages of the mapping directly, and skipping to the
+ * start of a requested range (see {@link ByteRange}) only moves the buffer position. The mappings
+ * of the most recently served files are kept, so that repeated range requests of the same media
+ * file don't open it again.
+ *
+ * A mapped file must never be modified in place: truncating or rewriting it while the WebView reads
+ * a mapping of it crashes the process with a SIGBUS. Replace files atomically instead, by writing the
+ * new content to another file of the same directory and renaming it over the old one. The existing
+ * mappings keep reading the old content and the next requests map the new file.
+ */
+public class MappedFilePathHandler implements WebViewAssetLoader.PathHandler {
+  protected static final String LOG_TAG = "MappedFilePathHandler";
+  private static final int MAX_OPEN_FILES = 32;
+  private static final int SNIFF_LENGTH = 16;
+  private static final Map<String, String> WEB_MIME_TYPES = new HashMap<>();
+
+  static {
+    // types missing from or inconsistent in MimeTypeMap across Android versions
+    WEB_MIME_TYPES.put("html", "text/html");
+    WEB_MIME_TYPES.put("htm", "text/html");
+    WEB_MIME_TYPES.put("js", "text/javascript");
+    WEB_MIME_TYPES.put("mjs", "text/javascript");
+    WEB_MIME_TYPES.put("css", "text/css");
+    WEB_MIME_TYPES.put("json", "application/json");
+    WEB_MIME_TYPES.put("wasm", "application/wasm");
+    WEB_MIME_TYPES.put("svg", "image/svg+xml");
+    WEB_MIME_TYPES.put("webp", "image/webp");
+    WEB_MIME_TYPES.put("avif", "image/avif");
+    WEB_MIME_TYPES.put("mp4", "video/mp4");
+    WEB_MIME_TYPES.put("m4s", "video/iso.segment");
+    WEB_MIME_TYPES.put("webm", "video/webm");
+    WEB_MIME_TYPES.put("ts", "video/mp2t");
+    WEB_MIME_TYPES.put("m3u8", "application/vnd.apple.mpegurl");
+    WEB_MIME_TYPES.put("mpd", "application/dash+xml");
+    WEB_MIME_TYPES.put("pbf", "application/x-protobuf");
+    WEB_MIME_TYPES.put("mvt", "application/vnd.mapbox-vector-tile");
+    WEB_MIME_TYPES.put("woff", "font/woff");
+    WEB_MIME_TYPES.put("woff2", "font/woff2");
+    WEB_MIME_TYPES.put("ttf", "font/ttf");
+    WEB_MIME_TYPES.put("otf", "font/otf");
+  }
+
+  @NonNull
+  private final File directory;
+  @NonNull
+  private final LruCache<String, MappedFile> openFiles = new LruCache<>(MAX_OPEN_FILES);
+
+  public MappedFilePathHandler(@NonNull File directory) throws IOException {
+    this.directory = directory.getCanonicalFile();
+  }
+
+  @Nullable
+  @Override
+  public WebResourceResponse handle(@NonNull String path) {
+    try {
+      File file = new File(directory, path).getCanonicalFile();
+      if (!file.getPath().startsWith(directory.getPath() + File.separator)) {
+        Log.e(LOG_TAG, "The requested file " + path + " is outside of " + directory);
+        return null;
+      }
+      MappedFile mappedFile = getMappedFile(file);
+      if (mappedFile == null) {
+        return null;
+      }
+      Map<String, String> headers = new HashMap<>();
+      headers.put("Content-Length", String.valueOf(mappedFile.buffer.capacity()));
+      headers.put("Accept-Ranges", "bytes");
+      // ByteRange.apply answers the Range requests with a slice of this response
+      return new WebResourceResponse(mappedFile.mimeType, null, 200, "OK", headers,
+              new ByteBufferInputStream(mappedFile.buffer.duplicate()));
+    } catch (IOException e) {
+      Log.e(LOG_TAG, "Error opening the requested file " + path, e);
+      return null;
+    }
+  }
+
+  @Nullable
+  private MappedFile getMappedFile(@NonNull File file) throws IOException {
+    String key = file.getPath();
+    long lastModified = file.lastModified();
+    long length = file.length();
+    if (!file.isFile()) {
+      openFiles.remove(key);
+      return null;
+    }
+    MappedFile mappedFile = openFiles.get(key);
+    if (mappedFile != null && mappedFile.lastModified == lastModified && mappedFile.buffer.capacity() == length) {
+      return mappedFile;
+    }
+    // a mapping keeps the storage of a deleted file allocated: release the ones of the deleted files
+    removeDeletedFiles();
+    if (length > Integer.MAX_VALUE) {
+      Log.e(LOG_TAG, "The requested file " + file + " is too large to be mapped");
+      return null;
+    }
+
+    ByteBuffer buffer;
+    if (length == 0) {
+      buffer = ByteBuffer.allocate(0);
+    } else {
+      RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+      try {
+        // the mapping stays valid after the channel is closed
+        buffer = randomAccessFile.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, length);
+      } finally {
+        randomAccessFile.close();
+      }
+    }
+    mappedFile = new MappedFile(buffer, lastModified, getMimeType(file.getName(), buffer));
+    openFiles.put(key, mappedFile);
+    return mappedFile;
+  }
+
+  private void removeDeletedFiles() {
+    for (String key : openFiles.snapshot().keySet()) {
+      if (!new File(key).isFile()) {
+        openFiles.remove(key);
+      }
+    }
+  }
+
+  /**
+   * Returns the MIME type of the file extension, or sniffed from the first bytes of the file.
+   */
+  @NonNull
+  static String getMimeType(@NonNull String fileName, @NonNull ByteBuffer buffer) {
+    String mimeType = getMimeTypeFromFileName(fileName);
+    if (mimeType == null) {
+      mimeType = sniffMimeType(buffer);
+    }
+    return mimeType != null ? mimeType : "application/octet-stream";
+  }
+
+  /**
+   * Returns the MIME type of the file extension, if known.
+   */
+  @Nullable
+  static String getMimeTypeFromFileName(@NonNull String fileName) {
+    int dot = fileName.lastIndexOf('.');
+    if (dot < 0 || fileName.indexOf('/', dot) >= 0) {
+      return null;
+    }
+    String extension = fileName.substring(dot + 1).toLowerCase(Locale.ROOT);
+    String mimeType = WEB_MIME_TYPES.get(extension);
+    return mimeType != null ? mimeType : MimeTypeMap.getSingleton().getMimeTypeFromExtension(extension);
+  }
+
+  @Nullable
+  static String sniffMimeType(@NonNull ByteBuffer buffer) {
+    byte[] header = new byte[Math.min(SNIFF_LENGTH, buffer.capacity())];
+    ByteBuffer duplicate = buffer.duplicate();
+    duplicate.position(0);
+    duplicate.get(header);
+    if (startsWith(header, 0, 0x89, 'P', 'N', 'G')) {
+      return "image/png";
+    }
+    if (startsWith(header, 0, 0xFF, 0xD8, 0xFF)) {
+      return "image/jpeg";
+    }
+    if (startsWith(header, 0, 'G', 'I', 'F', '8')) {
+      return "image/gif";
+    }
+    if (startsWith(header, 0, 'R', 'I', 'F', 'F') && startsWith(header, 8, 'W', 'E', 'B', 'P')) {
+      return "image/webp";
+    }
+    if (startsWith(header, 0, 'R', 'I', 'F', 'F') && startsWith(header, 8, 'W', 'A', 'V', 'E')) {
+      return "audio/wav";
+    }
+    if (startsWith(header, 4, 'f', 't', 'y', 'p')) {
+      if (startsWith(header, 8, 'a', 'v', 'i', 'f')) {
+        return "image/avif";
+      }
+      if (startsWith(header, 8, 'M', '4', 'A')) {
+        return "audio/mp4";
+      }
+      return "video/mp4";
+    }
+    if (startsWith(header, 0, 0x1A, 0x45, 0xDF, 0xA3)) {
+      return "video/webm";
+    }
+    if (startsWith(header, 0, 'O', 'g', 'g', 'S')) {
+      return "audio/ogg";
+    }
+    if (startsWith(header, 0, 'I', 'D', '3') || startsWith(header, 0, 0xFF, 0xFB)) {
+      return "audio/mpeg";
+    }
+    if (startsWith(header, 0, 'f', 'L', 'a', 'C')) {
+      return "audio/flac";
+    }
+    if (startsWith(header, 0, '%', 'P', 'D', 'F')) {
+      return "application/pdf";
+    }
+    if (startsWith(header, 0, 0x00, 'a', 's', 'm')) {
+      return "application/wasm";
+    }
+    if (startsWith(header, 0, 'w', 'O', 'F', 'F')) {
+      return "font/woff";
+    }
+    if (startsWith(header, 0, 'w', 'O', 'F', '2')) {
+      return "font/woff2";
+    }
+    if (startsWith(header, 0, 0x1F, 0x8B)) {
+      return "application/gzip";
+    }
+    return null;
+  }
+
+  private static boolean startsWith(@NonNull byte[] data, int offset, int... prefix) {
+    if (data.length < offset + prefix.length) {
+      return false;
+    }
+    for (int i = 0; i < prefix.length; i++) {
+      if ((data[offset + i] & 0xFF) != prefix[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static class MappedFile {
+    @NonNull
+    final ByteBuffer buffer;
+    final long lastModified;
+    @NonNull
+    final String mimeType;
+
+    MappedFile(@NonNull ByteBuffer buffer, long lastModified, @NonNull String mimeType) {
+      this.buffer = buffer;
+      this.lastModified = lastModified;
+      this.mimeType = mimeType;
+    }
+  }
+
+  /**
+   * Reads a {@link ByteBuffer}, skipping by moving its position.
+   */
+  static class ByteBufferInputStream extends InputStream {
+    @NonNull
+    private final ByteBuffer buffer;
+
+    ByteBufferInputStream(@NonNull ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+
+    @Override
+    public int read() {
+      return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+    }
+
+    @Override
+    public int read(@NonNull byte[] b, int off, int len) {
+      if (len == 0) {
+        return 0;
+      }
+      if (!buffer.hasRemaining()) {
+        return -1;
+      }
+      int count = Math.min(len, buffer.remaining());
+      buffer.get(b, off, count);
+      return count;
+    }
+
+    @Override
+    public long skip(long n) {
+      int count = (int) Math.max(0, Math.min(n, buffer.remaining()));
+      buffer.position(buffer.position() + count);
+      return count;
+    }
+
+    @Override
+    public int available() {
+      return buffer.remaining();
+    }
+  }
+}
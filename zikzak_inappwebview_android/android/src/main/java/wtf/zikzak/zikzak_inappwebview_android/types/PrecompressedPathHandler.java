@@ -0,0 +1,155 @@
+package wtf.zikzak.zikzak_inappwebview_android.types;
+
+import android.util.Log;
+import android.util.LruCache;
+import android.webkit.WebResourceResponse;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.webkit.WebViewAssetLoader;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import wtf.zikzak.zikzak_inappwebview_android.Util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Serves the gzip compressed sibling {@code <path>.gz} of the files of a local path handler,
+ * so that bundles can be shipped compressed.
+ *
+ * The WebView doesn't decode the {@code Content-Encoding} of the responses returned by
+ * {@code shouldInterceptRequest}, so the variant is decompressed while the WebView reads it.
+ *
+ * If a manifest is set, only the files it lists are looked up compressed, otherwise the
+ * compressed variant is tried first, and the paths without one are remembered so that each of
+ * them is probed only once per handler. The manifest is a JSON object read through
+ * the wrapped handler, mapping the paths of the uncompressed files to their variants,
+ * e.g. {@code {"main.js": ["br", "gz"]}}. Brotli variants are ignored: there is no Brotli
+ * decoder in the platform.
+ */
+public class PrecompressedPathHandler implements WebViewAssetLoader.PathHandler {
+  protected static final String LOG_TAG = "PrecompressedPathHand";
+  private static final String GZIP_EXTENSION = ".gz";
+  private static final int MISSING_GZIP_PATHS_CACHE_SIZE = 512;
+
+  @NonNull
+  private final WebViewAssetLoader.PathHandler pathHandler;
+  @Nullable
+  private final String manifestPath;
+  @Nullable
+  private volatile Set<String> gzipPaths;
+  // without a manifest, the paths whose compressed variant wasn't found
+  private final LruCache<String, Boolean> missingGzipPaths = new LruCache<>(MISSING_GZIP_PATHS_CACHE_SIZE);
+
+  public PrecompressedPathHandler(@NonNull WebViewAssetLoader.PathHandler pathHandler, @Nullable String manifestPath) {
+    this.pathHandler = pathHandler;
+    this.manifestPath = manifestPath;
+  }
+
+  @Nullable
+  @Override
+  public WebResourceResponse handle(@NonNull String path) {
+    if (hasGzipVariant(path)) {
+      WebResourceResponse response = pathHandler.handle(path + GZIP_EXTENSION);
+      if (manifestPath == null && (response == null || response.getData() == null)) {
+        missingGzipPaths.put(path, Boolean.TRUE);
+      }
+      if (response != null && response.getData() != null) {
+        try {
+          return decompress(path, response);
+        } catch (IOException e) {
+          Log.e(LOG_TAG, "Error decompressing " + path + GZIP_EXTENSION, e);
+          try {
+            response.getData().close();
+          } catch (IOException ignored) {}
+        }
+      }
+    }
+    return pathHandler.handle(path);
+  }
+
+  private boolean hasGzipVariant(@NonNull String path) {
+    if (manifestPath == null) {
+      return missingGzipPaths.get(path) == null;
+    }
+    Set<String> gzipPaths = this.gzipPaths;
+    if (gzipPaths == null) {
+      gzipPaths = loadManifest();
+    }
+    return gzipPaths.contains(path);
+  }
+
+  @NonNull
+  private synchronized Set<String> loadManifest() {
+    if (gzipPaths != null) {
+      return gzipPaths;
+    }
+    Set<String> paths = new HashSet<>();
+    WebResourceResponse manifest = manifestPath != null ? pathHandler.handle(manifestPath) : null;
+    byte[] data = manifest != null ? Util.readAllBytes(manifest.getData()) : null;
+    if (data != null) {
+      try {
+        JSONObject files = new JSONObject(new String(data, "UTF-8"));
+        Iterator<String> keys = files.keys();
+        while (keys.hasNext()) {
+          String path = keys.next();
+          JSONArray encodings = files.optJSONArray(path);
+          for (int i = 0; encodings != null && i < encodings.length(); i++) {
+            if ("gz".equals(encodings.optString(i)) || "gzip".equals(encodings.optString(i))) {
+              paths.add(path.startsWith("/") ? path.substring(1) : path);
+            }
+          }
+        }
+      } catch (JSONException | IOException e) {
+        Log.e(LOG_TAG, "Error parsing the precompressed manifest " + manifestPath, e);
+      }
+    } else {
+      Log.e(LOG_TAG, "Precompressed manifest " + manifestPath + " not found");
+    }
+    // an invalid manifest disables the compressed variants instead of probing each file
+    gzipPaths = Collections.unmodifiableSet(paths);
+    return gzipPaths;
+  }
+
+  @NonNull
+  private static WebResourceResponse decompress(@NonNull String path, @NonNull WebResourceResponse response) throws IOException {
+    InputStream data = new GZIPInputStream(response.getData());
+    String mimeType = MappedFilePathHandler.getMimeTypeFromFileName(path);
+    if (mimeType == null) {
+      mimeType = response.getMimeType();
+    }
+    Map<String, String> headers = new HashMap<>();
+    Map<String, String> responseHeaders = response.getResponseHeaders();
+    if (responseHeaders != null) {
+      for (Map.Entry<String, String> header : responseHeaders.entrySet()) {
+        String name = header.getKey();
+        // the length and ranges of the compressed file don't apply to the decompressed data
+        if (!name.equalsIgnoreCase("Content-Length") && !name.equalsIgnoreCase("Accept-Ranges") &&
+                !name.equalsIgnoreCase("Content-Type")) {
+          headers.put(name, header.getValue());
+        }
+      }
+    }
+    // the androidx handlers create their responses without a status code, which reads 0,
+    // while this constructor requires a valid one
+    int statusCode = response.getStatusCode();
+    String reasonPhrase = response.getReasonPhrase();
+    if (statusCode == 0) {
+      statusCode = 200;
+      reasonPhrase = "OK";
+    }
+    return new WebResourceResponse(mimeType, response.getEncoding(), statusCode,
+            reasonPhrase != null && !reasonPhrase.isEmpty() ? reasonPhrase : "OK", headers, data);
+  }
+}
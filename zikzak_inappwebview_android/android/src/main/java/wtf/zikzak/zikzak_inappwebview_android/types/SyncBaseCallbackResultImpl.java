@@ -9,6 +9,31 @@ public class SyncBaseCallbackResultImpl<T> extends BaseCallbackResultImpl<T> {
   final public CountDownLatch latch = new CountDownLatch(1);
   @Nullable
   public T result = null;
+  // set when the caller stopped waiting for the result, see abandon()
+  private boolean abandoned = false;
+  private boolean answered = false;
+
+  /**
+   * Tells that the caller no longer waits for the result, e.g. when its deadline passed.
+   * A result that arrives later is released instead of being kept, see {@link Disposable}.
+   *
+   * @return {@code false} if the result arrived in the meantime and can still be used.
+   */
+  public synchronized boolean abandon() {
+    if (answered) {
+      return false;
+    }
+    abandoned = true;
+    return true;
+  }
+
+  private synchronized boolean answer() {
+    if (abandoned) {
+      return false;
+    }
+    answered = true;
+    return true;
+  }
 
   @CallSuper
   @Override
@@ -19,6 +44,12 @@ public class SyncBaseCallbackResultImpl<T> extends BaseCallbackResultImpl<T> {
   @Override
   public void success(@Nullable Object obj) {
     T result = decodeResult(obj);
+    if (!answer()) {
+      if (result instanceof Disposable) {
+        ((Disposable) result).dispose();
+      }
+      return;
+    }
     this.result = result;
     boolean shouldRunDefaultBehaviour;
     if (result == null) {
@@ -36,12 +67,14 @@ public class SyncBaseCallbackResultImpl<T> extends BaseCallbackResultImpl<T> {
   @CallSuper
   @Override
   public void error(String errorCode, @Nullable String errorMessage, @Nullable Object errorDetails) {
+    answer();
     latch.countDown();
   }
 
   @CallSuper
   @Override
   public void notImplemented() {
+    answer();
     defaultBehaviour(null);
   }
 }
@@ -0,0 +1,247 @@
+package wtf.zikzak.zikzak_inappwebview_android.types;
+
+import android.util.LruCache;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import wtf.zikzak.zikzak_inappwebview_android.Util;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.flutter.plugin.common.MethodChannel;
+
+/**
+ * Deadline of the synchronous Dart calls made from a WebView IO thread at a given call site,
+ * and what to answer the WebView when Dart does not reply in time.
+ *
+ * Without a deadline (the default) the IO thread waits for Dart as long as needed.
+ */
+public class SyncCallDeadline<T> {
+  // per call site, in body bytes: a few large responses must not pin tens of MB
+  private static final int CACHE_MAX_SIZE_BYTES = 4 * 1024 * 1024;
+
+  public static final SyncCallDeadline<WebResourceResponseExt> SHOULD_INTERCEPT_REQUEST =
+          new SyncCallDeadline<>("shouldInterceptRequest",
+                  new WebResourceResponseExt("", "", null, null, null, new byte[0]));
+  public static final SyncCallDeadline<CustomSchemeResponse> LOAD_RESOURCE_WITH_CUSTOM_SCHEME =
+          new SyncCallDeadline<>("onLoadResourceWithCustomScheme",
+                  new CustomSchemeResponse(new byte[0], "text/plain", "utf-8"));
+  public static final SyncCallDeadline<WebResourceResponseExt> PATH_HANDLER =
+          new SyncCallDeadline<>("pathHandler",
+                  new WebResourceResponseExt("", "", null, null, null, new byte[0]));
+  public static final SyncCallDeadline<WebResourceResponseExt> SERVICE_WORKER_SHOULD_INTERCEPT_REQUEST =
+          new SyncCallDeadline<>("serviceWorkerShouldInterceptRequest",
+                  new WebResourceResponseExt("", "", null, null, null, new byte[0]));
+
+  private static final SyncCallDeadline<?>[] CALL_SITES = new SyncCallDeadline<?>[]{
+          SHOULD_INTERCEPT_REQUEST,
+          LOAD_RESOURCE_WITH_CUSTOM_SCHEME,
+          PATH_HANDLER,
+          SERVICE_WORKER_SHOULD_INTERCEPT_REQUEST
+  };
+
+  public enum FallbackPolicy {
+    /// the request continues as if Dart returned null
+    PASS_THROUGH("passThrough"),
+    /// the request gets an empty response
+    BLOCK("block"),
+    /// the last response returned by Dart for the same URL and channel, otherwise pass through
+    SERVE_CACHED("serveCached");
+
+    private final String value;
+
+    FallbackPolicy(String value) {
+      this.value = value;
+    }
+
+    public static FallbackPolicy fromValue(String value) {
+      for (FallbackPolicy policy : FallbackPolicy.values()) {
+        if (policy.value.equals(value))
+          return policy;
+      }
+      throw new IllegalArgumentException("No enum constant: " + value);
+    }
+
+    @Override
+    public String toString() {
+      return value;
+    }
+  }
+
+  @NonNull
+  private final String callSite;
+  @NonNull
+  private final T blockedResult;
+  private volatile long deadlineMillis = 0;
+  @NonNull
+  private volatile FallbackPolicy fallbackPolicy = FallbackPolicy.PASS_THROUGH;
+  // (channel, URL) -> last result returned by Dart, only filled with the SERVE_CACHED policy.
+  // The call sites are process-wide, so the channel keeps a WebView, or a path handler,
+  // from being answered with the result Dart returned to another one.
+  private final LruCache<ResultCacheKey, T> resultCache = new LruCache<ResultCacheKey, T>(CACHE_MAX_SIZE_BYTES) {
+    @Override
+    protected int sizeOf(ResultCacheKey key, T value) {
+      byte[] data = null;
+      if (value instanceof WebResourceResponseExt) {
+        data = ((WebResourceResponseExt) value).getData();
+      } else if (value instanceof CustomSchemeResponse) {
+        data = ((CustomSchemeResponse) value).getData();
+      }
+      // the URL and the response fields count too, so that empty bodies are not free
+      return (data != null ? data.length : 0) + key.url.length() * 2 + 256;
+    }
+  };
+  private final AtomicLong callCount = new AtomicLong();
+  private final AtomicLong deadlineExceededCount = new AtomicLong();
+  private final AtomicLong cachedResultCount = new AtomicLong();
+
+  private SyncCallDeadline(@NonNull String callSite, @NonNull T blockedResult) {
+    this.callSite = callSite;
+    this.blockedResult = blockedResult;
+  }
+
+  @Nullable
+  public static SyncCallDeadline<?> fromCallSite(@Nullable String callSite) {
+    for (SyncCallDeadline<?> deadline : CALL_SITES) {
+      if (deadline.callSite.equals(callSite)) {
+        return deadline;
+      }
+    }
+    return null;
+  }
+
+  public void setDeadline(long deadlineMillis, @NonNull FallbackPolicy fallbackPolicy) {
+    this.deadlineMillis = deadlineMillis;
+    this.fallbackPolicy = fallbackPolicy;
+    if (fallbackPolicy != FallbackPolicy.SERVE_CACHED) {
+      resultCache.evictAll();
+    }
+  }
+
+  /**
+   * Calls Dart and waits for the result until the deadline of this call site.
+   *
+   * @param url the URL of the request, used with the channel as the key of the cached results.
+   */
+  @Nullable
+  public T invokeMethodAndWaitResult(@NonNull MethodChannel channel, @NonNull String method,
+                                     @Nullable Object arguments, @NonNull SyncBaseCallbackResultImpl<T> callback,
+                                     @NonNull String url) throws InterruptedException {
+    callCount.incrementAndGet();
+    long deadline = deadlineMillis;
+    if (deadline <= 0) {
+      return Util.invokeMethodAndWaitResult(channel, method, arguments, callback);
+    }
+
+    T result;
+    try {
+      result = Util.invokeMethodAndWaitResult(channel, method, arguments, callback, deadline);
+    } catch (TimeoutException e) {
+      deadlineExceededCount.incrementAndGet();
+      switch (fallbackPolicy) {
+        case BLOCK:
+          return blockedResult;
+        case SERVE_CACHED:
+          T cachedResult = resultCache.get(new ResultCacheKey(channel, url));
+          if (cachedResult != null) {
+            cachedResultCount.incrementAndGet();
+          }
+          return cachedResult;
+        case PASS_THROUGH:
+        default:
+          return null;
+      }
+    }
+    if (result != null && fallbackPolicy == FallbackPolicy.SERVE_CACHED && isReusable(result)) {
+      resultCache.put(new ResultCacheKey(channel, url), result);
+    }
+    return result;
+  }
+
+  /**
+   * Drops the results cached for {@code channel}: called when its WebView or path handler is disposed,
+   * since the cache keys hold a reference to the channel.
+   */
+  public static void evictChannel(@Nullable MethodChannel channel) {
+    if (channel == null) {
+      return;
+    }
+    for (SyncCallDeadline<?> deadline : CALL_SITES) {
+      deadline.evictResults(channel);
+    }
+  }
+
+  private void evictResults(@NonNull MethodChannel channel) {
+    if (resultCache.size() == 0) {
+      return;
+    }
+    for (ResultCacheKey key : resultCache.snapshot().keySet()) {
+      if (key.channel == channel) {
+        resultCache.remove(key);
+      }
+    }
+  }
+
+  private static class ResultCacheKey {
+    @NonNull
+    private final MethodChannel channel;
+    @NonNull
+    private final String url;
+
+    ResultCacheKey(@NonNull MethodChannel channel, @NonNull String url) {
+      this.channel = channel;
+      this.url = url;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (o == null || getClass() != o.getClass()) return false;
+      ResultCacheKey that = (ResultCacheKey) o;
+      return channel == that.channel && url.equals(that.url);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * System.identityHashCode(channel) + url.hashCode();
+    }
+  }
+
+  private static boolean isReusable(@NonNull Object result) {
+    // a streamed body can be read only once
+    return !(result instanceof WebResourceResponseExt) || ((WebResourceResponseExt) result).getBodyStream() == null;
+  }
+
+  public Map<String, Object> toMap() {
+    Map<String, Object> map = new HashMap<>();
+    map.put("callSite", callSite);
+    map.put("deadline", deadlineMillis);
+    map.put("fallbackPolicy", fallbackPolicy.toString());
+    map.put("callCount", callCount.get());
+    map.put("deadlineExceededCount", deadlineExceededCount.get());
+    map.put("cachedResultCount", cachedResultCount.get());
+    return map;
+  }
+
+  public void resetCounters() {
+    callCount.set(0);
+    deadlineExceededCount.set(0);
+    cachedResultCount.set(0);
+  }
+
+  @NonNull
+  public static Map<String, Object> getStatistics(boolean reset) {
+    Map<String, Object> statistics = new HashMap<>();
+    for (SyncCallDeadline<?> deadline : CALL_SITES) {
+      statistics.put(deadline.callSite, deadline.toMap());
+      if (reset) {
+        deadline.resetCounters();
+      }
+    }
+    return statistics;
+  }
+}
@@ -0,0 +1,80 @@
+package wtf.zikzak.zikzak_inappwebview_android.types;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.net.URI;
+
+/**
+ * Immutable view of the URL of the top-level document of a WebView.
+ * It is published from the UI thread by the navigation callbacks and can be read from any thread,
+ * e.g. by the content blocker running on the WebView IO threads.
+ */
+public class TopDocumentSnapshot {
+  public static final TopDocumentSnapshot EMPTY = new TopDocumentSnapshot(null, null, null, -1);
+
+  @Nullable
+  private final String url;
+  @Nullable
+  private final String scheme;
+  @Nullable
+  private final String host;
+  private final int port;
+  @Nullable
+  private final String origin;
+
+  private TopDocumentSnapshot(@Nullable String url, @Nullable String scheme, @Nullable String host, int port) {
+    this.url = url;
+    this.scheme = scheme;
+    this.host = host;
+    this.port = port;
+    this.origin = host != null ? scheme + "://" + host + (port != -1 ? ":" + port : "") : null;
+  }
+
+  @NonNull
+  public static TopDocumentSnapshot fromUrl(@Nullable String url) {
+    if (url == null) {
+      return EMPTY;
+    }
+    try {
+      URI uri = new URI(url);
+      return new TopDocumentSnapshot(url, uri.getScheme(), uri.getHost(), uri.getPort());
+    } catch (Exception e) {
+      return new TopDocumentSnapshot(url, null, null, -1);
+    }
+  }
+
+  @Nullable
+  public String getUrl() {
+    return url;
+  }
+
+  @Nullable
+  public String getScheme() {
+    return scheme;
+  }
+
+  @Nullable
+  public String getHost() {
+    return host;
+  }
+
+  public int getPort() {
+    return port;
+  }
+
+  @Nullable
+  public String getOrigin() {
+    return origin;
+  }
+
+  @Override
+  public String toString() {
+    return "TopDocumentSnapshot{" +
+            "url='" + url + '\'' +
+            ", scheme='" + scheme + '\'' +
+            ", host='" + host + '\'' +
+            ", port=" + port +
+            '}';
+  }
+}
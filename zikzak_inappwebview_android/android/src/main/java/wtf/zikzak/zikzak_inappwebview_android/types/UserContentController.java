@@ -50,6 +50,17 @@ public class UserContentController implements Disposable {
     put(UserScriptInjectionTime.AT_DOCUMENT_END, new LinkedHashSet<PluginScript>());
   }};
 
+  // bumped on each change of the scripts or of the content worlds
+  private int version = 0;
+  // version of the generated code below, which is reused until the scripts change
+  private int generatedCodeVersion = -1;
+  @Nullable
+  private String codeForDocumentStart;
+  @Nullable
+  private String wrappedCodeForDocumentStart;
+  @Nullable
+  private String wrappedCodeForDocumentEnd;
+
   @Nullable
   public WebView webView;
 
@@ -58,13 +69,21 @@ public class UserContentController implements Disposable {
   }
 
   public String generateWrappedCodeForDocumentStart() {
-    return Util.replaceAll(
-            DOCUMENT_READY_WRAPPER_JS_SOURCE,
-            PluginScriptsUtil.VAR_PLACEHOLDER_VALUE,
-            generateCodeForDocumentStart());
+    invalidateGeneratedCodeIfChanged();
+    if (wrappedCodeForDocumentStart == null) {
+      wrappedCodeForDocumentStart = Util.replaceAll(
+              DOCUMENT_READY_WRAPPER_JS_SOURCE,
+              PluginScriptsUtil.VAR_PLACEHOLDER_VALUE,
+              generateCodeForDocumentStart());
+    }
+    return wrappedCodeForDocumentStart;
   }
 
   public String generateWrappedCodeForDocumentEnd() {
+    invalidateGeneratedCodeIfChanged();
+    if (wrappedCodeForDocumentEnd != null) {
+      return wrappedCodeForDocumentEnd;
+    }
     UserScriptInjectionTime injectionTime = UserScriptInjectionTime.AT_DOCUMENT_END;
     String js = "";
     if (!WebViewFeature.isFeatureSupported(WebViewFeature.DOCUMENT_START_SCRIPT)) {
@@ -74,19 +93,34 @@ public class UserContentController implements Disposable {
     js += generatePluginScriptsCodeAt(injectionTime);
     js += generateUserOnlyScriptsCodeAt(injectionTime);
     js = USER_SCRIPTS_AT_DOCUMENT_END_WRAPPER_JS_SOURCE.replace(PluginScriptsUtil.VAR_PLACEHOLDER_VALUE, js);
+    wrappedCodeForDocumentEnd = js;
     return js;
   }
 
   public String generateCodeForDocumentStart() {
+    invalidateGeneratedCodeIfChanged();
+    if (codeForDocumentStart != null) {
+      return codeForDocumentStart;
+    }
     UserScriptInjectionTime injectionTime = UserScriptInjectionTime.AT_DOCUMENT_START;
     String js = "";
     js += generatePluginScriptsCodeAt(injectionTime);
     js += generateContentWorldsCreatorCode();
     js += generateUserOnlyScriptsCodeAt(injectionTime);
     js = USER_SCRIPTS_AT_DOCUMENT_START_WRAPPER_JS_SOURCE.replace(PluginScriptsUtil.VAR_PLACEHOLDER_VALUE, js);
+    codeForDocumentStart = js;
     return js;
   }
 
+  private void invalidateGeneratedCodeIfChanged() {
+    if (generatedCodeVersion != version) {
+      codeForDocumentStart = null;
+      wrappedCodeForDocumentStart = null;
+      wrappedCodeForDocumentEnd = null;
+      generatedCodeVersion = version;
+    }
+  }
+
   public String generateContentWorldsCreatorCode() {
     if (this.contentWorlds.size() == 1) {
       return "";
@@ -138,6 +172,7 @@ public class UserContentController implements Disposable {
       StringBuilder sourceWrapped = new StringBuilder();
       if (!contentWorlds.contains(contentWorld)) {
         contentWorlds.add(contentWorld);
+        version++;
 
         StringBuilder pluginScriptsSource = new StringBuilder();
         LinkedHashSet<PluginScript> pluginScriptsRequired = this.getPluginScriptsRequiredInAllContentWorlds();
@@ -210,6 +245,7 @@ public class UserContentController implements Disposable {
       );
       this.scriptHandlerMap.put(userOnlyScript, scriptHandler);
     }
+    version++;
     return this.userOnlyScripts.get(userOnlyScript.getInjectionTime()).add(userOnlyScript);
   }
 
@@ -228,6 +264,7 @@ public class UserContentController implements Disposable {
       }
       this.updateContentWorldsCreatorScript();
     }
+    version++;
     return this.userOnlyScripts.get(userOnlyScript.getInjectionTime()).remove(userOnlyScript);
   }
 
@@ -248,6 +285,7 @@ public class UserContentController implements Disposable {
     }
     this.userOnlyScripts.get(UserScriptInjectionTime.AT_DOCUMENT_START).clear();
     this.userOnlyScripts.get(UserScriptInjectionTime.AT_DOCUMENT_END).clear();
+    version++;
   }
 
   public LinkedHashSet<PluginScript> getPluginScriptsAt(UserScriptInjectionTime injectionTime) {
@@ -280,6 +318,7 @@ public class UserContentController implements Disposable {
       );
       this.scriptHandlerMap.put(pluginScript, scriptHandler);
     }
+    version++;
     return this.pluginScripts.get(pluginScript.getInjectionTime()).add(pluginScript);
   }
 
@@ -298,6 +337,7 @@ public class UserContentController implements Disposable {
       }
       this.updateContentWorldsCreatorScript();
     }
+    version++;
     return this.pluginScripts.get(pluginScript.getInjectionTime()).remove(pluginScript);
   }
 
@@ -313,6 +353,7 @@ public class UserContentController implements Disposable {
     }
     this.pluginScripts.get(UserScriptInjectionTime.AT_DOCUMENT_START).clear();
     this.pluginScripts.get(UserScriptInjectionTime.AT_DOCUMENT_END).clear();
+    version++;
   }
 
   public LinkedHashSet<UserScript> getUserOnlyScriptAsList() {
@@ -334,19 +375,26 @@ public class UserContentController implements Disposable {
   }
 
   public void resetContentWorlds() {
-    this.contentWorlds.clear();
-    this.contentWorlds.add(ContentWorld.PAGE);
+    Set<ContentWorld> contentWorlds = new HashSet<>();
+    contentWorlds.add(ContentWorld.PAGE);
 
     LinkedHashSet<PluginScript> pluginScripts = this.getPluginScriptAsList();
     for (PluginScript pluginScript : pluginScripts) {
       ContentWorld contentWorld = pluginScript.getContentWorld();
-      this.contentWorlds.add(contentWorld);
+      contentWorlds.add(contentWorld);
     }
 
     LinkedHashSet<UserScript> userOnlyScripts = this.getUserOnlyScriptAsList();
     for (UserScript userOnlyScript : userOnlyScripts) {
       ContentWorld contentWorld = userOnlyScript.getContentWorld();
-      this.contentWorlds.add(contentWorld);
+      contentWorlds.add(contentWorld);
+    }
+
+    // called on each page start: keep the generated code when nothing changed
+    if (!contentWorlds.equals(this.contentWorlds)) {
+      this.contentWorlds.clear();
+      this.contentWorlds.addAll(contentWorlds);
+      version++;
     }
   }
 
@@ -7,12 +7,20 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
 import wtf.zikzak.zikzak_inappwebview_android.Util;
+import wtf.zikzak.zikzak_inappwebview_android.response_body_stream.ResponseBodyInputStream;
+import wtf.zikzak.zikzak_inappwebview_android.response_body_stream.ResponseBodyStreamManager;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
-public class WebResourceResponseExt {
+/**
+ * Disposing a response closes its streamed body: used for the responses that are never given
+ * to the WebView, e.g. a reply that arrived after its {@link SyncCallDeadline}.
+ */
+public class WebResourceResponseExt implements Disposable {
   @Nullable
   private String contentType;
   @Nullable
@@ -25,6 +33,8 @@ public class WebResourceResponseExt {
   private Map<String, String> headers;
   @Nullable
   private byte[] data;
+  @Nullable
+  private ResponseBodyInputStream bodyStream;
 
   public WebResourceResponseExt(@Nullable String contentType, @Nullable String contentEncoding, @Nullable Integer statusCode,
                                 @Nullable String reasonPhrase, @Nullable Map<String, String> headers, @Nullable byte[] data) {
@@ -65,7 +75,13 @@ public class WebResourceResponseExt {
     String reasonPhrase = (String) map.get("reasonPhrase");
     Map<String, String> headers = (Map<String, String>) map.get("headers");
     byte[] data = (byte[]) map.get("data");
-    return new WebResourceResponseExt(contentType, contentEncoding, statusCode, reasonPhrase, headers, data);
+    WebResourceResponseExt response = new WebResourceResponseExt(contentType, contentEncoding, statusCode, reasonPhrase, headers, data);
+    String bodyStreamId = (String) map.get("bodyStreamId");
+    if (bodyStreamId != null) {
+      // the body is pushed by Dart after this response, see ResponseBodyStreamManager
+      response.bodyStream = ResponseBodyStreamManager.open(bodyStreamId, (Number) map.get("bodyStreamBufferSize"));
+    }
+    return response;
   }
 
   public Map<String, Object> toMap() {
@@ -76,6 +92,7 @@ public class WebResourceResponseExt {
     webResourceResponseMap.put("reasonPhrase", reasonPhrase);
     webResourceResponseMap.put("headers", headers);
     webResourceResponseMap.put("data", data);
+    webResourceResponseMap.put("bodyStreamId", bodyStream != null ? bodyStream.getId() : null);
     return webResourceResponseMap;
   }
 
@@ -133,6 +150,31 @@ public class WebResourceResponseExt {
     this.data = data;
   }
 
+  @Nullable
+  public ResponseBodyInputStream getBodyStream() {
+    return bodyStream;
+  }
+
+  /**
+   * Returns the stream to give to the WebView: the body streamed from Dart if any,
+   * otherwise {@link #getData()}.
+   */
+  @Nullable
+  public InputStream getDataInputStream() {
+    if (bodyStream != null) {
+      return bodyStream;
+    }
+    return data != null ? new ByteArrayInputStream(data) : null;
+  }
+
+  @Override
+  public void dispose() {
+    if (bodyStream != null) {
+      // unregisters the stream, so that Dart's pending and next writes return false
+      bodyStream.close();
+    }
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) return true;
@@ -10,10 +10,11 @@ import androidx.annotation.Nullable;
 import androidx.webkit.WebViewAssetLoader;
 
 import wtf.zikzak.zikzak_inappwebview_android.InAppWebViewFlutterPlugin;
-import wtf.zikzak.zikzak_inappwebview_android.Util;
+import wtf.zikzak.zikzak_inappwebview_android.response_cache.InterceptedResponseCache;
 
-import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -22,6 +23,8 @@ import java.util.Map;
 import io.flutter.plugin.common.MethodChannel;
 
 public class WebViewAssetLoaderExt implements Disposable {
+  protected static final String LOG_TAG = "WebViewAssetLoaderExt";
+
   @Nullable
   public WebViewAssetLoader loader;
   @NonNull
@@ -33,7 +36,8 @@ public class WebViewAssetLoaderExt implements Disposable {
   }
 
   @Nullable
-  public static WebViewAssetLoaderExt fromMap(@Nullable Map<String, Object> map, @NonNull InAppWebViewFlutterPlugin plugin, @NonNull Context context) {
+  public static WebViewAssetLoaderExt fromMap(@Nullable Map<String, Object> map, @NonNull InAppWebViewFlutterPlugin plugin, @NonNull Context context,
+                                              @Nullable InterceptedResponseCache responseCache) {
     if (map == null) {
       return null;
     }
@@ -59,7 +63,7 @@ public class WebViewAssetLoaderExt implements Disposable {
           case "AssetsPathHandler":
             WebViewAssetLoader.AssetsPathHandler assetsPathHandler =
                     new WebViewAssetLoader.AssetsPathHandler(context);
-            builder.addPathHandler(path, assetsPathHandler);
+            builder.addPathHandler(path, withPrecompressedVariants(assetsPathHandler, pathHandler));
             break;
           case "InternalStoragePathHandler":
             String directory = (String) pathHandler.get("directory");
@@ -69,18 +73,33 @@ public class WebViewAssetLoaderExt implements Disposable {
             File dir = new File(directory);
             WebViewAssetLoader.InternalStoragePathHandler internalStoragePathHandler =
                     new WebViewAssetLoader.InternalStoragePathHandler(context, dir);
-            builder.addPathHandler(path, internalStoragePathHandler);
+            builder.addPathHandler(path, withPrecompressedVariants(internalStoragePathHandler, pathHandler));
             break;
           case "ResourcesPathHandler":
             WebViewAssetLoader.ResourcesPathHandler resourcesPathHandler = new WebViewAssetLoader.ResourcesPathHandler(context);
             builder.addPathHandler(path, resourcesPathHandler);
             break;
+          case "MappedFilePathHandler":
+            String mappedDirectory = (String) pathHandler.get("directory");
+            if (mappedDirectory == null) {
+              continue;
+            }
+            try {
+              builder.addPathHandler(path,
+                      withPrecompressedVariants(new MappedFilePathHandler(new File(mappedDirectory)), pathHandler));
+            } catch (IOException e) {
+              Log.e(LOG_TAG, "", e);
+            }
+            break;
           default:
             String id = (String) pathHandler.get("id");
             if (id == null) {
               continue;
             }
-            PathHandlerExt customPathHandler = new PathHandlerExt(id, plugin);
+            // the id is generated again by each run of the app, the domain and path are not
+            String cacheKeyPrefix = "pathHandler:" +
+                    (domain != null && !domain.isEmpty() ? domain : WebViewAssetLoader.DEFAULT_DOMAIN) + path;
+            PathHandlerExt customPathHandler = new PathHandlerExt(id, cacheKeyPrefix, plugin, responseCache);
             builder.addPathHandler(path, customPathHandler);
             customPathHandlers.add(customPathHandler);
             break;
@@ -90,6 +109,16 @@ public class WebViewAssetLoaderExt implements Disposable {
     return new WebViewAssetLoaderExt(builder.build(), customPathHandlers);
   }
 
+  @NonNull
+  private static WebViewAssetLoader.PathHandler withPrecompressedVariants(@NonNull WebViewAssetLoader.PathHandler handler,
+                                                                          @NonNull Map<String, Object> pathHandler) {
+    Boolean precompressed = (Boolean) pathHandler.get("precompressed");
+    if (precompressed == null || !precompressed) {
+      return handler;
+    }
+    return new PrecompressedPathHandler(handler, (String) pathHandler.get("precompressedManifest"));
+  }
+
   @Override
   public void dispose() {
     for (PathHandlerExt pathHandler : customPathHandlers) {
@@ -105,23 +134,43 @@ public class WebViewAssetLoaderExt implements Disposable {
 
     @NonNull
     public String id;
+    /// Prefix of the keys of this handler's responses in the intercepted response cache,
+    /// stable across the runs of the app so that the disk entries are found again.
+    @NonNull
+    public String cacheKeyPrefix;
     @Nullable
     public PathHandlerExtChannelDelegate channelDelegate;
+    @Nullable
+    public InterceptedResponseCache responseCache;
 
-    public PathHandlerExt(@NonNull String id, @NonNull InAppWebViewFlutterPlugin plugin) {
+    public PathHandlerExt(@NonNull String id, @NonNull String cacheKeyPrefix, @NonNull InAppWebViewFlutterPlugin plugin,
+                          @Nullable InterceptedResponseCache responseCache) {
       this.id = id;
+      this.cacheKeyPrefix = cacheKeyPrefix;
+      this.responseCache = responseCache;
       final MethodChannel channel = new MethodChannel(plugin.messenger, METHOD_CHANNEL_NAME_PREFIX + id);
       this.channelDelegate = new PathHandlerExtChannelDelegate(this, channel);
     }
 
     @Nullable
     @Override
-    public WebResourceResponse handle(@NonNull String path) {
+    public WebResourceResponse handle(@NonNull final String path) {
+      final PathHandlerExtChannelDelegate channelDelegate = this.channelDelegate;
       if (channelDelegate != null) {
         WebResourceResponseExt response = null;
 
         try {
-          response = channelDelegate.handle(path);
+          if (responseCache != null) {
+            response = responseCache.load(cacheKeyPrefix + path, new InterceptedResponseCache.Loader() {
+              @Nullable
+              @Override
+              public WebResourceResponseExt load(@Nullable Map<String, String> conditionalHeaders) throws InterruptedException {
+                return channelDelegate.handle(path);
+              }
+            });
+          } else {
+            response = channelDelegate.handle(path);
+          }
         } catch (InterruptedException e) {
           Log.e(LOG_TAG, "", e);
           return null;
@@ -130,12 +179,11 @@ public class WebViewAssetLoaderExt implements Disposable {
         if (response != null) {
           String contentType = response.getContentType();
           String contentEncoding = response.getContentEncoding();
-          byte[] data = response.getData();
           Map<String, String> responseHeaders = response.getHeaders();
           Integer statusCode = response.getStatusCode();
           String reasonPhrase = response.getReasonPhrase();
 
-          ByteArrayInputStream inputStream = (data != null) ? new ByteArrayInputStream(data) : null;
+          InputStream inputStream = response.getDataInputStream();
 
           if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP && statusCode != null && reasonPhrase != null) {
             return new WebResourceResponse(contentType, contentEncoding, statusCode, reasonPhrase, responseHeaders, inputStream);
@@ -197,11 +245,13 @@ public class WebViewAssetLoaderExt implements Disposable {
       final SyncHandleCallback callback = new SyncHandleCallback();
       Map<String, Object> obj = new HashMap<>();
       obj.put("path", path);
-      return Util.invokeMethodAndWaitResult(channel, "handle", obj, callback);
+      String cacheKey = pathHandler != null ? pathHandler.cacheKeyPrefix + path : path;
+      return SyncCallDeadline.PATH_HANDLER.invokeMethodAndWaitResult(channel, "handle", obj, callback, cacheKey);
     }
 
     @Override
     public void dispose() {
+      SyncCallDeadline.evictChannel(getChannel());
       super.dispose();
       pathHandler = null;
     }
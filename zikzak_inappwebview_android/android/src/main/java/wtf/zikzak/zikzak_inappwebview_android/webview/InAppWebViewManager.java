@@ -16,7 +16,9 @@ import androidx.webkit.WebViewCompat;
 import androidx.webkit.WebViewFeature;
 
 import wtf.zikzak.zikzak_inappwebview_android.InAppWebViewFlutterPlugin;
+import wtf.zikzak.zikzak_inappwebview_android.response_cache.InterceptedResponseCache;
 import wtf.zikzak.zikzak_inappwebview_android.types.ChannelDelegateImpl;
+import wtf.zikzak.zikzak_inappwebview_android.types.SyncCallDeadline;
 import wtf.zikzak.zikzak_inappwebview_android.webview.in_app_webview.FlutterWebView;
 
 import java.util.ArrayList;
@@ -163,6 +165,35 @@ public class InAppWebViewManager extends ChannelDelegateImpl {
         }
         result.success(true);
         break;
+      case "setSyncCallDeadline":
+        {
+          SyncCallDeadline<?> syncCallDeadline = SyncCallDeadline.fromCallSite((String) call.argument("callSite"));
+          if (syncCallDeadline != null) {
+            Number deadline = (Number) call.argument("deadline");
+            String fallbackPolicy = (String) call.argument("fallbackPolicy");
+            syncCallDeadline.setDeadline(deadline != null ? deadline.longValue() : 0,
+                    fallbackPolicy != null ? SyncCallDeadline.FallbackPolicy.fromValue(fallbackPolicy) :
+                            SyncCallDeadline.FallbackPolicy.PASS_THROUGH);
+            result.success(true);
+          } else {
+            result.success(false);
+          }
+        }
+        break;
+      case "clearInterceptedResponseCache":
+        if (plugin != null && plugin.applicationContext != null) {
+          InterceptedResponseCache.getInstance(plugin.applicationContext).clear(true);
+          result.success(true);
+        } else {
+          result.success(false);
+        }
+        break;
+      case "getSyncCallDeadlineStatistics":
+        {
+          Boolean reset = (Boolean) call.argument("reset");
+          result.success(SyncCallDeadline.getStatistics(Boolean.TRUE.equals(reset)));
+        }
+        break;
       default:
         result.notImplemented();
     }
@@ -201,6 +232,10 @@ public class InAppWebViewManager extends ChannelDelegateImpl {
     WebView tempWebView = new WebView(context);
     tempWebView.clearCache(includeDiskFiles);
     tempWebView.destroy();
+    InterceptedResponseCache interceptedResponseCache = InterceptedResponseCache.getInstanceIfCreated();
+    if (interceptedResponseCache != null) {
+      interceptedResponseCache.clear(includeDiskFiles);
+    }
   }
 
   @Override
@@ -0,0 +1,233 @@
+package wtf.zikzak.zikzak_inappwebview_android.webview;
+
+import android.net.Uri;
+import android.util.Log;
+import android.webkit.WebView;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.webkit.JavaScriptReplyProxy;
+import androidx.webkit.WebMessageCompat;
+import androidx.webkit.WebViewCompat;
+import androidx.webkit.WebViewFeature;
+
+import wtf.zikzak.zikzak_inappwebview_android.plugin_scripts_js.JavaScriptBridgeJS;
+import wtf.zikzak.zikzak_inappwebview_android.types.Disposable;
+import wtf.zikzak.zikzak_inappwebview_android.webview.in_app_webview.InAppWebView;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Carries the {@code callHandlerBinary} calls with binary arguments as array buffer web messages,
+ * instead of JSON through {@link JavaScriptBridgeInterface}. Unlike the JSON calls, they are not
+ * queued and batched, so they can reach Dart before the calls made earlier in the same task.
+ *
+ * A call is a single message: a little-endian uint32 header length, the UTF-8 JSON header
+ * {@code {"id", "handlerName", "args", "buffers"}} where {@code args} is the JSON of the
+ * arguments, with {@code {"__zikzak_inappwebview_buffer__": i}} in place of the i-th buffer,
+ * and {@code buffers} their lengths, followed by the bytes of the buffers.
+ *
+ * The replies are posted to the calling frame: a byte array result as an array buffer
+ * prefixed by the little-endian uint32 call id, any other result or error as a JSON string.
+ *
+ * Only registered when the WebView supports array buffer web messages, otherwise the page keeps
+ * using the JSON bridge.
+ */
+public class JavaScriptBinaryBridge implements Disposable {
+  protected static final String LOG_TAG = "JSBinaryBridge";
+  public static final String BUFFER_PLACEHOLDER_KEY = "__zikzak_inappwebview_buffer__";
+  private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+  @Nullable
+  private InAppWebView inAppWebView;
+  @NonNull
+  private final WebViewCompat.WebMessageListener listener = new WebViewCompat.WebMessageListener() {
+    @Override
+    public void onPostMessage(@NonNull WebView view, @NonNull WebMessageCompat message, @NonNull Uri sourceOrigin,
+                              boolean isMainFrame, @NonNull JavaScriptReplyProxy replyProxy) {
+      if (message.getType() != WebMessageCompat.TYPE_ARRAY_BUFFER) {
+        return;
+      }
+      try {
+        onCall(message.getArrayBuffer(), replyProxy);
+      } catch (JSONException | RuntimeException e) {
+        Log.e(LOG_TAG, "Invalid binary handler call", e);
+      }
+    }
+  };
+
+  public JavaScriptBinaryBridge(@NonNull InAppWebView inAppWebView) {
+    this.inAppWebView = inAppWebView;
+  }
+
+  public static boolean isSupported() {
+    return WebViewFeature.isFeatureSupported(WebViewFeature.WEB_MESSAGE_LISTENER) &&
+            WebViewFeature.isFeatureSupported(WebViewFeature.WEB_MESSAGE_ARRAY_BUFFER);
+  }
+
+  public void register() {
+    if (inAppWebView != null) {
+      // same exposure as the JavaScript interface of JavaScriptBridgeInterface
+      WebViewCompat.addWebMessageListener(inAppWebView, JavaScriptBridgeJS.JAVASCRIPT_BINARY_BRIDGE_NAME,
+              Collections.singleton("*"), listener);
+    }
+  }
+
+  private void onCall(@NonNull byte[] frame, @NonNull final JavaScriptReplyProxy replyProxy) throws JSONException {
+    ByteBuffer buffer = ByteBuffer.wrap(frame).order(ByteOrder.LITTLE_ENDIAN);
+    int headerLength = buffer.getInt();
+    JSONObject header = new JSONObject(new String(frame, 4, headerLength, UTF_8));
+    final long id = header.getLong("id");
+    final String handlerName = header.getString("handlerName");
+    final String args = header.getString("args");
+    JSONArray bufferLengths = header.getJSONArray("buffers");
+    final List<byte[]> buffers = new ArrayList<>();
+    int offset = 4 + headerLength;
+    for (int i = 0; i < bufferLengths.length(); i++) {
+      int length = bufferLengths.getInt(i);
+      byte[] data = new byte[length];
+      System.arraycopy(frame, offset, data, 0, length);
+      buffers.add(data);
+      offset += length;
+    }
+
+    if (inAppWebView == null || inAppWebView.channelDelegate == null) {
+      return;
+    }
+    inAppWebView.channelDelegate.onCallJsHandlerBinary(handlerName, args, buffers, new WebViewChannelDelegate.CallJsHandlerCallback() {
+      @Override
+      public void defaultBehaviour(@Nullable Object result) {
+        if (result == null) {
+          // a Dart side that doesn't know onCallJsHandlerBinary answers null, while a handler
+          // result is always JSON or bytes: go through the JSON handler call
+          callJsHandlerWithInlinedBuffers(handlerName, args, buffers, replyProxy, id);
+          return;
+        }
+        reply(replyProxy, id, result);
+      }
+
+      @Override
+      public void error(String errorCode, @Nullable String errorMessage, @Nullable Object errorDetails) {
+        String message = errorCode + ((errorMessage != null) ? ", " + errorMessage : "");
+        Log.e(LOG_TAG, message);
+        replyError(replyProxy, id, message);
+      }
+
+      @Override
+      public void notImplemented() {
+        callJsHandlerWithInlinedBuffers(handlerName, args, buffers, replyProxy, id);
+      }
+    });
+  }
+
+  /**
+   * Passes the buffers as arrays of bytes to the JSON handler call, in their placeholder: the same
+   * arguments as a {@code callHandlerBinary} call made without the binary bridge.
+   */
+  private void callJsHandlerWithInlinedBuffers(@NonNull String handlerName, @NonNull String args,
+                                               @NonNull List<byte[]> buffers,
+                                               @NonNull final JavaScriptReplyProxy replyProxy, final long id) {
+    if (inAppWebView == null || inAppWebView.channelDelegate == null) {
+      return;
+    }
+    String jsonArgs;
+    try {
+      jsonArgs = inlineBuffers(new JSONArray(args), buffers).toString();
+    } catch (JSONException e) {
+      replyError(replyProxy, id, e.getMessage());
+      return;
+    }
+    inAppWebView.channelDelegate.onCallJsHandler(handlerName, jsonArgs, new WebViewChannelDelegate.CallJsHandlerCallback() {
+      @Override
+      public void defaultBehaviour(@Nullable Object json) {
+        reply(replyProxy, id, json);
+      }
+
+      @Override
+      public void error(String errorCode, @Nullable String errorMessage, @Nullable Object errorDetails) {
+        String message = errorCode + ((errorMessage != null) ? ", " + errorMessage : "");
+        Log.e(LOG_TAG, message);
+        replyError(replyProxy, id, message);
+      }
+    });
+  }
+
+  /**
+   * Replies with the raw bytes of a byte array result, or with the JSON of any other result.
+   */
+  private void reply(@NonNull JavaScriptReplyProxy replyProxy, long id, @Nullable Object result) {
+    if (inAppWebView == null) {
+      // The webview has already been disposed, ignore.
+      return;
+    }
+    if (result instanceof byte[]) {
+      byte[] data = (byte[]) result;
+      byte[] frame = new byte[4 + data.length];
+      ByteBuffer.wrap(frame).order(ByteOrder.LITTLE_ENDIAN).putInt((int) id);
+      System.arraycopy(data, 0, frame, 4, data.length);
+      replyProxy.postMessage(frame);
+    } else {
+      // the result of the Dart handlers is already JSON
+      replyProxy.postMessage("{\"id\":" + id + ",\"value\":" + result + "}");
+    }
+  }
+
+  private void replyError(@NonNull JavaScriptReplyProxy replyProxy, long id, @Nullable String message) {
+    if (inAppWebView == null) {
+      // The webview has already been disposed, ignore.
+      return;
+    }
+    replyProxy.postMessage("{\"id\":" + id + ",\"error\":" + JSONObject.quote(message != null ? message : "") + "}");
+  }
+
+  @NonNull
+  private static Object inlineBuffers(@NonNull Object value, @NonNull List<byte[]> buffers) throws JSONException {
+    if (value instanceof JSONArray) {
+      JSONArray array = (JSONArray) value;
+      for (int i = 0; i < array.length(); i++) {
+        array.put(i, inlineBuffers(array.get(i), buffers));
+      }
+    } else if (value instanceof JSONObject) {
+      JSONObject object = (JSONObject) value;
+      if (object.length() == 1 && object.has(BUFFER_PLACEHOLDER_KEY)) {
+        byte[] data = buffers.get(object.getInt(BUFFER_PLACEHOLDER_KEY));
+        JSONArray bytes = new JSONArray();
+        for (byte b : data) {
+          bytes.put(b & 0xFF);
+        }
+        return new JSONObject().put(BUFFER_PLACEHOLDER_KEY, bytes);
+      }
+      Iterator<String> keys = object.keys();
+      List<String> names = new ArrayList<>();
+      while (keys.hasNext()) {
+        names.add(keys.next());
+      }
+      for (String name : names) {
+        object.put(name, inlineBuffers(object.get(name), buffers));
+      }
+    }
+    return value;
+  }
+
+  @Override
+  public void dispose() {
+    if (inAppWebView != null && WebViewFeature.isFeatureSupported(WebViewFeature.WEB_MESSAGE_LISTENER)) {
+      try {
+        WebViewCompat.removeWebMessageListener(inAppWebView, JavaScriptBridgeJS.JAVASCRIPT_BINARY_BRIDGE_NAME);
+      } catch (Exception e) {
+        Log.e(LOG_TAG, "", e);
+      }
+    }
+    inAppWebView = null;
+  }
+}
@@ -1,8 +1,8 @@
 package wtf.zikzak.zikzak_inappwebview_android.webview;
 
 import android.os.Build;
-import android.os.Handler;
 import android.util.Log;
+import android.view.Choreographer;
 import android.webkit.JavascriptInterface;
 import android.webkit.ValueCallback;
 
@@ -18,9 +18,34 @@ import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 public class JavaScriptBridgeInterface {
   private static final String LOG_TAG = "JSBridgeInterface";
   private InAppWebView inAppWebView;
+  // false once Dart answered onCallJsHandlers without dispatching the calls
+  private boolean batchedDispatchSupported = true;
+  // flush of the results when no frame is drawn, e.g. when the screen is off
+  private static final long RESULTS_FLUSH_FALLBACK_DELAY = 50;
+
+  // callHandler results waiting for the next frame, as calls of the settle function of flushResults
+  private final StringBuilder pendingResults = new StringBuilder();
+  private boolean resultsFlushScheduled = false;
+  private final Choreographer.FrameCallback flushResultsFrameCallback = new Choreographer.FrameCallback() {
+    @Override
+    public void doFrame(long frameTimeNanos) {
+      flushResults();
+    }
+  };
+  private final Runnable flushResultsRunnable = new Runnable() {
+    @Override
+    public void run() {
+      flushResults();
+    }
+  };
 
   public JavaScriptBridgeInterface(InAppWebView inAppWebView) {
     this.inAppWebView = inAppWebView;
@@ -32,8 +57,7 @@ public class JavaScriptBridgeInterface {
       return;
     }
 
-    final Handler handler = new Handler(inAppWebView.getWebViewLooper());
-    handler.post(new Runnable() {
+    inAppWebView.mainLooperHandler.post(new Runnable() {
       @Override
       public void run() {
         if (inAppWebView != null && inAppWebView.floatingContextMenu != null) {
@@ -51,123 +75,312 @@ public class JavaScriptBridgeInterface {
 
     // java.lang.RuntimeException: Methods marked with @UiThread must be executed on the main thread.
     // https://github.com/arrrrny/zikzak_inappwebview/issues/98
-    final Handler handler = new Handler(inAppWebView.getWebViewLooper());
-    handler.post(new Runnable() {
+    inAppWebView.mainLooperHandler.post(new Runnable() {
       @Override
       public void run() {
         if (inAppWebView == null) {
           // The webview has already been disposed, ignore.
           return;
         }
+        if (!callInternalHandler(handlerName, args)) {
+          callJsHandler(handlerName, _callHandlerID, args);
+        }
+      }
+    });
+  }
 
-        if (handlerName.equals("onPrintRequest") && Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
-          PrintJobSettings settings = new PrintJobSettings();
-          settings.handledByClient = true;
-          final String printJobId = inAppWebView.printCurrentPage(settings);
-          if (inAppWebView != null && inAppWebView.channelDelegate != null) {
-            inAppWebView.channelDelegate.onPrintRequest(inAppWebView.getUrl(), printJobId, new WebViewChannelDelegate.PrintRequestCallback() {
-              @Override
-              public boolean nonNullSuccess(@NonNull Boolean handledByClient) {
-                return !handledByClient;
-              }
+  /**
+   * Receives the {@code callHandler} calls queued by the page during a task, as a JSON array of
+   * {@code [handlerName, _callHandlerID, args]} arrays, so that they cross the interface and
+   * are dispatched to Dart once.
+   */
+  @JavascriptInterface
+  public void _callHandlers(final String calls) {
+    if (inAppWebView == null) {
+      return;
+    }
 
-              @Override
-              public void defaultBehaviour(@Nullable Boolean handledByClient) {
-                if (inAppWebView != null && inAppWebView.plugin != null && inAppWebView.plugin.printJobManager != null) {
-                  PrintJobController printJobController = inAppWebView.plugin.printJobManager.jobs.get(printJobId);
-                  if (printJobController != null) {
-                    printJobController.disposeNoCancel();
-                  }
-                }
-              }
+    final JSONArray callsArray;
+    try {
+      callsArray = new JSONArray(calls);
+    } catch (JSONException e) {
+      Log.e(LOG_TAG, "", e);
+      return;
+    }
 
-              @Override
-              public void error(String errorCode, @Nullable String errorMessage, @Nullable Object errorDetails) {
-                Log.e(LOG_TAG, errorCode + ", " + ((errorMessage != null) ? errorMessage : ""));
-                defaultBehaviour(null);
-              }
-            });
-          }
+    inAppWebView.mainLooperHandler.post(new Runnable() {
+      @Override
+      public void run() {
+        if (inAppWebView == null) {
+          // The webview has already been disposed, ignore.
           return;
-        } else if (handlerName.equals("callAsyncJavaScript")) {
-          try {
-            JSONArray arguments = new JSONArray(args);
-            JSONObject jsonObject = arguments.getJSONObject(0);
-            String resultUuid = jsonObject.getString("resultUuid");
-            ValueCallback<String> callAsyncJavaScriptCallback = inAppWebView.callAsyncJavaScriptCallbacks.get(resultUuid);
-            if (callAsyncJavaScriptCallback != null) {
-              callAsyncJavaScriptCallback.onReceiveValue(jsonObject.toString());
-              inAppWebView.callAsyncJavaScriptCallbacks.remove(resultUuid);
-            }
-          } catch (JSONException e) {
-            Log.e(LOG_TAG, "", e);
+        }
+        final List<String[]> jsHandlerCalls = new ArrayList<>();
+        for (int i = 0; i < callsArray.length(); i++) {
+          JSONArray call = callsArray.optJSONArray(i);
+          if (call == null) {
+            continue;
           }
-          return;
-        } else if (handlerName.equals("evaluateJavaScriptWithContentWorld")) {
-          try {
-            JSONArray arguments = new JSONArray(args);
-            JSONObject jsonObject = arguments.getJSONObject(0);
-            String resultUuid = jsonObject.getString("resultUuid");
-            ValueCallback<String> evaluateJavaScriptCallback = inAppWebView.evaluateJavaScriptContentWorldCallbacks.get(resultUuid);
-            if (evaluateJavaScriptCallback != null) {
-              evaluateJavaScriptCallback.onReceiveValue(jsonObject.has("value") ? jsonObject.get("value").toString() : "null");
-              inAppWebView.evaluateJavaScriptContentWorldCallbacks.remove(resultUuid);
-            }
-          } catch (JSONException e) {
-            Log.e(LOG_TAG, "", e);
+          String handlerName = call.optString(0);
+          String callHandlerID = call.optString(1);
+          String args = call.optString(2, "[]");
+          if (!callInternalHandler(handlerName, args)) {
+            jsHandlerCalls.add(new String[]{handlerName, callHandlerID, args});
           }
+        }
+        callJsHandlers(jsHandlerCalls);
+      }
+    });
+  }
+
+  /**
+   * Receives the result of {@code callAsyncJavaScript}, the JSON of {@code {value, error}}, which is
+   * passed to the callback as it is.
+   */
+  @JavascriptInterface
+  public void _callAsyncJavaScriptResult(final String resultUuid, final String result) {
+    if (inAppWebView == null || resultUuid == null) {
+      return;
+    }
+    deliverResult(inAppWebView.callAsyncJavaScriptCallbacks.remove(resultUuid), result);
+  }
+
+  /**
+   * Receives the result of {@code evaluateJavascript} in a content world: the string value itself,
+   * or the JSON of any other value.
+   */
+  @JavascriptInterface
+  public void _evaluateJavaScriptWithContentWorldResult(final String resultUuid, final String value) {
+    if (inAppWebView == null || resultUuid == null) {
+      return;
+    }
+    deliverResult(inAppWebView.evaluateJavaScriptContentWorldCallbacks.remove(resultUuid), value != null ? value : "null");
+  }
+
+  private void deliverResult(@Nullable final ValueCallback<String> callback, final String result) {
+    if (callback == null || inAppWebView == null) {
+      return;
+    }
+    // the callbacks reply to Dart, which must happen on the main thread
+    inAppWebView.mainLooperHandler.post(new Runnable() {
+      @Override
+      public void run() {
+        if (inAppWebView == null) {
+          // The webview has already been disposed, ignore.
           return;
         }
+        callback.onReceiveValue(result);
+      }
+    });
+  }
 
-        if (inAppWebView.channelDelegate != null) {
-          // invoke flutter javascript handler and send back flutter data as a JSON Object to javascript
-          inAppWebView.channelDelegate.onCallJsHandler(handlerName, args, new WebViewChannelDelegate.CallJsHandlerCallback() {
-            @Override
-            public void defaultBehaviour(@Nullable Object json) {
-              if (inAppWebView == null) {
-                // The webview has already been disposed, ignore.
-                return;
-              }
-              String sourceCode = "if (window." + JavaScriptBridgeJS.JAVASCRIPT_BRIDGE_NAME + "[" + _callHandlerID + "] != null) { " +
-                "window." + JavaScriptBridgeJS.JAVASCRIPT_BRIDGE_NAME + "[" + _callHandlerID + "].resolve(" + json + "); " +
-                "delete window." + JavaScriptBridgeJS.JAVASCRIPT_BRIDGE_NAME + "[" + _callHandlerID + "]; " +
-              "}";
-              if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT) {
-                inAppWebView.evaluateJavascript(sourceCode, (ValueCallback<String>) null);
-              }
-              else {
-                inAppWebView.loadUrl("javascript:" + sourceCode);
+  /**
+   * Handles the calls made by the plugin scripts, returns {@code false} for the Dart handlers.
+   */
+  private boolean callInternalHandler(final String handlerName, final String args) {
+    if (handlerName.equals("onPrintRequest") && Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+      PrintJobSettings settings = new PrintJobSettings();
+      settings.handledByClient = true;
+      final String printJobId = inAppWebView.printCurrentPage(settings);
+      if (inAppWebView != null && inAppWebView.channelDelegate != null) {
+        inAppWebView.channelDelegate.onPrintRequest(inAppWebView.getUrl(), printJobId, new WebViewChannelDelegate.PrintRequestCallback() {
+          @Override
+          public boolean nonNullSuccess(@NonNull Boolean handledByClient) {
+            return !handledByClient;
+          }
+
+          @Override
+          public void defaultBehaviour(@Nullable Boolean handledByClient) {
+            if (inAppWebView != null && inAppWebView.plugin != null && inAppWebView.plugin.printJobManager != null) {
+              PrintJobController printJobController = inAppWebView.plugin.printJobManager.jobs.get(printJobId);
+              if (printJobController != null) {
+                printJobController.disposeNoCancel();
               }
             }
+          }
 
-            @Override
-            public void error(String errorCode, @Nullable String errorMessage, @Nullable Object errorDetails) {
-              String message = errorCode + ((errorMessage != null) ? ", " + errorMessage : "");
-              Log.e(LOG_TAG, message);
+          @Override
+          public void error(String errorCode, @Nullable String errorMessage, @Nullable Object errorDetails) {
+            Log.e(LOG_TAG, errorCode + ", " + ((errorMessage != null) ? errorMessage : ""));
+            defaultBehaviour(null);
+          }
+        });
+      }
+      return true;
+    } else if (handlerName.equals("callAsyncJavaScript")) {
+      try {
+        JSONArray arguments = new JSONArray(args);
+        JSONObject jsonObject = arguments.getJSONObject(0);
+        String resultUuid = jsonObject.getString("resultUuid");
+        ValueCallback<String> callAsyncJavaScriptCallback = inAppWebView.callAsyncJavaScriptCallbacks.remove(resultUuid);
+        if (callAsyncJavaScriptCallback != null) {
+          callAsyncJavaScriptCallback.onReceiveValue(jsonObject.toString());
+        }
+      } catch (JSONException e) {
+        Log.e(LOG_TAG, "", e);
+      }
+      return true;
+    } else if (handlerName.equals("evaluateJavaScriptWithContentWorld")) {
+      try {
+        JSONArray arguments = new JSONArray(args);
+        JSONObject jsonObject = arguments.getJSONObject(0);
+        String resultUuid = jsonObject.getString("resultUuid");
+        ValueCallback<String> evaluateJavaScriptCallback = inAppWebView.evaluateJavaScriptContentWorldCallbacks.remove(resultUuid);
+        if (evaluateJavaScriptCallback != null) {
+          evaluateJavaScriptCallback.onReceiveValue(jsonObject.has("value") ? jsonObject.get("value").toString() : "null");
+        }
+      } catch (JSONException e) {
+        Log.e(LOG_TAG, "", e);
+      }
+      return true;
+    }
+    return false;
+  }
 
-              if (inAppWebView == null) {
-                // The webview has already been disposed, ignore.
-                return;
-              }
+  private void callJsHandler(final String handlerName, final String _callHandlerID, final String args) {
+    if (inAppWebView != null && inAppWebView.channelDelegate != null) {
+      // invoke flutter javascript handler and send back flutter data as a JSON Object to javascript
+      inAppWebView.channelDelegate.onCallJsHandler(handlerName, args, new WebViewChannelDelegate.CallJsHandlerCallback() {
+        @Override
+        public void defaultBehaviour(@Nullable Object json) {
+          resolveCallHandler(_callHandlerID, json);
+        }
 
-              String sourceCode = "if (window." + JavaScriptBridgeJS.JAVASCRIPT_BRIDGE_NAME + "[" + _callHandlerID + "] != null) { " +
-                      "window." + JavaScriptBridgeJS.JAVASCRIPT_BRIDGE_NAME + "[" + _callHandlerID + "].reject(new Error(" + JSONObject.quote(message) + ")); " +
-                      "delete window." + JavaScriptBridgeJS.JAVASCRIPT_BRIDGE_NAME + "[" + _callHandlerID + "]; " +
-                      "}";
-              if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT) {
-                inAppWebView.evaluateJavascript(sourceCode, (ValueCallback<String>) null);
-              }
-              else {
-                inAppWebView.loadUrl("javascript:" + sourceCode);
-              }
-            }
-          });
+        @Override
+        public void error(String errorCode, @Nullable String errorMessage, @Nullable Object errorDetails) {
+          String message = errorCode + ((errorMessage != null) ? ", " + errorMessage : "");
+          Log.e(LOG_TAG, message);
+          rejectCallHandler(_callHandlerID, message);
         }
+      });
+    }
+  }
+
+  private void callJsHandlers(final List<String[]> calls) {
+    if (calls.isEmpty() || inAppWebView == null || inAppWebView.channelDelegate == null) {
+      return;
+    }
+    if (calls.size() == 1 || !batchedDispatchSupported) {
+      callJsHandlersOneByOne(calls);
+      return;
+    }
+
+    List<Map<String, Object>> callsList = new ArrayList<>();
+    for (String[] call : calls) {
+      Map<String, Object> callMap = new HashMap<>();
+      callMap.put("handlerName", call[0]);
+      callMap.put("args", call[2]);
+      callsList.add(callMap);
+    }
+    inAppWebView.channelDelegate.onCallJsHandlers(callsList, new WebViewChannelDelegate.CallJsHandlersCallback() {
+      @Override
+      public void defaultBehaviour(@Nullable List<Object> results) {
+        if (results == null || results.size() != calls.size()) {
+          // a Dart side that doesn't know onCallJsHandlers answers null
+          batchedDispatchSupported = false;
+          callJsHandlersOneByOne(calls);
+          return;
+        }
+        for (int i = 0; i < calls.size(); i++) {
+          Object result = results.get(i);
+          if (result instanceof Map) {
+            // the handler threw: only its own call is rejected
+            Object message = ((Map<?, ?>) result).get("error");
+            rejectCallHandler(calls.get(i)[1], message != null ? message.toString() : "");
+          } else {
+            resolveCallHandler(calls.get(i)[1], result);
+          }
+        }
+      }
+
+      @Override
+      public void error(String errorCode, @Nullable String errorMessage, @Nullable Object errorDetails) {
+        // the batch itself failed, before any handler ran
+        Log.e(LOG_TAG, errorCode + ((errorMessage != null) ? ", " + errorMessage : ""));
+        callJsHandlersOneByOne(calls);
+      }
+
+      @Override
+      public void notImplemented() {
+        batchedDispatchSupported = false;
+        callJsHandlersOneByOne(calls);
       }
     });
   }
 
+  private void callJsHandlersOneByOne(@NonNull List<String[]> calls) {
+    for (String[] call : calls) {
+      callJsHandler(call[0], call[1], call[2]);
+    }
+  }
+
+  private void resolveCallHandler(final String _callHandlerID, @Nullable Object json) {
+    if (inAppWebView == null) {
+      // The webview has already been disposed, ignore.
+      return;
+    }
+    queueResult("s(" + _callHandlerID + ", 'resolve', " + json + ");");
+  }
+
+  private void rejectCallHandler(final String _callHandlerID, final String message) {
+    if (inAppWebView == null) {
+      // The webview has already been disposed, ignore.
+      return;
+    }
+    queueResult("s(" + _callHandlerID + ", 'reject', new Error(" + JSONObject.quote(message) + "));");
+  }
+
+  /**
+   * Queues the settlement of a callHandler promise: the results received during a frame
+   * are delivered to the page with a single evaluation.
+   */
+  private void queueResult(final String settleSource) {
+    pendingResults.append(settleSource);
+    if (!resultsFlushScheduled) {
+      resultsFlushScheduled = true;
+      Choreographer.getInstance().postFrameCallback(flushResultsFrameCallback);
+      inAppWebView.mainLooperHandler.postDelayed(flushResultsRunnable, RESULTS_FLUSH_FALLBACK_DELAY);
+    }
+  }
+
+  private void flushResults() {
+    if (!resultsFlushScheduled) {
+      return;
+    }
+    resultsFlushScheduled = false;
+    Choreographer.getInstance().removeFrameCallback(flushResultsFrameCallback);
+    if (inAppWebView == null) {
+      // The webview has already been disposed, ignore.
+      pendingResults.setLength(0);
+      return;
+    }
+    inAppWebView.mainLooperHandler.removeCallbacks(flushResultsRunnable);
+    String sourceCode = "(function(b) { " +
+            "function s(id, method, value) { var p = b[id]; if (p != null) { delete b[id]; p[method](value); } } " +
+            pendingResults +
+            " })(window." + JavaScriptBridgeJS.JAVASCRIPT_BRIDGE_NAME + ");";
+    pendingResults.setLength(0);
+    evaluateJavascript(sourceCode);
+  }
+
+  private void evaluateJavascript(final String sourceCode) {
+    if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT) {
+      inAppWebView.evaluateJavascript(sourceCode, (ValueCallback<String>) null);
+    }
+    else {
+      inAppWebView.loadUrl("javascript:" + sourceCode);
+    }
+  }
+
   public void dispose() {
+    if (resultsFlushScheduled) {
+      resultsFlushScheduled = false;
+      Choreographer.getInstance().removeFrameCallback(flushResultsFrameCallback);
+      if (inAppWebView != null) {
+        inAppWebView.mainLooperHandler.removeCallbacks(flushResultsRunnable);
+      }
+    }
+    pendingResults.setLength(0);
     inAppWebView = null;
   }
 }
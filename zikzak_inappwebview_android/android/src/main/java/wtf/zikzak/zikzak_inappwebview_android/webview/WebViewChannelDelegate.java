@@ -12,11 +12,11 @@ import androidx.webkit.WebMessagePortCompat;
 import androidx.webkit.WebViewCompat;
 import androidx.webkit.WebViewFeature;
 
-import wtf.zikzak.zikzak_inappwebview_android.Util;
 import wtf.zikzak.zikzak_inappwebview_android.find_interaction.FindInteractionChannelDelegate;
 import wtf.zikzak.zikzak_inappwebview_android.in_app_browser.InAppBrowserActivity;
 import wtf.zikzak.zikzak_inappwebview_android.in_app_browser.InAppBrowserSettings;
 import wtf.zikzak.zikzak_inappwebview_android.print_job.PrintJobSettings;
+import wtf.zikzak.zikzak_inappwebview_android.response_cache.InterceptedResponseCache;
 import wtf.zikzak.zikzak_inappwebview_android.types.BaseCallbackResultImpl;
 import wtf.zikzak.zikzak_inappwebview_android.types.ChannelDelegateImpl;
 import wtf.zikzak.zikzak_inappwebview_android.types.ClientCertChallenge;
@@ -41,6 +41,7 @@ import wtf.zikzak.zikzak_inappwebview_android.types.ServerTrustAuthResponse;
 import wtf.zikzak.zikzak_inappwebview_android.types.ServerTrustChallenge;
 import wtf.zikzak.zikzak_inappwebview_android.types.SslCertificateExt;
 import wtf.zikzak.zikzak_inappwebview_android.types.SyncBaseCallbackResultImpl;
+import wtf.zikzak.zikzak_inappwebview_android.types.SyncCallDeadline;
 import wtf.zikzak.zikzak_inappwebview_android.types.URLRequest;
 import wtf.zikzak.zikzak_inappwebview_android.types.UserScript;
 import wtf.zikzak.zikzak_inappwebview_android.types.WebMessageCompatExt;
@@ -683,6 +684,14 @@ public class WebViewChannelDelegate extends ChannelDelegateImpl {
         }
         result.success(true);
         break;
+      case getContentBlockerStatistics:
+        if (webView != null) {
+          Boolean reset = (Boolean) call.argument("reset");
+          result.success(webView.contentBlockerHandler.getStatistics(Boolean.TRUE.equals(reset)));
+        } else {
+          result.success(null);
+        }
+        break;
       default:
         result.notImplemented();
     }
@@ -1199,7 +1208,8 @@ public class WebViewChannelDelegate extends ChannelDelegateImpl {
     final Map<String, Object> obj = new HashMap<>();
     obj.put("request", request.toMap());
     final SyncLoadResourceWithCustomSchemeCallback callback = new SyncLoadResourceWithCustomSchemeCallback();
-    return Util.invokeMethodAndWaitResult(channel, "onLoadResourceWithCustomScheme", obj, callback);
+    return SyncCallDeadline.LOAD_RESOURCE_WITH_CUSTOM_SCHEME.invokeMethodAndWaitResult(channel,
+        "onLoadResourceWithCustomScheme", obj, callback, request.getUrl());
   }
 
   public static class ShouldInterceptRequestCallback extends BaseCallbackResultImpl<WebResourceResponseExt> {
@@ -1228,11 +1238,38 @@ public class WebViewChannelDelegate extends ChannelDelegateImpl {
   }
 
   @Nullable
-  public WebResourceResponseExt shouldInterceptRequest(WebResourceRequestExt request) throws InterruptedException {
-    MethodChannel channel = getChannel();
+  public WebResourceResponseExt shouldInterceptRequest(final WebResourceRequestExt request) throws InterruptedException {
+    final MethodChannel channel = getChannel();
     if (channel == null) return null;
+    InterceptedResponseCache responseCache = webView != null ? webView.interceptedResponseCache : null;
+    if (responseCache == null || !"GET".equalsIgnoreCase(request.getMethod())) {
+      return invokeShouldInterceptRequest(channel, request);
+    }
+    return responseCache.load(request.getUrl(), new InterceptedResponseCache.Loader() {
+      @Nullable
+      @Override
+      public WebResourceResponseExt load(@Nullable Map<String, String> conditionalHeaders) throws InterruptedException {
+        if (conditionalHeaders == null || conditionalHeaders.isEmpty()) {
+          return invokeShouldInterceptRequest(channel, request);
+        }
+        Map<String, String> headers = new HashMap<>();
+        if (request.getHeaders() != null) {
+          headers.putAll(request.getHeaders());
+        }
+        headers.putAll(conditionalHeaders);
+        WebResourceRequestExt conditionalRequest = new WebResourceRequestExt(request.getUrl(), headers,
+            request.isRedirect(), request.isHasGesture(), request.isForMainFrame(), request.getMethod());
+        return invokeShouldInterceptRequest(channel, conditionalRequest);
+      }
+    });
+  }
+
+  @Nullable
+  private WebResourceResponseExt invokeShouldInterceptRequest(@NonNull MethodChannel channel,
+                                                             @NonNull WebResourceRequestExt request) throws InterruptedException {
     final SyncShouldInterceptRequestCallback callback = new SyncShouldInterceptRequestCallback();
-    return Util.invokeMethodAndWaitResult(channel, "shouldInterceptRequest", request.toMap(), callback);
+    return SyncCallDeadline.SHOULD_INTERCEPT_REQUEST.invokeMethodAndWaitResult(channel,
+        "shouldInterceptRequest", request.toMap(), callback, request.getUrl());
   }
 
   public static class RenderProcessUnresponsiveCallback extends BaseCallbackResultImpl<Integer> {
@@ -1293,6 +1330,49 @@ public class WebViewChannelDelegate extends ChannelDelegateImpl {
     channel.invokeMethod("onCallJsHandler", obj, callback);
   }
 
+  /**
+   * Dispatches a JavaScript handler call received by {@link JavaScriptBinaryBridge}, where
+   * {@code args} is the JSON of the arguments with placeholders for the {@code buffers}.
+   * The result is either a byte array, sent to the page as an array buffer, or JSON.
+   */
+  public void onCallJsHandlerBinary(String handlerName, String args, List<byte[]> buffers, @NonNull CallJsHandlerCallback callback) {
+    MethodChannel channel = getChannel();
+    if (channel == null) {
+      callback.defaultBehaviour(null);
+      return;
+    }
+    Map<String, Object> obj = new HashMap<>();
+    obj.put("handlerName", handlerName);
+    obj.put("args", args);
+    obj.put("buffers", buffers);
+    channel.invokeMethod("onCallJsHandlerBinary", obj, callback);
+  }
+
+  public static class CallJsHandlersCallback extends BaseCallbackResultImpl<List<Object>> {
+    @Nullable
+    @Override
+    public List<Object> decodeResult(@Nullable Object obj) {
+      return obj instanceof List ? (List<Object>) obj : null;
+    }
+  }
+
+  /**
+   * Dispatches the JavaScript handler calls batched by the page in a single call, where
+   * {@code calls} contains the {@code handlerName} and {@code args} of each call.
+   * The result is the list of the results of each call, in the same order, where the call of a
+   * handler that threw is a map with its {@code error} message.
+   */
+  public void onCallJsHandlers(List<Map<String, Object>> calls, @NonNull CallJsHandlersCallback callback) {
+    MethodChannel channel = getChannel();
+    if (channel == null) {
+      callback.defaultBehaviour(null);
+      return;
+    }
+    Map<String, Object> obj = new HashMap<>();
+    obj.put("calls", calls);
+    channel.invokeMethod("onCallJsHandlers", obj, callback);
+  }
+
   public static class PrintRequestCallback extends BaseCallbackResultImpl<Boolean> {
     @Nullable
     @Override
@@ -1322,6 +1402,7 @@ public class WebViewChannelDelegate extends ChannelDelegateImpl {
 
   @Override
   public void dispose() {
+    SyncCallDeadline.evictChannel(getChannel());
     super.dispose();
     webView = null;
   }
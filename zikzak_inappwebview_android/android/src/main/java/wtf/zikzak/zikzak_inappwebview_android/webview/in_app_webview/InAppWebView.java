@@ -85,6 +85,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 import org.json.JSONObject;
 import wtf.zikzak.zikzak_inappwebview_android.InAppWebViewFlutterPlugin;
@@ -94,10 +95,14 @@ import wtf.zikzak.zikzak_inappwebview_android.types.WebViewInsets;
 import wtf.zikzak.zikzak_inappwebview_android.content_blocker.ContentBlocker;
 import wtf.zikzak.zikzak_inappwebview_android.content_blocker.ContentBlockerAction;
 import wtf.zikzak.zikzak_inappwebview_android.content_blocker.ContentBlockerHandler;
+import wtf.zikzak.zikzak_inappwebview_android.content_blocker.ContentBlockerManager;
+import wtf.zikzak.zikzak_inappwebview_android.content_blocker.ContentBlockerRuleIndex;
+import wtf.zikzak.zikzak_inappwebview_android.content_blocker.ContentBlockerRuleSet;
 import wtf.zikzak.zikzak_inappwebview_android.content_blocker.ContentBlockerTrigger;
 import wtf.zikzak.zikzak_inappwebview_android.find_interaction.FindInteractionController;
 import wtf.zikzak.zikzak_inappwebview_android.in_app_browser.InAppBrowserDelegate;
 import wtf.zikzak.zikzak_inappwebview_android.plugin_scripts_js.ConsoleLogJS;
+import wtf.zikzak.zikzak_inappwebview_android.plugin_scripts_js.ContentBlockerCosmeticFilterJS;
 import wtf.zikzak.zikzak_inappwebview_android.plugin_scripts_js.InterceptAjaxRequestJS;
 import wtf.zikzak.zikzak_inappwebview_android.plugin_scripts_js.InterceptFetchRequestJS;
 import wtf.zikzak.zikzak_inappwebview_android.plugin_scripts_js.JavaScriptBridgeJS;
@@ -110,16 +115,20 @@ import wtf.zikzak.zikzak_inappwebview_android.plugin_scripts_js.PromisePolyfillJ
 import wtf.zikzak.zikzak_inappwebview_android.print_job.PrintJobController;
 import wtf.zikzak.zikzak_inappwebview_android.print_job.PrintJobSettings;
 import wtf.zikzak.zikzak_inappwebview_android.pull_to_refresh.PullToRefreshLayout;
+import wtf.zikzak.zikzak_inappwebview_android.response_cache.InterceptedResponseCache;
 import wtf.zikzak.zikzak_inappwebview_android.types.ContentWorld;
 import wtf.zikzak.zikzak_inappwebview_android.types.DownloadStartRequest;
+import wtf.zikzak.zikzak_inappwebview_android.types.InterceptRequestFilter;
 import wtf.zikzak.zikzak_inappwebview_android.types.PluginScript;
 import wtf.zikzak.zikzak_inappwebview_android.types.PreferredContentModeOptionType;
+import wtf.zikzak.zikzak_inappwebview_android.types.TopDocumentSnapshot;
 import wtf.zikzak.zikzak_inappwebview_android.types.URLRequest;
 import wtf.zikzak.zikzak_inappwebview_android.types.UserContentController;
 import wtf.zikzak.zikzak_inappwebview_android.types.UserScript;
 import wtf.zikzak.zikzak_inappwebview_android.types.WebViewAssetLoaderExt;
 import wtf.zikzak.zikzak_inappwebview_android.webview.ContextMenuSettings;
 import wtf.zikzak.zikzak_inappwebview_android.webview.InAppWebViewInterface;
+import wtf.zikzak.zikzak_inappwebview_android.webview.JavaScriptBinaryBridge;
 import wtf.zikzak.zikzak_inappwebview_android.webview.JavaScriptBridgeInterface;
 import wtf.zikzak.zikzak_inappwebview_android.webview.WebViewChannelDelegate;
 import wtf.zikzak.zikzak_inappwebview_android.webview.web_message.WebMessageChannel;
@@ -162,6 +171,9 @@ public final class InAppWebView
     @Nullable
     public JavaScriptBridgeInterface javaScriptBridgeInterface;
 
+    @Nullable
+    public JavaScriptBinaryBridge javaScriptBinaryBridge;
+
     /// One-shot callback fired on the FIRST terminal navigation event
     /// (`onPageFinished` or a main-frame `onReceivedError`). Used by
     /// `HeadlessInAppWebViewManager` to gate `run()` on webview readiness so
@@ -177,7 +189,46 @@ public final class InAppWebView
     public float zoomScale = 1.0f;
     public ContentBlockerHandler contentBlockerHandler =
         new ContentBlockerHandler();
+    /// Shared rule set the content blocker handler is attached to, if any; its updates
+    /// rebuild the content blocker style sheet.
+    @Nullable
+    private ContentBlockerRuleSet contentBlockerRuleSet;
+    private final ContentBlockerRuleSet.OnRulesChangedListener contentBlockerRulesChangedListener =
+        new ContentBlockerRuleSet.OnRulesChangedListener() {
+            @Override
+            public void onRulesChanged(
+                @NonNull final ContentBlockerRuleSet ruleSet
+            ) {
+                mainLooperHandler.post(
+                    new Runnable() {
+                        @Override
+                        public void run() {
+                            if (contentBlockerRuleSet == ruleSet) {
+                                updateContentBlockerCosmeticFilterPluginScript();
+                            }
+                        }
+                    }
+                );
+            }
+        };
+    /// Identifier of the rule set being loaded from its binary file, if any: the inline
+    /// rules apply until it is loaded.
+    @Nullable
+    private String pendingContentBlockerRuleSetId;
+    /// URL of the top-level document, updated by the navigation callbacks on the
+    /// UI thread so that it can be read from the WebView IO threads without
+    /// posting to the WebView looper.
+    public volatile TopDocumentSnapshot topDocumentSnapshot =
+        TopDocumentSnapshot.EMPTY;
     public Pattern regexToCancelSubFramesLoadingCompiled;
+    /// Compiled `shouldInterceptRequestFilters`, read from the WebView IO threads.
+    /// `null` sends every request to `shouldInterceptRequest`.
+    @Nullable
+    public volatile List<InterceptRequestFilter> shouldInterceptRequestFiltersCompiled;
+    /// Cache of the responses returned by `shouldInterceptRequest` and the custom
+    /// path handlers, `null` unless `useInterceptedResponseCache` is enabled.
+    @Nullable
+    public volatile InterceptedResponseCache interceptedResponseCache;
 
     @Nullable
     public GestureDetector gestureDetector = null;
@@ -201,12 +252,13 @@ public final class InAppWebView
     public UserContentController userContentController =
         new UserContentController(this);
 
+    // concurrent: JavaScriptBridgeInterface takes the callbacks on the JavaBridge thread
     public Map<String, ValueCallback<String>> callAsyncJavaScriptCallbacks =
-        new HashMap<>();
+        new ConcurrentHashMap<>();
     public Map<
         String,
         ValueCallback<String>
-    > evaluateJavaScriptContentWorldCallbacks = new HashMap<>();
+    > evaluateJavaScriptContentWorldCallbacks = new ConcurrentHashMap<>();
 
     public Map<String, WebMessageChannel> webMessageChannels = new HashMap<>();
     public List<WebMessageListener> webMessageListeners = new ArrayList<>();
@@ -308,11 +360,18 @@ public final class InAppWebView
         // complete because parsing is frozen globally.
         resumeTimers();
 
+        interceptedResponseCache = Boolean.TRUE.equals(
+                customSettings.useInterceptedResponseCache
+            )
+            ? InterceptedResponseCache.getInstance(getContext())
+            : null;
+
         if (plugin != null) {
             webViewAssetLoaderExt = WebViewAssetLoaderExt.fromMap(
                 customSettings.webViewAssetLoader,
                 plugin,
-                getContext()
+                getContext(),
+                interceptedResponseCache
             );
         }
 
@@ -465,6 +524,11 @@ public final class InAppWebView
                     javaScriptBridgeInterface,
                     JavaScriptBridgeJS.JAVASCRIPT_BRIDGE_NAME
                 );
+                if (JavaScriptBinaryBridge.isSupported()) {
+                    // binary handler arguments and results as array buffer messages
+                    javaScriptBinaryBridge = new JavaScriptBinaryBridge(InAppWebView.this);
+                    javaScriptBinaryBridge.register();
+                }
                 if (
                     windowId == null ||
                     !WebViewFeature.isFeatureSupported(
@@ -638,6 +702,11 @@ public final class InAppWebView
                 customSettings.regexToCancelSubFramesLoading
             );
         }
+        if (customSettings.shouldInterceptRequestFilters != null) {
+            shouldInterceptRequestFiltersCompiled = InterceptRequestFilter.fromMapList(
+                customSettings.shouldInterceptRequestFilters
+            );
+        }
         setScrollBarStyle(customSettings.scrollBarStyle);
         if (customSettings.scrollBarDefaultDelayBeforeFade != null) {
             setScrollBarDefaultDelayBeforeFade(
@@ -773,22 +842,10 @@ public final class InAppWebView
           }
         }
 
-        contentBlockerHandler.getRuleList().clear();
-        for (Map<
-            String,
-            Map<String, Object>
-        > contentBlocker : customSettings.contentBlockers) {
-            // compile ContentBlockerTrigger urlFilter
-            ContentBlockerTrigger trigger = ContentBlockerTrigger.fromMap(
-                contentBlocker.get("trigger")
-            );
-            ContentBlockerAction action = ContentBlockerAction.fromMap(
-                contentBlocker.get("action")
-            );
-            contentBlockerHandler
-                .getRuleList()
-                .add(new ContentBlocker(trigger, action));
-        }
+        setContentBlockerRules(
+            customSettings.contentBlockers,
+            customSettings.contentBlockerRuleSetId
+        );
 
         setFindListener(
             new FindListener() {
@@ -993,6 +1050,7 @@ public final class InAppWebView
                 PluginScriptsUtil.CHECK_GLOBAL_KEY_DOWN_EVENT_TO_HIDE_CONTEXT_MENU_JS_PLUGIN_SCRIPT
             );
         }
+        updateContentBlockerCosmeticFilterPluginScript();
         this.userContentController.addUserOnlyScripts(
                 this.initialUserOnlyScripts
             );
@@ -1989,23 +2047,47 @@ public final class InAppWebView
             );
         }
 
-        if (newCustomSettings.contentBlockers != null) {
-            contentBlockerHandler.getRuleList().clear();
-            for (Map<
-                String,
-                Map<String, Object>
-            > contentBlocker : newCustomSettings.contentBlockers) {
-                // compile ContentBlockerTrigger urlFilter
-                ContentBlockerTrigger trigger = ContentBlockerTrigger.fromMap(
-                    contentBlocker.get("trigger")
-                );
-                ContentBlockerAction action = ContentBlockerAction.fromMap(
-                    contentBlocker.get("action")
-                );
-                contentBlockerHandler
-                    .getRuleList()
-                    .add(new ContentBlocker(trigger, action));
-            }
+        if (newSettingsMap.containsKey("shouldInterceptRequestFilters")) {
+            shouldInterceptRequestFiltersCompiled =
+                newCustomSettings.shouldInterceptRequestFilters != null
+                    ? InterceptRequestFilter.fromMapList(
+                        newCustomSettings.shouldInterceptRequestFilters
+                    )
+                    : null;
+        }
+
+        if (newSettingsMap.containsKey("useInterceptedResponseCache")) {
+            interceptedResponseCache = Boolean.TRUE.equals(
+                    newCustomSettings.useInterceptedResponseCache
+                )
+                ? InterceptedResponseCache.getInstance(getContext())
+                : null;
+        }
+
+        // the Dart settings send null for the settings that aren't set: those keep the
+        // current rules, and the rules are rebuilt only when they actually change
+        if (newSettingsMap.get("contentBlockers") == null) {
+            newCustomSettings.contentBlockers = customSettings.contentBlockers;
+        }
+        if (newSettingsMap.get("contentBlockerRuleSetId") == null) {
+            newCustomSettings.contentBlockerRuleSetId =
+                customSettings.contentBlockerRuleSetId;
+        }
+        if (
+            !Util.objEquals(
+                customSettings.contentBlockerRuleSetId,
+                newCustomSettings.contentBlockerRuleSetId
+            ) ||
+            !Util.objEquals(
+                customSettings.contentBlockers,
+                newCustomSettings.contentBlockers
+            )
+        ) {
+            setContentBlockerRules(
+                newCustomSettings.contentBlockers,
+                newCustomSettings.contentBlockerRuleSetId
+            );
+            updateContentBlockerCosmeticFilterPluginScript();
         }
 
         if (
@@ -2278,7 +2360,8 @@ public final class InAppWebView
             webViewAssetLoaderExt = WebViewAssetLoaderExt.fromMap(
                 customSettings.webViewAssetLoader,
                 plugin,
-                getContext()
+                getContext(),
+                interceptedResponseCache
             );
         }
 
@@ -3529,6 +3612,123 @@ public final class InAppWebView
         webMessageListeners.clear();
     }
 
+    private void setContentBlockerRules(
+        @Nullable List<Map<String, Map<String, Object>>> contentBlockers,
+        @Nullable String contentBlockerRuleSetId
+    ) {
+        if (contentBlockerRuleSet != null) {
+            contentBlockerRuleSet.removeOnRulesChangedListener(
+                contentBlockerRulesChangedListener
+            );
+            contentBlockerRuleSet = null;
+        }
+        pendingContentBlockerRuleSetId = null;
+        if (contentBlockerRuleSetId != null) {
+            // shared rule set, compiled once through the ContentBlockerManager
+            ContentBlockerRuleSet ruleSet = ContentBlockerManager.getLoadedRuleSet(
+                contentBlockerRuleSetId
+            );
+            if (ruleSet != null) {
+                contentBlockerHandler.setRuleSet(ruleSet);
+                ruleSet.addOnRulesChangedListener(
+                    contentBlockerRulesChangedListener
+                );
+                contentBlockerRuleSet = ruleSet;
+                return;
+            }
+            // persisted by a previous launch: read off the main thread, the inline rules
+            // apply until then (loadRuleSet from Dart first to block from the first request)
+            loadContentBlockerRuleSet(contentBlockerRuleSetId);
+        }
+
+        List<ContentBlocker> contentBlockerRuleList = new ArrayList<>();
+        if (contentBlockers != null) {
+            for (Map<
+                String,
+                Map<String, Object>
+            > contentBlocker : contentBlockers) {
+                // compile ContentBlockerTrigger urlFilter
+                ContentBlockerTrigger trigger = ContentBlockerTrigger.fromMap(
+                    contentBlocker.get("trigger")
+                );
+                ContentBlockerAction action = ContentBlockerAction.fromMap(
+                    contentBlocker.get("action")
+                );
+                contentBlockerRuleList.add(new ContentBlocker(trigger, action));
+            }
+        }
+        contentBlockerHandler.setRuleList(contentBlockerRuleList);
+    }
+
+    private void loadContentBlockerRuleSet(@NonNull final String contentBlockerRuleSetId) {
+        pendingContentBlockerRuleSetId = contentBlockerRuleSetId;
+        ContentBlockerManager.loadRuleSet(
+            getContext().getApplicationContext(),
+            contentBlockerRuleSetId,
+            new ContentBlockerManager.OnRuleSetLoadedCallback() {
+                @Override
+                public void onRuleSetLoaded(
+                    @Nullable final ContentBlockerRuleSet ruleSet
+                ) {
+                    mainLooperHandler.post(
+                        new Runnable() {
+                            @Override
+                            public void run() {
+                                // superseded by another setSettings call, or disposed
+                                if (
+                                    !contentBlockerRuleSetId.equals(
+                                        pendingContentBlockerRuleSetId
+                                    )
+                                ) {
+                                    return;
+                                }
+                                pendingContentBlockerRuleSetId = null;
+                                if (ruleSet == null) {
+                                    Log.w(
+                                        LOG_TAG,
+                                        "Content blocker rule set not found: " +
+                                        contentBlockerRuleSetId
+                                    );
+                                    return;
+                                }
+                                contentBlockerHandler.setRuleSet(ruleSet);
+                                ruleSet.addOnRulesChangedListener(
+                                    contentBlockerRulesChangedListener
+                                );
+                                contentBlockerRuleSet = ruleSet;
+                                updateContentBlockerCosmeticFilterPluginScript();
+                            }
+                        }
+                    );
+                }
+            }
+        );
+    }
+
+    /// Installs the content blocker style sheet at document start, with the selectors
+    /// of the rules that apply to every page already in it.
+    private void updateContentBlockerCosmeticFilterPluginScript() {
+        userContentController.removePluginScriptsByGroupName(
+            ContentBlockerCosmeticFilterJS.CONTENT_BLOCKER_COSMETIC_FILTER_JS_PLUGIN_SCRIPT_GROUP_NAME
+        );
+        ContentBlockerRuleIndex ruleIndex = contentBlockerHandler.getRuleIndex();
+        if (ruleIndex.getRuleCount() > 0) {
+            userContentController.addPluginScript(
+                ContentBlockerCosmeticFilterJS.createContentBlockerCosmeticFilterPluginScript(
+                    ruleIndex.getUnconditionalCssSelectors()
+                )
+            );
+        }
+    }
+
+    /// Must be called on the WebView looper thread, from the navigation callbacks.
+    public void updateTopDocumentSnapshot() {
+        String url = getUrl();
+        if (!Util.objEquals(url, topDocumentSnapshot.getUrl())) {
+            topDocumentSnapshot = TopDocumentSnapshot.fromUrl(url);
+        }
+    }
+
     @Override
     public Looper getWebViewLooper() {
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.P) {
@@ -3704,6 +3904,13 @@ public final class InAppWebView
             removeCallbacks(checkScrollStoppedTask);
             checkScrollStoppedTask = null;
         }
+        if (contentBlockerRuleSet != null) {
+            contentBlockerRuleSet.removeOnRulesChangedListener(
+                contentBlockerRulesChangedListener
+            );
+            contentBlockerRuleSet = null;
+        }
+        pendingContentBlockerRuleSetId = null;
         mainLooperHandler.removeCallbacksAndMessages(null);
         mHandler.removeCallbacksAndMessages(null);
 
@@ -3780,6 +3987,10 @@ public final class InAppWebView
             javaScriptBridgeInterface.dispose();
             javaScriptBridgeInterface = null;
         }
+        if (javaScriptBinaryBridge != null) {
+            javaScriptBinaryBridge.dispose();
+            javaScriptBinaryBridge = null;
+        }
 
         // STEP 10: Clear browser delegate
         inAppBrowserDelegate = null;
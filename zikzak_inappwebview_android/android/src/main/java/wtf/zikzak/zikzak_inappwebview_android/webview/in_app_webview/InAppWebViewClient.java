@@ -28,6 +28,7 @@ import androidx.annotation.RequiresApi;
 import androidx.webkit.WebResourceRequestCompat;
 import androidx.webkit.WebViewFeature;
 import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
@@ -38,14 +39,19 @@ import wtf.zikzak.zikzak_inappwebview_android.Util;
 import wtf.zikzak.zikzak_inappwebview_android.credential_database.CredentialDatabase;
 import wtf.zikzak.zikzak_inappwebview_android.in_app_browser.InAppBrowserDelegate;
 import wtf.zikzak.zikzak_inappwebview_android.plugin_scripts_js.JavaScriptBridgeJS;
+import wtf.zikzak.zikzak_inappwebview_android.request_interceptor.RequestInterceptorRegistry;
+import wtf.zikzak.zikzak_inappwebview_android.tracing.InterceptRequestTrace;
+import wtf.zikzak.zikzak_inappwebview_android.tracing.InterceptRequestTracer;
 import wtf.zikzak.zikzak_inappwebview_android.security.CertificatePinningManager;
 import wtf.zikzak.zikzak_inappwebview_android.security.HTTPSOnlyManager;
 import wtf.zikzak.zikzak_inappwebview_android.security.URLValidationManager;
+import wtf.zikzak.zikzak_inappwebview_android.types.ByteRange;
 import wtf.zikzak.zikzak_inappwebview_android.types.ClientCertChallenge;
 import wtf.zikzak.zikzak_inappwebview_android.types.ClientCertResponse;
 import wtf.zikzak.zikzak_inappwebview_android.types.CustomSchemeResponse;
 import wtf.zikzak.zikzak_inappwebview_android.types.HttpAuthResponse;
 import wtf.zikzak.zikzak_inappwebview_android.types.HttpAuthenticationChallenge;
+import wtf.zikzak.zikzak_inappwebview_android.types.InterceptRequestFilter;
 import wtf.zikzak.zikzak_inappwebview_android.types.NavigationAction;
 import wtf.zikzak.zikzak_inappwebview_android.types.NavigationActionPolicy;
 import wtf.zikzak.zikzak_inappwebview_android.types.ServerTrustAuthResponse;
@@ -58,7 +64,6 @@ import wtf.zikzak.zikzak_inappwebview_android.types.WebResourceErrorExt;
 import wtf.zikzak.zikzak_inappwebview_android.types.WebResourceRequestExt;
 import wtf.zikzak.zikzak_inappwebview_android.types.WebResourceResponseExt;
 import wtf.zikzak.zikzak_inappwebview_android.webview.WebViewChannelDelegate;
-import java.util.HashMap;
 
 public class InAppWebViewClient extends WebViewClient {
 
@@ -109,32 +114,36 @@ public class InAppWebViewClient extends WebViewClient {
      * @param response Original WebResourceResponse (can be null)
      * @param url URL being loaded
      * @param webView The WebView instance
-     * @return Modified response with security headers, or null if input was null
+     * @return Modified response with security headers, the original response if its headers
+     * don't change, or null if input was null
      */
     @RequiresApi(api = Build.VERSION_CODES.LOLLIPOP)
     private WebResourceResponse addSecurityHeaders(
         WebResourceResponse response,
         String url,
-        InAppWebView webView
+        InAppWebView webView,
+        @Nullable InterceptRequestTrace trace
     ) {
         if (response == null) {
             return null;
         }
 
+        long stageStart = InterceptRequestTrace.begin(trace);
         try {
             // Get security manager instance
             ZikZakSecurityManager securityManager =
                 ZikZakSecurityManager.getInstance(webView.getContext());
 
-            // Get existing headers or create new map
-            Map<String, String> headers = response.getResponseHeaders();
+            // Add the precomputed security headers via the security manager
+            Map<String, String> headers = securityManager.mergeSecurityHeaders(
+                response.getResponseHeaders(),
+                url
+            );
             if (headers == null) {
-                headers = new HashMap<>();
+                // no policy or headers already present: no need to wrap the response
+                return response;
             }
 
-            // Add security headers via the security manager
-            headers = securityManager.addSecurityHeadersToResponse(headers, url);
-
             // Create new response with updated headers
             return new WebResourceResponse(
                 response.getMimeType(),
@@ -147,6 +156,8 @@ public class InAppWebViewClient extends WebViewClient {
         } catch (Exception e) {
             Log.e(LOG_TAG, "Error adding security headers: " + e.getMessage(), e);
             return response; // Return original response if error occurs
+        } finally {
+            InterceptRequestTrace.end(trace, InterceptRequestTracer.Stage.SECURITY_HEADERS, stageStart);
         }
     }
 
@@ -418,6 +429,7 @@ public class InAppWebViewClient extends WebViewClient {
     public void onPageStarted(WebView view, String url, Bitmap favicon) {
         final InAppWebView webView = (InAppWebView) view;
         webView.isLoading = true;
+        webView.updateTopDocumentSnapshot();
         webView.disposeWebMessageChannels();
         webView.userContentController.resetContentWorlds();
         loadCustomJavaScriptOnPageStarted(webView);
@@ -437,6 +449,7 @@ public class InAppWebViewClient extends WebViewClient {
     public void onPageFinished(WebView view, String url) {
         final InAppWebView webView = (InAppWebView) view;
         webView.isLoading = false;
+        webView.updateTopDocumentSnapshot();
         loadCustomJavaScriptOnPageFinished(webView);
         previousAuthRequestFailureCount = 0;
         credentialsProposed = null;
@@ -487,6 +500,7 @@ public class InAppWebViewClient extends WebViewClient {
         }
 
         final InAppWebView webView = (InAppWebView) view;
+        webView.updateTopDocumentSnapshot();
         if (webView.channelDelegate != null) {
             webView.channelDelegate.onUpdateVisitedHistory(url, isReload);
         }
@@ -1066,31 +1080,78 @@ public class InAppWebViewClient extends WebViewClient {
     ) {
         final InAppWebView webView = (InAppWebView) view;
 
+        if (!InterceptRequestTracer.isEnabled()) {
+            return interceptRequest(webView, request, null);
+        }
+        InterceptRequestTrace trace = InterceptRequestTracer.start(
+            request.getUrl(),
+            webView.contentBlockerHandler.inferResourceType(request)
+        );
+        try {
+            return interceptRequest(webView, request, trace);
+        } finally {
+            if (trace != null) {
+                trace.finish();
+            }
+        }
+    }
+
+    private WebResourceResponse interceptRequest(
+        InAppWebView webView,
+        WebResourceRequestExt request,
+        @Nullable InterceptRequestTrace trace
+    ) {
         if (
             webView.webViewAssetLoaderExt != null &&
             webView.webViewAssetLoaderExt.loader != null
         ) {
+            long stageStart = InterceptRequestTrace.begin(trace);
+            WebResourceResponse webResourceResponse = null;
             try {
                 final Uri uri = Uri.parse(request.getUrl());
-                WebResourceResponse webResourceResponse =
+                webResourceResponse =
                     webView.webViewAssetLoaderExt.loader.shouldInterceptRequest(
                         uri
                     );
-                if (webResourceResponse != null) {
-                    // Add security headers to asset loader response
-                    if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
-                        return addSecurityHeaders(webResourceResponse, request.getUrl(), webView);
-                    }
-                    return webResourceResponse;
-                }
             } catch (Exception e) {
                 Log.e(LOG_TAG, "", e);
             }
+            InterceptRequestTrace.end(trace, InterceptRequestTracer.Stage.ASSET_LOADER, stageStart);
+            if (webResourceResponse != null) {
+                // path handlers only see the path: serve requested ranges here
+                webResourceResponse = ByteRange.apply(webResourceResponse, request.getHeaders());
+                // Add security headers to asset loader response
+                if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+                    return addSecurityHeaders(webResourceResponse, request.getUrl(), webView, trace);
+                }
+                return webResourceResponse;
+            }
         }
 
-        if (webView.customSettings.useShouldInterceptRequest) {
+        // native interceptors of the host app run ahead of Dart
+        long interceptorsStart = InterceptRequestTrace.begin(trace);
+        WebResourceResponse interceptedResponse =
+            RequestInterceptorRegistry.intercept(webView, request);
+        InterceptRequestTrace.end(trace, InterceptRequestTracer.Stage.NATIVE_INTERCEPTORS, interceptorsStart);
+        if (interceptedResponse != null) {
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+                return addSecurityHeaders(interceptedResponse, request.getUrl(), webView, trace);
+            }
+            return interceptedResponse;
+        }
+
+        if (
+            webView.customSettings.useShouldInterceptRequest &&
+            // evaluated natively: requests not matching the filters don't cross the channel
+            InterceptRequestFilter.matchesAny(
+                webView.shouldInterceptRequestFiltersCompiled,
+                request,
+                webView.contentBlockerHandler
+            )
+        ) {
             WebResourceResponseExt response = null;
             if (webView.channelDelegate != null) {
+                long stageStart = InterceptRequestTrace.begin(trace);
                 try {
                     response = webView.channelDelegate.shouldInterceptRequest(
                         request
@@ -1098,20 +1159,19 @@ public class InAppWebViewClient extends WebViewClient {
                 } catch (InterruptedException e) {
                     Log.e(LOG_TAG, "", e);
                     return null;
+                } finally {
+                    InterceptRequestTrace.end(trace, InterceptRequestTracer.Stage.DART_SHOULD_INTERCEPT_REQUEST, stageStart);
                 }
             }
 
             if (response != null) {
                 String contentType = response.getContentType();
                 String contentEncoding = response.getContentEncoding();
-                byte[] data = response.getData();
                 Map<String, String> responseHeaders = response.getHeaders();
                 Integer statusCode = response.getStatusCode();
                 String reasonPhrase = response.getReasonPhrase();
 
-                ByteArrayInputStream inputStream = (data != null)
-                    ? new ByteArrayInputStream(data)
-                    : null;
+                InputStream inputStream = response.getDataInputStream();
 
                 if (
                     Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP &&
@@ -1119,8 +1179,11 @@ public class InAppWebViewClient extends WebViewClient {
                     reasonPhrase != null
                 ) {
                     // Add security headers to response
-                    responseHeaders = ZikZakSecurityManager.getInstance(webView.getContext())
-                        .addSecurityHeadersToResponse(responseHeaders, request.getUrl());
+                    Map<String, String> securityHeaders = ZikZakSecurityManager.getInstance(webView.getContext())
+                        .mergeSecurityHeaders(responseHeaders, request.getUrl());
+                    if (securityHeaders != null) {
+                        responseHeaders = securityHeaders;
+                    }
 
                     return new WebResourceResponse(
                         contentType,
@@ -1154,6 +1217,7 @@ public class InAppWebViewClient extends WebViewClient {
         ) {
             CustomSchemeResponse customSchemeResponse = null;
             if (webView.channelDelegate != null) {
+                long stageStart = InterceptRequestTrace.begin(trace);
                 try {
                     customSchemeResponse =
                         webView.channelDelegate.onLoadResourceWithCustomScheme(
@@ -1162,11 +1226,14 @@ public class InAppWebViewClient extends WebViewClient {
                 } catch (InterruptedException e) {
                     Log.e(LOG_TAG, "", e);
                     return null;
+                } finally {
+                    InterceptRequestTrace.end(trace, InterceptRequestTracer.Stage.CUSTOM_SCHEME, stageStart);
                 }
             }
 
             if (customSchemeResponse != null) {
                 WebResourceResponse response = null;
+                long stageStart = InterceptRequestTrace.begin(trace);
                 try {
                     response = webView.contentBlockerHandler.checkUrl(
                         webView,
@@ -1176,23 +1243,28 @@ public class InAppWebViewClient extends WebViewClient {
                 } catch (Exception e) {
                     Log.e(LOG_TAG, "", e);
                 }
+                InterceptRequestTrace.end(trace, InterceptRequestTracer.Stage.CONTENT_BLOCKER, stageStart);
                 if (response != null) {
                     // Add security headers to content blocker response
                     if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
-                        return addSecurityHeaders(response, request.getUrl(), webView);
+                        return addSecurityHeaders(response, request.getUrl(), webView, trace);
                     }
                     return response;
                 }
 
-                WebResourceResponse customResponse = new WebResourceResponse(
-                    customSchemeResponse.getContentType(),
-                    customSchemeResponse.getContentEncoding(),
-                    new ByteArrayInputStream(customSchemeResponse.getData())
+                // a Range request gets a 206 slice of the data; Dart still returns the whole data
+                WebResourceResponse customResponse = ByteRange.apply(
+                    new WebResourceResponse(
+                        customSchemeResponse.getContentType(),
+                        customSchemeResponse.getContentEncoding(),
+                        new ByteArrayInputStream(customSchemeResponse.getData())
+                    ),
+                    request.getHeaders()
                 );
 
                 // Add security headers to custom scheme response
                 if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
-                    return addSecurityHeaders(customResponse, request.getUrl(), webView);
+                    return addSecurityHeaders(customResponse, request.getUrl(), webView, trace);
                 }
                 return customResponse;
             }
@@ -1200,6 +1272,7 @@ public class InAppWebViewClient extends WebViewClient {
 
         WebResourceResponse response = null;
         if (webView.contentBlockerHandler.getRuleList().size() > 0) {
+            long stageStart = InterceptRequestTrace.begin(trace);
             try {
                 response = webView.contentBlockerHandler.checkUrl(
                     webView,
@@ -1208,11 +1281,12 @@ public class InAppWebViewClient extends WebViewClient {
             } catch (Exception e) {
                 Log.e(LOG_TAG, "", e);
             }
+            InterceptRequestTrace.end(trace, InterceptRequestTracer.Stage.CONTENT_BLOCKER, stageStart);
         }
 
         // Add security headers to content blocker response before returning
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
-            return addSecurityHeaders(response, request.getUrl(), webView);
+            return addSecurityHeaders(response, request.getUrl(), webView, trace);
         }
         return response;
     }
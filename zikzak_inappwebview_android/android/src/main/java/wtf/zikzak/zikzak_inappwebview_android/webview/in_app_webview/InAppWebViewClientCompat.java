@@ -28,6 +28,7 @@ import androidx.webkit.WebResourceRequestCompat;
 import androidx.webkit.WebViewClientCompat;
 import androidx.webkit.WebViewFeature;
 import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
@@ -38,11 +39,16 @@ import wtf.zikzak.zikzak_inappwebview_android.Util;
 import wtf.zikzak.zikzak_inappwebview_android.credential_database.CredentialDatabase;
 import wtf.zikzak.zikzak_inappwebview_android.in_app_browser.InAppBrowserDelegate;
 import wtf.zikzak.zikzak_inappwebview_android.plugin_scripts_js.JavaScriptBridgeJS;
+import wtf.zikzak.zikzak_inappwebview_android.request_interceptor.RequestInterceptorRegistry;
+import wtf.zikzak.zikzak_inappwebview_android.tracing.InterceptRequestTrace;
+import wtf.zikzak.zikzak_inappwebview_android.tracing.InterceptRequestTracer;
+import wtf.zikzak.zikzak_inappwebview_android.types.ByteRange;
 import wtf.zikzak.zikzak_inappwebview_android.types.ClientCertChallenge;
 import wtf.zikzak.zikzak_inappwebview_android.types.ClientCertResponse;
 import wtf.zikzak.zikzak_inappwebview_android.types.CustomSchemeResponse;
 import wtf.zikzak.zikzak_inappwebview_android.types.HttpAuthResponse;
 import wtf.zikzak.zikzak_inappwebview_android.types.HttpAuthenticationChallenge;
+import wtf.zikzak.zikzak_inappwebview_android.types.InterceptRequestFilter;
 import wtf.zikzak.zikzak_inappwebview_android.types.NavigationAction;
 import wtf.zikzak.zikzak_inappwebview_android.types.NavigationActionPolicy;
 import wtf.zikzak.zikzak_inappwebview_android.types.ServerTrustAuthResponse;
@@ -288,6 +294,7 @@ public class InAppWebViewClientCompat extends WebViewClientCompat {
     public void onPageStarted(WebView view, String url, Bitmap favicon) {
         final InAppWebView webView = (InAppWebView) view;
         webView.isLoading = true;
+        webView.updateTopDocumentSnapshot();
         webView.disposeWebMessageChannels();
         webView.userContentController.resetContentWorlds();
         loadCustomJavaScriptOnPageStarted(webView);
@@ -307,6 +314,7 @@ public class InAppWebViewClientCompat extends WebViewClientCompat {
     public void onPageFinished(WebView view, String url) {
         final InAppWebView webView = (InAppWebView) view;
         webView.isLoading = false;
+        webView.updateTopDocumentSnapshot();
         loadCustomJavaScriptOnPageFinished(webView);
         previousAuthRequestFailureCount = 0;
         credentialsProposed = null;
@@ -357,6 +365,7 @@ public class InAppWebViewClientCompat extends WebViewClientCompat {
         }
 
         final InAppWebView webView = (InAppWebView) view;
+        webView.updateTopDocumentSnapshot();
         if (webView.channelDelegate != null) {
             webView.channelDelegate.onUpdateVisitedHistory(url, isReload);
         }
@@ -963,27 +972,71 @@ public class InAppWebViewClientCompat extends WebViewClientCompat {
     ) {
         final InAppWebView webView = (InAppWebView) view;
 
+        if (!InterceptRequestTracer.isEnabled()) {
+            return interceptRequest(webView, request, null);
+        }
+        InterceptRequestTrace trace = InterceptRequestTracer.start(
+            request.getUrl(),
+            webView.contentBlockerHandler.inferResourceType(request)
+        );
+        try {
+            return interceptRequest(webView, request, trace);
+        } finally {
+            if (trace != null) {
+                trace.finish();
+            }
+        }
+    }
+
+    private WebResourceResponse interceptRequest(
+        InAppWebView webView,
+        WebResourceRequestExt request,
+        @Nullable InterceptRequestTrace trace
+    ) {
         if (
             webView.webViewAssetLoaderExt != null &&
             webView.webViewAssetLoaderExt.loader != null
         ) {
+            long stageStart = InterceptRequestTrace.begin(trace);
+            WebResourceResponse webResourceResponse = null;
             try {
                 final Uri uri = Uri.parse(request.getUrl());
-                WebResourceResponse webResourceResponse =
+                webResourceResponse =
                     webView.webViewAssetLoaderExt.loader.shouldInterceptRequest(
                         uri
                     );
-                if (webResourceResponse != null) {
-                    return webResourceResponse;
-                }
             } catch (Exception e) {
                 Log.e(LOG_TAG, "", e);
             }
+            InterceptRequestTrace.end(trace, InterceptRequestTracer.Stage.ASSET_LOADER, stageStart);
+            if (webResourceResponse != null) {
+                // path handlers only see the path: serve requested ranges here
+                webResourceResponse = ByteRange.apply(webResourceResponse, request.getHeaders());
+                return webResourceResponse;
+            }
+        }
+
+        // native interceptors of the host app run ahead of Dart
+        long interceptorsStart = InterceptRequestTrace.begin(trace);
+        WebResourceResponse interceptedResponse =
+            RequestInterceptorRegistry.intercept(webView, request);
+        InterceptRequestTrace.end(trace, InterceptRequestTracer.Stage.NATIVE_INTERCEPTORS, interceptorsStart);
+        if (interceptedResponse != null) {
+            return interceptedResponse;
         }
 
-        if (webView.customSettings.useShouldInterceptRequest) {
+        if (
+            webView.customSettings.useShouldInterceptRequest &&
+            // evaluated natively: requests not matching the filters don't cross the channel
+            InterceptRequestFilter.matchesAny(
+                webView.shouldInterceptRequestFiltersCompiled,
+                request,
+                webView.contentBlockerHandler
+            )
+        ) {
             WebResourceResponseExt response = null;
             if (webView.channelDelegate != null) {
+                long stageStart = InterceptRequestTrace.begin(trace);
                 try {
                     response = webView.channelDelegate.shouldInterceptRequest(
                         request
@@ -991,20 +1044,19 @@ public class InAppWebViewClientCompat extends WebViewClientCompat {
                 } catch (InterruptedException e) {
                     Log.e(LOG_TAG, "", e);
                     return null;
+                } finally {
+                    InterceptRequestTrace.end(trace, InterceptRequestTracer.Stage.DART_SHOULD_INTERCEPT_REQUEST, stageStart);
                 }
             }
 
             if (response != null) {
                 String contentType = response.getContentType();
                 String contentEncoding = response.getContentEncoding();
-                byte[] data = response.getData();
                 Map<String, String> responseHeaders = response.getHeaders();
                 Integer statusCode = response.getStatusCode();
                 String reasonPhrase = response.getReasonPhrase();
 
-                ByteArrayInputStream inputStream = (data != null)
-                    ? new ByteArrayInputStream(data)
-                    : null;
+                InputStream inputStream = response.getDataInputStream();
 
                 if (
                     Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP &&
@@ -1043,6 +1095,7 @@ public class InAppWebViewClientCompat extends WebViewClientCompat {
         ) {
             CustomSchemeResponse customSchemeResponse = null;
             if (webView.channelDelegate != null) {
+                long stageStart = InterceptRequestTrace.begin(trace);
                 try {
                     customSchemeResponse =
                         webView.channelDelegate.onLoadResourceWithCustomScheme(
@@ -1051,11 +1104,14 @@ public class InAppWebViewClientCompat extends WebViewClientCompat {
                 } catch (InterruptedException e) {
                     Log.e(LOG_TAG, "", e);
                     return null;
+                } finally {
+                    InterceptRequestTrace.end(trace, InterceptRequestTracer.Stage.CUSTOM_SCHEME, stageStart);
                 }
             }
 
             if (customSchemeResponse != null) {
                 WebResourceResponse response = null;
+                long stageStart = InterceptRequestTrace.begin(trace);
                 try {
                     response = webView.contentBlockerHandler.checkUrl(
                         webView,
@@ -1065,17 +1121,23 @@ public class InAppWebViewClientCompat extends WebViewClientCompat {
                 } catch (Exception e) {
                     Log.e(LOG_TAG, "", e);
                 }
+                InterceptRequestTrace.end(trace, InterceptRequestTracer.Stage.CONTENT_BLOCKER, stageStart);
                 if (response != null) return response;
-                return new WebResourceResponse(
-                    customSchemeResponse.getContentType(),
-                    customSchemeResponse.getContentType(),
-                    new ByteArrayInputStream(customSchemeResponse.getData())
+                // a Range request gets a 206 slice of the data; Dart still returns the whole data
+                return ByteRange.apply(
+                    new WebResourceResponse(
+                        customSchemeResponse.getContentType(),
+                        customSchemeResponse.getContentType(),
+                        new ByteArrayInputStream(customSchemeResponse.getData())
+                    ),
+                    request.getHeaders()
                 );
             }
         }
 
         WebResourceResponse response = null;
         if (webView.contentBlockerHandler.getRuleList().size() > 0) {
+            long stageStart = InterceptRequestTrace.begin(trace);
             try {
                 response = webView.contentBlockerHandler.checkUrl(
                     webView,
@@ -1084,6 +1146,7 @@ public class InAppWebViewClientCompat extends WebViewClientCompat {
             } catch (Exception e) {
                 Log.e(LOG_TAG, "", e);
             }
+            InterceptRequestTrace.end(trace, InterceptRequestTracer.Stage.CONTENT_BLOCKER, stageStart);
         }
         return response;
     }
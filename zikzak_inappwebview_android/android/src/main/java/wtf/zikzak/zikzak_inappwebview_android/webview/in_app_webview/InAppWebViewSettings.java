@@ -46,6 +46,8 @@ public class InAppWebViewSettings implements ISettings<InAppWebViewInterface> {
     public List<String> resourceCustomSchemes = new ArrayList<>();
     public List<Map<String, Map<String, Object>>> contentBlockers =
         new ArrayList<>();
+    @Nullable
+    public String contentBlockerRuleSetId;
     public Integer preferredContentMode =
         PreferredContentModeOptionType.RECOMMENDED.toValue();
     public Boolean useShouldInterceptAjaxRequest = false;
@@ -121,6 +123,10 @@ public class InAppWebViewSettings implements ISettings<InAppWebViewInterface> {
     public Map<String, Object> rendererPriorityPolicy = null;
 
     public Boolean useShouldInterceptRequest = false;
+    @Nullable
+    public List<Map<String, Object>> shouldInterceptRequestFilters = null;
+    /// Shared by all the WebViews of the app, see InterceptedResponseCache.
+    public Boolean useInterceptedResponseCache = false;
     public Boolean useOnRenderProcessGone = false;
     public Boolean disableDefaultErrorPage = false;
     public Boolean useHybridComposition = true;
@@ -223,6 +229,9 @@ public class InAppWebViewSettings implements ISettings<InAppWebViewInterface> {
                             Map<String, Map<String, Object>>
                         >) value;
                     break;
+                case "contentBlockerRuleSetId":
+                    contentBlockerRuleSetId = (String) value;
+                    break;
                 case "preferredContentMode":
                     preferredContentMode = (Integer) value;
                     break;
@@ -412,6 +421,12 @@ public class InAppWebViewSettings implements ISettings<InAppWebViewInterface> {
                 case "useShouldInterceptRequest":
                     useShouldInterceptRequest = (Boolean) value;
                     break;
+                case "shouldInterceptRequestFilters":
+                    shouldInterceptRequestFilters = (List<Map<String, Object>>) value;
+                    break;
+                case "useInterceptedResponseCache":
+                    useInterceptedResponseCache = (Boolean) value;
+                    break;
                 case "useOnRenderProcessGone":
                     useOnRenderProcessGone = (Boolean) value;
                     break;
@@ -505,6 +520,7 @@ public class InAppWebViewSettings implements ISettings<InAppWebViewInterface> {
         settings.put("horizontalScrollBarEnabled", horizontalScrollBarEnabled);
         settings.put("resourceCustomSchemes", resourceCustomSchemes);
         settings.put("contentBlockers", contentBlockers);
+        settings.put("contentBlockerRuleSetId", contentBlockerRuleSetId);
         settings.put("preferredContentMode", preferredContentMode);
         settings.put(
             "useShouldInterceptAjaxRequest",
@@ -595,6 +611,8 @@ public class InAppWebViewSettings implements ISettings<InAppWebViewInterface> {
         settings.put("scrollBarFadeDuration", scrollBarFadeDuration);
         settings.put("rendererPriorityPolicy", rendererPriorityPolicy);
         settings.put("useShouldInterceptRequest", useShouldInterceptRequest);
+        settings.put("shouldInterceptRequestFilters", shouldInterceptRequestFilters);
+        settings.put("useInterceptedResponseCache", useInterceptedResponseCache);
         settings.put("useOnRenderProcessGone", useOnRenderProcessGone);
         settings.put("disableDefaultErrorPage", disableDefaultErrorPage);
         settings.put("useHybridComposition", useHybridComposition);
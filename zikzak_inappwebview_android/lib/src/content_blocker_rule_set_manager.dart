@@ -0,0 +1,136 @@
+import 'dart:async';
+import 'package:flutter/foundation.dart';
+import 'package:flutter/services.dart';
+import 'package:zikzak_inappwebview_platform_interface/zikzak_inappwebview_platform_interface.dart';
+
+/// Object specifying creation parameters for creating a [AndroidContentBlockerRuleSetManager].
+///
+/// When adding additional fields make sure they can be null or have a default
+/// value to avoid breaking changes. See [PlatformContentBlockerRuleSetManagerCreationParams] for
+/// more information.
+@immutable
+class AndroidContentBlockerRuleSetManagerCreationParams
+    extends PlatformContentBlockerRuleSetManagerCreationParams {
+  /// Creates a new [AndroidContentBlockerRuleSetManagerCreationParams] instance.
+  const AndroidContentBlockerRuleSetManagerCreationParams(
+    // This parameter prevents breaking changes later.
+    // ignore: avoid_unused_constructor_parameters
+    PlatformContentBlockerRuleSetManagerCreationParams params,
+  ) : super();
+
+  /// Creates a [AndroidContentBlockerRuleSetManagerCreationParams] instance based on [PlatformContentBlockerRuleSetManagerCreationParams].
+  factory AndroidContentBlockerRuleSetManagerCreationParams.fromPlatformContentBlockerRuleSetManagerCreationParams(
+    PlatformContentBlockerRuleSetManagerCreationParams params,
+  ) {
+    return AndroidContentBlockerRuleSetManagerCreationParams(params);
+  }
+}
+
+///{@macro zikzak_inappwebview_platform_interface.PlatformContentBlockerRuleSetManager}
+class AndroidContentBlockerRuleSetManager
+    extends PlatformContentBlockerRuleSetManager
+    with ChannelController
+    implements Disposable {
+  /// Creates a new [AndroidContentBlockerRuleSetManager].
+  AndroidContentBlockerRuleSetManager(
+    PlatformContentBlockerRuleSetManagerCreationParams params,
+  ) : super.implementation(
+        params is AndroidContentBlockerRuleSetManagerCreationParams
+            ? params
+            : AndroidContentBlockerRuleSetManagerCreationParams.fromPlatformContentBlockerRuleSetManagerCreationParams(
+                params,
+              ),
+      ) {
+    channel = const MethodChannel(
+      'wtf.zikzak/zikzak_inappwebview_contentblocker',
+    );
+    handler = handleMethod;
+    initMethodCallHandler();
+  }
+
+  static AndroidContentBlockerRuleSetManager? _instance;
+
+  ///Gets the [AndroidContentBlockerRuleSetManager] shared instance.
+  static AndroidContentBlockerRuleSetManager instance() {
+    return (_instance != null) ? _instance! : _init();
+  }
+
+  static AndroidContentBlockerRuleSetManager _init() {
+    _instance = AndroidContentBlockerRuleSetManager(
+      AndroidContentBlockerRuleSetManagerCreationParams(
+        const PlatformContentBlockerRuleSetManagerCreationParams(),
+      ),
+    );
+    return _instance!;
+  }
+
+  Future<dynamic> _handleMethod(MethodCall call) async {}
+
+  @override
+  Future<void> compileRuleSet({
+    required String identifier,
+    required List<ContentBlocker> contentBlockers,
+    bool persist = false,
+  }) async {
+    Map<String, dynamic> args = <String, dynamic>{};
+    args.putIfAbsent("identifier", () => identifier);
+    args.putIfAbsent(
+      "contentBlockers",
+      () => contentBlockers.map((e) => e.toMap()).toList(),
+    );
+    args.putIfAbsent("persist", () => persist);
+    await channel?.invokeMethod('compileRuleSet', args);
+  }
+
+  @override
+  Future<bool> loadRuleSet({required String identifier}) async {
+    Map<String, dynamic> args = <String, dynamic>{};
+    args.putIfAbsent("identifier", () => identifier);
+    return await channel?.invokeMethod<bool>('loadRuleSet', args) ?? false;
+  }
+
+  @override
+  Future<int?> updateRuleSet({
+    required String identifier,
+    List<ContentBlocker> addedContentBlockers = const [],
+    List<String> removedIds = const [],
+  }) async {
+    assert(
+      addedContentBlockers.every((contentBlocker) => contentBlocker.id != null),
+      'Every rule of addedContentBlockers must have an id',
+    );
+    Map<String, dynamic> args = <String, dynamic>{};
+    args.putIfAbsent("identifier", () => identifier);
+    args.putIfAbsent(
+      "addedContentBlockers",
+      () => {for (var e in addedContentBlockers) e.id!: e.toMap()},
+    );
+    args.putIfAbsent("removedIdentifiers", () => removedIds);
+    return await channel?.invokeMethod<int>('updateRuleSet', args);
+  }
+
+  @override
+  Future<bool> removeRuleSet({required String identifier}) async {
+    Map<String, dynamic> args = <String, dynamic>{};
+    args.putIfAbsent("identifier", () => identifier);
+    return await channel?.invokeMethod<bool>('removeRuleSet', args) ?? false;
+  }
+
+  @override
+  Future<List<String>> getRuleSetIdentifiers() async {
+    Map<String, dynamic> args = <String, dynamic>{};
+    return (await channel?.invokeMethod<List>('getRuleSetIdentifiers', args))
+            ?.cast<String>() ??
+        <String>[];
+  }
+
+  @override
+  void dispose({bool isKeepAlive = false}) {
+    // empty
+  }
+}
+
+extension InternalContentBlockerRuleSetManager
+    on AndroidContentBlockerRuleSetManager {
+  get handleMethod => _handleMethod;
+}
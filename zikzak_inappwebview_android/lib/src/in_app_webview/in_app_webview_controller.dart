@@ -50,6 +50,34 @@ final _JAVASCRIPT_HANDLER_FORBIDDEN_NAMES = UnmodifiableListView<String>([
   "evaluateJavaScriptWithContentWorld",
 ]);
 
+///Placeholder of a buffer in the arguments of a JavaScript handler call with binary arguments,
+///see `JavaScriptBinaryBridge` on the native side.
+// ignore: constant_identifier_names
+const _JS_HANDLER_BUFFER_PLACEHOLDER_KEY = "__zikzak_inappwebview_buffer__";
+
+///Decodes the JSON arguments of a JavaScript handler call. The buffers passed to
+///`callHandlerBinary` become [Uint8List]s: their placeholder holds either the index
+///of the buffer in [buffers], when sent as raw bytes, or the list of their bytes.
+List<dynamic> _decodeJsHandlerArgs(String args, [List<dynamic>? buffers]) {
+  return jsonDecode(
+    args,
+    reviver: (key, value) {
+      if (value is Map &&
+          value.length == 1 &&
+          value.containsKey(_JS_HANDLER_BUFFER_PLACEHOLDER_KEY)) {
+        var buffer = value[_JS_HANDLER_BUFFER_PLACEHOLDER_KEY];
+        if (buffer is List) {
+          return Uint8List.fromList(buffer.cast<int>());
+        }
+        if (buffers != null && buffer is int) {
+          return buffers[buffer] as Uint8List;
+        }
+      }
+      return value;
+    },
+  );
+}
+
 /// Object specifying creation parameters for creating a [AndroidInAppWebViewController].
 ///
 /// When adding additional fields make sure they can be null or have a default
@@ -241,7 +269,9 @@ class AndroidInAppWebViewController extends PlatformInAppWebViewController
 
   Future<dynamic> _handleMethod(MethodCall call) async {
     if (PlatformInAppWebViewController.debugLoggingSettings.enabled &&
-        call.method != "onCallJsHandler") {
+        call.method != "onCallJsHandler" &&
+        call.method != "onCallJsHandlers" &&
+        call.method != "onCallJsHandlerBinary") {
       _debugLog(call.method, call.arguments);
     }
 
@@ -1250,153 +1280,43 @@ class AndroidInAppWebViewController extends PlatformInAppWebViewController
       case "onCallJsHandler":
         String handlerName = call.arguments["handlerName"];
         // decode args to json
-        List<dynamic> args = jsonDecode(call.arguments["args"]);
+        List<dynamic> args = _decodeJsHandlerArgs(call.arguments["args"]);
+        return await _handleJsHandlerCall(handlerName, args);
+      case "onCallJsHandlers":
+        // calls batched by the page: they run concurrently, as if they were sent
+        // one by one, and an error only rejects its own call
+        List<dynamic> calls = call.arguments["calls"];
+        return await Future.wait(
+          calls.map((jsHandlerCall) async {
+            String handlerName = jsHandlerCall["handlerName"];
+            try {
+              return await _handleJsHandlerCall(
+                handlerName,
+                _decodeJsHandlerArgs(jsHandlerCall["args"]),
+              );
+            } catch (error) {
+              return <String, dynamic>{
+                "error": error.toString().replaceFirst('Exception: ', ''),
+              };
+            }
+          }),
+        );
+      case "onCallJsHandlerBinary":
+        String handlerName = call.arguments["handlerName"];
+        List<dynamic> buffers = call.arguments["buffers"];
+        // decode args to json, with the buffers in place of their placeholders
+        List<dynamic> args = _decodeJsHandlerArgs(
+          call.arguments["args"],
+          buffers,
+        );
 
         _debugLog(handlerName, args);
 
-        switch (handlerName) {
-          case "onLoadResource":
-            if ((webviewParams != null &&
-                    webviewParams!.onLoadResource != null) ||
-                _inAppBrowserEventHandler != null) {
-              Map<String, dynamic> arguments = args[0].cast<String, dynamic>();
-              arguments["startTime"] = arguments["startTime"] is int
-                  ? arguments["startTime"].toDouble()
-                  : arguments["startTime"];
-              arguments["duration"] = arguments["duration"] is int
-                  ? arguments["duration"].toDouble()
-                  : arguments["duration"];
-
-              var response = LoadedResource.fromJson(arguments);
-
-              if (webviewParams != null &&
-                  webviewParams!.onLoadResource != null)
-                webviewParams!.onLoadResource!(
-                  _controllerFromPlatform,
-                  response,
-                );
-              else
-                _inAppBrowserEventHandler!.onLoadResource(response);
-            }
-            return null;
-          case "shouldInterceptAjaxRequest":
-            if ((webviewParams != null &&
-                    webviewParams!.shouldInterceptAjaxRequest != null) ||
-                _inAppBrowserEventHandler != null) {
-              Map<String, dynamic> arguments = args[0].cast<String, dynamic>();
-              AjaxRequest request = AjaxRequest.fromJson(arguments);
-
-              if (webviewParams != null &&
-                  webviewParams!.shouldInterceptAjaxRequest != null)
-                return jsonEncode(
-                  (await params.webviewParams!.shouldInterceptAjaxRequest!(
-                    _controllerFromPlatform,
-                    request,
-                  ))?.toJson(),
-                );
-              else
-                return jsonEncode(
-                  (await _inAppBrowserEventHandler!.shouldInterceptAjaxRequest(
-                    request,
-                  ))?.toJson(),
-                );
-            }
-            return null;
-          case "onAjaxReadyStateChange":
-            if ((webviewParams != null &&
-                    webviewParams!.onAjaxReadyStateChange != null) ||
-                _inAppBrowserEventHandler != null) {
-              Map<String, dynamic> arguments = args[0].cast<String, dynamic>();
-              AjaxRequest request = AjaxRequest.fromJson(arguments);
-
-              if (webviewParams != null &&
-                  webviewParams!.onAjaxReadyStateChange != null)
-                return (await webviewParams!.onAjaxReadyStateChange!(
-                  _controllerFromPlatform,
-                  request,
-                ))?.index;
-              else
-                return (await _inAppBrowserEventHandler!.onAjaxReadyStateChange(
-                  request,
-                ))?.index;
-            }
-            return null;
-          case "onAjaxProgress":
-            if ((webviewParams != null &&
-                    webviewParams!.onAjaxProgress != null) ||
-                _inAppBrowserEventHandler != null) {
-              Map<String, dynamic> arguments = args[0].cast<String, dynamic>();
-              AjaxRequest request = AjaxRequest.fromJson(arguments);
-
-              if (webviewParams != null &&
-                  webviewParams!.onAjaxProgress != null)
-                return (await webviewParams!.onAjaxProgress!(
-                  _controllerFromPlatform,
-                  request,
-                ))?.index;
-              else
-                return (await _inAppBrowserEventHandler!.onAjaxProgress(
-                  request,
-                ))?.index;
-            }
-            return null;
-          case "shouldInterceptFetchRequest":
-            if ((webviewParams != null &&
-                    webviewParams!.shouldInterceptFetchRequest != null) ||
-                _inAppBrowserEventHandler != null) {
-              Map<String, dynamic> arguments = args[0].cast<String, dynamic>();
-              FetchRequest request = FetchRequest.fromJson(arguments);
-
-              if (webviewParams != null &&
-                  webviewParams!.shouldInterceptFetchRequest != null)
-                return jsonEncode(
-                  (await webviewParams!.shouldInterceptFetchRequest!(
-                    _controllerFromPlatform,
-                    request,
-                  ))?.toJson(),
-                );
-              else
-                return jsonEncode(
-                  (await _inAppBrowserEventHandler!.shouldInterceptFetchRequest(
-                    request,
-                  ))?.toJson(),
-                );
-            }
-            return null;
-          case "onWindowFocus":
-            if (webviewParams != null && webviewParams!.onWindowFocus != null)
-              webviewParams!.onWindowFocus!(_controllerFromPlatform);
-            else if (_inAppBrowserEventHandler != null)
-              _inAppBrowserEventHandler!.onWindowFocus();
-            return null;
-          case "onWindowBlur":
-            if (webviewParams != null && webviewParams!.onWindowBlur != null)
-              webviewParams!.onWindowBlur!(_controllerFromPlatform);
-            else if (_inAppBrowserEventHandler != null)
-              _inAppBrowserEventHandler!.onWindowBlur();
-            return null;
-          case "onInjectedScriptLoaded":
-            String id = args[0];
-            var onLoadCallback = _injectedScriptsFromURL[id]?.onLoad;
-            if ((webviewParams != null || _inAppBrowserEventHandler != null) &&
-                onLoadCallback != null) {
-              onLoadCallback();
-            }
-            return null;
-          case "onInjectedScriptError":
-            String id = args[0];
-            var onErrorCallback = _injectedScriptsFromURL[id]?.onError;
-            if ((webviewParams != null || _inAppBrowserEventHandler != null) &&
-                onErrorCallback != null) {
-              onErrorCallback();
-            }
-            return null;
-        }
-
         if (_javaScriptHandlersMap.containsKey(handlerName)) {
-          // convert result to json
           try {
-            return jsonEncode(await _javaScriptHandlersMap[handlerName]!(args));
+            var result = await _javaScriptHandlersMap[handlerName]!(args);
+            // bytes are sent back to the page as an array buffer
+            return result is Uint8List ? result : jsonEncode(result);
           } catch (error, stacktrace) {
             developer.log(
               error.toString() + '\n' + stacktrace.toString(),
@@ -1405,13 +1325,173 @@ class AndroidInAppWebViewController extends PlatformInAppWebViewController
             throw Exception(error.toString().replaceFirst('Exception: ', ''));
           }
         }
-        break;
+        return null;
       default:
         throw UnimplementedError("Unimplemented ${call.method} method");
     }
     return null;
   }
 
+  Future<dynamic> _handleJsHandlerCall(
+    String handlerName,
+    List<dynamic> args,
+  ) async {
+    _debugLog(handlerName, args);
+
+    switch (handlerName) {
+      case "onLoadResource":
+        if ((webviewParams != null &&
+                webviewParams!.onLoadResource != null) ||
+            _inAppBrowserEventHandler != null) {
+          Map<String, dynamic> arguments = args[0].cast<String, dynamic>();
+          arguments["startTime"] = arguments["startTime"] is int
+              ? arguments["startTime"].toDouble()
+              : arguments["startTime"];
+          arguments["duration"] = arguments["duration"] is int
+              ? arguments["duration"].toDouble()
+              : arguments["duration"];
+
+          var response = LoadedResource.fromJson(arguments);
+
+          if (webviewParams != null &&
+              webviewParams!.onLoadResource != null)
+            webviewParams!.onLoadResource!(
+              _controllerFromPlatform,
+              response,
+            );
+          else
+            _inAppBrowserEventHandler!.onLoadResource(response);
+        }
+        return null;
+      case "shouldInterceptAjaxRequest":
+        if ((webviewParams != null &&
+                webviewParams!.shouldInterceptAjaxRequest != null) ||
+            _inAppBrowserEventHandler != null) {
+          Map<String, dynamic> arguments = args[0].cast<String, dynamic>();
+          AjaxRequest request = AjaxRequest.fromJson(arguments);
+
+          if (webviewParams != null &&
+              webviewParams!.shouldInterceptAjaxRequest != null)
+            return jsonEncode(
+              (await params.webviewParams!.shouldInterceptAjaxRequest!(
+                _controllerFromPlatform,
+                request,
+              ))?.toJson(),
+            );
+          else
+            return jsonEncode(
+              (await _inAppBrowserEventHandler!.shouldInterceptAjaxRequest(
+                request,
+              ))?.toJson(),
+            );
+        }
+        return null;
+      case "onAjaxReadyStateChange":
+        if ((webviewParams != null &&
+                webviewParams!.onAjaxReadyStateChange != null) ||
+            _inAppBrowserEventHandler != null) {
+          Map<String, dynamic> arguments = args[0].cast<String, dynamic>();
+          AjaxRequest request = AjaxRequest.fromJson(arguments);
+
+          if (webviewParams != null &&
+              webviewParams!.onAjaxReadyStateChange != null)
+            return (await webviewParams!.onAjaxReadyStateChange!(
+              _controllerFromPlatform,
+              request,
+            ))?.index;
+          else
+            return (await _inAppBrowserEventHandler!.onAjaxReadyStateChange(
+              request,
+            ))?.index;
+        }
+        return null;
+      case "onAjaxProgress":
+        if ((webviewParams != null &&
+                webviewParams!.onAjaxProgress != null) ||
+            _inAppBrowserEventHandler != null) {
+          Map<String, dynamic> arguments = args[0].cast<String, dynamic>();
+          AjaxRequest request = AjaxRequest.fromJson(arguments);
+
+          if (webviewParams != null &&
+              webviewParams!.onAjaxProgress != null)
+            return (await webviewParams!.onAjaxProgress!(
+              _controllerFromPlatform,
+              request,
+            ))?.index;
+          else
+            return (await _inAppBrowserEventHandler!.onAjaxProgress(
+              request,
+            ))?.index;
+        }
+        return null;
+      case "shouldInterceptFetchRequest":
+        if ((webviewParams != null &&
+                webviewParams!.shouldInterceptFetchRequest != null) ||
+            _inAppBrowserEventHandler != null) {
+          Map<String, dynamic> arguments = args[0].cast<String, dynamic>();
+          FetchRequest request = FetchRequest.fromJson(arguments);
+
+          if (webviewParams != null &&
+              webviewParams!.shouldInterceptFetchRequest != null)
+            return jsonEncode(
+              (await webviewParams!.shouldInterceptFetchRequest!(
+                _controllerFromPlatform,
+                request,
+              ))?.toJson(),
+            );
+          else
+            return jsonEncode(
+              (await _inAppBrowserEventHandler!.shouldInterceptFetchRequest(
+                request,
+              ))?.toJson(),
+            );
+        }
+        return null;
+      case "onWindowFocus":
+        if (webviewParams != null && webviewParams!.onWindowFocus != null)
+          webviewParams!.onWindowFocus!(_controllerFromPlatform);
+        else if (_inAppBrowserEventHandler != null)
+          _inAppBrowserEventHandler!.onWindowFocus();
+        return null;
+      case "onWindowBlur":
+        if (webviewParams != null && webviewParams!.onWindowBlur != null)
+          webviewParams!.onWindowBlur!(_controllerFromPlatform);
+        else if (_inAppBrowserEventHandler != null)
+          _inAppBrowserEventHandler!.onWindowBlur();
+        return null;
+      case "onInjectedScriptLoaded":
+        String id = args[0];
+        var onLoadCallback = _injectedScriptsFromURL[id]?.onLoad;
+        if ((webviewParams != null || _inAppBrowserEventHandler != null) &&
+            onLoadCallback != null) {
+          onLoadCallback();
+        }
+        return null;
+      case "onInjectedScriptError":
+        String id = args[0];
+        var onErrorCallback = _injectedScriptsFromURL[id]?.onError;
+        if ((webviewParams != null || _inAppBrowserEventHandler != null) &&
+            onErrorCallback != null) {
+          onErrorCallback();
+        }
+        return null;
+    }
+
+    if (_javaScriptHandlersMap.containsKey(handlerName)) {
+      // convert result to json
+      try {
+        return jsonEncode(await _javaScriptHandlersMap[handlerName]!(args));
+      } catch (error, stacktrace) {
+        developer.log(
+          error.toString() + '\n' + stacktrace.toString(),
+          name: 'JavaScript Handler "$handlerName"',
+        );
+        throw Exception(error.toString().replaceFirst('Exception: ', ''));
+      }
+    }
+    return null;
+  }
+
   @override
   Future<WebUri?> getUrl() async {
     Map<String, dynamic> args = <String, dynamic>{};
@@ -2566,6 +2646,18 @@ class AndroidInAppWebViewController extends PlatformInAppWebViewController
     return await channel?.invokeMethod<bool>('isInFullscreen', args) ?? false;
   }
 
+  @override
+  Future<Map<String, dynamic>?> getContentBlockerStatistics({
+    bool reset = false,
+  }) async {
+    Map<String, dynamic> args = <String, dynamic>{};
+    args.putIfAbsent('reset', () => reset);
+    return (await channel?.invokeMethod(
+      'getContentBlockerStatistics',
+      args,
+    ))?.cast<String, dynamic>();
+  }
+
   @override
   Future<void> clearFormData() async {
     Map<String, dynamic> args = <String, dynamic>{};
@@ -2676,6 +2768,49 @@ class AndroidInAppWebViewController extends PlatformInAppWebViewController
     await _staticChannel.invokeMethod('clearAllCache', args);
   }
 
+  @override
+  Future<bool> setSyncCallDeadline({
+    required SyncCallSite callSite,
+    required Duration deadline,
+    SyncCallFallbackPolicy fallbackPolicy = SyncCallFallbackPolicy.PASS_THROUGH,
+  }) async {
+    Map<String, dynamic> args = <String, dynamic>{};
+    args.putIfAbsent('callSite', () => syncCallSiteToWire(callSite));
+    args.putIfAbsent('deadline', () => deadline.inMilliseconds);
+    args.putIfAbsent(
+      'fallbackPolicy',
+      () => syncCallFallbackPolicyToWire(fallbackPolicy),
+    );
+    return await _staticChannel.invokeMethod<bool>(
+          'setSyncCallDeadline',
+          args,
+        ) ??
+        false;
+  }
+
+  @override
+  Future<Map<String, dynamic>> getSyncCallDeadlineStatistics({
+    bool reset = false,
+  }) async {
+    Map<String, dynamic> args = <String, dynamic>{};
+    args.putIfAbsent('reset', () => reset);
+    return (await _staticChannel.invokeMethod(
+          'getSyncCallDeadlineStatistics',
+          args,
+        ))?.cast<String, dynamic>() ??
+        <String, dynamic>{};
+  }
+
+  @override
+  Future<bool> clearInterceptedResponseCache() async {
+    Map<String, dynamic> args = <String, dynamic>{};
+    return await _staticChannel.invokeMethod<bool>(
+          'clearInterceptedResponseCache',
+          args,
+        ) ??
+        false;
+  }
+
   @override
   Future<String> get tRexRunnerHtml async => await rootBundle.loadString(
     'packages/zikzak_inappwebview/assets/t_rex_runner/t-rex.html',
@@ -14,6 +14,8 @@ import 'process_global_config.dart';
 import 'proxy_controller.dart';
 import 'service_worker_controller.dart';
 import 'tracing_controller.dart';
+import 'response_body_stream.dart';
+import 'content_blocker_rule_set_manager.dart';
 import 'webview_asset_loader.dart';
 import 'webview_feature.dart' as wv;
 
@@ -280,6 +282,29 @@ class AndroidInAppWebViewPlatform extends InAppWebViewPlatform {
     return AndroidTracingController(params);
   }
 
+  /// Creates a new [AndroidResponseBodyStream].
+  ///
+  /// This function should only be called by the app-facing package.
+  /// Look at using [ResponseBodyStream] in `zikzak_inappwebview` instead.
+  @override
+  AndroidResponseBodyStream createPlatformResponseBodyStream(
+    PlatformResponseBodyStreamCreationParams params,
+  ) {
+    return AndroidResponseBodyStream(params);
+  }
+
+  /// Creates a new [AndroidContentBlockerRuleSetManager].
+  ///
+  /// This function should only be called by the app-facing package.
+  /// Look at using [ContentBlockerRuleSetManager] in `zikzak_inappwebview` instead.
+  @override
+  AndroidContentBlockerRuleSetManager
+  createPlatformContentBlockerRuleSetManager(
+    PlatformContentBlockerRuleSetManagerCreationParams params,
+  ) {
+    return AndroidContentBlockerRuleSetManager(params);
+  }
+
   /// Creates a new [AndroidAssetsPathHandler].
   ///
   /// This function should only be called by the app-facing package.
@@ -313,6 +338,17 @@ class AndroidInAppWebViewPlatform extends InAppWebViewPlatform {
     return AndroidInternalStoragePathHandler(params);
   }
 
+  /// Creates a new [AndroidMappedFilePathHandler].
+  ///
+  /// This function should only be called by the app-facing package.
+  /// Look at using [MappedFilePathHandler] in `zikzak_inappwebview` instead.
+  @override
+  AndroidMappedFilePathHandler createPlatformMappedFilePathHandler(
+    PlatformMappedFilePathHandlerCreationParams params,
+  ) {
+    return AndroidMappedFilePathHandler(params);
+  }
+
   /// Creates a new [AndroidCustomPathHandler].
   ///
   /// This function should only be called by the app-facing package.
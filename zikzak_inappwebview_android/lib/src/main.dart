@@ -15,4 +15,6 @@ export 'webview_feature.dart' hide InternalWebViewFeature;
 export 'proxy_controller.dart' hide InternalProxyController;
 export 'webview_asset_loader.dart';
 export 'tracing_controller.dart' hide InternalTracingController;
+export 'response_body_stream.dart';
+export 'content_blocker_rule_set_manager.dart';
 export 'process_global_config.dart' hide InternalProcessGlobalConfig;
@@ -0,0 +1,74 @@
+import 'dart:async';
+import 'dart:typed_data';
+import 'package:flutter/foundation.dart';
+import 'package:flutter/services.dart';
+import 'package:zikzak_inappwebview_platform_interface/zikzak_inappwebview_platform_interface.dart';
+
+/// Object specifying creation parameters for creating a [AndroidResponseBodyStream].
+///
+/// When adding additional fields make sure they can be null or have a default
+/// value to avoid breaking changes. See [PlatformResponseBodyStreamCreationParams] for
+/// more information.
+@immutable
+class AndroidResponseBodyStreamCreationParams
+    extends PlatformResponseBodyStreamCreationParams {
+  /// Creates a new [AndroidResponseBodyStreamCreationParams] instance.
+  const AndroidResponseBodyStreamCreationParams(
+    // This parameter prevents breaking changes later.
+    // ignore: avoid_unused_constructor_parameters
+    PlatformResponseBodyStreamCreationParams params,
+  ) : super();
+
+  /// Creates a [AndroidResponseBodyStreamCreationParams] instance based on [PlatformResponseBodyStreamCreationParams].
+  factory AndroidResponseBodyStreamCreationParams.fromPlatformResponseBodyStreamCreationParams(
+    PlatformResponseBodyStreamCreationParams params,
+  ) {
+    return AndroidResponseBodyStreamCreationParams(params);
+  }
+}
+
+///{@macro zikzak_inappwebview_platform_interface.PlatformResponseBodyStream}
+class AndroidResponseBodyStream extends PlatformResponseBodyStream {
+  /// Creates a new [AndroidResponseBodyStream].
+  AndroidResponseBodyStream(PlatformResponseBodyStreamCreationParams params)
+    : super.implementation(
+        params is AndroidResponseBodyStreamCreationParams
+            ? params
+            : AndroidResponseBodyStreamCreationParams.fromPlatformResponseBodyStreamCreationParams(
+                params,
+              ),
+      );
+
+  // shared by all the streams, the native side finds them by id
+  static const MethodChannel _channel = MethodChannel(
+    'wtf.zikzak/zikzak_inappwebview_responsebodystream',
+  );
+
+  final String _id = IdGenerator.generate();
+
+  @override
+  String get id => _id;
+
+  @override
+  Future<bool> write(Uint8List data) async {
+    Map<String, dynamic> args = <String, dynamic>{};
+    args.putIfAbsent("id", () => _id);
+    args.putIfAbsent("data", () => data);
+    return await _channel.invokeMethod<bool>('write', args) ?? false;
+  }
+
+  @override
+  Future<void> finish() async {
+    Map<String, dynamic> args = <String, dynamic>{};
+    args.putIfAbsent("id", () => _id);
+    await _channel.invokeMethod('finish', args);
+  }
+
+  @override
+  Future<void> error(String message) async {
+    Map<String, dynamic> args = <String, dynamic>{};
+    args.putIfAbsent("id", () => _id);
+    args.putIfAbsent("message", () => message);
+    await _channel.invokeMethod('error', args);
+  }
+}
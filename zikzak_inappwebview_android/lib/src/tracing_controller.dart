@@ -84,6 +84,49 @@ class AndroidTracingController extends PlatformTracingController
     return await channel?.invokeMethod<bool>('isTracing', args) ?? false;
   }
 
+  @override
+  Future<void> setInterceptRequestTracingEnabled(bool enabled) async {
+    Map<String, dynamic> args = <String, dynamic>{};
+    args.putIfAbsent("enabled", () => enabled);
+    await channel?.invokeMethod('setInterceptRequestTracingEnabled', args);
+  }
+
+  @override
+  Future<Map<String, dynamic>> getInterceptRequestTraceStatistics({
+    bool reset = false,
+  }) async {
+    Map<String, dynamic> args = <String, dynamic>{};
+    args.putIfAbsent("reset", () => reset);
+    return (await channel?.invokeMethod(
+          'getInterceptRequestTraceStatistics',
+          args,
+        ))?.cast<String, dynamic>() ??
+        <String, dynamic>{};
+  }
+
+  @override
+  Future<String> exportInterceptRequestTrace() async {
+    Map<String, dynamic> args = <String, dynamic>{};
+    return await channel?.invokeMethod<String>(
+          'exportInterceptRequestTrace',
+          args,
+        ) ??
+        '';
+  }
+
+  @override
+  Future<bool> exportInterceptRequestTraceToFile({
+    required String filePath,
+  }) async {
+    Map<String, dynamic> args = <String, dynamic>{};
+    args.putIfAbsent("filePath", () => filePath);
+    return await channel?.invokeMethod<bool>(
+          'exportInterceptRequestTrace',
+          args,
+        ) ??
+        false;
+  }
+
   @override
   void dispose({bool isKeepAlive = false}) {
     // empty
@@ -89,7 +89,11 @@ class AndroidAssetsPathHandlerCreationParams
     // This parameter prevents breaking changes later.
     // ignore: avoid_unused_constructor_parameters
     PlatformAssetsPathHandlerCreationParams params,
-  ) : super(params);
+  ) : super(
+        params,
+        precompressed: params.precompressed,
+        precompressedManifest: params.precompressedManifest,
+      );
 
   /// Creates a [AndroidAssetsPathHandlerCreationParams] instance based on [PlatformAssetsPathHandlerCreationParams].
   factory AndroidAssetsPathHandlerCreationParams.fromPlatformAssetsPathHandlerCreationParams(
@@ -113,6 +117,15 @@ class AndroidAssetsPathHandler extends PlatformAssetsPathHandler
       ) {
     _init(params);
   }
+
+  @override
+  Map<String, dynamic> toMap() {
+    return {
+      ...super.toMap(),
+      'precompressed': params.precompressed,
+      'precompressedManifest': params.precompressedManifest,
+    };
+  }
 }
 
 /// Object specifying creation parameters for creating a [AndroidResourcesPathHandler].
@@ -167,7 +180,12 @@ class AndroidInternalStoragePathHandlerCreationParams
     // This parameter prevents breaking changes later.
     // ignore: avoid_unused_constructor_parameters
     PlatformInternalStoragePathHandlerCreationParams params,
-  ) : super(params, directory: params.directory);
+  ) : super(
+        params,
+        directory: params.directory,
+        precompressed: params.precompressed,
+        precompressedManifest: params.precompressedManifest,
+      );
 
   /// Creates a [AndroidInternalStoragePathHandlerCreationParams] instance based on [PlatformInternalStoragePathHandlerCreationParams].
   factory AndroidInternalStoragePathHandlerCreationParams.fromPlatformInternalStoragePathHandlerCreationParams(
@@ -202,7 +220,67 @@ class AndroidInternalStoragePathHandler
 
   @override
   Map<String, dynamic> toMap() {
-    return {...toMap(), 'directory': directory};
+    return {
+      ...super.toMap(),
+      'directory': directory,
+      'precompressed': params.precompressed,
+      'precompressedManifest': params.precompressedManifest,
+    };
+  }
+}
+
+/// Object specifying creation parameters for creating a [AndroidMappedFilePathHandler].
+///
+/// When adding additional fields make sure they can be null or have a default
+/// value to avoid breaking changes. See [PlatformMappedFilePathHandlerCreationParams] for
+/// more information.
+@immutable
+class AndroidMappedFilePathHandlerCreationParams
+    extends PlatformMappedFilePathHandlerCreationParams {
+  /// Creates a new [AndroidMappedFilePathHandlerCreationParams] instance.
+  AndroidMappedFilePathHandlerCreationParams(
+    // This parameter prevents breaking changes later.
+    // ignore: avoid_unused_constructor_parameters
+    PlatformMappedFilePathHandlerCreationParams params,
+  ) : super(
+        params,
+        directory: params.directory,
+        precompressed: params.precompressed,
+        precompressedManifest: params.precompressedManifest,
+      );
+
+  /// Creates a [AndroidMappedFilePathHandlerCreationParams] instance based on [PlatformMappedFilePathHandlerCreationParams].
+  factory AndroidMappedFilePathHandlerCreationParams.fromPlatformMappedFilePathHandlerCreationParams(
+    PlatformMappedFilePathHandlerCreationParams params,
+  ) {
+    return AndroidMappedFilePathHandlerCreationParams(params);
+  }
+}
+
+///{@macro zikzak_inappwebview_platform_interface.PlatformMappedFilePathHandler}
+class AndroidMappedFilePathHandler extends PlatformMappedFilePathHandler
+    with AndroidPathHandler, ChannelController {
+  /// Constructs a [AndroidMappedFilePathHandler].
+  AndroidMappedFilePathHandler(
+    PlatformMappedFilePathHandlerCreationParams params,
+  ) : super.implementation(
+        params is AndroidMappedFilePathHandlerCreationParams
+            ? params
+            : AndroidMappedFilePathHandlerCreationParams.fromPlatformMappedFilePathHandlerCreationParams(
+                params,
+              ),
+      ) {
+    _init(params);
+  }
+
+  @override
+  Map<String, dynamic> toMap() {
+    return {
+      ...super.toMap(),
+      'directory': directory,
+      'precompressed': params.precompressed,
+      'precompressedManifest': params.precompressedManifest,
+    };
   }
 }
 
@@ -14,13 +14,24 @@ class ContentBlocker {
   ///Action associated to the trigger. The action tells to the WebView what to do when the trigger is matched.
   ContentBlockerAction action;
 
-  ContentBlocker({required this.trigger, required this.action});
+  ///Optional identifier of the rule. Rules of a compiled rule set that have an identifier
+  ///can later be replaced or removed by it when the rule set is updated.
+  ///
+  ///**Officially Supported Platforms/Implementations**:
+  ///- Android native WebView
+  String? id;
 
-  Map<String, Map<String, dynamic>> toMap() {
-    return {"trigger": trigger.toMap(), "action": action.toMap()};
+  ContentBlocker({required this.trigger, required this.action, this.id});
+
+  Map<String, dynamic> toMap() {
+    return {
+      "trigger": trigger.toMap(),
+      "action": action.toMap(),
+      if (id != null) "id": id,
+    };
   }
 
-  static ContentBlocker fromMap(Map<dynamic, Map<dynamic, dynamic>> map) {
+  static ContentBlocker fromMap(Map<dynamic, dynamic> map) {
     return ContentBlocker(
       trigger: ContentBlockerTrigger.fromMap(
         Map<String, dynamic>.from(map["trigger"]!),
@@ -28,12 +39,13 @@ class ContentBlocker {
       action: ContentBlockerAction.fromMap(
         Map<String, dynamic>.from(map["action"]!),
       ),
+      id: map["id"],
     );
   }
 
   @override
   String toString() {
-    return 'ContentBlocker{trigger: $trigger, action: $action}';
+    return 'ContentBlocker{trigger: $trigger, action: $action, id: $id}';
   }
 }
 
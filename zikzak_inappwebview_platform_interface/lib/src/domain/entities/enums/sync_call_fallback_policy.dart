@@ -0,0 +1,24 @@
+///Class that represents what a [SyncCallSite] does when Dart doesn't answer within its deadline,
+///used by [PlatformInAppWebViewController.setSyncCallDeadline].
+enum SyncCallFallbackPolicy {
+  ///The request continues as if Dart returned `null`.
+  PASS_THROUGH,
+
+  ///The request gets an empty response.
+  BLOCK,
+
+  ///The last response returned by Dart for the same URL and `WebView`, otherwise [PASS_THROUGH].
+  SERVE_CACHED,
+}
+
+///SyncCallFallbackPolicy wire values are camel case strings (passThrough, block, serveCached) — lookup by value.
+const _syncCallFallbackPolicy_wire = ['passThrough', 'block', 'serveCached'];
+
+SyncCallFallbackPolicy? syncCallFallbackPolicyFromWire(String? value) {
+  if (value == null) return null;
+  final index = _syncCallFallbackPolicy_wire.indexOf(value);
+  return index >= 0 ? SyncCallFallbackPolicy.values[index] : null;
+}
+
+String? syncCallFallbackPolicyToWire(SyncCallFallbackPolicy? value) =>
+    value == null ? null : _syncCallFallbackPolicy_wire[value.index];
@@ -0,0 +1,32 @@
+///Class that represents the native call sites that wait synchronously for a Dart result,
+///used by [PlatformInAppWebViewController.setSyncCallDeadline].
+enum SyncCallSite {
+  ///The `shouldInterceptRequest` event of the `WebView`.
+  SHOULD_INTERCEPT_REQUEST,
+
+  ///The `onLoadResourceWithCustomScheme` event of the `WebView`.
+  ON_LOAD_RESOURCE_WITH_CUSTOM_SCHEME,
+
+  ///The custom path handlers of the [WebViewAssetLoader].
+  PATH_HANDLER,
+
+  ///The `shouldInterceptRequest` event of the `ServiceWorkerController`.
+  SERVICE_WORKER_SHOULD_INTERCEPT_REQUEST,
+}
+
+///SyncCallSite wire values are the names of the native call sites (shouldInterceptRequest, pathHandler...) — lookup by value.
+const _syncCallSite_wire = [
+  'shouldInterceptRequest',
+  'onLoadResourceWithCustomScheme',
+  'pathHandler',
+  'serviceWorkerShouldInterceptRequest',
+];
+
+SyncCallSite? syncCallSiteFromWire(String? value) {
+  if (value == null) return null;
+  final index = _syncCallSite_wire.indexOf(value);
+  return index >= 0 ? SyncCallSite.values[index] : null;
+}
+
+String? syncCallSiteToWire(SyncCallSite? value) =>
+    value == null ? null : _syncCallSite_wire[value.index];
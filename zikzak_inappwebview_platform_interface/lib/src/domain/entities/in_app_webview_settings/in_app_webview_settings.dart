@@ -10,6 +10,7 @@ import '../context_menu/context_menu.dart';
 import '../platform_webview_asset_loader/platform_webview_asset_loader.dart';
 import '../platform_webview_feature/platform_webview_feature.dart';
 import '../../../types/android_webview_insets.dart';
+import '../../../types/intercept_request_filter.dart';
 import '../../../types/network_capture_controller.dart';
 import '../../../types/resource_type.dart';
 import '../../../types/url_pattern_type.dart';
@@ -45,11 +46,7 @@ List<ContentBlocker> _deserializeContentBlockers(
   if (contentBlockersMapList != null) {
     (contentBlockersMapList as List).forEach((contentBlocker) {
       contentBlockers.add(
-        ContentBlocker.fromMap(
-          Map<dynamic, Map<dynamic, dynamic>>.from(
-            Map<dynamic, dynamic>.from(contentBlocker),
-          ),
-        ),
+        ContentBlocker.fromMap(Map<dynamic, dynamic>.from(contentBlocker)),
       );
     });
   }
@@ -1043,6 +1040,42 @@ abstract class $InAppWebViewSettings {
   ///**NOTE**: this value is not serialized with the other settings.
   @JsonKey(includeFromJson: false, includeToJson: false)
   NetworkCaptureController? get networkCapture;
+
+  ///Filters deciding which requests are sent to the [PlatformWebViewCreationParams.shouldInterceptRequest] event
+  ///when [useShouldInterceptRequest] is `true`: a request is sent if it matches at least one filter.
+  ///The other requests are loaded by the WebView without crossing over to Dart.
+  ///
+  ///The default value is `null`, which sends every request.
+  ///
+  ///**Officially Supported Platforms/Implementations**:
+  ///- Android native WebView
+  @JsonKey(
+    fromJson: _interceptRequestFiltersFromJson,
+    toJson: _interceptRequestFiltersToJson,
+  )
+  List<InterceptRequestFilter>? get shouldInterceptRequestFilters;
+
+  ///Set to `true` to cache the responses returned by the [PlatformWebViewCreationParams.shouldInterceptRequest] event
+  ///and by the custom path handlers of the [webViewAssetLoader], following their `Cache-Control`, `Expires`,
+  ///`ETag` and `Last-Modified` headers. A fresh response is served again without calling Dart.
+  ///
+  ///The cache is shared by all the WebViews that enable it and is kept across app launches:
+  ///the responses are keyed by URL only. Use [PlatformInAppWebViewController.clearInterceptedResponseCache] to clear it.
+  ///
+  ///The default value is `false`.
+  ///
+  ///**Officially Supported Platforms/Implementations**:
+  ///- Android native WebView
+  bool? get useInterceptedResponseCache;
+
+  ///Identifier of a content blocker rule set compiled with [PlatformContentBlockerRuleSetManager.compileRuleSet].
+  ///Its rules are used instead of [contentBlockers], without compiling them again for each WebView.
+  ///
+  ///If the rule set isn't loaded yet, it is loaded from disk in the background and applied when ready.
+  ///
+  ///**Officially Supported Platforms/Implementations**:
+  ///- Android native WebView
+  String? get contentBlockerRuleSetId;
 }
 
 Color? _colorFromJson(Object? value) {
@@ -1104,3 +1137,13 @@ Set<Sandbox>? _iframeSandboxFromJson(Object? value) => value == null
 
 Object? _iframeSandboxToJson(Set<Sandbox>? value) =>
     value?.map((e) => sandboxToWire(e)).toList();
+
+List<InterceptRequestFilter>? _interceptRequestFiltersFromJson(Object? value) =>
+    value == null
+    ? null
+    : (value as List)
+          .map((e) => InterceptRequestFilter.fromMap(e as Map))
+          .toList();
+
+Object? _interceptRequestFiltersToJson(List<InterceptRequestFilter>? value) =>
+    value?.map((e) => e.toMap()).toList();
@@ -586,6 +586,18 @@ InAppWebViewSettings _$InAppWebViewSettingsFromJson(
       'networkCaptureMimeTypes',
       (v) => (v as List<dynamic>?)?.map((e) => e as String).toList() ?? [],
     ),
+    shouldInterceptRequestFilters: $checkedConvert(
+      'shouldInterceptRequestFilters',
+      (v) => _interceptRequestFiltersFromJson(v),
+    ),
+    useInterceptedResponseCache: $checkedConvert(
+      'useInterceptedResponseCache',
+      (v) => v as bool?,
+    ),
+    contentBlockerRuleSetId: $checkedConvert(
+      'contentBlockerRuleSetId',
+      (v) => v as String?,
+    ),
   );
   return val;
 });
@@ -787,6 +799,11 @@ Map<String, dynamic> _$InAppWebViewSettingsToJson(
     instance.networkCaptureResourceTypes,
   ),
   'networkCaptureMimeTypes': instance.networkCaptureMimeTypes,
+  'shouldInterceptRequestFilters': _interceptRequestFiltersToJson(
+    instance.shouldInterceptRequestFilters,
+  ),
+  'useInterceptedResponseCache': instance.useInterceptedResponseCache,
+  'contentBlockerRuleSetId': instance.contentBlockerRuleSetId,
 };
 
 const _$LayoutAlgorithmEnumMap = {
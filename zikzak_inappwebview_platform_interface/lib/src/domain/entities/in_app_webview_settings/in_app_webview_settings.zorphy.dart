@@ -161,6 +161,9 @@ class InAppWebViewSettings {
     List<ResourceType>? this.networkCaptureResourceTypes,
     List<String>? networkCaptureMimeTypes,
     NetworkCaptureController? this.networkCapture,
+    List<InterceptRequestFilter>? this.shouldInterceptRequestFilters,
+    bool? this.useInterceptedResponseCache,
+    String? this.contentBlockerRuleSetId,
   }) : this.userAgent = userAgent ?? "",
        this.applicationNameForUserAgent = applicationNameForUserAgent ?? "",
        this.javaScriptEnabled = javaScriptEnabled ?? true,
@@ -765,6 +768,16 @@ class InAppWebViewSettings {
   @JsonKey(includeFromJson: false, includeToJson: false)
   final NetworkCaptureController? networkCapture;
 
+  @JsonKey(
+    fromJson: _interceptRequestFiltersFromJson,
+    toJson: _interceptRequestFiltersToJson,
+  )
+  final List<InterceptRequestFilter>? shouldInterceptRequestFilters;
+
+  final bool? useInterceptedResponseCache;
+
+  final String? contentBlockerRuleSetId;
+
   InAppWebViewSettings copyWith({
     bool? useShouldOverrideUrlLoading,
     bool? useOnLoadResource,
@@ -916,6 +929,9 @@ class InAppWebViewSettings {
     List<ResourceType>? networkCaptureResourceTypes,
     List<String>? networkCaptureMimeTypes,
     NetworkCaptureController? networkCapture,
+    List<InterceptRequestFilter>? shouldInterceptRequestFilters,
+    bool? useInterceptedResponseCache,
+    String? contentBlockerRuleSetId,
   }) {
     return InAppWebViewSettings(
       useShouldOverrideUrlLoading:
@@ -1156,6 +1172,12 @@ class InAppWebViewSettings {
       networkCaptureMimeTypes:
           networkCaptureMimeTypes ?? this.networkCaptureMimeTypes,
       networkCapture: networkCapture ?? this.networkCapture,
+      shouldInterceptRequestFilters:
+          shouldInterceptRequestFilters ?? this.shouldInterceptRequestFilters,
+      useInterceptedResponseCache:
+          useInterceptedResponseCache ?? this.useInterceptedResponseCache,
+      contentBlockerRuleSetId:
+          contentBlockerRuleSetId ?? this.contentBlockerRuleSetId,
     );
   }
 
@@ -1310,6 +1332,9 @@ class InAppWebViewSettings {
     List<ResourceType>? networkCaptureResourceTypes,
     List<String>? networkCaptureMimeTypes,
     NetworkCaptureController? networkCapture,
+    List<InterceptRequestFilter>? shouldInterceptRequestFilters,
+    bool? useInterceptedResponseCache,
+    String? contentBlockerRuleSetId,
   }) {
     return copyWith(
       useShouldOverrideUrlLoading: useShouldOverrideUrlLoading,
@@ -1465,6 +1490,9 @@ class InAppWebViewSettings {
       networkCaptureResourceTypes: networkCaptureResourceTypes,
       networkCaptureMimeTypes: networkCaptureMimeTypes,
       networkCapture: networkCapture,
+      shouldInterceptRequestFilters: shouldInterceptRequestFilters,
+      useInterceptedResponseCache: useInterceptedResponseCache,
+      contentBlockerRuleSetId: contentBlockerRuleSetId,
     );
   }
 
@@ -3748,6 +3776,48 @@ class InAppWebViewSettings {
                     : _patchMap[InAppWebViewSettings$.networkCapture])
                 as NetworkCaptureController?
           : this.networkCapture,
+      shouldInterceptRequestFilters:
+          _patchMap.containsKey(InAppWebViewSettings$.shouldInterceptRequestFilters)
+          ? ((_patchMap[InAppWebViewSettings$.shouldInterceptRequestFilters]
+                        is Function)
+                    ? _patchMap[InAppWebViewSettings$.shouldInterceptRequestFilters](
+                        this.shouldInterceptRequestFilters,
+                      )
+                    : (_patchMap[InAppWebViewSettings$.shouldInterceptRequestFilters]
+                          is Patch)
+                    ? _patchMap[InAppWebViewSettings$.shouldInterceptRequestFilters]
+                          .applyTo(this.shouldInterceptRequestFilters)
+                    : _patchMap[InAppWebViewSettings$.shouldInterceptRequestFilters])
+                as List<InterceptRequestFilter>?
+          : this.shouldInterceptRequestFilters,
+      useInterceptedResponseCache:
+          _patchMap.containsKey(InAppWebViewSettings$.useInterceptedResponseCache)
+          ? ((_patchMap[InAppWebViewSettings$.useInterceptedResponseCache]
+                        is Function)
+                    ? _patchMap[InAppWebViewSettings$.useInterceptedResponseCache](
+                        this.useInterceptedResponseCache,
+                      )
+                    : (_patchMap[InAppWebViewSettings$.useInterceptedResponseCache]
+                          is Patch)
+                    ? _patchMap[InAppWebViewSettings$.useInterceptedResponseCache]
+                          .applyTo(this.useInterceptedResponseCache)
+                    : _patchMap[InAppWebViewSettings$.useInterceptedResponseCache])
+                as bool?
+          : this.useInterceptedResponseCache,
+      contentBlockerRuleSetId:
+          _patchMap.containsKey(InAppWebViewSettings$.contentBlockerRuleSetId)
+          ? ((_patchMap[InAppWebViewSettings$.contentBlockerRuleSetId]
+                        is Function)
+                    ? _patchMap[InAppWebViewSettings$.contentBlockerRuleSetId](
+                        this.contentBlockerRuleSetId,
+                      )
+                    : (_patchMap[InAppWebViewSettings$.contentBlockerRuleSetId]
+                          is Patch)
+                    ? _patchMap[InAppWebViewSettings$.contentBlockerRuleSetId]
+                          .applyTo(this.contentBlockerRuleSetId)
+                    : _patchMap[InAppWebViewSettings$.contentBlockerRuleSetId])
+                as String?
+          : this.contentBlockerRuleSetId,
     );
   }
 
@@ -3923,7 +3993,10 @@ class InAppWebViewSettings {
         networkCaptureUrlPatternType == other.networkCaptureUrlPatternType &&
         networkCaptureResourceTypes == other.networkCaptureResourceTypes &&
         networkCaptureMimeTypes == other.networkCaptureMimeTypes &&
-        networkCapture == other.networkCapture;
+        networkCapture == other.networkCapture &&
+        shouldInterceptRequestFilters == other.shouldInterceptRequestFilters &&
+        useInterceptedResponseCache == other.useInterceptedResponseCache &&
+        contentBlockerRuleSetId == other.contentBlockerRuleSetId;
   }
 
   @override
@@ -4093,6 +4166,9 @@ class InAppWebViewSettings {
           this.networkCaptureResourceTypes,
           this.networkCaptureMimeTypes,
           this.networkCapture,
+          this.shouldInterceptRequestFilters,
+          this.useInterceptedResponseCache,
+          this.contentBlockerRuleSetId,
         );
   }
 
@@ -4397,7 +4473,13 @@ class InAppWebViewSettings {
         ', ' +
         'networkCaptureMimeTypes: ${networkCaptureMimeTypes}' +
         ', ' +
-        'networkCapture: ${networkCapture})';
+        'networkCapture: ${networkCapture}' +
+        ', ' +
+        'shouldInterceptRequestFilters: ${shouldInterceptRequestFilters}' +
+        ', ' +
+        'useInterceptedResponseCache: ${useInterceptedResponseCache}' +
+        ', ' +
+        'contentBlockerRuleSetId: ${contentBlockerRuleSetId})';
   }
 
   Map<String, dynamic> toJsonLean() {
@@ -6685,6 +6767,49 @@ extension InAppWebViewSettingsPropertyHelpers on InAppWebViewSettings {
     return this.networkCapture ??
         (throw StateError('networkCapture is required but was null'));
   }
+
+  List<InterceptRequestFilter> get shouldInterceptRequestFiltersRequired {
+    return this.shouldInterceptRequestFilters ??
+        (throw StateError(
+          'shouldInterceptRequestFilters is required but was null',
+        ));
+  }
+
+  bool get hasShouldInterceptRequestFilters {
+    return this.shouldInterceptRequestFilters?.isNotEmpty ?? false;
+  }
+
+  bool get noShouldInterceptRequestFilters {
+    return this.shouldInterceptRequestFilters?.isEmpty ?? true;
+  }
+
+  bool get hasUseInterceptedResponseCache {
+    return this.useInterceptedResponseCache != null;
+  }
+
+  bool get noUseInterceptedResponseCache {
+    return this.useInterceptedResponseCache == null;
+  }
+
+  bool get useInterceptedResponseCacheRequired {
+    return this.useInterceptedResponseCache ??
+        (throw StateError(
+          'useInterceptedResponseCache is required but was null',
+        ));
+  }
+
+  bool get hasContentBlockerRuleSetId {
+    return this.contentBlockerRuleSetId != null;
+  }
+
+  bool get noContentBlockerRuleSetId {
+    return this.contentBlockerRuleSetId == null;
+  }
+
+  String get contentBlockerRuleSetIdRequired {
+    return this.contentBlockerRuleSetId ??
+        (throw StateError('contentBlockerRuleSetId is required but was null'));
+  }
 }
 
 extension InAppWebViewSettingsSerialization on InAppWebViewSettings {
@@ -6844,6 +6969,9 @@ enum InAppWebViewSettings$ {
   networkCaptureResourceTypes,
   networkCaptureMimeTypes,
   networkCapture,
+  shouldInterceptRequestFilters,
+  useInterceptedResponseCache,
+  contentBlockerRuleSetId,
 }
 
 class InAppWebViewSettingsPatch
@@ -7681,6 +7809,23 @@ class InAppWebViewSettingsPatch
     patchMap[InAppWebViewSettings$.networkCapture] = value;
     return this;
   }
+
+  InAppWebViewSettingsPatch withShouldInterceptRequestFilters(
+    List<InterceptRequestFilter>? value,
+  ) {
+    patchMap[InAppWebViewSettings$.shouldInterceptRequestFilters] = value;
+    return this;
+  }
+
+  InAppWebViewSettingsPatch withUseInterceptedResponseCache(bool? value) {
+    patchMap[InAppWebViewSettings$.useInterceptedResponseCache] = value;
+    return this;
+  }
+
+  InAppWebViewSettingsPatch withContentBlockerRuleSetId(String? value) {
+    patchMap[InAppWebViewSettings$.contentBlockerRuleSetId] = value;
+    return this;
+  }
 }
 
 /// Field descriptors for [InAppWebViewSettings] query construction
@@ -8482,6 +8627,22 @@ abstract final class InAppWebViewSettingsFields {
         _$networkCapture,
       );
 
+  static const shouldInterceptRequestFilters =
+      Field<InAppWebViewSettings, List<InterceptRequestFilter>?>(
+        'shouldInterceptRequestFilters',
+        _$shouldInterceptRequestFilters,
+      );
+
+  static const useInterceptedResponseCache = Field<InAppWebViewSettings, bool?>(
+    'useInterceptedResponseCache',
+    _$useInterceptedResponseCache,
+  );
+
+  static const contentBlockerRuleSetId = Field<InAppWebViewSettings, String?>(
+    'contentBlockerRuleSetId',
+    _$contentBlockerRuleSetId,
+  );
+
   static bool? _$useShouldOverrideUrlLoading(InAppWebViewSettings e) {
     return e.useShouldOverrideUrlLoading;
   }
@@ -9106,6 +9267,20 @@ abstract final class InAppWebViewSettingsFields {
   static NetworkCaptureController? _$networkCapture(InAppWebViewSettings e) {
     return e.networkCapture;
   }
+
+  static List<InterceptRequestFilter>? _$shouldInterceptRequestFilters(
+    InAppWebViewSettings e,
+  ) {
+    return e.shouldInterceptRequestFilters;
+  }
+
+  static bool? _$useInterceptedResponseCache(InAppWebViewSettings e) {
+    return e.useInterceptedResponseCache;
+  }
+
+  static String? _$contentBlockerRuleSetId(InAppWebViewSettings e) {
+    return e.contentBlockerRuleSetId;
+  }
 }
 
 extension InAppWebViewSettingsCompareE on InAppWebViewSettings {
@@ -9771,6 +9946,20 @@ extension InAppWebViewSettingsCompareE on InAppWebViewSettings {
     if (networkCapture != other.networkCapture) {
       diff['networkCapture'] = () => other.networkCapture;
     }
+
+    if (shouldInterceptRequestFilters != other.shouldInterceptRequestFilters) {
+      diff['shouldInterceptRequestFilters'] = () =>
+          other.shouldInterceptRequestFilters;
+    }
+
+    if (useInterceptedResponseCache != other.useInterceptedResponseCache) {
+      diff['useInterceptedResponseCache'] = () =>
+          other.useInterceptedResponseCache;
+    }
+
+    if (contentBlockerRuleSetId != other.contentBlockerRuleSetId) {
+      diff['contentBlockerRuleSetId'] = () => other.contentBlockerRuleSetId;
+    }
     return diff;
   }
 }
@@ -121,15 +121,43 @@ class PlatformAssetsPathHandlerCreationParams
   PlatformAssetsPathHandlerCreationParams(
     // This parameter prevents breaking changes later.
     // ignore: avoid_unused_constructor_parameters
-    PlatformPathHandlerCreationParams params,
-  ) : super(path: params.path);
+    PlatformPathHandlerCreationParams params, {
+    this.precompressed = false,
+    this.precompressedManifest,
+  }) : super(path: params.path);
 
   /// Creates a [PlatformAssetsPathHandlerCreationParams] instance based on [PlatformPathHandlerCreationParams].
   factory PlatformAssetsPathHandlerCreationParams.fromPlatformPathHandlerCreationParams(
-    PlatformPathHandlerCreationParams params,
-  ) {
-    return PlatformAssetsPathHandlerCreationParams(params);
+    PlatformPathHandlerCreationParams params, {
+    bool precompressed = false,
+    String? precompressedManifest,
+  }) {
+    return PlatformAssetsPathHandlerCreationParams(
+      params,
+      precompressed: precompressed,
+      precompressedManifest: precompressedManifest,
+    );
   }
+
+  ///{@template zikzak_inappwebview_platform_interface.PlatformAssetsPathHandlerCreationParams.precompressed}
+  ///Set to `true` to serve the gzip compressed sibling `<file>.gz` of a requested file when it exists,
+  ///so that bundles can be shipped compressed. The file is decompressed while the `WebView` reads it.
+  ///The default value is `false`.
+  ///
+  ///**Officially Supported Platforms/Implementations**:
+  ///- Android native WebView
+  ///{@endtemplate}
+  final bool precompressed;
+
+  ///{@template zikzak_inappwebview_platform_interface.PlatformAssetsPathHandlerCreationParams.precompressedManifest}
+  ///Path, relative to the handler, of a JSON manifest listing the compressed files when [precompressed] is `true`,
+  ///e.g. `{"main.js": ["gz"]}`. Only the listed files are looked up compressed.
+  ///If not set, the compressed sibling of every requested file is looked up.
+  ///
+  ///**Officially Supported Platforms/Implementations**:
+  ///- Android native WebView
+  ///{@endtemplate}
+  final String? precompressedManifest;
 }
 
 ///{@template zikzak_inappwebview_platform_interface.PlatformAssetsPathHandler}
@@ -277,20 +305,32 @@ class PlatformInternalStoragePathHandlerCreationParams
     // ignore: avoid_unused_constructor_parameters
     PlatformPathHandlerCreationParams params, {
     required this.directory,
+    this.precompressed = false,
+    this.precompressedManifest,
   }) : super(path: params.path);
 
   /// Creates a [PlatformInternalStoragePathHandlerCreationParams] instance based on [PlatformPathHandlerCreationParams].
   factory PlatformInternalStoragePathHandlerCreationParams.fromPlatformPathHandlerCreationParams(
     PlatformPathHandlerCreationParams params, {
     required String directory,
+    bool precompressed = false,
+    String? precompressedManifest,
   }) {
     return PlatformInternalStoragePathHandlerCreationParams(
       params,
       directory: directory,
+      precompressed: precompressed,
+      precompressedManifest: precompressedManifest,
     );
   }
 
   final String directory;
+
+  ///{@macro zikzak_inappwebview_platform_interface.PlatformAssetsPathHandlerCreationParams.precompressed}
+  final bool precompressed;
+
+  ///{@macro zikzak_inappwebview_platform_interface.PlatformAssetsPathHandlerCreationParams.precompressedManifest}
+  final String? precompressedManifest;
 }
 
 ///{@template zikzak_inappwebview_platform_interface.PlatformInternalStoragePathHandler}
@@ -356,6 +396,107 @@ abstract class PlatformInternalStoragePathHandler extends PlatformInterface
   String get directory => params.directory;
 }
 
+/// Object specifying creation parameters for creating a [PlatformMappedFilePathHandler].
+///
+/// Platform specific implementations can add additional fields by extending
+/// this class.
+@immutable
+class PlatformMappedFilePathHandlerCreationParams
+    extends PlatformPathHandlerCreationParams {
+  /// Used by the platform implementation to create a new [PlatformMappedFilePathHandler].
+  PlatformMappedFilePathHandlerCreationParams(
+    // This parameter prevents breaking changes later.
+    // ignore: avoid_unused_constructor_parameters
+    PlatformPathHandlerCreationParams params, {
+    required this.directory,
+    this.precompressed = false,
+    this.precompressedManifest,
+  }) : super(path: params.path);
+
+  /// Creates a [PlatformMappedFilePathHandlerCreationParams] instance based on [PlatformPathHandlerCreationParams].
+  factory PlatformMappedFilePathHandlerCreationParams.fromPlatformPathHandlerCreationParams(
+    PlatformPathHandlerCreationParams params, {
+    required String directory,
+    bool precompressed = false,
+    String? precompressedManifest,
+  }) {
+    return PlatformMappedFilePathHandlerCreationParams(
+      params,
+      directory: directory,
+      precompressed: precompressed,
+      precompressedManifest: precompressedManifest,
+    );
+  }
+
+  final String directory;
+
+  ///{@macro zikzak_inappwebview_platform_interface.PlatformAssetsPathHandlerCreationParams.precompressed}
+  final bool precompressed;
+
+  ///{@macro zikzak_inappwebview_platform_interface.PlatformAssetsPathHandlerCreationParams.precompressedManifest}
+  final String? precompressedManifest;
+}
+
+///{@template zikzak_inappwebview_platform_interface.PlatformMappedFilePathHandler}
+///Handler class to open files from a directory through memory-mapped buffers, e.g. large media files.
+///
+///Unlike [PlatformInternalStoragePathHandler], the file contents are never copied into memory:
+///the `WebView` reads the mapped pages directly, and range requests only skip to the requested position.
+///
+///A served file must never be modified in place, which crashes the app while the `WebView` reads it:
+///write the new content to another file of the same directory and rename it over the old one instead.
+///
+///To avoid leaking user or app data to the web, make sure to choose [directory] carefully,
+///and assume any file under this directory could be accessed by any web page subject to same-origin rules.
+///
+///If the requested file cannot be found a [WebResourceResponse] object with a `null` data will be returned instead of `null`.
+///
+///**Officially Supported Platforms/Implementations**:
+///- Android native WebView
+///{@endtemplate}
+abstract class PlatformMappedFilePathHandler extends PlatformInterface
+    implements PlatformPathHandler {
+  /// Creates a new [PlatformMappedFilePathHandler]
+  factory PlatformMappedFilePathHandler(
+    PlatformMappedFilePathHandlerCreationParams params,
+  ) {
+    assert(
+      InAppWebViewPlatform.instance != null,
+      'A platform implementation for `zikzak_inappwebview` has not been set. Please '
+      'ensure that an implementation of `InAppWebViewPlatform` has been set to '
+      '`InAppWebViewPlatform.instance` before use. For unit testing, '
+      '`InAppWebViewPlatform.instance` can be set with your own test implementation.',
+    );
+    final PlatformMappedFilePathHandler mappedFilePathHandler =
+        InAppWebViewPlatform.instance!.createPlatformMappedFilePathHandler(
+          params,
+        );
+    PlatformInterface.verify(mappedFilePathHandler, _token);
+    return mappedFilePathHandler;
+  }
+
+  /// Used by the platform implementation to create a new [PlatformMappedFilePathHandler].
+  ///
+  /// Should only be used by platform implementations because they can't extend
+  /// a class that only contains a factory constructor.
+  @protected
+  PlatformMappedFilePathHandler.implementation(this.params)
+    : super(token: _token);
+
+  static final Object _token = Object();
+
+  /// The parameters used to initialize the [PlatformMappedFilePathHandler].
+  final PlatformMappedFilePathHandlerCreationParams params;
+
+  @override
+  String get type => 'MappedFilePathHandler';
+
+  @override
+  String get path => params.path;
+
+  String get directory => params.directory;
+}
+
 /// Object specifying creation parameters for creating a [PlatformCustomPathHandler].
 ///
 /// Platform specific implementations can add additional fields by extending
@@ -48,6 +48,19 @@ abstract class $WebResourceResponse {
   ///
   ///**NOTE**: available on Android 21+. For Android < 21 it won't be used.
   String? get reasonPhrase;
+
+  ///Identifier of the `ResponseBodyStream` that writes the body of the response, instead of [data].
+  ///The WebView starts reading the response while its body is being written.
+  ///
+  ///**Officially Supported Platforms/Implementations**:
+  ///- Android native WebView
+  String? get bodyStreamId;
+
+  ///Maximum number of bytes of the body stream buffered ahead of the WebView, `1048576` if not set.
+  ///
+  ///**Officially Supported Platforms/Implementations**:
+  ///- Android native WebView
+  int? get bodyStreamBufferSize;
 }
 
 Uint8List? _dataFromJson(Object? value) {
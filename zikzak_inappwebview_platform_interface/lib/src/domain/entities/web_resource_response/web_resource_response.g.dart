@@ -18,6 +18,11 @@ WebResourceResponse _$WebResourceResponseFromJson(Map<String, dynamic> json) =>
         headers: $checkedConvert('headers', (v) => _headersFromJson(v)),
         statusCode: $checkedConvert('statusCode', (v) => (v as num?)?.toInt()),
         reasonPhrase: $checkedConvert('reasonPhrase', (v) => v as String?),
+        bodyStreamId: $checkedConvert('bodyStreamId', (v) => v as String?),
+        bodyStreamBufferSize: $checkedConvert(
+          'bodyStreamBufferSize',
+          (v) => (v as num?)?.toInt(),
+        ),
       );
       return val;
     });
@@ -31,4 +36,6 @@ Map<String, dynamic> _$WebResourceResponseToJson(
   'headers': _headersToJson(instance.headers),
   'statusCode': instance.statusCode,
   'reasonPhrase': instance.reasonPhrase,
+  'bodyStreamId': instance.bodyStreamId,
+  'bodyStreamBufferSize': instance.bodyStreamBufferSize,
 };
@@ -17,6 +17,8 @@ class WebResourceResponse {
     Map<String, String>? this.headers,
     int? this.statusCode,
     String? this.reasonPhrase,
+    String? this.bodyStreamId,
+    int? this.bodyStreamBufferSize,
   }) : this.contentType = contentType ?? '',
        this.contentEncoding = contentEncoding ?? 'utf-8';
 
@@ -39,6 +41,10 @@ class WebResourceResponse {
 
   final String? reasonPhrase;
 
+  final String? bodyStreamId;
+
+  final int? bodyStreamBufferSize;
+
   WebResourceResponse copyWith({
     String? contentType,
     String? contentEncoding,
@@ -46,6 +52,8 @@ class WebResourceResponse {
     Map<String, String>? headers,
     int? statusCode,
     String? reasonPhrase,
+    String? bodyStreamId,
+    int? bodyStreamBufferSize,
   }) {
     return WebResourceResponse(
       contentType: contentType ?? this.contentType,
@@ -54,6 +62,8 @@ class WebResourceResponse {
       headers: headers ?? this.headers,
       statusCode: statusCode ?? this.statusCode,
       reasonPhrase: reasonPhrase ?? this.reasonPhrase,
+      bodyStreamId: bodyStreamId ?? this.bodyStreamId,
+      bodyStreamBufferSize: bodyStreamBufferSize ?? this.bodyStreamBufferSize,
     );
   }
 
@@ -64,6 +74,8 @@ class WebResourceResponse {
     Map<String, String>? headers,
     int? statusCode,
     String? reasonPhrase,
+    String? bodyStreamId,
+    int? bodyStreamBufferSize,
   }) {
     return copyWith(
       contentType: contentType,
@@ -72,6 +84,8 @@ class WebResourceResponse {
       headers: headers,
       statusCode: statusCode,
       reasonPhrase: reasonPhrase,
+      bodyStreamId: bodyStreamId,
+      bodyStreamBufferSize: bodyStreamBufferSize,
     );
   }
 
@@ -136,6 +150,30 @@ class WebResourceResponse {
                   )
                 : _patchMap[WebResourceResponse$.reasonPhrase]
           : this.reasonPhrase,
+      bodyStreamId: _patchMap.containsKey(WebResourceResponse$.bodyStreamId)
+          ? (_patchMap[WebResourceResponse$.bodyStreamId] is Function)
+                ? _patchMap[WebResourceResponse$.bodyStreamId](
+                    this.bodyStreamId,
+                  )
+                : (_patchMap[WebResourceResponse$.bodyStreamId] is Patch)
+                ? _patchMap[WebResourceResponse$.bodyStreamId].applyTo(
+                    this.bodyStreamId,
+                  )
+                : _patchMap[WebResourceResponse$.bodyStreamId]
+          : this.bodyStreamId,
+      bodyStreamBufferSize:
+          _patchMap.containsKey(WebResourceResponse$.bodyStreamBufferSize)
+          ? (_patchMap[WebResourceResponse$.bodyStreamBufferSize] is Function)
+                ? _patchMap[WebResourceResponse$.bodyStreamBufferSize](
+                    this.bodyStreamBufferSize,
+                  )
+                : (_patchMap[WebResourceResponse$.bodyStreamBufferSize]
+                      is Patch)
+                ? _patchMap[WebResourceResponse$.bodyStreamBufferSize].applyTo(
+                    this.bodyStreamBufferSize,
+                  )
+                : _patchMap[WebResourceResponse$.bodyStreamBufferSize]
+          : this.bodyStreamBufferSize,
     );
   }
 
@@ -148,7 +186,9 @@ class WebResourceResponse {
         data == other.data &&
         headers == other.headers &&
         statusCode == other.statusCode &&
-        reasonPhrase == other.reasonPhrase;
+        reasonPhrase == other.reasonPhrase &&
+        bodyStreamId == other.bodyStreamId &&
+        bodyStreamBufferSize == other.bodyStreamBufferSize;
   }
 
   @override
@@ -160,6 +200,8 @@ class WebResourceResponse {
       this.headers,
       this.statusCode,
       this.reasonPhrase,
+      this.bodyStreamId,
+      this.bodyStreamBufferSize,
     );
   }
 
@@ -176,7 +218,11 @@ class WebResourceResponse {
         ', ' +
         'statusCode: ${statusCode}' +
         ', ' +
-        'reasonPhrase: ${reasonPhrase})';
+        'reasonPhrase: ${reasonPhrase}' +
+        ', ' +
+        'bodyStreamId: ${bodyStreamId}' +
+        ', ' +
+        'bodyStreamBufferSize: ${bodyStreamBufferSize})';
   }
 
   Map<String, dynamic> toJsonLean() {
@@ -274,6 +320,32 @@ extension WebResourceResponsePropertyHelpers on WebResourceResponse {
     return this.reasonPhrase ??
         (throw StateError('reasonPhrase is required but was null'));
   }
+
+  bool get hasBodyStreamId {
+    return this.bodyStreamId?.isNotEmpty == true;
+  }
+
+  bool get noBodyStreamId {
+    return this.bodyStreamId?.isEmpty ?? true;
+  }
+
+  String get bodyStreamIdRequired {
+    return this.bodyStreamId ??
+        (throw StateError('bodyStreamId is required but was null'));
+  }
+
+  bool get hasBodyStreamBufferSize {
+    return this.bodyStreamBufferSize != null;
+  }
+
+  bool get noBodyStreamBufferSize {
+    return this.bodyStreamBufferSize == null;
+  }
+
+  int get bodyStreamBufferSizeRequired {
+    return this.bodyStreamBufferSize ??
+        (throw StateError('bodyStreamBufferSize is required but was null'));
+  }
 }
 
 extension WebResourceResponseSerialization on WebResourceResponse {
@@ -289,6 +361,8 @@ enum WebResourceResponse$ {
   headers,
   statusCode,
   reasonPhrase,
+  bodyStreamId,
+  bodyStreamBufferSize,
 }
 
 class WebResourceResponsePatch
@@ -326,6 +400,16 @@ class WebResourceResponsePatch
     patchMap[WebResourceResponse$.reasonPhrase] = value;
     return this;
   }
+
+  WebResourceResponsePatch withBodyStreamId(String? value) {
+    patchMap[WebResourceResponse$.bodyStreamId] = value;
+    return this;
+  }
+
+  WebResourceResponsePatch withBodyStreamBufferSize(int? value) {
+    patchMap[WebResourceResponse$.bodyStreamBufferSize] = value;
+    return this;
+  }
 }
 
 /// Field descriptors for [WebResourceResponse] query construction
@@ -357,6 +441,16 @@ abstract final class WebResourceResponseFields {
     _$reasonPhrase,
   );
 
+  static const bodyStreamId = Field<WebResourceResponse, String?>(
+    'bodyStreamId',
+    _$bodyStreamId,
+  );
+
+  static const bodyStreamBufferSize = Field<WebResourceResponse, int?>(
+    'bodyStreamBufferSize',
+    _$bodyStreamBufferSize,
+  );
+
   static String? _$contentType(WebResourceResponse e) {
     return e.contentType;
   }
@@ -380,6 +474,14 @@ abstract final class WebResourceResponseFields {
   static String? _$reasonPhrase(WebResourceResponse e) {
     return e.reasonPhrase;
   }
+
+  static String? _$bodyStreamId(WebResourceResponse e) {
+    return e.bodyStreamId;
+  }
+
+  static int? _$bodyStreamBufferSize(WebResourceResponse e) {
+    return e.bodyStreamBufferSize;
+  }
 }
 
 extension WebResourceResponseCompareE on WebResourceResponse {
@@ -409,6 +511,14 @@ extension WebResourceResponseCompareE on WebResourceResponse {
     if (reasonPhrase != other.reasonPhrase) {
       diff['reasonPhrase'] = () => other.reasonPhrase;
     }
+
+    if (bodyStreamId != other.bodyStreamId) {
+      diff['bodyStreamId'] = () => other.bodyStreamId;
+    }
+
+    if (bodyStreamBufferSize != other.bodyStreamBufferSize) {
+      diff['bodyStreamBufferSize'] = () => other.bodyStreamBufferSize;
+    }
     return diff;
   }
 }
@@ -691,6 +691,10 @@ abstract class PlatformInAppWebViewController extends PlatformInterface
   ///The JavaScript function that can be used to call the handler is `window.zikzak_inappwebview.callHandler(handlerName <String>, ...args)`, where `args` are [rest parameters](https://developer.mozilla.org/en-US/docs/Web/JavaScript/Reference/Functions/rest_parameters).
   ///The `args` will be stringified automatically using `JSON.stringify(args)` method and then they will be decoded on the Dart side.
   ///
+  ///On Android, `window.zikzak_inappwebview.callHandlerBinary(handlerName <String>, ...args)` passes the `ArrayBuffer`s and typed arrays
+  ///of `args` as [Uint8List]s, sent as raw bytes when the WebView supports it, and a [Uint8List] returned by the handler as an `ArrayBuffer`.
+  ///The calls sent as raw bytes are not batched with the other handler calls, so they can reach the handler before the calls made earlier.
+  ///
   ///In order to call `window.zikzak_inappwebview.callHandler(handlerName <String>, ...args)` properly, you need to wait and listen the JavaScript event `flutterInAppWebViewPlatformReady`.
   ///This event will be dispatched as soon as the platform (Android or iOS) is ready to handle the `callHandler` method.
   ///```javascript
@@ -2045,6 +2049,25 @@ abstract class PlatformInAppWebViewController extends PlatformInterface
     );
   }
 
+  ///{@template zikzak_inappwebview_platform_interface.PlatformInAppWebViewController.getContentBlockerStatistics}
+  ///Gets the statistics of the content blockers of the `WebView`: the number of requests checked and allowed,
+  ///the number of times each action type and each rule was applied, and the latency of the checks.
+  ///
+  ///[reset] if `true`, the statistics are reset after being read. The default value is `false`.
+  ///
+  ///Returns `null` if the `WebView` has been disposed.
+  ///
+  ///**Officially Supported Platforms/Implementations**:
+  ///- Android native WebView
+  ///{@endtemplate}
+  Future<Map<String, dynamic>?> getContentBlockerStatistics({
+    bool reset = false,
+  }) {
+    throw UnimplementedError(
+      'getContentBlockerStatistics is not implemented on the current platform',
+    );
+  }
+
   ///{@template zikzak_inappwebview_platform_interface.PlatformInAppWebViewController.getCameraCaptureState}
   ///Returns a [MediaCaptureState] that indicates whether the webpage is using the camera to capture images or video.
   ///
@@ -2460,6 +2483,59 @@ abstract class PlatformInAppWebViewController extends PlatformInterface
     );
   }
 
+  ///{@template zikzak_inappwebview_platform_interface.PlatformInAppWebViewController.setSyncCallDeadline}
+  ///Sets how long the native [callSite] waits for Dart before giving up, for all the `WebView`s.
+  ///When Dart doesn't answer within [deadline], the request is handled according to [fallbackPolicy].
+  ///
+  ///A [deadline] of [Duration.zero] waits for Dart without a limit, which is the default behavior.
+  ///
+  ///Returns `true` if the deadline has been set.
+  ///
+  ///**Officially Supported Platforms/Implementations**:
+  ///- Android native WebView
+  ///{@endtemplate}
+  Future<bool> setSyncCallDeadline({
+    required SyncCallSite callSite,
+    required Duration deadline,
+    SyncCallFallbackPolicy fallbackPolicy = SyncCallFallbackPolicy.PASS_THROUGH,
+  }) {
+    throw UnimplementedError(
+      'setSyncCallDeadline is not implemented on the current platform',
+    );
+  }
+
+  ///{@template zikzak_inappwebview_platform_interface.PlatformInAppWebViewController.getSyncCallDeadlineStatistics}
+  ///Gets, for each [SyncCallSite], its deadline and fallback policy, the number of calls
+  ///and the number of calls that exceeded the deadline or were answered from the cached results.
+  ///
+  ///[reset] if `true`, the counters are reset after being read. The default value is `false`.
+  ///
+  ///**Officially Supported Platforms/Implementations**:
+  ///- Android native WebView
+  ///{@endtemplate}
+  Future<Map<String, dynamic>> getSyncCallDeadlineStatistics({
+    bool reset = false,
+  }) {
+    throw UnimplementedError(
+      'getSyncCallDeadlineStatistics is not implemented on the current platform',
+    );
+  }
+
+  ///{@template zikzak_inappwebview_platform_interface.PlatformInAppWebViewController.clearInterceptedResponseCache}
+  ///Clears the memory and disk cache of the intercepted responses, see [InAppWebViewSettings.useInterceptedResponseCache].
+  ///Note that the cache is per-application, so this will clear the cache for all WebViews used.
+  ///
+  ///Returns `true` if the cache has been cleared.
+  ///
+  ///**Officially Supported Platforms/Implementations**:
+  ///- Android native WebView
+  ///{@endtemplate}
+  Future<bool> clearInterceptedResponseCache() {
+    throw UnimplementedError(
+      'clearInterceptedResponseCache is not implemented on the current platform',
+    );
+  }
+
   ///{@template zikzak_inappwebview_platform_interface.PlatformInAppWebViewController.tRexRunnerHtml}
   ///Gets the html (with javascript) of the Chromium's t-rex runner game. Used in combination with [tRexRunnerCss].
   ///
@@ -21,6 +21,8 @@ import 'domain/entities/platform_process_global_config/platform_process_global_c
 import 'domain/entities/platform_proxy_controller/platform_proxy_controller.dart';
 import 'platform_service_worker_controller.dart';
 import 'platform_tracing_controller.dart';
+import 'platform_response_body_stream.dart';
+import 'platform_content_blocker_rule_set_manager.dart';
 import 'domain/entities/platform_webview_asset_loader/platform_webview_asset_loader.dart';
 import 'domain/entities/platform_webview_feature/platform_webview_feature.dart';
 import 'in_app_localhost_server.dart';
@@ -367,6 +369,31 @@ abstract class InAppWebViewPlatform extends PlatformInterface {
     );
   }
 
+  /// Creates a new [PlatformResponseBodyStream].
+  ///
+  /// This function should only be called by the app-facing package.
+  /// Look at using [ResponseBodyStream] in `zikzak_inappwebview` instead.
+  PlatformResponseBodyStream createPlatformResponseBodyStream(
+    PlatformResponseBodyStreamCreationParams params,
+  ) {
+    throw UnimplementedError(
+      'createPlatformResponseBodyStream is not implemented on the current platform.',
+    );
+  }
+
+  /// Creates a new [PlatformContentBlockerRuleSetManager].
+  ///
+  /// This function should only be called by the app-facing package.
+  /// Look at using [ContentBlockerRuleSetManager] in `zikzak_inappwebview` instead.
+  PlatformContentBlockerRuleSetManager
+  createPlatformContentBlockerRuleSetManager(
+    PlatformContentBlockerRuleSetManagerCreationParams params,
+  ) {
+    throw UnimplementedError(
+      'createPlatformContentBlockerRuleSetManager is not implemented on the current platform.',
+    );
+  }
+
   /// Creates a new [PlatformAssetsPathHandler].
   ///
   /// This function should only be called by the app-facing package.
@@ -403,6 +430,18 @@ abstract class InAppWebViewPlatform extends PlatformInterface {
     );
   }
 
+  /// Creates a new [PlatformMappedFilePathHandler].
+  ///
+  /// This function should only be called by the app-facing package.
+  /// Look at using [MappedFilePathHandler] in `zikzak_inappwebview` instead.
+  PlatformMappedFilePathHandler createPlatformMappedFilePathHandler(
+    PlatformMappedFilePathHandlerCreationParams params,
+  ) {
+    throw UnimplementedError(
+      'createPlatformMappedFilePathHandler is not implemented on the current platform.',
+    );
+  }
+
   /// Creates a new [PlatformCustomPathHandler].
   ///
   /// This function should only be called by the app-facing package.
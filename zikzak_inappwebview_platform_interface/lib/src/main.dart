@@ -25,6 +25,8 @@ export 'domain/entities/platform_proxy_controller/platform_proxy_controller.dart
     hide IOSProxySettings_, AndroidProxySettings_;
 export 'domain/entities/platform_webview_asset_loader/platform_webview_asset_loader.dart';
 export 'platform_tracing_controller.dart';
+export 'platform_response_body_stream.dart';
+export 'platform_content_blocker_rule_set_manager.dart';
 export 'domain/entities/tracing_settings/tracing_settings.dart'
     show TracingSettings, TracingSettingsSerialization;
 export 'domain/entities/platform_process_global_config/platform_process_global_config.dart'
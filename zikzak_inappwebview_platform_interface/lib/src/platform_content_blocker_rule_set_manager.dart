@@ -0,0 +1,143 @@
+import 'dart:async';
+import 'package:flutter/foundation.dart';
+import 'package:plugin_platform_interface/plugin_platform_interface.dart';
+import 'inappwebview_platform.dart';
+import 'content_blocker.dart';
+import 'domain/entities/in_app_webview_settings/in_app_webview_settings.dart';
+
+/// Object specifying creation parameters for creating a [PlatformContentBlockerRuleSetManager].
+///
+/// Platform specific implementations can add additional fields by extending
+/// this class.
+@immutable
+class PlatformContentBlockerRuleSetManagerCreationParams {
+  /// Used by the platform implementation to create a new [PlatformContentBlockerRuleSetManager].
+  const PlatformContentBlockerRuleSetManagerCreationParams();
+}
+
+///{@template zikzak_inappwebview_platform_interface.PlatformContentBlockerRuleSetManager}
+///Compiles lists of [ContentBlocker] into named rule sets, shared by all the `WebView`s that use them
+///through [InAppWebViewSettings.contentBlockerRuleSetId].
+///
+///A rule set is compiled once in the background instead of once per `WebView` on the UI thread,
+///and can be persisted to disk to be loaded again on the next app launches without compiling it.
+///
+///**Officially Supported Platforms/Implementations**:
+///- Android native WebView
+///{@endtemplate}
+abstract class PlatformContentBlockerRuleSetManager extends PlatformInterface {
+  /// Creates a new [PlatformContentBlockerRuleSetManager]
+  factory PlatformContentBlockerRuleSetManager(
+    PlatformContentBlockerRuleSetManagerCreationParams params,
+  ) {
+    assert(
+      InAppWebViewPlatform.instance != null,
+      'A platform implementation for `zikzak_inappwebview` has not been set. Please '
+      'ensure that an implementation of `InAppWebViewPlatform` has been set to '
+      '`WebViewPlatform.instance` before use. For unit testing, '
+      '`WebViewPlatform.instance` can be set with your own test implementation.',
+    );
+    final PlatformContentBlockerRuleSetManager contentBlockerRuleSetManager =
+        InAppWebViewPlatform.instance!
+            .createPlatformContentBlockerRuleSetManager(params);
+    PlatformInterface.verify(contentBlockerRuleSetManager, _token);
+    return contentBlockerRuleSetManager;
+  }
+
+  /// Used by the platform implementation to create a new
+  /// [PlatformContentBlockerRuleSetManager].
+  ///
+  /// Should only be used by platform implementations because they can't extend
+  /// a class that only contains a factory constructor.
+  @protected
+  PlatformContentBlockerRuleSetManager.implementation(this.params)
+    : super(token: _token);
+
+  static final Object _token = Object();
+
+  /// The parameters used to initialize the [PlatformContentBlockerRuleSetManager].
+  final PlatformContentBlockerRuleSetManagerCreationParams params;
+
+  ///{@template zikzak_inappwebview_platform_interface.PlatformContentBlockerRuleSetManager.compileRuleSet}
+  ///Compiles [contentBlockers] into the rule set [identifier], replacing its rules if it already exists.
+  ///The `WebView`s using the rule set get the new rules.
+  ///
+  ///[persist] if `true`, the compiled rule set is also written to disk, so that [loadRuleSet]
+  ///can load it on the next app launches. The default value is `false`.
+  ///
+  ///Throws a [PlatformException] if a rule is invalid.
+  ///
+  ///**Officially Supported Platforms/Implementations**:
+  ///- Android native WebView
+  ///{@endtemplate}
+  Future<void> compileRuleSet({
+    required String identifier,
+    required List<ContentBlocker> contentBlockers,
+    bool persist = false,
+  }) {
+    throw UnimplementedError(
+      'compileRuleSet is not implemented on the current platform',
+    );
+  }
+
+  ///{@template zikzak_inappwebview_platform_interface.PlatformContentBlockerRuleSetManager.loadRuleSet}
+  ///Loads the rule set [identifier] in memory, from disk if it was persisted by [compileRuleSet].
+  ///
+  ///Returns `false` if there is no such rule set.
+  ///
+  ///**Officially Supported Platforms/Implementations**:
+  ///- Android native WebView
+  ///{@endtemplate}
+  Future<bool> loadRuleSet({required String identifier}) {
+    throw UnimplementedError(
+      'loadRuleSet is not implemented on the current platform',
+    );
+  }
+
+  ///{@template zikzak_inappwebview_platform_interface.PlatformContentBlockerRuleSetManager.updateRuleSet}
+  ///Updates the rule set [identifier] without compiling it again: the rules of [addedContentBlockers]
+  ///replace the rules with the same [ContentBlocker.id], or are added, and the rules whose id is in
+  ///[removedIds] are removed. Every rule of [addedContentBlockers] must have an id.
+  ///
+  ///Returns the number of rules added, replaced or removed, or `null` if there is no such rule set.
+  ///
+  ///**Officially Supported Platforms/Implementations**:
+  ///- Android native WebView
+  ///{@endtemplate}
+  Future<int?> updateRuleSet({
+    required String identifier,
+    List<ContentBlocker> addedContentBlockers = const [],
+    List<String> removedIds = const [],
+  }) {
+    throw UnimplementedError(
+      'updateRuleSet is not implemented on the current platform',
+    );
+  }
+
+  ///{@template zikzak_inappwebview_platform_interface.PlatformContentBlockerRuleSetManager.removeRuleSet}
+  ///Removes the rule set [identifier] from memory and from disk.
+  ///The `WebView`s still using it stop blocking, as if their rule list was emptied.
+  ///
+  ///Returns `false` if there is no such rule set.
+  ///
+  ///**Officially Supported Platforms/Implementations**:
+  ///- Android native WebView
+  ///{@endtemplate}
+  Future<bool> removeRuleSet({required String identifier}) {
+    throw UnimplementedError(
+      'removeRuleSet is not implemented on the current platform',
+    );
+  }
+
+  ///{@template zikzak_inappwebview_platform_interface.PlatformContentBlockerRuleSetManager.getRuleSetIdentifiers}
+  ///Gets the identifiers of the rule sets loaded in memory.
+  ///
+  ///**Officially Supported Platforms/Implementations**:
+  ///- Android native WebView
+  ///{@endtemplate}
+  Future<List<String>> getRuleSetIdentifiers() {
+    throw UnimplementedError(
+      'getRuleSetIdentifiers is not implemented on the current platform',
+    );
+  }
+}
@@ -0,0 +1,138 @@
+import 'dart:async';
+import 'dart:typed_data';
+import 'package:flutter/foundation.dart';
+import 'package:plugin_platform_interface/plugin_platform_interface.dart';
+import 'inappwebview_platform.dart';
+import 'domain/entities/web_resource_response/web_resource_response.dart';
+
+/// Object specifying creation parameters for creating a [PlatformResponseBodyStream].
+///
+/// Platform specific implementations can add additional fields by extending
+/// this class.
+@immutable
+class PlatformResponseBodyStreamCreationParams {
+  /// Used by the platform implementation to create a new [PlatformResponseBodyStream].
+  const PlatformResponseBodyStreamCreationParams();
+}
+
+///{@template zikzak_inappwebview_platform_interface.PlatformResponseBodyStream}
+///Body of a [WebResourceResponse] written while the `WebView` reads it, e.g. a large file or a
+///response produced chunk by chunk, without holding the whole body in memory.
+///
+///Return a [WebResourceResponse] with [WebResourceResponse.bodyStreamId] set to [id] from
+///`shouldInterceptRequest` (or a custom path handler), then write the body and [finish] it:
+///```dart
+///final stream = ResponseBodyStream();
+///stream.pipe(File(path).openRead());
+///return WebResourceResponse(contentType: 'video/mp4', bodyStreamId: stream.id);
+///```
+///The stream is opened when the response is returned: the chunks written before are dropped,
+///which is why [pipe] starts writing on the next event loop turn.
+///
+///**Officially Supported Platforms/Implementations**:
+///- Android native WebView
+///{@endtemplate}
+abstract class PlatformResponseBodyStream extends PlatformInterface {
+  /// Creates a new [PlatformResponseBodyStream]
+  factory PlatformResponseBodyStream(
+    PlatformResponseBodyStreamCreationParams params,
+  ) {
+    assert(
+      InAppWebViewPlatform.instance != null,
+      'A platform implementation for `zikzak_inappwebview` has not been set. Please '
+      'ensure that an implementation of `InAppWebViewPlatform` has been set to '
+      '`WebViewPlatform.instance` before use. For unit testing, '
+      '`WebViewPlatform.instance` can be set with your own test implementation.',
+    );
+    final PlatformResponseBodyStream responseBodyStream = InAppWebViewPlatform
+        .instance!
+        .createPlatformResponseBodyStream(params);
+    PlatformInterface.verify(responseBodyStream, _token);
+    return responseBodyStream;
+  }
+
+  /// Used by the platform implementation to create a new
+  /// [PlatformResponseBodyStream].
+  ///
+  /// Should only be used by platform implementations because they can't extend
+  /// a class that only contains a factory constructor.
+  @protected
+  PlatformResponseBodyStream.implementation(this.params)
+    : super(token: _token);
+
+  static final Object _token = Object();
+
+  /// The parameters used to initialize the [PlatformResponseBodyStream].
+  final PlatformResponseBodyStreamCreationParams params;
+
+  ///{@template zikzak_inappwebview_platform_interface.PlatformResponseBodyStream.id}
+  ///Identifier to set as the [WebResourceResponse.bodyStreamId] of the response.
+  ///{@endtemplate}
+  String get id {
+    throw UnimplementedError('id is not implemented on the current platform');
+  }
+
+  ///{@template zikzak_inappwebview_platform_interface.PlatformResponseBodyStream.write}
+  ///Writes a chunk of the body. The returned future completes once the chunk fits in the buffer
+  ///of the stream (see [WebResourceResponse.bodyStreamBufferSize]), with `false` if the `WebView`
+  ///stopped reading the response: the remaining chunks can be dropped.
+  ///
+  ///**Officially Supported Platforms/Implementations**:
+  ///- Android native WebView
+  ///{@endtemplate}
+  Future<bool> write(Uint8List data) {
+    throw UnimplementedError(
+      'write is not implemented on the current platform',
+    );
+  }
+
+  ///{@template zikzak_inappwebview_platform_interface.PlatformResponseBodyStream.finish}
+  ///Ends the body: the `WebView` reads the buffered chunks, then the end of the response.
+  ///
+  ///**Officially Supported Platforms/Implementations**:
+  ///- Android native WebView
+  ///{@endtemplate}
+  Future<void> finish() {
+    throw UnimplementedError(
+      'finish is not implemented on the current platform',
+    );
+  }
+
+  ///{@template zikzak_inappwebview_platform_interface.PlatformResponseBodyStream.error}
+  ///Fails the response with [message]: the `WebView` gets a read error instead of the rest of the body.
+  ///
+  ///**Officially Supported Platforms/Implementations**:
+  ///- Android native WebView
+  ///{@endtemplate}
+  Future<void> error(String message) {
+    throw UnimplementedError(
+      'error is not implemented on the current platform',
+    );
+  }
+
+  ///{@template zikzak_inappwebview_platform_interface.PlatformResponseBodyStream.pipe}
+  ///Writes the chunks of [stream], starting on the next event loop turn, then [finish]es the body,
+  ///or fails it with [error] if [stream] emits an error. Stops reading [stream] when the `WebView`
+  ///stops reading the response.
+  ///
+  ///**Officially Supported Platforms/Implementations**:
+  ///- Android native WebView
+  ///{@endtemplate}
+  Future<void> pipe(Stream<List<int>> stream) async {
+    // the response carrying the id must reach the WebView before the first chunk
+    await Future<void>.delayed(Duration.zero);
+    try {
+      await for (var chunk in stream) {
+        if (!await write(
+          chunk is Uint8List ? chunk : Uint8List.fromList(chunk),
+        )) {
+          return;
+        }
+      }
+    } catch (e) {
+      await error(e.toString());
+      return;
+    }
+    await finish();
+  }
+}
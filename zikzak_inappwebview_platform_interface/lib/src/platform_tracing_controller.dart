@@ -103,4 +103,62 @@ abstract class PlatformTracingController extends PlatformInterface
       'isTracing is not implemented on the current platform',
     );
   }
+
+  ///{@template zikzak_inappwebview_platform_interface.PlatformTracingController.setInterceptRequestTracingEnabled}
+  ///Enables or disables the tracing of the intercepted requests of all `WebView`s: the time spent in each
+  ///stage of `shouldInterceptRequest`, the content blockers and the custom path handlers, by resource type.
+  ///Unlike [start], it doesn't trace the `WebView` framework itself.
+  ///
+  ///**Officially Supported Platforms/Implementations**:
+  ///- Android native WebView
+  ///{@endtemplate}
+  Future<void> setInterceptRequestTracingEnabled(bool enabled) {
+    throw UnimplementedError(
+      'setInterceptRequestTracingEnabled is not implemented on the current platform',
+    );
+  }
+
+  ///{@template zikzak_inappwebview_platform_interface.PlatformTracingController.getInterceptRequestTraceStatistics}
+  ///Gets the number of traced requests and, for each stage and resource type, the count and the
+  ///total, max and percentile durations in microseconds.
+  ///
+  ///[reset] if `true`, the traced data is reset after being read. The default value is `false`.
+  ///
+  ///**Officially Supported Platforms/Implementations**:
+  ///- Android native WebView
+  ///{@endtemplate}
+  Future<Map<String, dynamic>> getInterceptRequestTraceStatistics({
+    bool reset = false,
+  }) {
+    throw UnimplementedError(
+      'getInterceptRequestTraceStatistics is not implemented on the current platform',
+    );
+  }
+
+  ///{@template zikzak_inappwebview_platform_interface.PlatformTracingController.exportInterceptRequestTrace}
+  ///Returns the traced requests in json format, which can be loaded in "chrome://tracing"
+  ///next to the data written by [stop].
+  ///
+  ///**Officially Supported Platforms/Implementations**:
+  ///- Android native WebView
+  ///{@endtemplate}
+  Future<String> exportInterceptRequestTrace() {
+    throw UnimplementedError(
+      'exportInterceptRequestTrace is not implemented on the current platform',
+    );
+  }
+
+  ///{@template zikzak_inappwebview_platform_interface.PlatformTracingController.exportInterceptRequestTraceToFile}
+  ///Writes the traced requests in json format to [filePath], like [exportInterceptRequestTrace].
+  ///
+  ///Returns `true` if the file has been written.
+  ///
+  ///**Officially Supported Platforms/Implementations**:
+  ///- Android native WebView
+  ///{@endtemplate}
+  Future<bool> exportInterceptRequestTraceToFile({required String filePath}) {
+    throw UnimplementedError(
+      'exportInterceptRequestTraceToFile is not implemented on the current platform',
+    );
+  }
 }
@@ -0,0 +1,65 @@
+import '../domain/entities/enums/content_blocker_trigger_resource_type.dart';
+
+///Filter deciding which requests are sent to the `shouldInterceptRequest` event,
+///used by [InAppWebViewSettings.shouldInterceptRequestFilters].
+///
+///A request matches the filter if it matches all of its non-empty criteria. The requests that
+///don't match any filter are loaded by the `WebView` without crossing over to Dart.
+///
+///**Officially Supported Platforms/Implementations**:
+///- Android native WebView
+class InterceptRequestFilter {
+  ///Regular expression the URL of the request must match.
+  String? urlPattern;
+
+  ///Hosts the request must be sent to. A host starting with `*.` matches its subdomains too.
+  List<String> hosts;
+
+  ///HTTP methods of the request, e.g. `GET`.
+  List<String> methods;
+
+  ///Resource types of the request. The requests whose resource type can't be inferred
+  ///match any resource type.
+  List<ContentBlockerTriggerResourceType> resourceTypes;
+
+  InterceptRequestFilter({
+    this.urlPattern,
+    this.hosts = const <String>[],
+    this.methods = const <String>[],
+    this.resourceTypes = const <ContentBlockerTriggerResourceType>[],
+  });
+
+  Map<String, dynamic> toMap() {
+    return {
+      if (urlPattern != null) "urlPattern": urlPattern,
+      if (hosts.isNotEmpty) "hosts": hosts,
+      if (methods.isNotEmpty) "methods": methods,
+      if (resourceTypes.isNotEmpty)
+        "resourceTypes": resourceTypes
+            .map((type) => contentBlockerTriggerResourceTypeToWire(type)!)
+            .toList(),
+    };
+  }
+
+  static InterceptRequestFilter fromMap(Map<dynamic, dynamic> map) {
+    List<ContentBlockerTriggerResourceType> resourceTypes = [];
+    List<String>.from(map["resourceTypes"] ?? []).forEach((typeValue) {
+      var type = contentBlockerTriggerResourceTypeFromWire(typeValue);
+      if (type != null) {
+        resourceTypes.add(type);
+      }
+    });
+
+    return InterceptRequestFilter(
+      urlPattern: map["urlPattern"],
+      hosts: List<String>.from(map["hosts"] ?? []),
+      methods: List<String>.from(map["methods"] ?? []),
+      resourceTypes: resourceTypes,
+    );
+  }
+
+  @override
+  String toString() {
+    return 'InterceptRequestFilter{urlPattern: $urlPattern, hosts: $hosts, methods: $methods, resourceTypes: $resourceTypes}';
+  }
+}
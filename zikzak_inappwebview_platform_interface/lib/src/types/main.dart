@@ -121,6 +121,7 @@ export '../domain/entities/in_app_webview_initial_data/in_app_webview_initial_da
     show InAppWebViewInitialData, InAppWebViewInitialDataSerialization;
 export '../domain/entities/in_app_webview_rect/in_app_webview_rect.dart'
     show InAppWebViewRect, InAppWebViewRectSerialization;
+export 'intercept_request_filter.dart' show InterceptRequestFilter;
 export 'javascript_handler_callback.dart' show JavaScriptHandlerCallback;
 // Zorphy entities (migrated from @ExchangeableObject codegen, see PROGRESS.md).
 export '../domain/entities/js_alert_request/js_alert_request.dart'
@@ -268,6 +269,13 @@ export '../domain/entities/ssl_certificate_dname/ssl_certificate_dname.dart'
 export '../domain/entities/ssl_error/ssl_error.dart'
     show SslError, SslErrorSerialization;
 export '../domain/entities/enums/ssl_error_type.dart' show SslErrorType;
+export '../domain/entities/enums/sync_call_fallback_policy.dart'
+    show
+        SyncCallFallbackPolicy,
+        syncCallFallbackPolicyFromWire,
+        syncCallFallbackPolicyToWire;
+export '../domain/entities/enums/sync_call_site.dart'
+    show SyncCallSite, syncCallSiteFromWire, syncCallSiteToWire;
 export 'trusted_web_activity_default_display_mode.dart'
     show TrustedWebActivityDefaultDisplayMode;
 export '../domain/entities/trusted_web_activity_display_mode/trusted_web_activity_display_mode.dart'